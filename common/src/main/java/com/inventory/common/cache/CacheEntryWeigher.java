@@ -0,0 +1,41 @@
+package com.inventory.common.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Approximates the heap cost of a cache entry in bytes: a fixed per-entry overhead for the Caffeine node,
+ * the key, and the value's own estimate if it is {@link Weighted}. Values that cannot estimate themselves
+ * are charged {@link #DEFAULT_VALUE_BYTES}.
+ */
+public final class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    public static final CacheEntryWeigher INSTANCE = new CacheEntryWeigher();
+
+    static final int ENTRY_OVERHEAD_BYTES = 96;
+    static final int DEFAULT_VALUE_BYTES = 512;
+
+    private CacheEntryWeigher() {
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return ENTRY_OVERHEAD_BYTES + keyBytes(key) + valueBytes(value);
+    }
+
+    private static int keyBytes(Object key) {
+        if (key instanceof String sku) {
+            return 40 + sku.length();
+        }
+        return 16;
+    }
+
+    private static int valueBytes(Object value) {
+        if (value instanceof Weighted weighted) {
+            return weighted.estimatedBytes();
+        }
+        if (value == NegativeCacheEntry.INSTANCE) {
+            return 0;
+        }
+        return DEFAULT_VALUE_BYTES;
+    }
+}
@@ -0,0 +1,53 @@
+package com.inventory.common.cache;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.CommonLoggingErrorHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Listener container factory for cross-replica cache invalidation.
+ * <p>
+ * Each JVM joins its own consumer group, so every replica receives every domain event rather than sharing
+ * partitions with its peers. Consumption starts at the latest offset: a replica that just started has an
+ * empty cache and nothing to invalidate. Failures are only logged — a missed invalidation is bounded by
+ * the cache TTL and must never be retried into a dead letter topic.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationKafkaConfig {
+
+    public static final String CACHE_INVALIDATION_CONTAINER_FACTORY = "cacheInvalidationContainerFactory";
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Bean(name = CACHE_INVALIDATION_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> cacheInvalidationContainerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-cache-" + UUID.randomUUID());
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
+        factory.setConcurrency(1);
+        factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
+        return factory;
+    }
+}
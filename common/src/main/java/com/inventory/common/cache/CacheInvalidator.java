@@ -0,0 +1,45 @@
+package com.inventory.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies invalidations received from other replicas to the local caches.
+ * Falls back to a plain evict when the cache is not versioned or the event carries no version.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public void evictIfOlder(String cacheName, Object key, Long version) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (cache instanceof VersionedCaffeineCache versioned && version != null) {
+            versioned.evictIfOlder(key, version);
+        } else {
+            cache.evict(key);
+        }
+        log.debug("Cache invalidation applied: cache={}, key={}, version={}", cacheName, key, version);
+    }
+
+    public void evictDeleted(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (cache instanceof VersionedCaffeineCache versioned) {
+            versioned.evictDeleted(key);
+        } else {
+            cache.evict(key);
+        }
+        log.debug("Cache invalidation applied for deleted key: cache={}, key={}", cacheName, key);
+    }
+}
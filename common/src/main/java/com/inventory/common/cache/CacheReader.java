@@ -0,0 +1,82 @@
+package com.inventory.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Reads through caches backed by a {@link CacheValueLoader}. A miss is loaded by the cache itself, so
+ * concurrent callers for the same key wait on one database read; a cached {@link NegativeCacheEntry}
+ * is translated back into the caller's not-found exception.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheReader {
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Returns the cached or freshly loaded value for {@code key}.
+     *
+     * @throws RuntimeException the exception from {@code notFound} if the key has no row
+     */
+    public <T> T getOrThrow(String cacheName, Object key, Class<T> type, Supplier<? extends RuntimeException> notFound) {
+        Cache cache = requireCache(cacheName);
+        Cache.ValueWrapper wrapper = cache.get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (value == NegativeCacheEntry.INSTANCE) {
+            meterRegistry.counter("cache.negative.results", "cache", cacheName).increment();
+        }
+        throw notFound.get();
+    }
+
+    /**
+     * Returns the values for every key that exists, in {@code keys} order. Cached keys are served from one
+     * bulk lookup; all remaining keys are loaded together through {@link CacheValueLoader#loadAll} and cached,
+     * not-found keys included. Keys with no value are simply absent from the result.
+     */
+    @SuppressWarnings("unchecked")
+    public <K, T> Map<K, T> getAll(String cacheName, Collection<K> keys, Class<T> type) {
+        Cache cache = requireCache(cacheName);
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+        Map<Object, Object> values = nativeCache instanceof LoadingCache<Object, Object> loadingCache
+                ? loadingCache.getAll(keys)
+                : nativeCache.getAllPresent(keys);
+
+        Map<K, T> found = new LinkedHashMap<>();
+        long negative = 0;
+        for (K key : keys) {
+            Object value = values.get(key);
+            if (type.isInstance(value)) {
+                found.put(key, type.cast(value));
+            } else if (value == NegativeCacheEntry.INSTANCE) {
+                negative++;
+            }
+        }
+        if (negative > 0) {
+            meterRegistry.counter("cache.negative.results", "cache", cacheName).increment(negative);
+        }
+        return found;
+    }
+
+    private Cache requireCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + cacheName);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,37 @@
+package com.inventory.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads values for one named cache. Registering a loader turns that cache into a Caffeine
+ * {@code LoadingCache}: concurrent misses for the same key share a single load, and hot keys are
+ * refreshed in the background before they expire.
+ */
+public interface CacheValueLoader {
+
+    /** Name of the cache this loader populates. */
+    String getCacheName();
+
+    /**
+     * Loads the value for {@code key}.
+     *
+     * @return the value, or {@link NegativeCacheEntry#INSTANCE} if no row exists for the key
+     */
+    Object load(Object key);
+
+    /**
+     * Loads values for several missing keys at once. {@link CacheReader#getAll} calls this once per bulk
+     * read with only the keys that were not cached; override it to fetch them in a single query.
+     *
+     * @return a value for every key, using {@link NegativeCacheEntry#INSTANCE} for keys with no row
+     */
+    default Map<Object, Object> loadAll(Set<?> keys) {
+        Map<Object, Object> values = new LinkedHashMap<>();
+        for (Object key : keys) {
+            values.put(key, load(key));
+        }
+        return values;
+    }
+}
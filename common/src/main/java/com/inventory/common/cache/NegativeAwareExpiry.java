@@ -0,0 +1,35 @@
+package com.inventory.common.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * Expires regular entries after {@code ttl} and {@link NegativeCacheEntry negative entries} after the
+ * shorter {@code negativeTtl}, both measured from the last write.
+ */
+public class NegativeAwareExpiry implements Expiry<Object, Object> {
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    public NegativeAwareExpiry(Duration ttl, Duration negativeTtl) {
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return value == NegativeCacheEntry.INSTANCE ? negativeTtlNanos : ttlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
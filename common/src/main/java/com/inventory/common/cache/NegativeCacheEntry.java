@@ -0,0 +1,9 @@
+package com.inventory.common.cache;
+
+/**
+ * Sentinel cached in place of a value when the loader found no row for the key, so repeated lookups
+ * of unknown keys are answered from memory for a short TTL instead of hitting the database.
+ */
+public enum NegativeCacheEntry {
+    INSTANCE
+}
@@ -0,0 +1,10 @@
+package com.inventory.common.cache;
+
+/**
+ * A cached value stamped with the optimistic-lock version of the row it was read from.
+ * {@link VersionedCaffeineCache} uses the version to reject stale writes and late invalidations.
+ */
+public interface Versioned {
+
+    Long getVersion();
+}
@@ -0,0 +1,102 @@
+package com.inventory.common.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Caffeine-backed cache that orders writes by the {@link Versioned#getVersion() version} of the cached value.
+ * <p>
+ * Every invalidation raises a per-key version floor that is kept for a short time after the entry itself is
+ * gone. A put whose value is older than the floor or than the value already cached is dropped, so a read that
+ * loaded a row just before a remote update committed cannot re-insert the old row after the invalidation,
+ * and an invalidation that arrives late cannot evict a value that is already newer than it.
+ * <p>
+ * Puts and invalidations for the same key are serialized through the map's {@code compute} operations.
+ * Values that are not {@link Versioned} (e.g. cached nulls) are treated as older than any version.
+ */
+public class VersionedCaffeineCache extends CaffeineCache {
+
+    private static final long UNVERSIONED = Long.MIN_VALUE;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Long> versionFloors;
+
+    public VersionedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                  boolean allowNullValues, Duration versionFloorTtl) {
+        super(name, cache, allowNullValues);
+        this.versionFloors = versionFloors(versionFloorTtl);
+    }
+
+    /** Async-backed variant: loads complete on the cache's executor, outside the map's bin locks. */
+    public VersionedCaffeineCache(String name, AsyncCache<Object, Object> cache,
+                                  boolean allowNullValues, Duration versionFloorTtl) {
+        super(name, cache, allowNullValues);
+        this.versionFloors = versionFloors(versionFloorTtl);
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Long> versionFloors(Duration ttl) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        Object storeValue = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (k, existing) -> supersedes(k, storeValue, existing) ? storeValue : existing);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        Object storeValue = toStoreValue(value);
+        Object[] previous = new Object[1];
+        getNativeCache().asMap().compute(key, (k, existing) -> {
+            if (existing != null) {
+                previous[0] = existing;
+                return existing;
+            }
+            return supersedes(k, storeValue, null) ? storeValue : null;
+        });
+        return toValueWrapper(previous[0]);
+    }
+
+    /**
+     * Evicts the entry for {@code key} unless it already holds a value at or above {@code version},
+     * and rejects any later put of a value older than {@code version} while the floor is retained.
+     */
+    public void evictIfOlder(Object key, long version) {
+        versionFloors.asMap().merge(key, version, Math::max);
+        getNativeCache().asMap().computeIfPresent(key, (k, existing) -> versionOf(existing) < version ? null : existing);
+    }
+
+    /** Evicts {@code key} and rejects every put for it while the floor is retained (row deleted). */
+    public void evictDeleted(Object key) {
+        evictIfOlder(key, Long.MAX_VALUE);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        versionFloors.invalidateAll();
+    }
+
+    private boolean supersedes(Object key, Object candidate, @Nullable Object existing) {
+        long candidateVersion = versionOf(candidate);
+        Long floor = versionFloors.getIfPresent(key);
+        if (floor != null && candidateVersion < floor) {
+            return false;
+        }
+        return existing == null || versionOf(existing) <= candidateVersion;
+    }
+
+    private static long versionOf(Object value) {
+        if (value instanceof Versioned versioned && versioned.getVersion() != null) {
+            return versioned.getVersion();
+        }
+        return UNVERSIONED;
+    }
+}
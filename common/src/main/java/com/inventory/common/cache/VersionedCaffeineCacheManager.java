@@ -0,0 +1,29 @@
+package com.inventory.common.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+
+/**
+ * {@link CaffeineCacheManager} whose caches are {@link VersionedCaffeineCache}s.
+ */
+public class VersionedCaffeineCacheManager extends CaffeineCacheManager {
+
+    private final Duration versionFloorTtl;
+
+    public VersionedCaffeineCacheManager(Duration versionFloorTtl) {
+        this.versionFloorTtl = versionFloorTtl;
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        return new VersionedCaffeineCache(name, cache, isAllowNullValues(), versionFloorTtl);
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, AsyncCache<Object, Object> cache) {
+        return new VersionedCaffeineCache(name, cache, isAllowNullValues(), versionFloorTtl);
+    }
+}
@@ -0,0 +1,11 @@
+package com.inventory.common.cache;
+
+/**
+ * A cached value that can estimate its own retained heap size, used by {@link CacheEntryWeigher}
+ * when a cache is bounded by {@code maximum-weight} rather than entry count.
+ */
+public interface Weighted {
+
+    /** Approximate retained size of this value in bytes. */
+    int estimatedBytes();
+}
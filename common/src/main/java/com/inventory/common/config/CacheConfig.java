@@ -1,29 +1,154 @@
 package com.inventory.common.config;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.common.cache.CacheEntryWeigher;
+import com.inventory.common.cache.CacheValueLoader;
+import com.inventory.common.cache.NegativeAwareExpiry;
+import com.inventory.common.cache.NegativeCacheEntry;
+import com.inventory.common.cache.VersionedCaffeineCacheManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
-import java.util.concurrent.TimeUnit;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Caffeine cache configuration.
- * Defines in-process caches for products and stock with a 5-minute TTL and 1000 entry maximum.
+ * Builds the {@code products} and {@code stock} caches, plus any cache named under {@code cache.specs},
+ * each from its own {@link CacheProperties.Spec}: bounded by entry count or by estimated heap weight,
+ * with its own expiry, refresh and negative TTL, or disabled. Caches are version-aware so invalidations
+ * broadcast from other replicas cannot be undone by stale reads.
+ * <p>
+ * A cache with a registered {@link CacheValueLoader} is built as a loading cache: concurrent misses for one
+ * key are coalesced into a single load, entries read after {@code refresh-after-write} are reloaded in
+ * the background, and not-found keys are cached as {@link NegativeCacheEntry} for {@code negative-ttl}.
+ * Bulk reads load all of their missing keys through one {@link CacheValueLoader#loadAll} call.
+ * Every cache records statistics, which actuator binds to Micrometer as {@code cache.gets}, {@code cache.puts},
+ * {@code cache.evictions} and {@code cache.load.duration}; weight-bounded caches also report
+ * {@code cache.weighted.size}.
+ * <p>
+ * A synchronous Caffeine load runs inside the map's {@code compute}, which holds a {@code synchronized} bin
+ * lock for the whole JDBC round trip and would pin a virtual thread to its carrier. In virtual-thread mode
+ * loading caches are therefore built async: the bin lock only installs a future, the load runs on its own
+ * virtual thread, and callers wait on the future, which unmounts them cleanly.
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
+    private static final Set<String> DEFAULT_CACHE_NAMES = Set.of("products", "stock");
+
+    /** One virtual thread per load; used only when {@code spring.threads.virtual.enabled} is set. */
+    private static final Executor VIRTUAL_LOAD_EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-load-", 0).factory());
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager manager = new CaffeineCacheManager("products", "stock");
-        manager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(5, TimeUnit.MINUTES)
-                .recordStats());
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     ObjectProvider<CacheValueLoader> cacheValueLoaders,
+                                     MeterRegistry meterRegistry,
+                                     Environment environment) {
+        Map<String, CacheValueLoader> loaders = cacheValueLoaders.orderedStream()
+                .collect(Collectors.toMap(CacheValueLoader::getCacheName, Function.identity()));
+        boolean asyncLoads = Threading.VIRTUAL.isActive(environment);
+
+        Set<String> cacheNames = new LinkedHashSet<>(DEFAULT_CACHE_NAMES);
+        cacheNames.addAll(cacheProperties.getSpecs().keySet());
+        cacheNames.addAll(loaders.keySet());
+
+        VersionedCaffeineCacheManager manager =
+                new VersionedCaffeineCacheManager(cacheProperties.getInvalidation().getVersionFloorTtl());
+        manager.setCacheNames(cacheNames);
+        for (String name : cacheNames) {
+            CacheProperties.Spec spec = cacheProperties.spec(name);
+            CacheValueLoader loader = loaders.get(name);
+            Caffeine<Object, Object> builder = builder(spec, loader != null);
+            if (loader != null && asyncLoads) {
+                AsyncLoadingCache<Object, Object> cache = builder.executor(VIRTUAL_LOAD_EXECUTOR)
+                        .buildAsync(countingNegativeLoads(loader, meterRegistry));
+                registerWeightGauge(name, spec, cache.synchronous(), meterRegistry);
+                manager.registerCustomCache(name, cache);
+            } else {
+                Cache<Object, Object> cache = loader != null
+                        ? builder.build(countingNegativeLoads(loader, meterRegistry))
+                        : builder.build();
+                registerWeightGauge(name, spec, cache, meterRegistry);
+                manager.registerCustomCache(name, cache);
+            }
+        }
         return manager;
     }
+
+    static Caffeine<Object, Object> builder(CacheProperties.Spec spec, boolean loading) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (!spec.isEnabled()) {
+            return builder.maximumSize(0);
+        }
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight().toBytes()).weigher(CacheEntryWeigher.INSTANCE);
+        } else {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        builder.expireAfter(new NegativeAwareExpiry(spec.getExpireAfterWrite(), spec.getNegativeTtl()));
+        if (loading && spec.getRefreshAfterWrite() != null) {
+            builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+        }
+        return builder;
+    }
+
+    private static CacheLoader<Object, Object> countingNegativeLoads(CacheValueLoader loader, MeterRegistry meterRegistry) {
+        Counter negativeLoads = meterRegistry.counter("cache.negative.loads", "cache", loader.getCacheName());
+        return new CacheLoader<>() {
+            @Override
+            public Object load(Object key) {
+                Object value = loader.load(key);
+                if (value == NegativeCacheEntry.INSTANCE) {
+                    negativeLoads.increment();
+                }
+                return value;
+            }
+
+            @Override
+            public Map<Object, Object> loadAll(Set<?> keys) {
+                Map<Object, Object> values = loader.loadAll(keys);
+                values.values().stream()
+                        .filter(value -> value == NegativeCacheEntry.INSTANCE)
+                        .forEach(value -> negativeLoads.increment());
+                return values;
+            }
+        };
+    }
+
+    private static void registerWeightGauge(String name, CacheProperties.Spec spec, Cache<Object, Object> cache,
+                                            MeterRegistry meterRegistry) {
+        if (spec.isEnabled() && spec.getMaximumWeight() != null) {
+            Gauge.builder("cache.weighted.size", cache, CacheConfig::weightedSize)
+                    .tag("cache", name)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static double weightedSize(Cache<Object, Object> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
 }
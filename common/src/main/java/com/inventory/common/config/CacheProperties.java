@@ -0,0 +1,57 @@
+package com.inventory.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-cache Caffeine settings bound from {@code cache.*}. Caches without an entry under
+ * {@code cache.specs} use the {@link Spec} defaults (1000 entries, 5-minute TTL).
+ */
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    private Invalidation invalidation = new Invalidation();
+
+    public Spec spec(String cacheName) {
+        return specs.getOrDefault(cacheName, new Spec());
+    }
+
+    @Data
+    public static class Spec {
+
+        /** When false the cache retains nothing, though concurrent loads for one key are still coalesced. */
+        private boolean enabled = true;
+
+        /** Entry-count bound; ignored when {@link #maximumWeight} is set. */
+        private long maximumSize = 1000;
+
+        /** Heap bound in bytes, using {@code CacheEntryWeigher} estimates. Takes precedence over {@link #maximumSize}. */
+        private DataSize maximumWeight;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+        /** Background reload for entries read after this age; only applies to caches with a loader. */
+        private Duration refreshAfterWrite = Duration.ofMinutes(1);
+
+        /** TTL for cached not-found results. */
+        private Duration negativeTtl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Invalidation {
+
+        /** Consume domain events in a per-replica group and evict local entries. */
+        private boolean enabled = true;
+
+        /** How long a per-key version floor rejects stale puts after an invalidation. */
+        private Duration versionFloorTtl = Duration.ofSeconds(30);
+    }
+}
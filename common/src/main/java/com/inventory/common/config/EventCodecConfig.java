@@ -0,0 +1,37 @@
+package com.inventory.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.common.event.BinaryEventCodec;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.EventSchemaRegistry;
+import com.inventory.common.event.JsonEventCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Event codecs for the outbox and Kafka consumers. Every service reads both JSON and binary payloads; the
+ * outbox writes with {@code events.codec} ({@code json} or {@code binary}). To migrate, deploy every
+ * consumer first, then switch producers to {@code binary}.
+ */
+@Configuration
+public class EventCodecConfig {
+
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry(
+            @Value("${events.schema-location:" + EventSchemaRegistry.DEFAULT_LOCATION + "}") String location) {
+        return EventSchemaRegistry.load(location);
+    }
+
+    @Bean
+    public EventCodecs eventCodecs(ObjectMapper objectMapper, EventSchemaRegistry eventSchemaRegistry,
+                                   @Value("${events.codec:json}") String codec) {
+        JsonEventCodec json = new JsonEventCodec(objectMapper);
+        BinaryEventCodec binary = new BinaryEventCodec(eventSchemaRegistry);
+        return switch (codec) {
+            case "json" -> new EventCodecs(json, binary);
+            case "binary" -> new EventCodecs(binary, json);
+            default -> throw new IllegalStateException("Unsupported events.codec: " + codec + " (json, binary)");
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.inventory.common.config;
+
+import com.inventory.common.event.EventIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the {@link EventIds event id generator} from {@code events.id-generator}: {@code uuidv7}
+ * (default, time-ordered) or {@code random} (UUIDv4). Both formats are 36-character UUID strings, so
+ * consumers and the {@code event_id} columns accept either.
+ */
+@Configuration
+public class EventIdConfig {
+
+    public EventIdConfig(@Value("${events.id-generator:uuidv7}") String generator) {
+        EventIds.use(switch (generator) {
+            case "uuidv7" -> EventIds.TIME_ORDERED;
+            case "random" -> EventIds.RANDOM;
+            default -> throw new IllegalStateException(
+                    "Unsupported events.id-generator: " + generator + " (uuidv7, random)");
+        });
+    }
+}
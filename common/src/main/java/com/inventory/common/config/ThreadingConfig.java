@@ -0,0 +1,64 @@
+package com.inventory.common.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread model shared by all services, switched by {@code spring.threads.virtual.enabled}.
+ * <p>
+ * With the flag set, Spring Boot already runs Tomcat request handling, {@code @Scheduled} methods (the outbox
+ * poller) and the application task executor on virtual threads. This class covers what Boot does not:
+ * <ul>
+ *   <li>every Kafka listener container factory, including the ones the services define themselves, gets a
+ *       virtual-thread consumer executor. Listener concurrency is still bounded by partition count, so only
+ *       the thread type changes;</li>
+ *   <li>{@link #CALLBACK_EXECUTOR} runs completion callbacks that block on the database, so they never run
+ *       on the Kafka producer's network thread. It is a small platform pool when the flag is off.</li>
+ * </ul>
+ */
+@Configuration
+public class ThreadingConfig {
+
+    public static final String CALLBACK_EXECUTOR = "callbackExecutor";
+
+    @Bean(CALLBACK_EXECUTOR)
+    public AsyncTaskExecutor callbackExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("callback-");
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(10_000);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("callback-");
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    static BeanPostProcessor virtualThreadKafkaListeners() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory) {
+                    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(beanName + "-");
+                    executor.setVirtualThreads(true);
+                    factory.getContainerProperties().setListenerTaskExecutor(executor);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.common.config;
+
+import com.inventory.common.retry.RetryTopicProperties;
+import com.inventory.common.retry.TieredRetry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * One {@link TieredRetry} per service instance. Consuming services apply it to their listener container
+ * factories and reference it from the retry listeners' topics as {@code #{@tieredRetry.retryTopics('...')}}.
+ */
+@Configuration
+@EnableConfigurationProperties(RetryTopicProperties.class)
+public class TieredRetryConfig {
+
+    @Bean
+    public TieredRetry tieredRetry(KafkaTemplate<String, String> kafkaTemplate, RetryTopicProperties properties,
+                                   MeterRegistry meterRegistry) {
+        return new TieredRetry(kafkaTemplate, properties, meterRegistry);
+    }
+}
@@ -15,5 +15,6 @@ public final class KafkaConstants {
 
     // Consumer Groups
     public static final String GROUP_INVENTORY_SERVICE = "inventory-service-group";
+    public static final String GROUP_INVENTORY_AUDIT = "inventory-service-audit-group";
     public static final String GROUP_REPORTING_SERVICE = "reporting-service-group";
 }
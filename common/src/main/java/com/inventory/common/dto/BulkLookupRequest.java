@@ -0,0 +1,56 @@
+package com.inventory.common.dto;
+
+import com.inventory.common.exception.InvalidRequestException;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Body of the {@code POST .../bulk} lookups; the {@code GET} variants take the same SKUs as a
+ * comma-separated {@code skus} parameter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "SKUs to resolve in one request")
+public class BulkLookupRequest {
+
+    public static final int MAX_SKUS = 500;
+
+    @NotEmpty(message = "At least one SKU is required")
+    @Size(max = MAX_SKUS, message = "At most " + MAX_SKUS + " SKUs per request")
+    @Schema(description = "Stock keeping unit identifiers (duplicates are ignored)", example = "[\"PROD-001\", \"PROD-002\"]")
+    private List<@NotBlank String> skus;
+
+    /**
+     * Returns the distinct, trimmed SKUs in request order.
+     *
+     * @throws InvalidRequestException if there are none or more than {@link #MAX_SKUS}
+     */
+    public static Set<String> distinctSkus(Collection<String> skus) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (skus != null) {
+            for (String sku : skus) {
+                if (sku != null && !sku.isBlank()) {
+                    distinct.add(sku.trim());
+                }
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new InvalidRequestException("At least one SKU is required");
+        }
+        if (distinct.size() > MAX_SKUS) {
+            throw new InvalidRequestException("At most " + MAX_SKUS + " SKUs per request, got " + distinct.size());
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inventory.common.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a multi-SKU lookup: the records that exist, in request order, and the SKUs that do not.
+ * Unknown SKUs are reported rather than failing the whole request.
+ *
+ * @param <T> the type of the resolved items
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Records found for a multi-SKU lookup, plus the SKUs that were not found")
+public class BulkResult<T> {
+
+    @Schema(description = "Records found, in request order")
+    private List<T> items;
+
+    @Schema(description = "Requested SKUs with no record", example = "[\"PROD-404\"]")
+    private List<String> missing;
+
+    /** Splits {@code requested} into found items (in request order) and missing SKUs. */
+    public static <T> BulkResult<T> of(Collection<String> requested, Map<String, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String sku : requested) {
+            T item = found.get(sku);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(sku);
+            }
+        }
+        return new BulkResult<>(items, missing);
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventory.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. Unlike {@code Page}, no exact total is computed;
+ * {@code estimatedTotal} is filled from planner statistics only when the client asks for it.
+ *
+ * @param <T> the type of the listed items
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cursor-paginated slice of results")
+public class CursorSlice<T> {
+
+    @Schema(description = "Items in this slice")
+    private List<T> content;
+
+    @Schema(description = "Number of items in this slice", example = "20")
+    private int size;
+
+    @Schema(description = "Whether more items follow this slice", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque token to pass as 'after' for the next slice (absent on the last slice)", example = "aWQ6MjA")
+    private String nextCursor;
+
+    @Schema(description = "Approximate total row count from database statistics (only when requested)", example = "2000000")
+    private Long estimatedTotal;
+
+    /**
+     * Builds a slice from a query that fetched up to {@code limit + 1} rows; the extra row only signals
+     * that another page exists and is dropped.
+     *
+     * @param rows           rows in sort order, at most {@code limit + 1}
+     * @param limit          the page size requested
+     * @param cursor         the cursor the rows were read from
+     * @param sortKey        extracts a row's sort key, used to position the next cursor
+     * @param estimatedTotal approximate total, or {@code null}
+     */
+    public static <T> CursorSlice<T> fromOverfetch(List<T> rows, int limit, KeysetCursor cursor,
+                                                   Function<T, String> sortKey, Long estimatedTotal) {
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursor.after(sortKey.apply(content.get(content.size() - 1))).encode() : null;
+        return new CursorSlice<>(List.copyOf(content), content.size(), hasNext, nextCursor, estimatedTotal);
+    }
+
+    public <R> CursorSlice<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorSlice<>(mapped, size, hasNext, nextCursor, estimatedTotal);
+    }
+}
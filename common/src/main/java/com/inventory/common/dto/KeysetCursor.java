@@ -0,0 +1,99 @@
+package com.inventory.common.dto;
+
+import com.inventory.common.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position in a keyset-paginated listing: the sort key and the value of that key on the last row returned.
+ * Clients only ever see the {@link #encode() opaque token}; the next page is read with an index seek
+ * ({@code WHERE key > value ORDER BY key LIMIT n}) instead of {@code OFFSET}, so every page costs the same.
+ * Both supported keys are unique ({@code id} is the primary key, {@code sku} has a unique index), so the
+ * last value alone identifies the position.
+ *
+ * @param sort  the sort key, {@value #SORT_ID} or {@value #SORT_SKU}
+ * @param value the sort key of the last row returned, or {@code null} for the first page
+ */
+public record KeysetCursor(String sort, String value) {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_SKU = "sku";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Set<String> SUPPORTED_SORTS = Set.of(SORT_ID, SORT_SKU);
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Resolves the position to read from.
+     *
+     * @param after the token from a previous {@link CursorSlice#getNextCursor()}, or {@code null} for the first page
+     * @param sort  the requested sort key
+     * @throws InvalidRequestException if the sort key is unsupported, the token is malformed,
+     *                                 or the token was issued for a different sort key
+     */
+    public static KeysetCursor resolve(String after, String sort) {
+        if (!SUPPORTED_SORTS.contains(sort)) {
+            throw new InvalidRequestException("Unsupported sort key: " + sort + " (supported: id, sku)");
+        }
+        if (after == null || after.isBlank()) {
+            return new KeysetCursor(sort, null);
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Malformed pagination cursor");
+        }
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new InvalidRequestException("Malformed pagination cursor");
+        }
+        KeysetCursor cursor = new KeysetCursor(decoded.substring(0, separator), decoded.substring(separator + 1));
+        if (!cursor.sort().equals(sort)) {
+            throw new InvalidRequestException("Pagination cursor was issued for sort=" + cursor.sort() + ", not sort=" + sort);
+        }
+        if (SORT_ID.equals(sort)) {
+            cursor.idValue();
+        }
+        return cursor;
+    }
+
+    /** Clamps a requested page size to {@code 1..MAX_PAGE_SIZE}. */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    public boolean sortedBySku() {
+        return SORT_SKU.equals(sort);
+    }
+
+    /** Last ID returned, or {@code 0} on the first page (IDs start at 1). */
+    public long idValue() {
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("Malformed pagination cursor");
+        }
+    }
+
+    /** Last SKU returned, or the empty string on the first page (sorts before every SKU). */
+    public String skuValue() {
+        return value == null ? "" : value;
+    }
+
+    /** Cursor positioned after a row whose sort key is {@code lastValue}. */
+    public KeysetCursor after(String lastValue) {
+        return new KeysetCursor(sort, lastValue);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sort + SEPARATOR + value).getBytes(StandardCharsets.UTF_8));
+    }
+}
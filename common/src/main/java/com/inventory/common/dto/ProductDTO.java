@@ -1,5 +1,6 @@
 package com.inventory.common.dto;
 
+import com.inventory.common.cache.Versioned;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
@@ -20,7 +21,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Product data for create and update operations")
-public class ProductDTO {
+public class ProductDTO implements Versioned {
 
     @Schema(description = "Product ID (auto-generated)", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
@@ -47,4 +48,7 @@ public class ProductDTO {
     @Min(value = 0, message = "Initial stock cannot be negative")
     @Schema(description = "Initial stock quantity (used only on creation)", example = "100")
     private int initialStock;
+
+    @Schema(description = "Row version, incremented on every update", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
 }
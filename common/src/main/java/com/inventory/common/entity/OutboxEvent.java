@@ -1,5 +1,6 @@
 package com.inventory.common.entity;
 
+import com.inventory.common.event.JsonEventCodec;
 import com.inventory.common.outbox.OutboxStatus;
 import jakarta.persistence.*;
 import lombok.*;
@@ -39,6 +40,14 @@ public class OutboxEvent {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String payload;
 
+    @Column(name = "contract_version", nullable = false)
+    @Builder.Default
+    private int contractVersion = 1;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    @Builder.Default
+    private String contentType = JsonEventCodec.CONTENT_TYPE;
+
     @Column(name = "created_at", nullable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
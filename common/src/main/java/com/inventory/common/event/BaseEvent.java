@@ -4,11 +4,10 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Abstract base class for all domain events published to Kafka.
- * Provides a unique event ID for idempotency and a timestamp.
+ * Provides a unique, time-ordered event ID for idempotency (see {@link EventIds}) and a timestamp.
  */
 @Getter
 @SuperBuilder
@@ -18,7 +17,7 @@ public abstract class BaseEvent {
 
     @EqualsAndHashCode.Include
     @Builder.Default
-    private final String eventId = UUID.randomUUID().toString();
+    private final String eventId = EventIds.next();
 
     @Builder.Default
     private LocalDateTime timestamp = LocalDateTime.now();
@@ -0,0 +1,367 @@
+package com.inventory.common.event;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact, schema-driven event encoding in the style of Avro: a magic byte, the varint
+ * {@link EventSchema#id() schema id}, then each schema field in order with no names (see
+ * {@link EventSchema.FieldType} for the wire types). A payload is read with the schema it was written with,
+ * found by id in the {@link EventSchemaRegistry}; fields of that schema the target class does not have are
+ * skipped, and fields the schema does not have keep their defaults.
+ * <p>
+ * Events are written with the schema registered for their type and {@link BaseEvent#getContractVersion()
+ * contract version}. Schema fields are bound to the event class fields of the same name once per schema and
+ * class, through method handles.
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.inventory.event+binary";
+
+    /** First byte of every payload; would change only if the framing itself changed. */
+    private static final byte MAGIC = 1;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle CONTRACT_VERSION_SETTER = setterOf(findField(BaseEvent.class, "contractVersion"));
+
+    private final EventSchemaRegistry registry;
+    private final Map<Class<?>, Map<Integer, Layout>> layouts = new ConcurrentHashMap<>();
+
+    public BinaryEventCodec(EventSchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public String encode(BaseEvent event) {
+        if (event.getContractVersion() == null) {
+            throw new IllegalArgumentException("contractVersion is required to pick a schema");
+        }
+        EventSchema schema = registry.forEvent(event.getEventType(), event.getContractVersion());
+        Layout layout = layout(schema, event.getClass());
+
+        Output out = new Output(128);
+        out.writeByte(MAGIC);
+        out.writeVarLong(schema.id());
+        for (Binding binding : layout.bindings()) {
+            binding.write(out, event);
+        }
+        ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(out.buf, 0, out.size));
+        return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public <E extends BaseEvent> E decode(String payload, Class<E> type) {
+        try {
+            Input in = new Input(Base64.getDecoder().decode(payload));
+            if (in.readByte() != MAGIC) {
+                throw new IllegalArgumentException("Not a binary event payload");
+            }
+            EventSchema schema = registry.byId(Math.toIntExact(in.readVarLong()));
+            Layout layout = layout(schema, type);
+
+            E event = type.cast(layout.newInstance());
+            for (Binding binding : layout.bindings()) {
+                binding.read(in, event);
+            }
+            invoke(CONTRACT_VERSION_SETTER, event, schema.version());
+            if (in.pos != in.buf.length) {
+                throw new IllegalArgumentException((in.buf.length - in.pos) + " trailing bytes");
+            }
+            return event;
+        } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            throw new IllegalArgumentException("Unreadable " + type.getSimpleName() + " payload", e);
+        }
+    }
+
+    private Layout layout(EventSchema schema, Class<?> type) {
+        return layouts.computeIfAbsent(type, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(schema.id(), id -> Layout.bind(schema, type));
+    }
+
+    /** The bindings of one schema to one event class. */
+    private record Layout(MethodHandle constructor, List<Binding> bindings) {
+
+        static Layout bind(EventSchema schema, Class<?> type) {
+            MethodHandle constructor;
+            try {
+                constructor = LOOKUP.findConstructor(type, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(type.getName() + " needs a public no-argument constructor", e);
+            }
+            Layout layout = new Layout(constructor, schema.fields().stream()
+                    .map(field -> Binding.bind(field, type))
+                    .toList());
+            EventType actual = ((BaseEvent) layout.newInstance()).getEventType();
+            if (actual != schema.eventType()) {
+                throw new IllegalArgumentException("Schema " + schema.id() + " describes " + schema.eventType()
+                        + ", not " + actual);
+            }
+            return layout;
+        }
+
+        Object newInstance() {
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * One schema field bound to the class field of the same name. Either handle is {@code null} when the
+     * class has no such field: the value is then written as absent and skipped when read.
+     */
+    private record Binding(EventSchema.Field field, Class<?> javaType, MethodHandle getter, MethodHandle setter) {
+
+        static Binding bind(EventSchema.Field field, Class<?> type) {
+            Field javaField = findField(type, field.name());
+            if (javaField == null) {
+                return new Binding(field, null, null, null);
+            }
+            Class<?> javaType = MethodType.methodType(javaField.getType()).wrap().returnType();
+            boolean compatible = switch (field.type()) {
+                case STRING -> javaType == String.class;
+                case INT -> javaType == Integer.class;
+                case LONG -> javaType == Long.class;
+                case DECIMAL -> javaType == BigDecimal.class;
+                case TIMESTAMP -> javaType == LocalDateTime.class;
+                case ENUM -> javaType.isEnum();
+            };
+            if (!compatible) {
+                throw new IllegalStateException(type.getSimpleName() + "." + field.name() + " is a "
+                        + javaField.getType().getSimpleName() + ", which cannot hold " + field.type());
+            }
+            return new Binding(field, javaType, getterOf(javaField), setterOf(javaField));
+        }
+
+        void write(Output out, Object event) {
+            Object value = getter == null ? null : invoke(getter, event);
+            if (value == null) {
+                if (!field.nullable()) {
+                    throw new IllegalArgumentException(field.name() + " is required");
+                }
+                out.writeByte(0);
+                return;
+            }
+            if (field.nullable()) {
+                out.writeByte(1);
+            }
+            switch (field.type()) {
+                case STRING -> out.writeString((String) value);
+                case INT -> out.writeVarLong(zigzag((Integer) value));
+                case LONG -> out.writeVarLong(zigzag((Long) value));
+                case DECIMAL -> {
+                    BigDecimal decimal = (BigDecimal) value;
+                    out.writeVarLong(zigzag(decimal.scale()));
+                    out.writeBytes(decimal.unscaledValue().toByteArray());
+                }
+                case TIMESTAMP -> {
+                    LocalDateTime timestamp = (LocalDateTime) value;
+                    out.writeVarLong(zigzag(timestamp.toEpochSecond(ZoneOffset.UTC)));
+                    out.writeVarLong(timestamp.getNano());
+                }
+                case ENUM -> out.writeString(((Enum<?>) value).name());
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void read(Input in, Object event) {
+            if (field.nullable() && in.readByte() == 0) {
+                return;
+            }
+            Object value = switch (field.type()) {
+                case STRING -> in.readString();
+                case INT -> Math.toIntExact(unzigzag(in.readVarLong()));
+                case LONG -> unzigzag(in.readVarLong());
+                case DECIMAL -> {
+                    int scale = Math.toIntExact(unzigzag(in.readVarLong()));
+                    yield new BigDecimal(new BigInteger(in.readBytes()), scale);
+                }
+                case TIMESTAMP -> {
+                    long seconds = unzigzag(in.readVarLong());
+                    yield LocalDateTime.ofEpochSecond(seconds, Math.toIntExact(in.readVarLong()), ZoneOffset.UTC);
+                }
+                case ENUM -> {
+                    String name = in.readString();
+                    yield javaType == null ? name : Enum.valueOf((Class) javaType, name);
+                }
+            };
+            if (setter != null) {
+                invoke(setter, event, value);
+            }
+        }
+    }
+
+    private static final class Output {
+
+        private byte[] buf;
+        private int size;
+
+        Output(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] buf;
+        private int pos;
+
+        Input(byte[] buf) {
+            this.buf = buf;
+        }
+
+        byte readByte() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("Truncated payload");
+            }
+            return buf[pos++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        byte[] readBytes() {
+            int length = length();
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        String readString() {
+            int length = length();
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private int length() {
+            long length = readVarLong();
+            if (length < 0 || length > buf.length - pos) {
+                throw new IllegalArgumentException("Truncated payload");
+            }
+            return (int) length;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // declared further up, if at all
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle getterOf(Field field) {
+        try {
+            field.setAccessible(true);
+            return LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read " + field, e);
+        }
+    }
+
+    /** Also binds final fields such as {@link BaseEvent#getEventId() eventId}, as Jackson does. */
+    private static MethodHandle setterOf(Field field) {
+        try {
+            field.setAccessible(true);
+            return LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot write " + field, e);
+        }
+    }
+
+    private static Object invoke(MethodHandle getter, Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void invoke(MethodHandle setter, Object target, Object value) {
+        try {
+            setter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.inventory.common.event;
+
+/**
+ * Turns events into record payloads and back. The codec that wrote a payload is named by its
+ * {@link #contentType()}, stored with the outbox row and sent as the {@link EventHeaders#CONTENT_TYPE} header,
+ * so consumers can read payloads from several codecs while producers move from one to another.
+ * <p>
+ * Payloads are strings because the outbox stores them in a {@code TEXT} column and records are sent with
+ * {@code StringSerializer}; binary codecs Base64-encode their output.
+ */
+public interface EventCodec {
+
+    String contentType();
+
+    /**
+     * @throws IllegalArgumentException if the event cannot be encoded
+     */
+    String encode(BaseEvent event);
+
+    /**
+     * @throws IllegalArgumentException if the payload cannot be read as {@code type}; the cause is kept, so
+     *                                  a record that fails here is dead-lettered without retries
+     */
+    <E extends BaseEvent> E decode(String payload, Class<E> type);
+}
@@ -0,0 +1,54 @@
+package com.inventory.common.event;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link EventCodec}s a service can read, and the one it writes with ({@code events.codec}). Consumers
+ * pick the codec from the {@link EventHeaders#CONTENT_TYPE} header of each record, so records written before
+ * and after a codec switch can sit on the same topic; records without the header are JSON.
+ */
+public class EventCodecs {
+
+    private final EventCodec writer;
+    private final Map<String, EventCodec> readers = new HashMap<>();
+
+    /**
+     * @param writer  encodes new events; also registered as a reader
+     * @param readers further codecs to read with
+     */
+    public EventCodecs(EventCodec writer, EventCodec... readers) {
+        this.writer = writer;
+        this.readers.put(writer.contentType(), writer);
+        for (EventCodec reader : readers) {
+            this.readers.putIfAbsent(reader.contentType(), reader);
+        }
+    }
+
+    public EventCodec writer() {
+        return writer;
+    }
+
+    /**
+     * @param contentType the content type a payload was written with, or {@code null} for JSON
+     * @throws IllegalArgumentException if no codec reads this content type
+     */
+    public EventCodec reader(String contentType) {
+        EventCodec codec = readers.get(contentType == null ? JsonEventCodec.CONTENT_TYPE : contentType);
+        if (codec == null) {
+            throw new IllegalArgumentException("No event codec for content type " + contentType);
+        }
+        return codec;
+    }
+
+    /**
+     * Decodes a record's payload with the codec named by its content type header.
+     *
+     * @throws IllegalArgumentException if the content type is unknown or the payload cannot be read
+     */
+    public <E extends BaseEvent> E decode(ConsumerRecord<String, String> record, Class<E> type) {
+        return reader(EventHeaders.contentType(record.headers())).decode(record.value(), type);
+    }
+}
@@ -14,17 +14,32 @@ public final class EventContractValidator {
         if (event == null) {
             throw new IllegalArgumentException("Event payload is required");
         }
-        if (event.getEventId() == null || event.getEventId().isBlank()) {
-            throw new IllegalArgumentException("eventId is required");
-        }
         if (event.getTimestamp() == null) {
             throw new IllegalArgumentException("timestamp is required");
         }
-        if (event.getEventType() != expectedType) {
+        validate(event.getEventId(), event.getEventType(), event.getContractVersion(), expectedType, topic);
+    }
+
+    /**
+     * Same checks as {@link #validate(BaseEvent, EventType, String)}, made on the record headers so the
+     * payload does not have to be deserialized first.
+     */
+    public static void validate(EventHeaders headers, EventType expectedType, String topic) {
+        if (headers.producedAt() == null) {
+            throw new IllegalArgumentException("producedAt header is required");
+        }
+        validate(headers.eventId(), headers.eventType(), headers.contractVersion(), expectedType, topic);
+    }
+
+    private static void validate(String eventId, EventType eventType, Integer version,
+                                 EventType expectedType, String topic) {
+        if (eventId == null || eventId.isBlank()) {
+            throw new IllegalArgumentException("eventId is required");
+        }
+        if (eventType != expectedType) {
             throw new IllegalArgumentException("Unexpected event type for topic " + topic
-                    + ": expected=" + expectedType + ", actual=" + event.getEventType());
+                    + ": expected=" + expectedType + ", actual=" + eventType);
         }
-        Integer version = event.getContractVersion();
         if (version == null || version != SUPPORTED_VERSION) {
             throw new IllegalArgumentException("Unsupported contractVersion for topic " + topic
                     + ": " + version + " (supported: " + SUPPORTED_VERSION + ")");
@@ -0,0 +1,80 @@
+package com.inventory.common.event;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Event metadata carried as Kafka record headers next to the payload, so consumers can route, validate
+ * and deduplicate a record without deserializing it. Written by the outbox publisher; records published
+ * before the headers existed carry none, and consumers fall back to reading the payload.
+ *
+ * @param eventId         the {@link BaseEvent#getEventId() event id}, used as the inbox key
+ * @param eventType       the event type
+ * @param contractVersion the payload contract version
+ * @param producedAt      when the event was written to the outbox
+ * @param contentType     the {@link EventCodec#contentType() codec} the payload was written with
+ */
+public record EventHeaders(String eventId, EventType eventType, Integer contractVersion, LocalDateTime producedAt,
+                           String contentType) {
+
+    public static final String EVENT_ID = "x-event-id";
+    public static final String EVENT_TYPE = "x-event-type";
+    public static final String CONTRACT_VERSION = "x-contract-version";
+    public static final String PRODUCED_AT = "x-produced-at";
+    public static final String CONTENT_TYPE = "x-content-type";
+
+    /**
+     * Reads the metadata of a record.
+     *
+     * @return the metadata, or {@code null} if the record has no {@value #EVENT_ID} header
+     * @throws IllegalArgumentException if a header is present but malformed
+     */
+    public static EventHeaders read(Headers headers) {
+        String eventId = value(headers, EVENT_ID);
+        if (eventId == null) {
+            return null;
+        }
+        String eventType = value(headers, EVENT_TYPE);
+        String contractVersion = value(headers, CONTRACT_VERSION);
+        String producedAt = value(headers, PRODUCED_AT);
+        try {
+            return new EventHeaders(eventId,
+                    eventType == null ? null : EventType.valueOf(eventType),
+                    contractVersion == null ? null : Integer.valueOf(contractVersion),
+                    producedAt == null ? null : LocalDateTime.parse(producedAt),
+                    value(headers, CONTENT_TYPE));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed event headers for eventId " + eventId, e);
+        }
+    }
+
+    /**
+     * @return the {@value #CONTENT_TYPE} header, or {@code null} for records written before it existed
+     */
+    public static String contentType(Headers headers) {
+        return value(headers, CONTENT_TYPE);
+    }
+
+    public List<Header> toKafkaHeaders() {
+        return List.of(
+                header(EVENT_ID, eventId),
+                header(EVENT_TYPE, eventType.name()),
+                header(CONTRACT_VERSION, String.valueOf(contractVersion)),
+                header(PRODUCED_AT, producedAt.toString()),
+                header(CONTENT_TYPE, contentType));
+    }
+
+    private static String value(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static Header header(String name, String value) {
+        return new RecordHeader(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
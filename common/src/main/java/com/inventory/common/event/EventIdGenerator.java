@@ -0,0 +1,13 @@
+package com.inventory.common.event;
+
+/**
+ * Generates {@link BaseEvent#getEventId() event ids}. Ids are the outbox and inbox deduplication keys, so
+ * they must be unique across services; they are not secrets and need not be unguessable.
+ *
+ * @see EventIds
+ */
+@FunctionalInterface
+public interface EventIdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,30 @@
+package com.inventory.common.event;
+
+import java.util.UUID;
+
+/**
+ * The {@link EventIdGenerator} behind {@link BaseEvent#getEventId()}. Events are built with Lombok builders
+ * outside the Spring context, so the generator is held here and replaced at startup from
+ * {@code events.id-generator}; the default is {@link #TIME_ORDERED}.
+ */
+public final class EventIds {
+
+    /** UUIDv7; see {@link TimeOrderedEventIdGenerator}. */
+    public static final EventIdGenerator TIME_ORDERED = new TimeOrderedEventIdGenerator();
+
+    /** Random UUIDv4 from {@link UUID#randomUUID()}, the ids events carried before {@link #TIME_ORDERED}. */
+    public static final EventIdGenerator RANDOM = () -> UUID.randomUUID().toString();
+
+    private static volatile EventIdGenerator generator = TIME_ORDERED;
+
+    private EventIds() {
+    }
+
+    public static String next() {
+        return generator.nextId();
+    }
+
+    public static void use(EventIdGenerator eventIdGenerator) {
+        generator = eventIdGenerator;
+    }
+}
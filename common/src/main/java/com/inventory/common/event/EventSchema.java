@@ -0,0 +1,50 @@
+package com.inventory.common.event;
+
+import java.util.List;
+
+/**
+ * Binary layout of one {@link EventType} at one contract version, as registered in the
+ * {@link EventSchemaRegistry}. Fields are written in declaration order with no names or tags, so a payload
+ * can only be read with the schema it was written with; the {@code id} is written in front of every payload
+ * to find it. The event type and contract version are implied by the schema and not written.
+ *
+ * @param id        registry-wide schema id, never reused
+ * @param eventType the event type this schema describes
+ * @param version   the contract version this schema describes
+ * @param fields    the fields, in wire order
+ */
+public record EventSchema(int id, EventType eventType, int version, List<Field> fields) {
+
+    public EventSchema {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Schema id must be positive: " + id);
+        }
+        if (eventType == null || fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("Schema " + id + " needs an eventType and at least one field");
+        }
+        fields = List.copyOf(fields);
+    }
+
+    /**
+     * @param name     the event property, matched against the field of the same name in the event class
+     * @param type     the wire type
+     * @param nullable whether the value may be absent; costs one byte per value
+     */
+    public record Field(String name, FieldType type, boolean nullable) {
+    }
+
+    public enum FieldType {
+        /** UTF-8, length-prefixed. */
+        STRING,
+        /** Zigzag varint. */
+        INT,
+        /** Zigzag varint. */
+        LONG,
+        /** Varint scale followed by the length-prefixed two's-complement unscaled value. */
+        DECIMAL,
+        /** Zigzag varint epoch seconds (as UTC) followed by varint nanoseconds. */
+        TIMESTAMP,
+        /** Constant name, as {@link #STRING}, so reordering constants does not change the meaning of old payloads. */
+        ENUM
+    }
+}
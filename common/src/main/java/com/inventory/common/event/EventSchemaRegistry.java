@@ -0,0 +1,96 @@
+package com.inventory.common.event;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local, file-based stand-in for a schema registry: {@link EventSchema}s are read once from JSON files, one
+ * schema per file, and looked up by id when decoding and by event type and contract version when encoding.
+ * Schemas are only ever added; a changed layout gets a new id and, if the contract changes, a new version.
+ * <pre>
+ * { "id": 4, "eventType": "STOCK_UPDATED", "version": 1,
+ *   "fields": [ { "name": "eventId", "type": "string" }, { "name": "version", "type": "long", "nullable": true } ] }
+ * </pre>
+ */
+public class EventSchemaRegistry {
+
+    /** The schemas shipped in {@code common}; {@code events.schema-location} can point elsewhere. */
+    public static final String DEFAULT_LOCATION = "classpath*:event-schemas/*.json";
+
+    private static final ObjectMapper SCHEMA_READER = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+            .build();
+
+    private final Map<Integer, EventSchema> byId = new HashMap<>();
+    private final Map<EventType, Map<Integer, EventSchema>> byTypeAndVersion = new EnumMap<>(EventType.class);
+
+    public EventSchemaRegistry(Collection<EventSchema> schemas) {
+        for (EventSchema schema : schemas) {
+            if (byId.putIfAbsent(schema.id(), schema) != null) {
+                throw new IllegalStateException("Duplicate event schema id " + schema.id());
+            }
+            EventSchema previous = byTypeAndVersion.computeIfAbsent(schema.eventType(), type -> new HashMap<>())
+                    .putIfAbsent(schema.version(), schema);
+            if (previous != null) {
+                throw new IllegalStateException("Schemas " + previous.id() + " and " + schema.id()
+                        + " both describe " + schema.eventType() + " v" + schema.version());
+            }
+        }
+    }
+
+    /**
+     * Reads every schema file matching {@code locationPattern}, e.g. {@value #DEFAULT_LOCATION} or
+     * {@code file:/etc/inventory/event-schemas/*.json}.
+     */
+    public static EventSchemaRegistry load(String locationPattern) {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(locationPattern);
+            List<EventSchema> schemas = new ArrayList<>(resources.length);
+            for (Resource resource : resources) {
+                try (InputStream in = resource.getInputStream()) {
+                    schemas.add(SCHEMA_READER.readValue(in, EventSchema.class));
+                } catch (IOException | IllegalArgumentException e) {
+                    throw new IllegalStateException("Invalid event schema " + resource.getDescription(), e);
+                }
+            }
+            return new EventSchemaRegistry(schemas);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list event schemas at " + locationPattern, e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if no schema has this id
+     */
+    public EventSchema byId(int id) {
+        EventSchema schema = byId.get(id);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown event schema id " + id);
+        }
+        return schema;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no schema is registered for this type and version
+     */
+    public EventSchema forEvent(EventType eventType, int version) {
+        EventSchema schema = byTypeAndVersion.getOrDefault(eventType, Map.of()).get(version);
+        if (schema == null) {
+            throw new IllegalArgumentException("No event schema for " + eventType + " v" + version);
+        }
+        return schema;
+    }
+}
@@ -0,0 +1,40 @@
+package com.inventory.common.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The original event encoding: the event serialized by the application {@link ObjectMapper}. Payloads without
+ * a content type were all written this way.
+ */
+@RequiredArgsConstructor
+public class JsonEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public String encode(BaseEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize " + event.getEventType() + " event", e);
+        }
+    }
+
+    @Override
+    public <E extends BaseEvent> E decode(String payload, Class<E> type) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable " + type.getSimpleName() + " payload", e);
+        }
+    }
+}
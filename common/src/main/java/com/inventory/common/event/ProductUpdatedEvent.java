@@ -21,6 +21,8 @@ public class ProductUpdatedEvent extends BaseEvent {
     private String name;
     private String category;
     private BigDecimal price;
+    /** Optimistic-lock version of the product row after this change; orders cache invalidations. */
+    private Long version;
 
     @Override
     public EventType getEventType() {
@@ -5,8 +5,10 @@ import lombok.experimental.SuperBuilder;
 
 /**
  * Published to {@code inventory.stock.updated} on every stock change
- * (sale, restock, adjustment, initial). The reporting service consumes
+ * (sale, restock, adjustment, initial, removal). The reporting service consumes
  * this to update real-time reports and push WebSocket notifications.
+ * {@code INITIAL} and {@code REMOVED} mark a SKU's stock record being created
+ * and deleted.
  */
 @Getter
 @SuperBuilder
@@ -22,6 +24,8 @@ public class StockUpdatedEvent extends BaseEvent {
     private int minThreshold;
     private int changeAmount;
     private StockChangeReason reason;
+    /** Optimistic-lock version of the stock row after this change; orders cache invalidations. */
+    private Long version;
 
     @Override
     public EventType getEventType() {
@@ -33,6 +37,7 @@ public class StockUpdatedEvent extends BaseEvent {
         RESTOCK,
         ADJUSTMENT,
         RETURN,
-        INITIAL
+        INITIAL,
+        REMOVED
     }
 }
@@ -0,0 +1,22 @@
+package com.inventory.common.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the adaptive concurrency limiter sheds a request, or a write to a hot SKU waits too long for
+ * its turn. Mapped to HTTP 429 with a {@code Retry-After} header by {@link GlobalExceptionHandler}.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(long retryAfterSeconds) {
+        this("Server is at capacity. Please retry after " + retryAfterSeconds + "s.", retryAfterSeconds);
+    }
+
+    public ConcurrencyLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
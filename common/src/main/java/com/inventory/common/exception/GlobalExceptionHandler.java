@@ -1,8 +1,8 @@
 package com.inventory.common.exception;
 
 import com.inventory.common.dto.ApiResponse;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -32,6 +32,27 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequest(InvalidRequestException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotentRequestInProgress(IdempotentRequestInProgressException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidation(MethodArgumentNotValidException ex) {
         String errors = ex.getBindingResult().getFieldErrors().stream()
@@ -42,11 +63,12 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(errors));
     }
 
-    @ExceptionHandler(RequestNotPermitted.class)
-    public ResponseEntity<ApiResponse<Void>> handleRateLimit(RequestNotPermitted ex) {
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleConcurrencyLimit(ConcurrencyLimitExceededException ex) {
         return ResponseEntity
                 .status(HttpStatus.TOO_MANY_REQUESTS)
-                .body(ApiResponse.error("Rate limit exceeded. Please try again later."));
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
     }
 
     @ExceptionHandler(OptimisticLockingFailureException.class)
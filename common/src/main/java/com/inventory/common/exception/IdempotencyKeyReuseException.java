@@ -0,0 +1,12 @@
+package com.inventory.common.exception;
+
+/**
+ * Thrown when an {@code Idempotency-Key} is sent again with a different request than the one it was first
+ * used for. Mapped to HTTP 422 by {@link GlobalExceptionHandler}.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String key) {
+        super("Idempotency key '" + key + "' was already used for a different request");
+    }
+}
@@ -0,0 +1,12 @@
+package com.inventory.common.exception;
+
+/**
+ * Thrown when a request arrives with an {@code Idempotency-Key} whose first request has not finished yet.
+ * Mapped to HTTP 409 by {@link GlobalExceptionHandler}; the client retries later and gets the stored response.
+ */
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String key) {
+        super("A request with idempotency key '" + key + "' is still being processed. Please retry.");
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventory.common.exception;
+
+/**
+ * Thrown when request parameters are well-formed HTTP but semantically invalid,
+ * such as a tampered pagination cursor or an unsupported sort key.
+ * Mapped to HTTP 400 by {@link GlobalExceptionHandler}.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,100 @@
+package com.inventory.common.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV: a header row, CRLF line endings, and fields quoted only when they contain a
+ * separator, quote or line break. Nulls are written as empty fields.
+ */
+class CsvExportWriter extends ExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer writer;
+
+    CsvExportWriter(OutputStream out, List<String> columns) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (int i = 0; i < columns.size(); i++) {
+            separator(i);
+            writeField(columns.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void beginRow() {
+        // fields are positional; nothing to open
+    }
+
+    @Override
+    public void nullValue(int column) throws IOException {
+        separator(column);
+    }
+
+    @Override
+    public void numberValue(int column, long value) throws IOException {
+        separator(column);
+        writer.write(Long.toString(value));
+    }
+
+    @Override
+    public void booleanValue(int column, boolean value) throws IOException {
+        separator(column);
+        writer.write(value ? "true" : "false");
+    }
+
+    @Override
+    public void stringValue(int column, String value) throws IOException {
+        separator(column);
+        writeField(value);
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        writer.write("\r\n");
+    }
+
+    /** Flushes buffered rows without closing the response stream. */
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void separator(int column) throws IOException {
+        if (column > 0) {
+            writer.write(',');
+        }
+    }
+
+    private void writeField(String value) throws IOException {
+        if (!needsQuoting(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
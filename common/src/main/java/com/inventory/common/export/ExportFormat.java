@@ -0,0 +1,51 @@
+package com.inventory.common.export;
+
+import com.inventory.common.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Wire formats supported by the streaming export endpoints.
+ */
+public enum ExportFormat {
+
+    /** One JSON object per line, field names matching the paginated API's DTOs. */
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+
+    /** RFC 4180 CSV with a header row. */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    ExportFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Parses the {@code format} request parameter.
+     *
+     * @throws InvalidRequestException if the value names no supported format
+     */
+    public static ExportFormat fromParameter(String value) {
+        if (value != null) {
+            for (ExportFormat format : values()) {
+                if (format.fileExtension.equals(value.toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+        }
+        throw new InvalidRequestException("Unsupported export format: " + value + " (expected ndjson or csv)");
+    }
+}
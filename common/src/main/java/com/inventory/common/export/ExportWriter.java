@@ -0,0 +1,36 @@
+package com.inventory.common.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes export rows straight to an output stream, one column value at a time, so no per-row object
+ * is materialized. Implementations buffer internally and flush on {@link #close()}, which leaves the
+ * underlying stream open for the servlet container to complete the response.
+ */
+public abstract class ExportWriter implements Closeable {
+
+    public static ExportWriter open(ExportFormat format, OutputStream out, List<String> columns,
+                                    JsonFactory jsonFactory) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonExportWriter(out, columns, jsonFactory);
+            case CSV -> new CsvExportWriter(out, columns);
+        };
+    }
+
+    public abstract void beginRow() throws IOException;
+
+    public abstract void nullValue(int column) throws IOException;
+
+    public abstract void numberValue(int column, long value) throws IOException;
+
+    public abstract void booleanValue(int column, boolean value) throws IOException;
+
+    public abstract void stringValue(int column, String value) throws IOException;
+
+    public abstract void endRow() throws IOException;
+}
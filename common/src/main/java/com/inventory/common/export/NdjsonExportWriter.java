@@ -0,0 +1,66 @@
+package com.inventory.common.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Newline-delimited JSON. Field names are encoded once up front; values go through a single
+ * streaming {@link JsonGenerator} for the whole export.
+ */
+class NdjsonExportWriter extends ExportWriter {
+
+    private final JsonGenerator generator;
+    private final SerializedString[] fieldNames;
+
+    NdjsonExportWriter(OutputStream out, List<String> columns, JsonFactory jsonFactory) throws IOException {
+        this.generator = jsonFactory.createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+        this.fieldNames = columns.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+    }
+
+    @Override
+    public void beginRow() throws IOException {
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void nullValue(int column) throws IOException {
+        generator.writeFieldName(fieldNames[column]);
+        generator.writeNull();
+    }
+
+    @Override
+    public void numberValue(int column, long value) throws IOException {
+        generator.writeFieldName(fieldNames[column]);
+        generator.writeNumber(value);
+    }
+
+    @Override
+    public void booleanValue(int column, boolean value) throws IOException {
+        generator.writeFieldName(fieldNames[column]);
+        generator.writeBoolean(value);
+    }
+
+    @Override
+    public void stringValue(int column, String value) throws IOException {
+        generator.writeFieldName(fieldNames[column]);
+        generator.writeString(value);
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
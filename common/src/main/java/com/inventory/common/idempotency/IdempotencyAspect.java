@@ -0,0 +1,177 @@
+package com.inventory.common.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.common.dto.ApiResponse;
+import com.inventory.common.exception.IdempotencyKeyReuseException;
+import com.inventory.common.exception.IdempotentRequestInProgressException;
+import com.inventory.common.exception.InvalidRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Applies {@link Idempotent} to controller methods.
+ * <p>
+ * The request is fingerprinted as a SHA-256 hash of its method, path and arguments. A key that already has
+ * a stored response is answered from it, with the {@value #REPLAYED_HEADER} header set, without calling the
+ * endpoint. Otherwise the key is bound to the thread for {@link IdempotencyClaimListener} to record in the
+ * endpoint's transaction, and the response is stored once that transaction has committed. Failed requests
+ * record nothing, so the client may retry them with the same key.
+ * <p>
+ * If the response of a committed request is never stored (the write failed or the node died first), retries
+ * get 409 only until the key is {@link IdempotencyStore#isAbandoned abandoned}. After that they are told the
+ * change was applied, with {@value #RECOVERED_MESSAGE} and no data, and that answer is stored for later retries.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "idempotency.enabled", havingValue = "true")
+@Slf4j
+public class IdempotencyAspect {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    static final String RECOVERED_MESSAGE = "Request already applied; its original response was not recorded";
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final Counter replays;
+    private final Counter recoveries;
+
+    public IdempotencyAspect(IdempotencyStore idempotencyStore, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.replays = Counter.builder("idempotency.replays")
+                .description("Write requests answered from a stored response")
+                .register(meterRegistry);
+        this.recoveries = Counter.builder("idempotency.recoveries")
+                .description("Retries of a committed request whose response was never stored")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.inventory.common.idempotency.Idempotent)")
+    public Object handle(ProceedingJoinPoint joinPoint) throws Throwable {
+        HttpServletRequest request = currentRequest();
+        String key = request == null ? null : request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key == null) {
+            return joinPoint.proceed();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(
+                    IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = fingerprint(request, joinPoint.getArgs());
+
+        Optional<IdempotencyStore.StoredResponse> stored = idempotencyStore.find(key);
+        if (stored.isPresent()) {
+            return replay(key, requestHash, stored.get());
+        }
+
+        IdempotencyClaim claim = IdempotencyClaim.bind(key, requestHash);
+        try {
+            Object result = joinPoint.proceed();
+            if (claim.committed && result instanceof ResponseEntity<?> response) {
+                store(key, requestHash, response);
+            }
+            return result;
+        } catch (IdempotentRequestInProgressException e) {
+            if (!claim.conflicted) {
+                throw e;
+            }
+            // Lost the race to a concurrent request with the same key; this attempt was rolled back
+            return idempotencyStore.find(key)
+                    .map(winner -> replay(key, requestHash, winner))
+                    .orElseThrow(() -> e);
+        } finally {
+            IdempotencyClaim.unbind();
+        }
+    }
+
+    private ResponseEntity<byte[]> replay(String key, String requestHash, IdempotencyStore.StoredResponse stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+        if (!stored.isComplete()) {
+            if (!idempotencyStore.isAbandoned(stored)) {
+                throw new IdempotentRequestInProgressException(key);
+            }
+            return recover(key, requestHash);
+        }
+        replays.increment();
+        log.debug("Replaying stored response for idempotency key {}", key);
+        return replayed(stored.status(), stored.body());
+    }
+
+    private ResponseEntity<byte[]> recover(String key, String requestHash) {
+        recoveries.increment();
+        log.warn("Idempotency key {} committed without a stored response; answering that it was applied", key);
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(ApiResponse.success(RECOVERED_MESSAGE, null));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize recovered response", e);
+        }
+        store(key, requestHash, HttpStatus.OK.value(), body);
+        return replayed(HttpStatus.OK.value(), body);
+    }
+
+    private static ResponseEntity<byte[]> replayed(int status, String body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void store(String key, String requestHash, ResponseEntity<?> response) {
+        try {
+            String body = objectMapper.writeValueAsString(response.getBody());
+            store(key, requestHash, response.getStatusCode().value(), body);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize response for idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void store(String key, String requestHash, int status, String body) {
+        try {
+            idempotencyStore.complete(key, requestHash, status, body);
+        } catch (RuntimeException e) {
+            // The change is committed; retries with this key get 409 until the key is abandoned
+            log.warn("Failed to store response for idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private String fingerprint(HttpServletRequest request, Object[] args) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(args));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+}
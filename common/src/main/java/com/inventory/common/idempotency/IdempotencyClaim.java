@@ -0,0 +1,42 @@
+package com.inventory.common.idempotency;
+
+/**
+ * The idempotency key of the request being processed on the current thread, and what has happened to it.
+ * Bound by {@link IdempotencyAspect} around the endpoint call and recorded by {@link IdempotencyClaimListener}
+ * in the first read-write transaction the call opens. Only ever touched by the request thread.
+ */
+final class IdempotencyClaim {
+
+    private static final ThreadLocal<IdempotencyClaim> CURRENT = new ThreadLocal<>();
+
+    final String key;
+    final String requestHash;
+
+    /** A transaction will record (or has recorded) the key. */
+    boolean attached;
+
+    /** The transaction that recorded the key committed. */
+    boolean committed;
+
+    /** Another request recorded the key first; the transaction was rolled back. */
+    boolean conflicted;
+
+    private IdempotencyClaim(String key, String requestHash) {
+        this.key = key;
+        this.requestHash = requestHash;
+    }
+
+    static IdempotencyClaim bind(String key, String requestHash) {
+        IdempotencyClaim claim = new IdempotencyClaim(key, requestHash);
+        CURRENT.set(claim);
+        return claim;
+    }
+
+    static IdempotencyClaim current() {
+        return CURRENT.get();
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+}
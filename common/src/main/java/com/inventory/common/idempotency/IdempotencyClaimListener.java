@@ -0,0 +1,57 @@
+package com.inventory.common.idempotency;
+
+import com.inventory.common.exception.IdempotentRequestInProgressException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records the current request's idempotency key in the same transaction as the write it guards. When the
+ * first read-write transaction of an {@link Idempotent} call begins, a synchronization is registered that
+ * inserts the key just before commit. If another request already holds the key, the insert is skipped and
+ * the whole transaction is rolled back, so the change can never be applied twice for one key.
+ * <p>
+ * A rolled-back attempt (for example an optimistic-lock retry) releases the claim and the next transaction
+ * records it again. Spring Boot registers {@code TransactionExecutionListener} beans with the auto-configured
+ * transaction manager.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class IdempotencyClaimListener implements TransactionExecutionListener {
+
+    private final IdempotencyStore idempotencyStore;
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        IdempotencyClaim claim = IdempotencyClaim.current();
+        if (claim == null || claim.attached || beginFailure != null || transaction.isReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        claim.attached = true;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!idempotencyStore.claim(claim.key, claim.requestHash)) {
+                    claim.conflicted = true;
+                    throw new IdempotentRequestInProgressException(claim.key);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    claim.committed = true;
+                } else {
+                    claim.attached = false;
+                }
+            }
+        });
+    }
+}
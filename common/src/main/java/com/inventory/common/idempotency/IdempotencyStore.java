@@ -0,0 +1,144 @@
+package com.inventory.common.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Idempotency keys and the responses they produced, kept in the {@code idempotency_keys} table for
+ * {@code idempotency.ttl}. Completed responses are also held in a bounded in-memory LRU, so a retry
+ * usually replays without touching the database.
+ * <p>
+ * A key is recorded by {@link #claim} inside the business transaction and filled in by {@link #complete}
+ * once that transaction has committed, so a row is only ever visible once its change has committed. A row
+ * without a response is normally a request that is just storing it; one that still has none after
+ * {@code idempotency.completion-grace} was {@link #isAbandoned abandoned}, because storing the response
+ * failed or the node died first.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.enabled", havingValue = "true")
+@Slf4j
+public class IdempotencyStore {
+
+    /** A recorded key. {@code status} and {@code body} are null until the response has been stored. */
+    public record StoredResponse(String requestHash, Integer status, String body, LocalDateTime createdAt) {
+
+        public boolean isComplete() {
+            return status != null;
+        }
+    }
+
+    private static final String SELECT_SQL = """
+            SELECT request_hash, response_status, response_body, created_at
+            FROM idempotency_keys
+            WHERE idempotency_key = ? AND expires_at > ?""";
+
+    // Takes over a row whose TTL has passed but that cleanup has not deleted yet
+    private static final String CLAIM_SQL = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at, expires_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (idempotency_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash,
+                response_status = NULL,
+                response_body = NULL,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_keys.expires_at <= EXCLUDED.created_at""";
+
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_keys
+            SET response_status = ?, response_body = ?
+            WHERE idempotency_key = ? AND request_hash = ? AND response_status IS NULL""";
+
+    private static final String CLEANUP_SQL = "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration completionGrace;
+    private final Cache<String, StoredResponse> completed;
+
+    public IdempotencyStore(DataSource dataSource,
+                            @Value("${idempotency.ttl:24h}") Duration ttl,
+                            @Value("${idempotency.cache-size:10000}") long cacheSize,
+                            @Value("${idempotency.completion-grace:10s}") Duration completionGrace) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.ttl = ttl;
+        this.completionGrace = completionGrace;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<StoredResponse> find(String key) {
+        StoredResponse cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<StoredResponse> rows = jdbcTemplate.query(SELECT_SQL,
+                (rs, rowNum) -> new StoredResponse(
+                        rs.getString("request_hash"),
+                        (Integer) rs.getObject("response_status"),
+                        rs.getString("response_body"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                key, Timestamp.valueOf(LocalDateTime.now()));
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        StoredResponse stored = rows.get(0);
+        if (stored.isComplete()) {
+            completed.put(key, stored);
+        }
+        return Optional.of(stored);
+    }
+
+    /**
+     * Records {@code key} in the current transaction.
+     *
+     * @return false if an unexpired row for the key already exists; the row is then left untouched
+     */
+    public boolean claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        int rows = jdbcTemplate.update(CLAIM_SQL,
+                key, requestHash, Timestamp.valueOf(now), Timestamp.valueOf(now.plus(ttl)));
+        return rows == 1;
+    }
+
+    /**
+     * Stores the response produced for a claimed key. Does nothing if a response is already stored.
+     */
+    public void complete(String key, String requestHash, int status, String body) {
+        int rows = jdbcTemplate.update(COMPLETE_SQL, status, body, key, requestHash);
+        if (rows == 1) {
+            completed.put(key, new StoredResponse(requestHash, status, body, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Whether a key's change committed but its response will never be stored: the row has had no response
+     * for longer than {@code idempotency.completion-grace}.
+     */
+    public boolean isAbandoned(StoredResponse stored) {
+        return !stored.isComplete() && stored.createdAt().isBefore(LocalDateTime.now().minus(completionGrace));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = jdbcTemplate.update(CLEANUP_SQL, Timestamp.valueOf(LocalDateTime.now()));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.inventory.common.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a write endpoint as honouring the {@value IdempotencyAspect#IDEMPOTENCY_KEY_HEADER} request header.
+ * A retry carrying the same key and the same request gets the stored response of the first attempt instead
+ * of applying the change again; the same key with a different request is rejected with 422.
+ * Requests without the header are processed normally.
+ * <p>
+ * The annotated method must return a {@link org.springframework.http.ResponseEntity} and do its writes in a
+ * read-write transaction: the key is recorded in that transaction (see {@link IdempotencyClaimListener}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+}
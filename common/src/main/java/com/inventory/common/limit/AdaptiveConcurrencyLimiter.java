@@ -0,0 +1,151 @@
+package com.inventory.common.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of requests a service processes at once, sizing the cap from observed latency rather
+ * than a fixed rate. Uses a gradient algorithm: the limit grows by about its square root while the recent
+ * (short-window) latency stays within {@code rtt-tolerance} of the long-term average, and shrinks in
+ * proportion as the recent latency rises above it, down to half per step. Estimates are smoothed and
+ * clamped to {@code [min-limit, max-limit]}. While fewer than half the permits are in use, latency says
+ * nothing about capacity and the limit is left alone.
+ * <p>
+ * The limit is shared by all priorities, but {@link Priority#NORMAL} and {@link Priority#LOW} requests are
+ * only admitted while the number in flight is below their share of it, so they are shed first.
+ * <p>
+ * Publishes {@code concurrency.limit}, {@code concurrency.in-flight} and {@code concurrency.shed{priority}}.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final double longAlpha;
+    private final double normalShare;
+    private final double lowShare;
+    private final long retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, Counter> shed = new EnumMap<>(Priority.class);
+
+    // Sample updates are skipped rather than queued when another thread is applying one
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.longAlpha = 2.0 / (properties.getLongWindow() + 1);
+        this.normalShare = properties.getNormalShare();
+        this.lowShare = properties.getLowShare();
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.estimatedLimit = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(meterRegistry);
+        for (Priority priority : Priority.values()) {
+            shed.put(priority, Counter.builder("concurrency.shed")
+                    .description("Requests rejected by the concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Takes a permit if one is available to {@code priority}. Every successful call must be paired with
+     * {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = allowed(priority);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                shed.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a permit and feeds the request's latency into the limit.
+     */
+    public void release(long rttNanos) {
+        int inFlightAtSample = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtSample);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private int allowed(Priority priority) {
+        int current = limit;
+        return switch (priority) {
+            case CRITICAL -> current;
+            case NORMAL -> Math.max(1, (int) (current * normalShare));
+            case LOW -> Math.max(1, (int) (current * lowShare));
+        };
+    }
+
+    private void onSample(long rttNanos, int inFlightAtSample) {
+        if (rttNanos <= 0 || !sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+            } else {
+                shortRttNanos += (rttNanos - shortRttNanos) * SHORT_ALPHA;
+                longRttNanos += (rttNanos - longRttNanos) * longAlpha;
+            }
+            // After a latency spike, let the baseline fall back quickly so the limit can recover
+            if (longRttNanos / shortRttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+            if (inFlightAtSample < estimatedLimit / 2) {
+                return;
+            }
+            double gradient = Math.clamp(rttTolerance * longRttNanos / shortRttNanos, MIN_GRADIENT, 1.0);
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+            estimatedLimit = Math.clamp(newLimit, minLimit, maxLimit);
+            limit = (int) estimatedLimit;
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.inventory.common.limit;
+
+import com.inventory.common.exception.ConcurrencyLimitExceededException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applies {@link ConcurrencyLimited}. Runs before every other advice on the endpoint, so a shed request
+ * costs no database work. The measured latency covers the whole call, including idempotency lookups and
+ * retries; for streaming endpoints it ends when the response body starts, not when it finishes.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ConcurrencyLimitAspect {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Around("@annotation(com.inventory.common.limit.ConcurrencyLimited)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Priority priority = method.getAnnotation(ConcurrencyLimited.class).priority();
+        if (!limiter.tryAcquire(priority)) {
+            throw new ConcurrencyLimitExceededException(limiter.getRetryAfterSeconds());
+        }
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
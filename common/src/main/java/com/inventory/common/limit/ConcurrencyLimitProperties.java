@@ -0,0 +1,42 @@
+package com.inventory.common.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the {@link AdaptiveConcurrencyLimiter}, bound from {@code concurrency-limit.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /** When false, {@link ConcurrencyLimited} endpoints are not limited at all. */
+    private boolean enabled = true;
+
+    /** Concurrent requests admitted before any latency has been observed. */
+    private int initialLimit = 50;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 500;
+
+    /** How much the recent latency may exceed the long-term latency before the limit is reduced. */
+    private double rttTolerance = 1.5;
+
+    /** Weight of each new limit estimate (0-1); lower values react more slowly. */
+    private double smoothing = 0.2;
+
+    /** Number of samples the long-term latency average spans. */
+    private int longWindow = 600;
+
+    /** Share of the limit {@link Priority#NORMAL} requests may use. */
+    private double normalShare = 0.9;
+
+    /** Share of the limit {@link Priority#LOW} requests may use. */
+    private double lowShare = 0.75;
+
+    /** Sent as {@code Retry-After} on rejected requests. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
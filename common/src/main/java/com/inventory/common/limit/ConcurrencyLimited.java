@@ -0,0 +1,19 @@
+package com.inventory.common.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Admits calls to the annotated endpoint through the service's {@link AdaptiveConcurrencyLimiter}.
+ * Calls beyond the limit for their {@link Priority} are rejected with 429 and a {@code Retry-After} header.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimited {
+
+    Priority priority() default Priority.NORMAL;
+}
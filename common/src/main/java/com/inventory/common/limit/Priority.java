@@ -0,0 +1,18 @@
+package com.inventory.common.limit;
+
+/**
+ * How important a request is when {@link AdaptiveConcurrencyLimiter} has to shed load. Each priority may
+ * use only a share of the current limit, so lower priorities are rejected first and the remaining
+ * headroom is kept for higher ones.
+ */
+public enum Priority {
+
+    /** Stock-moving writes (sell, restock). May use the whole limit. */
+    CRITICAL,
+
+    /** Other writes and single-record reads. */
+    NORMAL,
+
+    /** Listings, bulk lookups, exports and history reads. Shed first. */
+    LOW
+}
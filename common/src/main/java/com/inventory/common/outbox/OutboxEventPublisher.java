@@ -1,13 +1,17 @@
 package com.inventory.common.outbox;
 
+import com.inventory.common.config.ThreadingConfig;
 import com.inventory.common.entity.OutboxEvent;
+import com.inventory.common.event.EventHeaders;
+import com.inventory.common.event.EventType;
 import com.inventory.common.repository.OutboxRepository;
-import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -18,18 +22,19 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @ConditionalOnProperty(name = "outbox.enabled", havingValue = "true", matchIfMissing = false)
-@RequiredArgsConstructor
 public class OutboxEventPublisher implements ApplicationListener<ContextClosedEvent> {
 
     private static final Logger log = LoggerFactory.getLogger(OutboxEventPublisher.class);
 
     private final OutboxRepository outboxRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Executor callbackExecutor;
     private final AtomicBoolean shuttingDown = new AtomicBoolean(false);
     private final AtomicInteger inFlightPublishes = new AtomicInteger(0);
 
@@ -48,14 +53,26 @@ public class OutboxEventPublisher implements ApplicationListener<ContextClosedEv
     @Value("${outbox.base-retry-delay-ms:1000}")
     private long baseRetryDelayMs = 1000L;
 
+    /**
+     * @param callbackExecutor runs the publish-result callbacks, which write to the outbox table; keeps that
+     *                         blocking work off the Kafka producer's network thread
+     */
+    public OutboxEventPublisher(OutboxRepository outboxRepository,
+                                KafkaTemplate<String, String> kafkaTemplate,
+                                @Qualifier(ThreadingConfig.CALLBACK_EXECUTOR) Executor callbackExecutor) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.callbackExecutor = callbackExecutor;
+    }
+
     @Override
     public void onApplicationEvent(ContextClosedEvent event) {
         shuttingDown.set(true);
     }
 
     /**
-     * Polls the outbox table for unprocessed events, publishes them to Kafka,
-     * and marks them as processed. If Kafka send fails, the event stays in
+     * Polls the outbox table for unprocessed events, publishes them to Kafka
+     * with their metadata as record headers, and marks them as processed. If Kafka send fails, the event stays in
      * the outbox and is retried on the next poll.
      *
      * <p>The polling interval is configurable via {@code outbox.poll-interval-ms}
@@ -92,8 +109,8 @@ public class OutboxEventPublisher implements ApplicationListener<ContextClosedEv
 
                 inFlightPublishes.incrementAndGet();
 
-                kafkaTemplate.send(event.getTopic(), event.getEventKey(), event.getPayload())
-                        .whenComplete((result, ex) -> {
+                kafkaTemplate.send(toRecord(event))
+                        .whenCompleteAsync((result, ex) -> {
                             try {
                                 if (ex == null) {
                                     outboxRepository.markProcessed(event.getId(), LocalDateTime.now());
@@ -122,7 +139,7 @@ public class OutboxEventPublisher implements ApplicationListener<ContextClosedEv
                             } finally {
                                 inFlightPublishes.decrementAndGet();
                             }
-                        });
+                        }, callbackExecutor);
             }
         } catch (DataAccessResourceFailureException | CannotAcquireLockException ex) {
             if (shuttingDown.get()) {
@@ -133,6 +150,17 @@ public class OutboxEventPublisher implements ApplicationListener<ContextClosedEv
         }
     }
 
+    /**
+     * Builds the Kafka record for an outbox event, with its metadata as {@link EventHeaders} so consumers
+     * can validate and deduplicate it without parsing the payload.
+     */
+    private ProducerRecord<String, String> toRecord(OutboxEvent event) {
+        EventHeaders headers = new EventHeaders(event.getEventId(), EventType.valueOf(event.getEventType()),
+                event.getContractVersion(), event.getCreatedAt(), event.getContentType());
+        return new ProducerRecord<>(event.getTopic(), null, event.getEventKey(), event.getPayload(),
+                headers.toKafkaHeaders());
+    }
+
     private long computeBackoffDelayMs(int retryCount) {
         long multiplier = 1L << Math.min(retryCount - 1, 6);
         return baseRetryDelayMs * multiplier;
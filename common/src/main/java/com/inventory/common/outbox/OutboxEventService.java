@@ -1,15 +1,19 @@
 package com.inventory.common.outbox;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inventory.common.entity.OutboxEvent;
 import com.inventory.common.event.BaseEvent;
+import com.inventory.common.event.EventCodec;
+import com.inventory.common.event.EventCodecs;
 import com.inventory.common.repository.OutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
 @Service
 @ConditionalOnProperty(name = "outbox.enabled", havingValue = "true", matchIfMissing = false)
 @RequiredArgsConstructor
@@ -17,7 +21,7 @@ import org.springframework.stereotype.Service;
 public class OutboxEventService {
 
     private final OutboxRepository outboxRepository;
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
 
     /**
      * Saves an event to the outbox table. This method should be called within the same
@@ -29,21 +33,41 @@ public class OutboxEventService {
      * @param event the event to publish
      */
     public void saveEvent(String topic, String key, BaseEvent event) {
-        try {
-            String payload = objectMapper.writeValueAsString(event);
-
-            OutboxEvent outboxEvent = OutboxEvent.builder()
-                    .eventId(event.getEventId())
-                    .eventType(event.getEventType().name())
-                    .topic(topic)
-                    .eventKey(key)
-                    .payload(payload)
-                    .build();
+        outboxRepository.save(toOutboxEvent(topic, key, event));
+        log.debug("Event saved to outbox: eventId={}, topic={}", event.getEventId(), topic);
+    }
 
-            outboxRepository.save(outboxEvent);
-            log.debug("Event saved to outbox: eventId={}, topic={}", event.getEventId(), topic);
-        } catch (JsonProcessingException ex) {
-            throw new RuntimeException("Failed to serialize event for outbox", ex);
+    /**
+     * Saves several events to the outbox with one {@code saveAll}, which Hibernate sends as JDBC batches
+     * when {@code hibernate.jdbc.batch_size} is set. Same transactional contract as {@link #saveEvent}.
+     *
+     * @param topic        the Kafka topic to publish to
+     * @param events       the events to publish
+     * @param keyExtractor derives the Kafka message key of each event
+     */
+    public <E extends BaseEvent> void saveEvents(String topic, List<E> events, Function<? super E, String> keyExtractor) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (E event : events) {
+            outboxEvents.add(toOutboxEvent(topic, keyExtractor.apply(event), event));
         }
+        outboxRepository.saveAll(outboxEvents);
+        log.debug("{} events saved to outbox: topic={}", events.size(), topic);
+    }
+
+    /** Encodes the event with the configured {@link EventCodecs#writer() codec}, recorded as its content type. */
+    private OutboxEvent toOutboxEvent(String topic, String key, BaseEvent event) {
+        EventCodec codec = eventCodecs.writer();
+        return OutboxEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType().name())
+                .topic(topic)
+                .eventKey(key)
+                .contractVersion(event.getContractVersion())
+                .contentType(codec.contentType())
+                .payload(codec.encode(event))
+                .build();
     }
 }
@@ -0,0 +1,39 @@
+package com.inventory.common.retry;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Keys that have a record in the retry tiers, each with the retry id of that record (the head). Other records
+ * with the key are parked until the head succeeds or is dead-lettered. Entries expire after {@code ttl}, so a
+ * head whose outcome this instance never sees (the retry partition is owned by another replica, or the
+ * instance restarted) holds its key for a bounded time only.
+ */
+final class KeyParkingLot {
+
+    private final Cache<String, String> heads;
+
+    KeyParkingLot(Duration ttl) {
+        this.heads = Caffeine.newBuilder().expireAfterWrite(ttl).build();
+    }
+
+    void park(String key, String retryId) {
+        heads.put(key, retryId);
+    }
+
+    /** Whether a record with this key and retry id has to wait behind another record. */
+    boolean isBlocked(String key, String retryId) {
+        String head = heads.getIfPresent(key);
+        return head != null && !head.equals(retryId);
+    }
+
+    void release(String key, String retryId) {
+        heads.asMap().remove(key, retryId);
+    }
+
+    long size() {
+        return heads.estimatedSize();
+    }
+}
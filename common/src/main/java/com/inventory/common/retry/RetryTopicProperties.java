@@ -0,0 +1,26 @@
+package com.inventory.common.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for {@link TieredRetry}, bound from {@code kafka.retry.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.retry")
+public class RetryTopicProperties {
+
+    /** Delay of each retry tier, in order; a record that fails the last tier goes to {@code {topic}.DLT}. */
+    private List<Duration> delays = new ArrayList<>(
+            List.of(Duration.ofSeconds(1), Duration.ofSeconds(10), Duration.ofSeconds(60)));
+
+    /** When true, records whose key has a record in retry are parked behind it instead of overtaking it. */
+    private boolean keyOrdering = false;
+
+    /** Records fetched per poll by the retry-tier consumers. */
+    private int batchSize = 100;
+}
@@ -0,0 +1,454 @@
+package com.inventory.common.retry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.CommonDelegatingErrorHandler;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking retries for Kafka listeners through tiered retry topics.
+ * <p>
+ * A record that fails is not retried in place, which would stall its partition, but republished to
+ * {@code {topic}.retry-1}, then {@code {topic}.retry-2} and so on, with the tier's delay from
+ * {@code kafka.retry.delays} (1s, 10s, 60s by default); after the last tier it goes to {@code {topic}.DLT}.
+ * Records that cannot succeed on a retry (unreadable JSON, contract violations) go to the DLT directly.
+ * The tiers are read by a separate listener container, created by {@link #retryContainerFactory}. When the
+ * next record of a tier partition is not due yet, the poll is sought back, that partition is paused until the
+ * record's due time and the other partitions carry on, so a record waiting on {@code .retry-3} does not hold
+ * back one due sooner on {@code .retry-1} and no consumer thread sleeps. The delays are lower bounds, late
+ * by up to the retry containers' poll timeout ({@value #RETRY_POLL_TIMEOUT_MS} ms) once a partition resumes.
+ * <p>
+ * With {@code kafka.retry.key-ordering} enabled, a failed record's key is parked: later records with that key
+ * are moved to the first retry tier behind it, and moved again while it is still retrying, instead of being
+ * processed ahead of it. The key is released when the record succeeds on a retry or is dead-lettered. This is
+ * best effort; parking is tracked per instance and expires after twice the total retry delay.
+ * <p>
+ * Metrics: {@code kafka.retry.records} tagged by {@code topic} and {@code destination} ({@code retry-N},
+ * {@code dlt} or {@code parked}), {@code kafka.retry.lateness} (delivery past the due time), and
+ * {@code kafka.retry.parked-keys}. Retry consumers also export the Kafka client metrics, including
+ * per-topic {@code records-lag}.
+ */
+@Slf4j
+public class TieredRetry {
+
+    public static final String RETRY_ID_HEADER = "x-retry-id";
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String DUE_AT_HEADER = "x-retry-due-at";
+
+    /** Poll timeout of the retry containers, which bounds how late a paused tier partition is resumed. */
+    static final long RETRY_POLL_TIMEOUT_MS = 500L;
+
+    private static final String RETRY_SUFFIX = ".retry-";
+    private static final String DLT_SUFFIX = ".DLT";
+
+    private final KafkaOperations<String, String> kafkaTemplate;
+    private final List<Duration> delays;
+    private final int batchSize;
+    private final KeyParkingLot parkingLot;
+    private final MeterRegistry meterRegistry;
+    private final Timer lateness;
+    private final ScheduledExecutorService resumer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tiered-retry-resume");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TieredRetry(KafkaOperations<String, String> kafkaTemplate, RetryTopicProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.delays = List.copyOf(properties.getDelays());
+        if (delays.isEmpty()) {
+            throw new IllegalArgumentException("kafka.retry.delays must name at least one tier");
+        }
+        Duration total = Duration.ZERO;
+        for (Duration delay : delays) {
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("Retry delay " + delay + " must not be negative");
+            }
+            total = total.plus(delay);
+        }
+        this.kafkaTemplate = kafkaTemplate;
+        this.batchSize = properties.getBatchSize();
+        this.meterRegistry = meterRegistry;
+        this.parkingLot = properties.isKeyOrdering() ? new KeyParkingLot(total.multipliedBy(2)) : null;
+        this.lateness = Timer.builder("kafka.retry.lateness")
+                .description("Time past its due time at which a retried record was delivered")
+                .register(meterRegistry);
+        if (parkingLot != null) {
+            Gauge.builder("kafka.retry.parked-keys", parkingLot, KeyParkingLot::size)
+                    .description("Keys whose records wait behind a record in retry")
+                    .register(meterRegistry);
+        }
+    }
+
+    /** The retry tier topics of {@code topic}, for the {@code topics} of its retry listener. */
+    public String[] retryTopics(String topic) {
+        String[] topics = new String[delays.size()];
+        for (int tier = 1; tier <= delays.size(); tier++) {
+            topics[tier - 1] = retryTopic(topic, tier);
+        }
+        return topics;
+    }
+
+    /** Routes failures of a main listener container into the retry tiers, and parks keys if enabled. */
+    public void configure(ConcurrentKafkaListenerContainerFactory<String, String> factory) {
+        factory.setCommonErrorHandler(errorHandler());
+        if (parkingLot != null) {
+            factory.setRecordFilterStrategy(filter(false));
+        }
+    }
+
+    /**
+     * Listener container factory for the retry tiers of listeners built from {@code consumerConfig}. Batch
+     * listeners that report a failed record with
+     * {@link org.springframework.kafka.listener.BatchListenerFailedException} should identify it by record
+     * rather than index, as records held back by key ordering are not passed to the listener.
+     */
+    public ConcurrentKafkaListenerContainerFactory<String, String> retryContainerFactory(
+            Map<String, Object> consumerConfig, int concurrency, boolean batchListener) {
+        Map<String, Object> config = new HashMap<>(consumerConfig);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        DefaultKafkaConsumerFactory<String, String> consumerFactory = new DefaultKafkaConsumerFactory<>(config);
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(batchListener);
+        factory.getContainerProperties().setPollTimeout(RETRY_POLL_TIMEOUT_MS);
+        factory.setCommonErrorHandler(errorHandler());
+        factory.setRecordFilterStrategy(filter(true));
+        if (parkingLot != null) {
+            HeadRelease headRelease = new HeadRelease();
+            if (batchListener) {
+                factory.setBatchInterceptor(headRelease);
+            } else {
+                factory.setRecordInterceptor(headRelease);
+            }
+        }
+        return factory;
+    }
+
+    /**
+     * Error handler for batch listeners that tell a failed record from a failed dependency: a record reported
+     * with {@link BatchListenerFailedException} is routed like any other, while any other exception means no
+     * record is to blame and the whole batch is retried in place with {@code backOff}. The consumer is paused
+     * meanwhile but stays in its group, so an outage of the listener's database does not move healthy records
+     * through the tiers to the DLT. With an unlimited {@code backOff} such a batch is never dropped. Retried
+     * records that are not due yet are held back as by {@link #retryContainerFactory}.
+     */
+    public CommonErrorHandler batchErrorHandler(BackOff backOff) {
+        CommonErrorHandler routing = errorHandler();
+        CommonDelegatingErrorHandler handler = new CommonDelegatingErrorHandler(new DefaultErrorHandler(backOff));
+        handler.addDelegate(BatchListenerFailedException.class, routing);
+        handler.addDelegate(NotDueException.class, routing);
+        return handler;
+    }
+
+    CommonErrorHandler errorHandler() {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, this::route);
+        recoverer.setHeadersFunction(this::retryHeaders);
+        return new TierErrorHandler(recoverer);
+    }
+
+    /**
+     * Parks records whose key is blocked and, on a retry tier, throws {@link NotDueException} for a record
+     * that is not due yet. A batch is checked for due times before any record in it is parked, so a batch
+     * that is held back and redelivered does not park its records twice.
+     */
+    RecordFilterStrategy<String, String> filter(boolean retryTier) {
+        return new RecordFilterStrategy<>() {
+
+            @Override
+            public boolean filter(ConsumerRecord<String, String> record) {
+                if (retryTier) {
+                    checkDue(record);
+                }
+                return parkIfBlocked(record);
+            }
+
+            @Override
+            public List<ConsumerRecord<String, String>> filterBatch(List<ConsumerRecord<String, String>> records) {
+                if (retryTier) {
+                    records.forEach(TieredRetry.this::checkDue);
+                }
+                List<ConsumerRecord<String, String>> passed = new ArrayList<>(records.size());
+                for (ConsumerRecord<String, String> record : records) {
+                    if (!parkIfBlocked(record)) {
+                        passed.add(record);
+                    }
+                }
+                return passed;
+            }
+        };
+    }
+
+    /**
+     * Seeks every partition of {@code records}, which the listener has not processed, back to its first
+     * record, and pauses the partition of the record that is not due until its due time.
+     */
+    void holdBack(NotDueException notDue, Iterable<? extends ConsumerRecord<?, ?>> records, Consumer<?, ?> consumer,
+                  MessageListenerContainer container) {
+        Map<TopicPartition, Long> positions = new LinkedHashMap<>();
+        for (ConsumerRecord<?, ?> record : records) {
+            positions.putIfAbsent(new TopicPartition(record.topic(), record.partition()), record.offset());
+        }
+        positions.forEach(consumer::seek);
+        container.pausePartition(notDue.partition);
+        resumer.schedule(() -> container.resumePartition(notDue.partition), notDue.waitMs, TimeUnit.MILLISECONDS);
+        log.debug("Holding back {} for {} ms until its retry is due", notDue.partition, notDue.waitMs);
+    }
+
+    /** Picks the next tier of a failed record, or its DLT, and parks or releases its key. */
+    TopicPartition route(ConsumerRecord<?, ?> record, Exception exception) {
+        String topic = baseTopic(record.topic());
+        String retryId = retryId(record);
+        String key = record.key() != null ? record.key().toString() : null;
+        int next = attempt(record) + 1;
+
+        String destination;
+        if (next > delays.size() || !isRetryable(exception)) {
+            destination = topic + DLT_SUFFIX;
+            if (parkingLot != null && key != null) {
+                parkingLot.release(key, retryId);
+            }
+            count(topic, "dlt");
+        } else {
+            destination = retryTopic(topic, next);
+            if (parkingLot != null && key != null) {
+                parkingLot.park(key, retryId);
+            }
+            count(topic, "retry-" + next);
+        }
+        log.warn("Routing failed record {} from {} to {}: {}", retryId, record.topic(), destination,
+                exception.getMessage());
+        // A negative partition lets the producer partition by key, so a key's records stay in order per tier
+        return new TopicPartition(destination, -1);
+    }
+
+    Headers retryHeaders(ConsumerRecord<?, ?> record, Exception exception) {
+        int next = attempt(record) + 1;
+        Headers headers = new RecordHeaders();
+        headers.add(RETRY_ID_HEADER, bytes(retryId(record)));
+        headers.add(ATTEMPT_HEADER, bytes(Integer.toString(next)));
+        if (next <= delays.size() && isRetryable(exception)) {
+            long dueAt = System.currentTimeMillis() + delays.get(next - 1).toMillis();
+            headers.add(DUE_AT_HEADER, bytes(Long.toString(dueAt)));
+        }
+        return headers;
+    }
+
+    private void checkDue(ConsumerRecord<?, ?> record) {
+        Header due = record.headers().lastHeader(DUE_AT_HEADER);
+        if (due == null) {
+            return;
+        }
+        long wait = Long.parseLong(string(due)) - System.currentTimeMillis();
+        if (wait > 0) {
+            throw new NotDueException(new TopicPartition(record.topic(), record.partition()), wait);
+        }
+        lateness.record(-wait, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean parkIfBlocked(ConsumerRecord<String, String> record) {
+        if (parkingLot != null && record.key() != null && parkingLot.isBlocked(record.key(), retryId(record))) {
+            park(record);
+            return true;
+        }
+        return false;
+    }
+
+    /** Moves a record whose key is parked to the first tier, keeping its attempt count. */
+    private void park(ConsumerRecord<String, String> record) {
+        String topic = baseTopic(record.topic());
+        Headers headers = new RecordHeaders(record.headers().toArray());
+        headers.remove(RETRY_ID_HEADER);
+        headers.remove(DUE_AT_HEADER);
+        headers.add(RETRY_ID_HEADER, bytes(retryId(record)));
+        headers.add(DUE_AT_HEADER, bytes(Long.toString(System.currentTimeMillis() + delays.get(0).toMillis())));
+        try {
+            kafkaTemplate.send(new ProducerRecord<>(retryTopic(topic, 1), null, record.key(), record.value(), headers))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while parking " + retryId(record), e);
+        } catch (ExecutionException e) {
+            throw new KafkaException("Failed to park " + retryId(record), e.getCause());
+        }
+        count(topic, "parked");
+        log.debug("Parked record {} behind key {}", retryId(record), record.key());
+    }
+
+    private void release(ConsumerRecord<String, String> record) {
+        if (record.key() != null) {
+            parkingLot.release(record.key(), retryId(record));
+        }
+    }
+
+    private void count(String topic, String destination) {
+        Counter.builder("kafka.retry.records")
+                .description("Failed or parked records routed to a retry tier or dead letter topic")
+                .tag("topic", topic)
+                .tag("destination", destination)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean isRetryable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JsonProcessingException || cause instanceof IllegalArgumentException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String retryTopic(String topic, int tier) {
+        return topic + RETRY_SUFFIX + tier;
+    }
+
+    static String baseTopic(String topic) {
+        int suffix = topic.lastIndexOf(RETRY_SUFFIX);
+        if (suffix < 0) {
+            return topic;
+        }
+        String tier = topic.substring(suffix + RETRY_SUFFIX.length());
+        return !tier.isEmpty() && tier.chars().allMatch(Character::isDigit) ? topic.substring(0, suffix) : topic;
+    }
+
+    /** Identifies a record across tiers: the position it was first consumed at. */
+    private static String retryId(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(RETRY_ID_HEADER);
+        return header != null ? string(header) : record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    private static int attempt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPT_HEADER);
+        return header != null ? Integer.parseInt(string(header)) : 0;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(Header header) {
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    /** Thrown by a retry tier's filter for a record that is not due yet; the record is held back, not routed. */
+    static final class NotDueException extends KafkaException {
+
+        final TopicPartition partition;
+        final long waitMs;
+
+        NotDueException(TopicPartition partition, long waitMs) {
+            super("Retry on " + partition + " is due in " + waitMs + " ms");
+            this.partition = partition;
+            this.waitMs = waitMs;
+        }
+    }
+
+    /** Routes failed records into the tiers, and holds back retried records that are not due yet. */
+    private final class TierErrorHandler extends DefaultErrorHandler {
+
+        private TierErrorHandler(DeadLetterPublishingRecoverer recoverer) {
+            super(recoverer, new FixedBackOff(0L, 0L));
+        }
+
+        @Override
+        public void handleRemaining(Exception thrownException, List<ConsumerRecord<?, ?>> records,
+                                    Consumer<?, ?> consumer, MessageListenerContainer container) {
+            NotDueException notDue = notDue(thrownException);
+            if (notDue != null) {
+                holdBack(notDue, records, consumer, container);
+            } else {
+                super.handleRemaining(thrownException, records, consumer, container);
+            }
+        }
+
+        @Override
+        public void handleBatch(Exception thrownException, ConsumerRecords<?, ?> data, Consumer<?, ?> consumer,
+                                MessageListenerContainer container, Runnable invokeListener) {
+            NotDueException notDue = notDue(thrownException);
+            if (notDue != null) {
+                holdBack(notDue, data, consumer, container);
+            } else {
+                super.handleBatch(thrownException, data, consumer, container, invokeListener);
+            }
+        }
+
+        private static NotDueException notDue(Throwable exception) {
+            for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+                if (cause instanceof NotDueException notDue) {
+                    return notDue;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Releases a parked key once the record it waits for succeeds on a retry. */
+    private final class HeadRelease implements RecordInterceptor<String, String>, BatchInterceptor<String, String> {
+
+        @Override
+        public ConsumerRecord<String, String> intercept(ConsumerRecord<String, String> record,
+                                                        Consumer<String, String> consumer) {
+            return record;
+        }
+
+        @Override
+        public ConsumerRecords<String, String> intercept(ConsumerRecords<String, String> records,
+                                                         Consumer<String, String> consumer) {
+            return records;
+        }
+
+        @Override
+        public void success(ConsumerRecord<String, String> record, Consumer<String, String> consumer) {
+            release(record);
+        }
+
+        @Override
+        public void success(ConsumerRecords<String, String> records, Consumer<String, String> consumer) {
+            records.forEach(TieredRetry.this::release);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.inventory.common.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds pre-serialized JSON messages for {@code SimpMessagingTemplate.send}. A payload is serialized
+ * once and the same bytes are shared by every destination it goes to, instead of being converted again
+ * by each {@code convertAndSend} call.
+ */
+public final class JsonFrames {
+
+    private JsonFrames() {}
+
+    public static byte[] serialize(ObjectMapper objectMapper, Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize WebSocket payload", e);
+        }
+    }
+
+    /**
+     * Joins already-serialized JSON values into one JSON array without parsing them again.
+     */
+    public static byte[] array(List<byte[]> elements) {
+        int length = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] element : elements) {
+            length += element.length;
+        }
+        byte[] array = new byte[length];
+        int position = 0;
+        array[position++] = '[';
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                array[position++] = ',';
+            }
+            byte[] element = elements.get(i);
+            System.arraycopy(element, 0, array, position, element.length);
+            position += element.length;
+        }
+        array[position] = ']';
+        return array;
+    }
+
+    public static Message<byte[]> message(byte[] json) {
+        return MessageBuilder.withPayload(json)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+    }
+
+    /**
+     * Like {@link #message(byte[])}, with STOMP headers that are delivered to the client on the MESSAGE frame.
+     */
+    public static Message<byte[]> message(byte[] json, Map<String, String> nativeHeaders) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        nativeHeaders.forEach(accessor::setNativeHeader);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+}
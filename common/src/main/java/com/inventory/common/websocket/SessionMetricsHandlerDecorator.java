@@ -0,0 +1,46 @@
+package com.inventory.common.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records WebSocket session metrics: {@code websocket.sessions.active} and
+ * {@code websocket.sessions.evicted}. A session is evicted when its outbound buffer exceeds the
+ * transport's send buffer or send time limit; Spring closes it with {@link CloseStatus#SESSION_NOT_RELIABLE}
+ * so one slow client cannot hold messages for everyone else.
+ */
+@Slf4j
+public class SessionMetricsHandlerDecorator extends WebSocketHandlerDecorator {
+
+    private final AtomicInteger activeSessions;
+    private final Counter evictedSessions;
+
+    public SessionMetricsHandlerDecorator(WebSocketHandler delegate, MeterRegistry meterRegistry) {
+        super(delegate);
+        this.activeSessions = meterRegistry.gauge("websocket.sessions.active", new AtomicInteger());
+        this.evictedSessions = meterRegistry.counter("websocket.sessions.evicted");
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        activeSessions.incrementAndGet();
+        super.afterConnectionEstablished(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        activeSessions.decrementAndGet();
+        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+            evictedSessions.increment();
+            log.warn("Evicted slow WebSocket session {}", session.getId());
+        }
+        super.afterConnectionClosed(session, closeStatus);
+    }
+}
@@ -0,0 +1,64 @@
+package com.inventory.common.websocket;
+
+/**
+ * A server-side filter on stock updates, declared in the last segment of a filtered subscription
+ * destination as comma-separated {@code key=value} pairs, for example {@code lowStock=true,skuPrefix=ELEC-}.
+ * All given conditions must hold; omitted ones match everything.
+ * <ul>
+ *   <li>{@code lowStock} — {@code true} for quantity at or below the minimum threshold, {@code false} for above</li>
+ *   <li>{@code skuPrefix} — SKU starts with the value</li>
+ *   <li>{@code maxQuantity} — quantity at or below the value</li>
+ * </ul>
+ *
+ * @param lowStock    required low-stock state, or {@code null}
+ * @param skuPrefix   required SKU prefix, or {@code null}
+ * @param maxQuantity highest matching quantity, or {@code null}
+ */
+public record StockFilter(Boolean lowStock, String skuPrefix, Integer maxQuantity) {
+
+    /**
+     * Compiles a filter spec.
+     *
+     * @throws IllegalArgumentException if the spec is empty or has an unknown key or invalid value
+     */
+    public static StockFilter parse(String spec) {
+        Boolean lowStock = null;
+        String skuPrefix = null;
+        Integer maxQuantity = null;
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("Empty stock filter");
+        }
+        for (String condition : spec.split(",")) {
+            int separator = condition.indexOf('=');
+            if (separator <= 0 || separator == condition.length() - 1) {
+                throw new IllegalArgumentException("Invalid stock filter condition: " + condition);
+            }
+            String key = condition.substring(0, separator).trim();
+            String value = condition.substring(separator + 1).trim();
+            switch (key) {
+                case "lowStock" -> {
+                    if (!value.equals("true") && !value.equals("false")) {
+                        throw new IllegalArgumentException("lowStock must be true or false: " + value);
+                    }
+                    lowStock = Boolean.valueOf(value);
+                }
+                case "skuPrefix" -> skuPrefix = value;
+                case "maxQuantity" -> {
+                    try {
+                        maxQuantity = Integer.valueOf(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("maxQuantity must be an integer: " + value);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown stock filter key: " + key);
+            }
+        }
+        return new StockFilter(lowStock, skuPrefix, maxQuantity);
+    }
+
+    public boolean matches(String sku, int quantity, int minThreshold) {
+        return (lowStock == null || lowStock == (quantity <= minThreshold))
+                && (skuPrefix == null || (sku != null && sku.startsWith(skuPrefix)))
+                && (maxQuantity == null || quantity <= maxQuantity);
+    }
+}
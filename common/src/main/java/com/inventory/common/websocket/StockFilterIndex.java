@@ -0,0 +1,84 @@
+package com.inventory.common.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link StockFilter}s currently subscribed under one filtered destination prefix, such as
+ * {@code /topic/inventory/filtered/}. Each distinct destination is compiled once, when it gains its first
+ * subscriber, and dropped when it loses its last; the broker delivers a frame sent to that destination to
+ * every session subscribed to it. Evaluating an update therefore costs one check per distinct filter and
+ * the sends reach only matching sessions, however many clients are connected.
+ * <p>
+ * A destination whose filter does not compile never receives frames; the error is logged once.
+ */
+@Slf4j
+public class StockFilterIndex implements StompSubscriptionRegistry.DestinationListener {
+
+    private final String prefix;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final Map<String, StockFilter> filters = new ConcurrentHashMap<>();
+
+    public StockFilterIndex(String prefix, StompSubscriptionRegistry subscriptionRegistry) {
+        this.prefix = prefix;
+        this.subscriptionRegistry = subscriptionRegistry;
+        subscriptionRegistry.addListener(this);
+    }
+
+    public boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    /**
+     * @return the filtered destinations an update with these values should be sent to
+     */
+    public List<String> matching(String sku, int quantity, int minThreshold) {
+        if (filters.isEmpty()) {
+            return List.of();
+        }
+        List<String> destinations = new ArrayList<>();
+        filters.forEach((destination, filter) -> {
+            if (filter.matches(sku, quantity, minThreshold)) {
+                destinations.add(destination);
+            }
+        });
+        return destinations;
+    }
+
+    public boolean matchesAny(String sku, int quantity, int minThreshold) {
+        for (StockFilter filter : filters.values()) {
+            if (filter.matches(sku, quantity, minThreshold)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isFiltered(String destination) {
+        return destination.startsWith(prefix);
+    }
+
+    @Override
+    public void destinationActive(String destination) {
+        if (!isFiltered(destination)) {
+            return;
+        }
+        try {
+            filters.computeIfAbsent(destination, key -> StockFilter.parse(key.substring(prefix.length())));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring WebSocket subscription to {}: {}", destination, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destinationInactive(String destination) {
+        if (isFiltered(destination)) {
+            filters.computeIfPresent(destination,
+                    (key, filter) -> subscriptionRegistry.hasSubscribers(key) ? filter : null);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.inventory.common.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Sends WebSocket frames stamped with a sequence number and keeps the most recent ones, so a client that
+ * reconnects can ask for the frames it missed instead of reloading everything over REST.
+ * <p>
+ * Every frame sent by this replica carries two STOMP headers: {@code stream}, which is fixed for the life of
+ * the replica, and {@code seq}, which increases by one per frame across all destinations. A client remembers
+ * the headers of the last frame it received and passes them to {@link #replay}. The last
+ * {@code websocket.replay-buffer-size} frames are kept as the bytes that were sent; if the client's position
+ * is still in the buffer it gets only the frames it missed, otherwise (older gap, restarted or different
+ * replica) it gets a snapshot.
+ * <p>
+ * Sends are serialized so that sequence numbers leave in order; the broker preserves publish order per
+ * session. Metrics: {@code websocket.replays} tagged by {@code result} ({@code delta} or {@code snapshot}).
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.web.socket.messaging.SessionSubscribeEvent")
+@Slf4j
+public class StompReplayBuffer {
+
+    public static final String STREAM_HEADER = "stream";
+    public static final String SEQ_HEADER = "seq";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final String stream = UUID.randomUUID().toString();
+    private final SentFrame[] frames;
+    private long lastSeq;
+
+    private final Counter deltaReplays;
+    private final Counter snapshotReplays;
+
+    public StompReplayBuffer(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${websocket.replay-buffer-size:1024}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("websocket.replay-buffer-size must be at least 1");
+        }
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.frames = new SentFrame[capacity];
+        this.deltaReplays = meterRegistry.counter("websocket.replays", "result", "delta");
+        this.snapshotReplays = meterRegistry.counter("websocket.replays", "result", "snapshot");
+    }
+
+    /**
+     * Records {@code json} under the next sequence number and sends it to {@code destination}.
+     *
+     * @return the sequence number the frame was sent with
+     */
+    public synchronized long send(String destination, byte[] json) {
+        long seq = ++lastSeq;
+        frames[slot(seq)] = new SentFrame(seq, destination, json);
+        messagingTemplate.send(destination,
+                JsonFrames.message(json, Map.of(STREAM_HEADER, stream, SEQ_HEADER, Long.toString(seq))));
+        return seq;
+    }
+
+    public String stream() {
+        return stream;
+    }
+
+    /**
+     * Returns what a client needs to catch up on {@code destinations} after the frame it last received.
+     *
+     * @param clientStream the {@code stream} header of the last frame the client received, or {@code null}
+     * @param clientSeq    the {@code seq} header of that frame, or {@code null}
+     * @param destinations the destinations the client subscribes to
+     * @param snapshot     current state per destination for the destinations the caller can rebuild; called
+     *                     only when the gap cannot be replayed
+     */
+    public StreamReplay replay(String clientStream, Long clientSeq, Set<String> destinations,
+                               Function<Collection<String>, Map<String, ?>> snapshot) {
+        long head;
+        synchronized (this) {
+            head = lastSeq;
+            if (isReplayable(clientStream, clientSeq)) {
+                List<StreamReplay.Frame> missed = new ArrayList<>();
+                for (long seq = clientSeq + 1; seq <= head; seq++) {
+                    SentFrame frame = frames[slot(seq)];
+                    if (destinations.contains(frame.destination())) {
+                        missed.add(StreamReplay.Frame.of(seq, frame.destination(), frame.json()));
+                    }
+                }
+                deltaReplays.increment();
+                return new StreamReplay(stream, head, false, missed);
+            }
+        }
+
+        // Read outside the lock: changes after head arrive as live frames with a higher seq
+        List<StreamReplay.Frame> current = new ArrayList<>();
+        if (!destinations.isEmpty()) {
+            snapshot.apply(destinations).forEach((destination, payload) ->
+                    current.add(StreamReplay.Frame.of(head, destination, JsonFrames.serialize(objectMapper, payload))));
+        }
+        snapshotReplays.increment();
+        log.debug("WebSocket replay from {}:{} needs a snapshot; buffer holds up to seq {}",
+                clientStream, clientSeq, head);
+        return new StreamReplay(stream, head, true, current);
+    }
+
+    private boolean isReplayable(String clientStream, Long clientSeq) {
+        if (!stream.equals(clientStream) || clientSeq == null || clientSeq > lastSeq) {
+            return false;
+        }
+        long oldestRetained = Math.max(1, lastSeq - frames.length + 1);
+        return clientSeq + 1 >= oldestRetained;
+    }
+
+    private int slot(long seq) {
+        return (int) (seq % frames.length);
+    }
+
+    private record SentFrame(long seq, String destination, byte[] json) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.inventory.common.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tracks which STOMP destinations on this node currently have subscribers, from the session
+ * SUBSCRIBE, UNSUBSCRIBE and DISCONNECT events published by the WebSocket message broker.
+ * <p>
+ * Notifiers check {@link #hasSubscribers} before mapping or serializing anything, so updates for
+ * SKUs that no client is watching cost a single map lookup. UNSUBSCRIBE frames only carry the
+ * subscription id, so each session's subscriptions are remembered until it unsubscribes or disconnects.
+ * <p>
+ * {@link DestinationListener}s are told when a destination gains its first subscriber and loses its last.
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.web.socket.messaging.SessionSubscribeEvent")
+@Slf4j
+public class StompSubscriptionRegistry {
+
+    private final Map<String, Integer> subscribersByDestination = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> destinationsBySession = new ConcurrentHashMap<>();
+    private final List<DestinationListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(DestinationListener listener) {
+        listeners.add(listener);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = headers(event.getMessage());
+        if (headers.getDestination() != null) {
+            subscribe(headers.getSessionId(), headers.getSubscriptionId(), headers.getDestination());
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = headers(event.getMessage());
+        unsubscribe(headers.getSessionId(), headers.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId());
+    }
+
+    /**
+     * @return {@code true} if at least one session on this node is subscribed to {@code destination}
+     */
+    public boolean hasSubscribers(String destination) {
+        return subscribersByDestination.containsKey(destination);
+    }
+
+    public int subscriberCount(String destination) {
+        return subscribersByDestination.getOrDefault(destination, 0);
+    }
+
+    /**
+     * @return the destinations {@code sessionId} is currently subscribed to, empty for unknown sessions
+     */
+    public Set<String> destinationsOf(String sessionId) {
+        Map<String, String> subscriptions = destinationsBySession.get(sessionId);
+        return subscriptions == null ? Set.of() : Set.copyOf(subscriptions.values());
+    }
+
+    void subscribe(String sessionId, String subscriptionId, String destination) {
+        String previous = destinationsBySession
+                .computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            release(previous);
+        }
+        if (subscribersByDestination.merge(destination, 1, Integer::sum) == 1) {
+            listeners.forEach(listener -> listener.destinationActive(destination));
+        }
+        log.debug("STOMP subscribe: session={}, destination={}", sessionId, destination);
+    }
+
+    void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, String> subscriptions = destinationsBySession.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String destination = subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            release(destination);
+        }
+    }
+
+    void disconnect(String sessionId) {
+        Map<String, String> subscriptions = destinationsBySession.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void release(String destination) {
+        boolean[] last = new boolean[1];
+        subscribersByDestination.computeIfPresent(destination, (key, count) -> {
+            last[0] = count == 1;
+            return last[0] ? null : count - 1;
+        });
+        if (last[0]) {
+            listeners.forEach(listener -> listener.destinationInactive(destination));
+        }
+    }
+
+    private static SimpMessageHeaderAccessor headers(Message<?> message) {
+        return SimpMessageHeaderAccessor.wrap(message);
+    }
+
+    /**
+     * Notified outside the registry's locks, so a concurrent subscribe and release of the same destination
+     * may be reported in either order; listeners confirm with {@link #hasSubscribers} before dropping state.
+     */
+    public interface DestinationListener {
+
+        void destinationActive(String destination);
+
+        void destinationInactive(String destination);
+    }
+}
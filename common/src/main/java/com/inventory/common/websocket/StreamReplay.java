@@ -0,0 +1,30 @@
+package com.inventory.common.websocket;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Reply to a client that resumes a WebSocket stream.
+ * <p>
+ * With {@code snapshot == false}, {@code frames} are exactly the frames the client missed on its
+ * subscriptions, oldest first. With {@code snapshot == true} the gap could not be replayed and
+ * {@code frames} hold the current state of every subscribed destination the service can rebuild cheaply;
+ * the client reloads any other subscribed destination over REST. Either way the client continues from
+ * {@code stream} and {@code seq}.
+ *
+ * @param stream   the stream the sequence numbers belong to
+ * @param seq      the last sequence number covered by this reply
+ * @param snapshot whether {@code frames} are a snapshot rather than the missed frames
+ * @param frames   the frames to apply, with payloads in the same JSON form as live pushes
+ */
+public record StreamReplay(String stream, long seq, boolean snapshot, List<Frame> frames) {
+
+    public record Frame(long seq, String destination, @JsonRawValue String payload) {
+
+        static Frame of(long seq, String destination, byte[] json) {
+            return new Frame(seq, destination, new String(json, StandardCharsets.UTF_8));
+        }
+    }
+}
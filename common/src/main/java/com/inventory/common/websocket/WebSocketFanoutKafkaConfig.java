@@ -0,0 +1,67 @@
+package com.inventory.common.websocket;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.CommonLoggingErrorHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Listener container factory for cross-replica WebSocket fan-out.
+ * <p>
+ * Each JVM joins its own consumer group, so every replica receives every stock change and pushes it to
+ * the clients connected to it, wherever the change was made. Clients can therefore connect to any replica.
+ * Consumption starts at the latest offset, since only live changes are pushed. Failures are only logged:
+ * a missed push is superseded by the next change to the same SKU.
+ * <p>
+ * {@link #WEBSOCKET_FANOUT_BATCH_CONTAINER_FACTORY} delivers a whole poll at once, for listeners that
+ * coalesce pushes when they fall behind.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.web.socket.messaging.SessionSubscribeEvent")
+public class WebSocketFanoutKafkaConfig {
+
+    public static final String WEBSOCKET_FANOUT_CONTAINER_FACTORY = "websocketFanoutContainerFactory";
+    public static final String WEBSOCKET_FANOUT_BATCH_CONTAINER_FACTORY = "websocketFanoutBatchContainerFactory";
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Bean(name = WEBSOCKET_FANOUT_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> websocketFanoutContainerFactory() {
+        return fanoutContainerFactory(false);
+    }
+
+    @Bean(name = WEBSOCKET_FANOUT_BATCH_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> websocketFanoutBatchContainerFactory() {
+        return fanoutContainerFactory(true);
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, String> fanoutContainerFactory(boolean batchListener) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-ws-" + UUID.randomUUID());
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
+        factory.setConcurrency(1);
+        factory.setBatchListener(batchListener);
+        factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
+        return factory;
+    }
+}
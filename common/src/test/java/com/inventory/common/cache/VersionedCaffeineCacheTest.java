@@ -0,0 +1,101 @@
+package com.inventory.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedCaffeineCacheTest {
+
+    private VersionedCaffeineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VersionedCaffeineCache("stock", Caffeine.newBuilder().build(), true, Duration.ofSeconds(30));
+    }
+
+    private record Entry(Long version) implements Versioned {
+        @Override
+        public Long getVersion() {
+            return version;
+        }
+    }
+
+    @Nested
+    @DisplayName("put")
+    class Put {
+
+        @Test
+        @DisplayName("should not replace a newer value with an older one")
+        void shouldNotReplaceNewerValue() {
+            cache.put("PROD-001", new Entry(5L));
+            cache.put("PROD-001", new Entry(4L));
+
+            assertThat(cache.get("PROD-001", Entry.class).version()).isEqualTo(5L);
+        }
+
+        @Test
+        @DisplayName("should reject a stale load that races with an invalidation")
+        void shouldRejectStaleLoadAfterInvalidation() {
+            cache.evictIfOlder("PROD-001", 6L);
+
+            cache.put("PROD-001", new Entry(5L));
+            assertThat(cache.get("PROD-001")).isNull();
+
+            cache.put("PROD-001", new Entry(6L));
+            assertThat(cache.get("PROD-001", Entry.class).version()).isEqualTo(6L);
+        }
+
+        @Test
+        @DisplayName("should reject every put for a deleted key")
+        void shouldRejectPutsAfterDelete() {
+            cache.put("PROD-001", new Entry(5L));
+            cache.evictDeleted("PROD-001");
+
+            cache.put("PROD-001", new Entry(6L));
+            assertThat(cache.putIfAbsent("PROD-001", new Entry(7L))).isNull();
+
+            assertThat(cache.get("PROD-001")).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("evictIfOlder")
+    class EvictIfOlder {
+
+        @Test
+        @DisplayName("should evict an older cached value")
+        void shouldEvictOlderValue() {
+            cache.put("PROD-001", new Entry(5L));
+
+            cache.evictIfOlder("PROD-001", 6L);
+
+            assertThat(cache.get("PROD-001")).isNull();
+        }
+
+        @Test
+        @DisplayName("should keep a value that is already as new as a late invalidation")
+        void shouldIgnoreLateInvalidation() {
+            cache.put("PROD-001", new Entry(7L));
+
+            cache.evictIfOlder("PROD-001", 6L);
+
+            assertThat(cache.get("PROD-001", Entry.class).version()).isEqualTo(7L);
+        }
+
+        @Test
+        @DisplayName("should always evict unversioned values")
+        void shouldEvictUnversionedValues() {
+            cache.put("PROD-001", "plain");
+
+            cache.evictIfOlder("PROD-001", 0L);
+
+            assertThat(cache.get("PROD-001")).isNull();
+        }
+    }
+}
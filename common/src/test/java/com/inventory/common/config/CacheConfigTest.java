@@ -0,0 +1,174 @@
+package com.inventory.common.config;
+
+import com.inventory.common.cache.CacheReader;
+import com.inventory.common.cache.CacheValueLoader;
+import com.inventory.common.cache.NegativeCacheEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheConfigTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Set<Object>> bulkLoads = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CacheProperties cacheProperties = new CacheProperties();
+    private final MockEnvironment environment = new MockEnvironment();
+    private CacheReader cacheReader;
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        buildCacheManager();
+    }
+
+    private void buildCacheManager() {
+        CacheValueLoader loader = new CacheValueLoader() {
+            @Override
+            public String getCacheName() {
+                return "stock";
+            }
+
+            @Override
+            public Object load(Object key) {
+                loads.incrementAndGet();
+                sleep(50);
+                return Set.of("PROD-001", "PROD-002").contains(key) ? "snapshot" : NegativeCacheEntry.INSTANCE;
+            }
+
+            @Override
+            public Map<Object, Object> loadAll(Set<?> keys) {
+                bulkLoads.add(new HashSet<>(keys));
+                return CacheValueLoader.super.loadAll(keys);
+            }
+        };
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("stockCacheLoader", loader));
+        cacheManager = new CacheConfig().cacheManager(cacheProperties,
+                beanFactory.getBeanProvider(CacheValueLoader.class), meterRegistry, environment);
+        cacheReader = new CacheReader(cacheManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should coalesce concurrent misses for one key into a single load")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cacheReader.getOrThrow("stock", "PROD-001", String.class, IllegalStateException::new)));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("snapshot");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should still coalesce misses and cache negatives when loads run async for virtual threads")
+    void shouldCoalesceWithAsyncLoads() throws Exception {
+        environment.setProperty("spring.threads.virtual.enabled", "true");
+        buildCacheManager();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cacheReader.getOrThrow("stock", "PROD-001", String.class, IllegalStateException::new)));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("snapshot");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThatThrownBy(() -> cacheReader.getOrThrow("stock", "NONEXISTENT", String.class, IllegalArgumentException::new))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cacheReader.getOrThrow("stock", "NONEXISTENT", String.class, IllegalArgumentException::new))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should cache not-found keys as negative entries")
+    void shouldCacheNegativeEntries() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> cacheReader.getOrThrow("stock", "NONEXISTENT", String.class, IllegalArgumentException::new))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.counter("cache.negative.loads", "cache", "stock").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("cache.negative.results", "cache", "stock").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("should serve cached keys and load all misses of a bulk read in one call")
+    void shouldBulkLoadOnlyMisses() {
+        cacheReader.getOrThrow("stock", "PROD-001", String.class, IllegalStateException::new);
+
+        Map<String, String> found = cacheReader.getAll("stock", List.of("PROD-001", "PROD-002", "NONEXISTENT"), String.class);
+        cacheReader.getAll("stock", List.of("PROD-001", "PROD-002", "NONEXISTENT"), String.class);
+
+        assertThat(found).containsOnlyKeys("PROD-001", "PROD-002");
+        assertThat(bulkLoads).hasSize(1);
+        assertThat(bulkLoads.get(0)).containsExactlyInAnyOrder("PROD-002", "NONEXISTENT");
+        assertThat(meterRegistry.counter("cache.negative.results", "cache", "stock").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should load on every read when the cache is disabled")
+    void shouldNotRetainWhenDisabled() {
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        spec.setEnabled(false);
+        cacheProperties.getSpecs().put("stock", spec);
+        buildCacheManager();
+
+        cacheReader.getOrThrow("stock", "PROD-001", String.class, IllegalStateException::new);
+        cacheReader.getOrThrow("stock", "PROD-001", String.class, IllegalStateException::new);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should bound weight-sized caches and report their weighted size")
+    void shouldReportWeightedSize() {
+        CacheProperties.Spec spec = new CacheProperties.Spec();
+        spec.setMaximumWeight(DataSize.ofMegabytes(1));
+        cacheProperties.getSpecs().put("stock", spec);
+        buildCacheManager();
+
+        cacheReader.getOrThrow("stock", "PROD-001", String.class, IllegalStateException::new);
+        ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager.getCache("stock").getNativeCache()).cleanUp();
+
+        assertThat(meterRegistry.get("cache.weighted.size").tag("cache", "stock").gauge().value()).isPositive();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
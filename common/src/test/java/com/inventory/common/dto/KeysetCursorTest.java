@@ -0,0 +1,59 @@
+package com.inventory.common.dto;
+
+import com.inventory.common.exception.InvalidRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("should round-trip an encoded cursor")
+    void shouldRoundTrip() {
+        String token = new KeysetCursor("sku", "PROD-042").encode();
+
+        KeysetCursor cursor = KeysetCursor.resolve(token, "sku");
+
+        assertThat(cursor.skuValue()).isEqualTo("PROD-042");
+        assertThat(cursor.sortedBySku()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should start before every key when no cursor is given")
+    void shouldStartAtBeginning() {
+        assertThat(KeysetCursor.resolve(null, "id").idValue()).isZero();
+        assertThat(KeysetCursor.resolve(null, "sku").skuValue()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject unsupported sorts, tampered tokens and sort mismatches")
+    void shouldRejectInvalidCursors() {
+        String idToken = new KeysetCursor("id", "20").encode();
+
+        assertThatThrownBy(() -> KeysetCursor.resolve(null, "price")).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.resolve("%%%", "id")).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.resolve(new KeysetCursor("id", "abc").encode(), "id"))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.resolve(idToken, "sku")).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    @DisplayName("should drop the over-fetched row and point the next cursor at the last returned row")
+    void shouldBuildSliceFromOverfetch() {
+        KeysetCursor cursor = KeysetCursor.resolve(null, "id");
+
+        CursorSlice<Long> slice = CursorSlice.fromOverfetch(List.of(1L, 2L, 3L), 2, cursor, String::valueOf, null);
+
+        assertThat(slice.getContent()).containsExactly(1L, 2L);
+        assertThat(slice.isHasNext()).isTrue();
+        assertThat(KeysetCursor.resolve(slice.getNextCursor(), "id").idValue()).isEqualTo(2L);
+
+        CursorSlice<Long> last = CursorSlice.fromOverfetch(List.of(3L), 2, cursor, String::valueOf, null);
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+}
@@ -0,0 +1,170 @@
+package com.inventory.common.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.event.EventSchema.Field;
+import com.inventory.common.event.EventSchema.FieldType;
+import com.inventory.common.event.StockUpdatedEvent.StockChangeReason;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventCodecTest {
+
+    private final EventSchemaRegistry registry = EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION);
+    private final BinaryEventCodec codec = new BinaryEventCodec(registry);
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+
+    @Nested
+    @DisplayName("round trip")
+    class RoundTrip {
+
+        @Test
+        @DisplayName("should round-trip a product-created event")
+        void shouldRoundTripProductCreated() {
+            ProductCreatedEvent event = ProductCreatedEvent.builder()
+                    .timestamp(TIMESTAMP).productId(42L).sku("ELEC-042").name("Kettle – 1.7 l").category("Kitchen")
+                    .price(new BigDecimal("-1234567890.125")).initialStock(50).build();
+
+            ProductCreatedEvent decoded = codec.decode(codec.encode(event), ProductCreatedEvent.class);
+
+            assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+        }
+
+        @Test
+        @DisplayName("should round-trip a product-updated event with null fields")
+        void shouldRoundTripProductUpdatedWithNulls() {
+            ProductUpdatedEvent event = ProductUpdatedEvent.builder()
+                    .timestamp(TIMESTAMP).productId(42L).sku("ELEC-042").price(new BigDecimal("9.99")).build();
+
+            ProductUpdatedEvent decoded = codec.decode(codec.encode(event), ProductUpdatedEvent.class);
+
+            assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+            assertThat(decoded.getName()).isNull();
+            assertThat(decoded.getVersion()).isNull();
+        }
+
+        @Test
+        @DisplayName("should round-trip a product-deleted event")
+        void shouldRoundTripProductDeleted() {
+            ProductDeletedEvent event = ProductDeletedEvent.builder()
+                    .timestamp(TIMESTAMP).productId(Long.MAX_VALUE).sku("ELEC-042").build();
+
+            ProductDeletedEvent decoded = codec.decode(codec.encode(event), ProductDeletedEvent.class);
+
+            assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+        }
+
+        @Test
+        @DisplayName("should round-trip a stock-updated event")
+        void shouldRoundTripStockUpdated() {
+            StockUpdatedEvent event = StockUpdatedEvent.builder()
+                    .timestamp(TIMESTAMP).productId(42L).sku("ELEC-042").previousQuantity(10).newQuantity(7)
+                    .minThreshold(5).changeAmount(-3).reason(StockChangeReason.SALE).version(12L).build();
+
+            StockUpdatedEvent decoded = codec.decode(codec.encode(event), StockUpdatedEvent.class);
+
+            assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+            assertThat(decoded.getEventType()).isEqualTo(EventType.STOCK_UPDATED);
+            assertThat(decoded.getContractVersion()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should be smaller than the JSON encoding")
+        void shouldBeSmallerThanJson() throws Exception {
+            StockUpdatedEvent event = StockUpdatedEvent.builder()
+                    .productId(42L).sku("ELEC-042").previousQuantity(10).newQuantity(7)
+                    .minThreshold(5).changeAmount(-3).reason(StockChangeReason.SALE).version(12L).build();
+            ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+            assertThat(codec.encode(event).length())
+                    .isLessThan(new JsonEventCodec(objectMapper).encode(event).length() / 2);
+        }
+    }
+
+    @Nested
+    @DisplayName("unreadable payloads")
+    class Unreadable {
+
+        @Test
+        @DisplayName("should reject a payload written for another event type")
+        void shouldRejectOtherEventType() {
+            String payload = codec.encode(ProductDeletedEvent.builder().productId(1L).sku("ELEC-042").build());
+
+            assertThatThrownBy(() -> codec.decode(payload, StockUpdatedEvent.class))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasRootCauseMessage("Schema 3 describes PRODUCT_DELETED, not STOCK_UPDATED");
+        }
+
+        @Test
+        @DisplayName("should reject truncated payloads, JSON and unknown schema ids")
+        void shouldRejectMalformedPayloads() {
+            String payload = codec.encode(ProductDeletedEvent.builder().productId(1L).sku("ELEC-042").build());
+            byte[] bytes = Base64.getDecoder().decode(payload);
+            String truncated = Base64.getEncoder().encodeToString(Arrays.copyOf(bytes, bytes.length - 2));
+            String unknownSchema = Base64.getEncoder().encodeToString(new byte[]{1, 99});
+
+            for (String bad : List.of(truncated, "{\"sku\":\"ELEC-042\"}", unknownSchema)) {
+                assertThatThrownBy(() -> codec.decode(bad, ProductDeletedEvent.class))
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessage("Unreadable ProductDeletedEvent payload");
+            }
+        }
+
+        @Test
+        @DisplayName("should refuse to encode a missing required field")
+        void shouldRejectMissingRequiredField() {
+            StockUpdatedEvent event = StockUpdatedEvent.builder().timestamp(null).sku("ELEC-042").build();
+
+            assertThatThrownBy(() -> codec.encode(event))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("timestamp is required");
+        }
+    }
+
+    @Nested
+    @DisplayName("schema evolution")
+    class SchemaEvolution {
+
+        @Test
+        @DisplayName("should skip schema fields the event class does not have")
+        void shouldSkipUnknownFields() {
+            EventSchema v2 = new EventSchema(10, EventType.PRODUCT_DELETED, 2, List.of(
+                    new Field("eventId", FieldType.STRING, false),
+                    new Field("timestamp", FieldType.TIMESTAMP, false),
+                    new Field("reason", FieldType.STRING, true),
+                    new Field("sku", FieldType.STRING, true)));
+            BinaryEventCodec evolved = new BinaryEventCodec(new EventSchemaRegistry(List.of(v2)));
+            ProductDeletedEvent event = ProductDeletedEvent.builder()
+                    .contractVersion(2).timestamp(TIMESTAMP).productId(1L).sku("ELEC-042").build();
+
+            ProductDeletedEvent decoded = evolved.decode(evolved.encode(event), ProductDeletedEvent.class);
+
+            assertThat(decoded.getSku()).isEqualTo("ELEC-042");
+            assertThat(decoded.getProductId()).isNull();
+            assertThat(decoded.getContractVersion()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should reject two schemas for the same type and version")
+        void shouldRejectDuplicateVersion() {
+            EventSchema first = registry.forEvent(EventType.PRODUCT_DELETED, 1);
+            EventSchema copy = new EventSchema(11, first.eventType(), first.version(), first.fields());
+
+            assertThatThrownBy(() -> new EventSchemaRegistry(List.of(first, copy)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
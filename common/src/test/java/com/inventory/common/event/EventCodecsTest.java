@@ -0,0 +1,69 @@
+package com.inventory.common.event;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecsTest {
+
+    private final JsonEventCodec json = new JsonEventCodec(new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    private final BinaryEventCodec binary =
+            new BinaryEventCodec(EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION));
+    private final EventCodecs codecs = new EventCodecs(binary, json);
+
+    private final ProductDeletedEvent event = ProductDeletedEvent.builder().productId(1L).sku("ELEC-042").build();
+
+    private ConsumerRecord<String, String> record(String payload, String contentType) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("inventory.product.deleted", 0, 0L, null, payload);
+        if (contentType != null) {
+            record.headers().add(EventHeaders.CONTENT_TYPE, contentType.getBytes(StandardCharsets.UTF_8));
+        }
+        return record;
+    }
+
+    @Test
+    @DisplayName("should write with the writer codec")
+    void shouldWriteWithWriter() {
+        assertThat(codecs.writer()).isSameAs(binary);
+    }
+
+    @Test
+    @DisplayName("should read each record with the codec named by its content type")
+    void shouldReadByContentType() {
+        ConsumerRecord<String, String> binaryRecord = record(binary.encode(event), BinaryEventCodec.CONTENT_TYPE);
+        ConsumerRecord<String, String> jsonRecord = record(json.encode(event), JsonEventCodec.CONTENT_TYPE);
+
+        assertThat(codecs.decode(binaryRecord, ProductDeletedEvent.class).getEventId()).isEqualTo(event.getEventId());
+        assertThat(codecs.decode(jsonRecord, ProductDeletedEvent.class).getEventId()).isEqualTo(event.getEventId());
+    }
+
+    @Test
+    @DisplayName("should read records without a content type as JSON")
+    void shouldDefaultToJson() {
+        ConsumerRecord<String, String> legacy = record(json.encode(event), null);
+
+        assertThat(codecs.decode(legacy, ProductDeletedEvent.class).getSku()).isEqualTo("ELEC-042");
+    }
+
+    @Test
+    @DisplayName("should reject unknown content types")
+    void shouldRejectUnknownContentType() {
+        ConsumerRecord<String, String> record = record("payload", "application/x-protobuf");
+
+        assertThatThrownBy(() -> codecs.decode(record, ProductDeletedEvent.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("application/x-protobuf");
+    }
+}
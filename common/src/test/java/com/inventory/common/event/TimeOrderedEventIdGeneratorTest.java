@@ -0,0 +1,51 @@
+package com.inventory.common.event;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedEventIdGeneratorTest {
+
+    private static final long NOW = 1_741_964_966_535L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private final TimeOrderedEventIdGenerator generator = new TimeOrderedEventIdGenerator(clock::get);
+
+    @Test
+    @DisplayName("should generate version 7, variant 2 UUIDs carrying the clock's milliseconds")
+    void shouldGenerateUuidV7() {
+        UUID id = UUID.fromString(generator.nextId());
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("should keep ids increasing within one millisecond past counter overflow")
+    void shouldStayMonotonicWithinMillisecond() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(UUID.fromString(ids.get(ids.size() - 1)).getMostSignificantBits() >>> 16).isGreaterThan(NOW);
+    }
+
+    @Test
+    @DisplayName("should keep ids increasing when the clock steps back")
+    void shouldStayMonotonicWhenClockStepsBack() {
+        String before = generator.nextId();
+        clock.set(NOW - 60_000);
+        String after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventory.common.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.inventory.common.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JdbcStreamingExporterTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private ResultSet resultSet;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(4);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnType(1)).thenReturn(Types.BIGINT);
+        when(metaData.getColumnLabel(2)).thenReturn("sku");
+        when(metaData.getColumnType(2)).thenReturn(Types.VARCHAR);
+        when(metaData.getColumnLabel(3)).thenReturn("lowStock");
+        when(metaData.getColumnType(3)).thenReturn(Types.BOOLEAN);
+        when(metaData.getColumnLabel(4)).thenReturn("updatedAt");
+        when(metaData.getColumnType(4)).thenReturn(Types.TIMESTAMP);
+
+        resultSet = mock(ResultSet.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        when(resultSet.getString(2)).thenReturn("PROD-001", "PROD,\"2\"");
+        when(resultSet.getBoolean(3)).thenReturn(false, true);
+        when(resultSet.wasNull()).thenReturn(false);
+        when(resultSet.getObject(4, LocalDateTime.class))
+                .thenReturn(LocalDateTime.of(2024, 1, 15, 10, 30), null);
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = JdbcStreamingExporter.writeRows(resultSet, format, out, jsonFactory);
+        assertThat(rows).isEqualTo(2);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("NDJSON")
+    class Ndjson {
+
+        @Test
+        @DisplayName("should write one JSON object per line keyed by column label")
+        void shouldWriteOneObjectPerLine() throws Exception {
+            assertThat(export(ExportFormat.NDJSON)).isEqualTo(
+                    "{\"id\":1,\"sku\":\"PROD-001\",\"lowStock\":false,\"updatedAt\":\"2024-01-15T10:30:00\"}\n"
+                            + "{\"id\":2,\"sku\":\"PROD,\\\"2\\\"\",\"lowStock\":true,\"updatedAt\":null}\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("CSV")
+    class Csv {
+
+        @Test
+        @DisplayName("should write a header row and quote only fields that need it")
+        void shouldWriteHeaderAndQuoteFields() throws Exception {
+            assertThat(export(ExportFormat.CSV)).isEqualTo(
+                    "id,sku,lowStock,updatedAt\r\n"
+                            + "1,PROD-001,false,2024-01-15T10:30:00\r\n"
+                            + "2,\"PROD,\"\"2\"\"\",true,\r\n");
+        }
+    }
+
+    @Nested
+    @DisplayName("ExportFormat.fromParameter")
+    class FromParameter {
+
+        @Test
+        @DisplayName("should accept format names case-insensitively")
+        void shouldParseFormat() {
+            assertThat(ExportFormat.fromParameter("CSV")).isEqualTo(ExportFormat.CSV);
+            assertThat(ExportFormat.fromParameter("ndjson")).isEqualTo(ExportFormat.NDJSON);
+        }
+
+        @Test
+        @DisplayName("should reject unsupported formats")
+        void shouldRejectUnknownFormat() {
+            assertThatThrownBy(() -> ExportFormat.fromParameter("xml"))
+                    .isInstanceOf(InvalidRequestException.class);
+        }
+    }
+}
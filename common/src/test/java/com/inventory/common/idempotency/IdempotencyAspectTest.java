@@ -0,0 +1,244 @@
+package com.inventory.common.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.dto.ApiResponse;
+import com.inventory.common.exception.IdempotencyKeyReuseException;
+import com.inventory.common.exception.IdempotentRequestInProgressException;
+import com.inventory.common.exception.InvalidRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+
+    private static final String KEY = "6f1c2a9e-8d4b-4c1e-9a57-0b6c3f2d1e84";
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+    private IdempotencyAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new IdempotencyAspect(idempotencyStore, objectMapper, meterRegistry);
+        request = new MockHttpServletRequest("PUT", "/api/v1/inventory/PROD-001/sell");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, Integer>>> sold(int quantity) {
+        return ResponseEntity.ok(ApiResponse.success("Stock deducted successfully", Map.of("quantity", quantity)));
+    }
+
+    private void proceedCommitting(Object result) throws Throwable {
+        when(joinPoint.proceed()).thenAnswer(invocation -> {
+            IdempotencyClaim.current().committed = true;
+            return result;
+        });
+    }
+
+    /** Runs a first request with {@code args} and returns the fingerprint it stored. */
+    private String storedHash(Object... args) throws Throwable {
+        when(joinPoint.getArgs()).thenReturn(args);
+        proceedCommitting(sold(90));
+        aspect.handle(joinPoint);
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyStore).complete(eq(KEY), hash.capture(), eq(200), anyString());
+        clearInvocations(joinPoint, idempotencyStore);
+        return hash.getValue();
+    }
+
+    @Test
+    @DisplayName("should pass requests without the header straight through")
+    void shouldIgnoreRequestsWithoutKey() throws Throwable {
+        ResponseEntity<?> response = sold(90);
+        when(joinPoint.proceed()).thenReturn(response);
+
+        assertThat(aspect.handle(joinPoint)).isSameAs(response);
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    @DisplayName("should reject a key longer than the column")
+    void shouldRejectOversizedKey() {
+        request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, "k".repeat(256));
+
+        assertThatThrownBy(() -> aspect.handle(joinPoint)).isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Nested
+    @DisplayName("first request")
+    class FirstRequest {
+
+        @BeforeEach
+        void setUp() {
+            request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, KEY);
+            when(joinPoint.getArgs()).thenReturn(new Object[]{"PROD-001", Map.of("quantity", 30)});
+        }
+
+        @Test
+        @DisplayName("should store the response once the transaction has committed")
+        void shouldStoreCommittedResponse() throws Throwable {
+            when(idempotencyStore.find(KEY)).thenReturn(Optional.empty());
+            proceedCommitting(sold(90));
+
+            aspect.handle(joinPoint);
+
+            ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+            verify(idempotencyStore).complete(eq(KEY), anyString(), eq(200), body.capture());
+            assertThat(objectMapper.readTree(body.getValue()).get("data").get("quantity").asInt()).isEqualTo(90);
+            assertThat(IdempotencyClaim.current()).isNull();
+        }
+
+        @Test
+        @DisplayName("should store nothing when the request fails")
+        void shouldNotStoreFailedRequest() throws Throwable {
+            when(idempotencyStore.find(KEY)).thenReturn(Optional.empty());
+            when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+            assertThatThrownBy(() -> aspect.handle(joinPoint)).isInstanceOf(IllegalStateException.class);
+            verify(idempotencyStore, never()).complete(anyString(), anyString(), anyInt(), anyString());
+            assertThat(IdempotencyClaim.current()).isNull();
+        }
+
+        @Test
+        @DisplayName("should store nothing when no transaction recorded the key")
+        void shouldNotStoreWithoutCommit() throws Throwable {
+            when(idempotencyStore.find(KEY)).thenReturn(Optional.empty());
+            when(joinPoint.proceed()).thenReturn(sold(90));
+
+            aspect.handle(joinPoint);
+
+            verify(idempotencyStore, never()).complete(anyString(), anyString(), anyInt(), anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("repeated request")
+    class RepeatedRequest {
+
+        @BeforeEach
+        void setUp() {
+            request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, KEY);
+        }
+
+        @Test
+        @DisplayName("should replay the stored response without calling the endpoint")
+        void shouldReplayStoredResponse() throws Throwable {
+            String hash = storedHash("PROD-001", Map.of("quantity", 30));
+            String body = "{\"success\":true,\"data\":{\"quantity\":90}}";
+            when(joinPoint.getArgs()).thenReturn(new Object[]{"PROD-001", Map.of("quantity", 30)});
+            when(idempotencyStore.find(KEY)).thenReturn(Optional.of(new IdempotencyStore.StoredResponse(hash, 200, body, NOW)));
+
+            ResponseEntity<?> replayed = (ResponseEntity<?>) aspect.handle(joinPoint);
+
+            assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(replayed.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER)).isEqualTo("true");
+            assertThat(new String((byte[]) replayed.getBody(), StandardCharsets.UTF_8)).isEqualTo(body);
+            verify(joinPoint, never()).proceed();
+            assertThat(meterRegistry.counter("idempotency.replays").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should reject the key when the request differs from the first one")
+        void shouldRejectDifferentRequest() throws Throwable {
+            String hash = storedHash("PROD-001", Map.of("quantity", 30));
+            when(joinPoint.getArgs()).thenReturn(new Object[]{"PROD-001", Map.of("quantity", 31)});
+            when(idempotencyStore.find(KEY)).thenReturn(Optional.of(new IdempotencyStore.StoredResponse(hash, 200, "{}", NOW)));
+
+            assertThatThrownBy(() -> aspect.handle(joinPoint)).isInstanceOf(IdempotencyKeyReuseException.class);
+            verify(joinPoint, never()).proceed();
+        }
+
+        @Test
+        @DisplayName("should answer 409 while the first request has no stored response")
+        void shouldRejectWhileInProgress() throws Throwable {
+            String hash = storedHash("PROD-001", Map.of("quantity", 30));
+            when(joinPoint.getArgs()).thenReturn(new Object[]{"PROD-001", Map.of("quantity", 30)});
+            when(idempotencyStore.find(KEY)).thenReturn(Optional.of(new IdempotencyStore.StoredResponse(hash, null, null, NOW)));
+
+            assertThatThrownBy(() -> aspect.handle(joinPoint)).isInstanceOf(IdempotentRequestInProgressException.class);
+            verify(joinPoint, never()).proceed();
+        }
+
+        @Test
+        @DisplayName("should answer that the change was applied once the missing response is abandoned")
+        void shouldRecoverAbandonedKey() throws Throwable {
+            String hash = storedHash("PROD-001", Map.of("quantity", 30));
+            IdempotencyStore.StoredResponse abandoned =
+                    new IdempotencyStore.StoredResponse(hash, null, null, NOW.minusMinutes(5));
+            when(joinPoint.getArgs()).thenReturn(new Object[]{"PROD-001", Map.of("quantity", 30)});
+            when(idempotencyStore.find(KEY)).thenReturn(Optional.of(abandoned));
+            when(idempotencyStore.isAbandoned(abandoned)).thenReturn(true);
+
+            ResponseEntity<?> recovered = (ResponseEntity<?>) aspect.handle(joinPoint);
+
+            assertThat(recovered.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(recovered.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER)).isEqualTo("true");
+            String body = new String((byte[]) recovered.getBody(), StandardCharsets.UTF_8);
+            assertThat(objectMapper.readTree(body).get("message").asText()).isEqualTo(IdempotencyAspect.RECOVERED_MESSAGE);
+            verify(idempotencyStore).complete(KEY, hash, 200, body);
+            verify(joinPoint, never()).proceed();
+            assertThat(meterRegistry.counter("idempotency.recoveries").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should replay the winner's response after losing the race for the key")
+        void shouldReplayAfterLosingRace() throws Throwable {
+            String hash = storedHash("PROD-001", Map.of("quantity", 30));
+            when(joinPoint.getArgs()).thenReturn(new Object[]{"PROD-001", Map.of("quantity", 30)});
+            when(idempotencyStore.find(KEY)).thenReturn(
+                    Optional.empty(),
+                    Optional.of(new IdempotencyStore.StoredResponse(hash, 200, "{\"success\":true}", NOW)));
+            doAnswer(invocation -> {
+                IdempotencyClaim.current().conflicted = true;
+                throw new IdempotentRequestInProgressException(KEY);
+            }).when(joinPoint).proceed();
+
+            ResponseEntity<?> replayed = (ResponseEntity<?>) aspect.handle(joinPoint);
+
+            assertThat(replayed.getHeaders().getFirst(IdempotencyAspect.REPLAYED_HEADER)).isEqualTo("true");
+            verify(idempotencyStore, never()).complete(anyString(), anyString(), anyInt(), anyString());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.inventory.common.idempotency;
+
+import com.inventory.common.exception.IdempotentRequestInProgressException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyClaimListenerTest {
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private TransactionExecution transaction;
+
+    private IdempotencyClaimListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new IdempotencyClaimListener(idempotencyStore);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        IdempotencyClaim.unbind();
+    }
+
+    private TransactionSynchronization registered() {
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+        return TransactionSynchronizationManager.getSynchronizations().get(0);
+    }
+
+    @Test
+    @DisplayName("should record the key before the transaction commits")
+    void shouldClaimBeforeCommit() {
+        IdempotencyClaim claim = IdempotencyClaim.bind("key-1", "hash-1");
+        when(idempotencyStore.claim("key-1", "hash-1")).thenReturn(true);
+
+        listener.afterBegin(transaction, null);
+        TransactionSynchronization synchronization = registered();
+        synchronization.beforeCommit(false);
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(claim.committed).isTrue();
+        assertThat(claim.conflicted).isFalse();
+    }
+
+    @Test
+    @DisplayName("should fail the commit when another request holds the key")
+    void shouldFailCommitOnConflict() {
+        IdempotencyClaim claim = IdempotencyClaim.bind("key-1", "hash-1");
+        when(idempotencyStore.claim("key-1", "hash-1")).thenReturn(false);
+
+        listener.afterBegin(transaction, null);
+
+        assertThatThrownBy(() -> registered().beforeCommit(false))
+                .isInstanceOf(IdempotentRequestInProgressException.class);
+        assertThat(claim.conflicted).isTrue();
+    }
+
+    @Test
+    @DisplayName("should attach again to the next transaction after a rollback")
+    void shouldReattachAfterRollback() {
+        IdempotencyClaim claim = IdempotencyClaim.bind("key-1", "hash-1");
+
+        listener.afterBegin(transaction, null);
+        registered().afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(claim.attached).isFalse();
+        assertThat(claim.committed).isFalse();
+    }
+
+    @Test
+    @DisplayName("should attach only to the first transaction of the request")
+    void shouldAttachOnce() {
+        IdempotencyClaim.bind("key-1", "hash-1");
+
+        listener.afterBegin(transaction, null);
+        listener.afterBegin(transaction, null);
+
+        registered();
+    }
+
+    @Test
+    @DisplayName("should ignore read-only transactions and requests without a key")
+    void shouldIgnoreReadOnlyAndUnkeyed() {
+        listener.afterBegin(transaction, null);
+
+        IdempotencyClaim.bind("key-1", "hash-1");
+        when(transaction.isReadOnly()).thenReturn(true);
+        listener.afterBegin(transaction, null);
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        verifyNoInteractions(idempotencyStore);
+    }
+}
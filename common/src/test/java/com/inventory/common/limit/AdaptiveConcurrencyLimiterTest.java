@@ -0,0 +1,137 @@
+package com.inventory.common.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(4);
+        properties.setMaxLimit(200);
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+    }
+
+    /** Holds {@code count} permits, then completes them all with the given latency. */
+    private void runBatch(int count, long rttNanos) {
+        int acquired = 0;
+        while (acquired < count && limiter.tryAcquire(Priority.CRITICAL)) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+
+    @Nested
+    @DisplayName("admission")
+    class Admission {
+
+        @Test
+        @DisplayName("should reject requests beyond the limit and count them as shed")
+        void shouldShedBeyondLimit() {
+            for (int i = 0; i < 20; i++) {
+                assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+            }
+
+            assertThat(limiter.tryAcquire(Priority.CRITICAL)).isFalse();
+            assertThat(limiter.getInFlight()).isEqualTo(20);
+            assertThat(meterRegistry.counter("concurrency.shed", "priority", "critical").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should shed low-priority requests before critical ones")
+        void shouldShedLowPriorityFirst() {
+            for (int i = 0; i < 15; i++) {
+                assertThat(limiter.tryAcquire(Priority.LOW)).isTrue();
+            }
+
+            assertThat(limiter.tryAcquire(Priority.LOW)).isFalse();
+            assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+            assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+            assertThat(limiter.tryAcquire(Priority.NORMAL)).isTrue();
+            assertThat(limiter.tryAcquire(Priority.NORMAL)).isFalse();
+            assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+            assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+            assertThat(limiter.tryAcquire(Priority.CRITICAL)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should free a permit on release")
+        void shouldFreePermitOnRelease() {
+            for (int i = 0; i < 20; i++) {
+                limiter.tryAcquire(Priority.CRITICAL);
+            }
+            limiter.release(FAST);
+
+            assertThat(limiter.tryAcquire(Priority.CRITICAL)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("limit")
+    class Limit {
+
+        @Test
+        @DisplayName("should grow while the service is saturated and latency is stable")
+        void shouldGrowWithStableLatency() {
+            for (int i = 0; i < 20; i++) {
+                runBatch(limiter.getLimit(), FAST);
+            }
+
+            assertThat(limiter.getLimit()).isGreaterThan(20);
+            assertThat(meterRegistry.get("concurrency.limit").gauge().value()).isEqualTo(limiter.getLimit());
+        }
+
+        @Test
+        @DisplayName("should shrink when latency rises above the long-term baseline")
+        void shouldShrinkWhenLatencyRises() {
+            for (int i = 0; i < 20; i++) {
+                runBatch(limiter.getLimit(), FAST);
+            }
+            int grown = limiter.getLimit();
+
+            for (int i = 0; i < 10; i++) {
+                runBatch(limiter.getLimit(), SLOW);
+            }
+
+            assertThat(limiter.getLimit()).isLessThan(grown);
+        }
+
+        @Test
+        @DisplayName("should not grow while less than half the permits are in use")
+        void shouldHoldWhenUnderused() {
+            for (int i = 0; i < 50; i++) {
+                runBatch(5, FAST);
+            }
+
+            assertThat(limiter.getLimit()).isEqualTo(20);
+        }
+
+        @Test
+        @DisplayName("should not drop below the minimum limit while latency keeps climbing")
+        void shouldRespectMinimum() {
+            for (int i = 0; i < 30; i++) {
+                runBatch(limiter.getLimit(), (long) (FAST * Math.pow(1.5, i)));
+            }
+
+            assertThat(limiter.getLimit()).isEqualTo(4);
+        }
+    }
+}
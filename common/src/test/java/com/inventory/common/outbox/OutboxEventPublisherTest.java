@@ -1,14 +1,17 @@
 package com.inventory.common.outbox;
 
 import com.inventory.common.entity.OutboxEvent;
+import com.inventory.common.event.EventHeaders;
+import com.inventory.common.event.EventType;
 import com.inventory.common.outbox.OutboxStatus;
 import com.inventory.common.repository.OutboxRepository;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
@@ -18,6 +21,7 @@ import org.springframework.kafka.support.SendResult;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -31,9 +35,13 @@ class OutboxEventPublisherTest {
     @Mock
     private KafkaTemplate<String, String> kafkaTemplate;
 
-    @InjectMocks
     private OutboxEventPublisher outboxEventPublisher;
 
+    @BeforeEach
+    void setUp() {
+        outboxEventPublisher = new OutboxEventPublisher(outboxRepository, kafkaTemplate, Runnable::run);
+    }
+
     private OutboxEvent createOutboxEvent(String eventId, String topic, String key, String payload) {
         return OutboxEvent.builder()
                 .id(1L)
@@ -49,6 +57,7 @@ class OutboxEventPublisherTest {
 
     @Test
     @DisplayName("should publish event to Kafka and mark as processed")
+    @SuppressWarnings("unchecked")
     void shouldPublishAndMarkProcessed() {
         OutboxEvent event = createOutboxEvent("evt-1", "inventory.product.created", "PROD-001", "{\"sku\":\"PROD-001\"}");
         when(outboxRepository.findClaimableEvents(any(), any()))
@@ -58,13 +67,39 @@ class OutboxEventPublisherTest {
         CompletableFuture<SendResult<String, String>> future = CompletableFuture.completedFuture(
                 new SendResult<>(new ProducerRecord<>("inventory.product.created", "PROD-001", "{}"),
                         new RecordMetadata(null, 0, 0, 0, 0, 0)));
-        when(kafkaTemplate.send("inventory.product.created", "PROD-001", "{\"sku\":\"PROD-001\"}")).thenReturn(future);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(future);
 
         outboxEventPublisher.publishOutboxEvents();
 
+        ArgumentCaptor<ProducerRecord<String, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertThat(sent.getValue().topic()).isEqualTo("inventory.product.created");
+        assertThat(sent.getValue().key()).isEqualTo("PROD-001");
+        assertThat(sent.getValue().value()).isEqualTo("{\"sku\":\"PROD-001\"}");
         verify(outboxRepository).markProcessed(eq(1L), any());
     }
 
+    @Test
+    @DisplayName("should attach the event metadata as record headers")
+    @SuppressWarnings("unchecked")
+    void shouldAttachEventHeaders() {
+        OutboxEvent event = createOutboxEvent("evt-1", "inventory.product.created", "PROD-001", "{}");
+        when(outboxRepository.findClaimableEvents(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(event)));
+        when(outboxRepository.claimEvent(eq(1L), any())).thenReturn(1);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+        outboxEventPublisher.publishOutboxEvents();
+
+        ArgumentCaptor<ProducerRecord<String, String>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        EventHeaders headers = EventHeaders.read(sent.getValue().headers());
+        assertThat(headers.eventId()).isEqualTo("evt-1");
+        assertThat(headers.eventType()).isEqualTo(EventType.PRODUCT_CREATED);
+        assertThat(headers.contractVersion()).isEqualTo(1);
+        assertThat(headers.producedAt()).isEqualTo(event.getCreatedAt());
+    }
+
     @Test
     @DisplayName("should mark event failed when Kafka publish fails")
     void shouldMarkFailedWhenPublishFails() {
@@ -75,11 +110,11 @@ class OutboxEventPublisherTest {
 
         CompletableFuture<SendResult<String, String>> failedFuture = new CompletableFuture<>();
         failedFuture.completeExceptionally(new RuntimeException("Kafka unavailable"));
-        when(kafkaTemplate.send("topic", "key1", "payload1")).thenReturn(failedFuture);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(failedFuture);
 
         outboxEventPublisher.publishOutboxEvents();
 
-        verify(kafkaTemplate, times(1)).send(any(), any(), any());
+        verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
         verify(outboxRepository).markFailed(eq(1L), eq(1), any(), any());
         verify(outboxRepository, never()).markProcessed(anyLong(), any());
     }
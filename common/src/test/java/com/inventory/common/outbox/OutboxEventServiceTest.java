@@ -5,6 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.inventory.common.entity.OutboxEvent;
+import com.inventory.common.event.BinaryEventCodec;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.EventSchemaRegistry;
+import com.inventory.common.event.JsonEventCodec;
 import com.inventory.common.event.ProductCreatedEvent;
 import com.inventory.common.repository.OutboxRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,9 +20,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class OutboxEventServiceTest {
@@ -35,7 +43,7 @@ class OutboxEventServiceTest {
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        outboxEventService = new OutboxEventService(outboxRepository, objectMapper);
+        outboxEventService = new OutboxEventService(outboxRepository, new EventCodecs(new JsonEventCodec(objectMapper)));
     }
 
     @Test
@@ -60,8 +68,52 @@ class OutboxEventServiceTest {
         assertThat(saved.getEventType()).isEqualTo("PRODUCT_CREATED");
         assertThat(saved.getTopic()).isEqualTo("inventory.product.created");
         assertThat(saved.getEventKey()).isEqualTo("PROD-001");
+        assertThat(saved.getContractVersion()).isEqualTo(1);
+        assertThat(saved.getContentType()).isEqualTo(JsonEventCodec.CONTENT_TYPE);
         assertThat(saved.getPayload()).contains("PROD-001");
         assertThat(saved.getPayload()).contains("29.99");
         assertThat(saved.isProcessed()).isFalse();
     }
+
+    @Test
+    @DisplayName("should encode with the configured codec and record its content type")
+    void shouldEncodeWithConfiguredCodec() {
+        BinaryEventCodec binary = new BinaryEventCodec(EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION));
+        outboxEventService = new OutboxEventService(outboxRepository,
+                new EventCodecs(binary, new JsonEventCodec(objectMapper)));
+        ProductCreatedEvent event = ProductCreatedEvent.builder().productId(1L).sku("PROD-001").build();
+
+        outboxEventService.saveEvent("inventory.product.created", "PROD-001", event);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(captor.capture());
+        assertThat(captor.getValue().getContentType()).isEqualTo(BinaryEventCodec.CONTENT_TYPE);
+        assertThat(binary.decode(captor.getValue().getPayload(), ProductCreatedEvent.class).getSku())
+                .isEqualTo("PROD-001");
+    }
+
+    @Test
+    @DisplayName("should save a batch of events with one saveAll")
+    @SuppressWarnings("unchecked")
+    void shouldSaveBatch() {
+        ProductCreatedEvent first = ProductCreatedEvent.builder().productId(1L).sku("PROD-001").build();
+        ProductCreatedEvent second = ProductCreatedEvent.builder().productId(2L).sku("PROD-002").build();
+
+        outboxEventService.saveEvents("inventory.product.created", List.of(first, second), ProductCreatedEvent::getSku);
+
+        ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(OutboxEvent::getEventKey).containsExactly("PROD-001", "PROD-002");
+        assertThat(captor.getValue()).extracting(OutboxEvent::getEventId)
+                .containsExactly(first.getEventId(), second.getEventId());
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should not touch the repository for an empty batch")
+    void shouldSkipEmptyBatch() {
+        outboxEventService.saveEvents("inventory.product.created", List.<ProductCreatedEvent>of(), ProductCreatedEvent::getSku);
+
+        verifyNoInteractions(outboxRepository);
+    }
 }
@@ -0,0 +1,266 @@
+package com.inventory.common.retry;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TieredRetryTest {
+
+    private static final String TOPIC = "inventory.stock.updated";
+
+    @Mock
+    private KafkaOperations<String, String> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryTopicProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RetryTopicProperties();
+    }
+
+    private TieredRetry tieredRetry() {
+        return new TieredRetry(kafkaTemplate, properties, meterRegistry);
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, long offset, String key) {
+        return new ConsumerRecord<>(topic, 0, offset, key, "{}");
+    }
+
+    /** The record as the retry tier it was routed to would deliver it. */
+    private static ConsumerRecord<String, String> redelivered(ConsumerRecord<String, String> record,
+                                                              TopicPartition destination, Headers headers) {
+        ConsumerRecord<String, String> next = new ConsumerRecord<>(destination.topic(), 0, 0, record.key(), record.value());
+        record.headers().forEach(next.headers()::add);
+        headers.forEach(next.headers()::add);
+        return next;
+    }
+
+    private static String header(Headers headers, String name) {
+        return new String(headers.lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+    private double routed(String destination) {
+        return meterRegistry.counter("kafka.retry.records", "topic", TOPIC, "destination", destination).count();
+    }
+
+    @Test
+    @DisplayName("should name one retry topic per configured delay")
+    void shouldNameRetryTopics() {
+        assertThat(tieredRetry().retryTopics(TOPIC)).containsExactly(
+                TOPIC + ".retry-1", TOPIC + ".retry-2", TOPIC + ".retry-3");
+        assertThat(TieredRetry.baseTopic(TOPIC + ".retry-2")).isEqualTo(TOPIC);
+        assertThat(TieredRetry.baseTopic(TOPIC)).isEqualTo(TOPIC);
+    }
+
+    @Test
+    @DisplayName("should reject negative delays")
+    void shouldRejectNegativeDelays() {
+        properties.setDelays(List.of(Duration.ofSeconds(1), Duration.ofSeconds(-10)));
+
+        assertThatThrownBy(this::tieredRetry).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should move a failed record through every tier and then to the DLT")
+    void shouldRouteThroughTiers() {
+        TieredRetry tieredRetry = tieredRetry();
+        Exception failure = new DataAccessResourceFailureException("connection reset");
+        ConsumerRecord<String, String> record = record(TOPIC, 42, "PROD-001");
+
+        for (int tier = 1; tier <= 3; tier++) {
+            TopicPartition destination = tieredRetry.route(record, failure);
+            Headers headers = tieredRetry.retryHeaders(record, failure);
+            assertThat(destination.topic()).isEqualTo(TOPIC + ".retry-" + tier);
+            assertThat(destination.partition()).isNegative();
+            assertThat(header(headers, TieredRetry.ATTEMPT_HEADER)).isEqualTo(Integer.toString(tier));
+            assertThat(header(headers, TieredRetry.RETRY_ID_HEADER)).isEqualTo(TOPIC + "-0@42");
+            assertThat(headers.lastHeader(TieredRetry.DUE_AT_HEADER)).isNotNull();
+            record = redelivered(record, destination, headers);
+        }
+
+        assertThat(tieredRetry.route(record, failure).topic()).isEqualTo(TOPIC + ".DLT");
+        assertThat(routed("retry-1")).isEqualTo(1);
+        assertThat(routed("retry-3")).isEqualTo(1);
+        assertThat(routed("dlt")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should send records that cannot succeed on a retry straight to the DLT")
+    void shouldDeadLetterUnreadableRecord() {
+        TieredRetry tieredRetry = tieredRetry();
+        Exception failure = new RuntimeException(new JsonParseException((JsonParser) null, "Unexpected character"));
+        ConsumerRecord<String, String> record = record(TOPIC, 7, "PROD-001");
+
+        assertThat(tieredRetry.route(record, failure).topic()).isEqualTo(TOPIC + ".DLT");
+        assertThat(tieredRetry.retryHeaders(record, failure).lastHeader(TieredRetry.DUE_AT_HEADER)).isNull();
+        assertThat(tieredRetry.route(record(TOPIC, 8, null), new IllegalArgumentException("bad contract")).topic())
+                .isEqualTo(TOPIC + ".DLT");
+    }
+
+    @Test
+    @DisplayName("should deliver a retried record that is already due without waiting")
+    void shouldPassDueRecord() {
+        TieredRetry tieredRetry = tieredRetry();
+        Exception failure = new DataAccessResourceFailureException("connection reset");
+        ConsumerRecord<String, String> record = record(TOPIC, 1, "PROD-001");
+        ConsumerRecord<String, String> retried = redelivered(record, tieredRetry.route(record, failure),
+                tieredRetry.retryHeaders(record, failure));
+        retried.headers().add(TieredRetry.DUE_AT_HEADER,
+                Long.toString(System.currentTimeMillis() - 500).getBytes(StandardCharsets.UTF_8));
+
+        assertThat(tieredRetry.filter(true).filter(retried)).isFalse();
+        assertThat(meterRegistry.timer("kafka.retry.lateness").count()).isEqualTo(1);
+    }
+
+    @Nested
+    @DisplayName("records not due yet")
+    class NotDue {
+
+        @Mock
+        private Consumer<String, String> consumer;
+
+        @Mock
+        private MessageListenerContainer container;
+
+        private ConsumerRecord<String, String> dueIn(String topic, int partition, long offset, long delayMs) {
+            ConsumerRecord<String, String> record = new ConsumerRecord<>(topic, partition, offset, "PROD-001", "{}");
+            record.headers().add(TieredRetry.DUE_AT_HEADER,
+                    Long.toString(System.currentTimeMillis() + delayMs).getBytes(StandardCharsets.UTF_8));
+            return record;
+        }
+
+        @Test
+        @DisplayName("should refuse a record that is not due instead of waiting for it")
+        void shouldRefuseRecordNotDue() {
+            ConsumerRecord<String, String> record = dueIn(TOPIC + ".retry-3", 1, 5, 60_000);
+
+            assertThatThrownBy(() -> tieredRetry().filter(true).filter(record))
+                    .isInstanceOfSatisfying(TieredRetry.NotDueException.class, e -> {
+                        assertThat(e.partition).isEqualTo(new TopicPartition(TOPIC + ".retry-3", 1));
+                        assertThat(e.waitMs).isPositive().isLessThanOrEqualTo(60_000);
+                    });
+        }
+
+        @Test
+        @DisplayName("should check a whole batch for due times before parking any record in it")
+        void shouldCheckBatchBeforeParking() {
+            properties.setKeyOrdering(true);
+            TieredRetry tieredRetry = tieredRetry();
+            tieredRetry.route(record(TOPIC, 1, "PROD-001"), new DataAccessResourceFailureException("down"));
+            List<ConsumerRecord<String, String>> batch = List.of(
+                    dueIn(TOPIC + ".retry-1", 0, 7, -100), dueIn(TOPIC + ".retry-1", 0, 8, 60_000));
+
+            assertThatThrownBy(() -> tieredRetry.filter(true).filterBatch(batch))
+                    .isInstanceOf(TieredRetry.NotDueException.class);
+            verifyNoInteractions(kafkaTemplate);
+        }
+
+        @Test
+        @DisplayName("should seek the poll back and pause only the waiting partition until it is due")
+        void shouldPauseWaitingPartition() {
+            TieredRetry tieredRetry = tieredRetry();
+            TopicPartition waiting = new TopicPartition(TOPIC + ".retry-3", 1);
+            TopicPartition other = new TopicPartition(TOPIC + ".retry-1", 0);
+            List<ConsumerRecord<String, String>> records = List.of(
+                    dueIn(waiting.topic(), 1, 5, 50), dueIn(waiting.topic(), 1, 6, 50), dueIn(other.topic(), 0, 9, 0));
+
+            tieredRetry.holdBack(new TieredRetry.NotDueException(waiting, 50), records, consumer, container);
+
+            verify(consumer).seek(waiting, 5L);
+            verify(consumer).seek(other, 9L);
+            verify(container).pausePartition(waiting);
+            verify(container, never()).pausePartition(other);
+            verify(container, timeout(2_000)).resumePartition(waiting);
+        }
+    }
+
+    @Nested
+    @DisplayName("key ordering")
+    class KeyOrdering {
+
+        private TieredRetry tieredRetry;
+        private RecordFilterStrategy<String, String> mainFilter;
+
+        @BeforeEach
+        void setUp() {
+            properties.setKeyOrdering(true);
+            tieredRetry = tieredRetry();
+            mainFilter = tieredRetry.filter(false);
+        }
+
+        @Test
+        @DisplayName("should park later records with the key of a retrying record in the first tier")
+        @SuppressWarnings("unchecked")
+        void shouldParkLaterRecordsOfKey() {
+            when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+            tieredRetry.route(record(TOPIC, 1, "PROD-001"), new DataAccessResourceFailureException("down"));
+
+            assertThat(mainFilter.filter(record(TOPIC, 2, "PROD-001"))).isTrue();
+            assertThat(mainFilter.filter(record(TOPIC, 3, "PROD-002"))).isFalse();
+
+            ArgumentCaptor<ProducerRecord<String, String>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+            verify(kafkaTemplate).send(captor.capture());
+            assertThat(captor.getValue().topic()).isEqualTo(TOPIC + ".retry-1");
+            assertThat(captor.getValue().key()).isEqualTo("PROD-001");
+            assertThat(header(captor.getValue().headers(), TieredRetry.RETRY_ID_HEADER)).isEqualTo(TOPIC + "-0@2");
+            assertThat(routed("parked")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should let the retrying record itself through")
+        void shouldPassHead() {
+            Exception failure = new DataAccessResourceFailureException("down");
+            ConsumerRecord<String, String> record = record(TOPIC, 1, "PROD-001");
+            ConsumerRecord<String, String> retried = redelivered(record, tieredRetry.route(record, failure),
+                    tieredRetry.retryHeaders(record, failure));
+
+            assertThat(mainFilter.filter(retried)).isFalse();
+            verifyNoInteractions(kafkaTemplate);
+        }
+
+        @Test
+        @DisplayName("should release the key once the retrying record is dead-lettered")
+        void shouldReleaseOnDeadLetter() {
+            Exception failure = new DataAccessResourceFailureException("down");
+            ConsumerRecord<String, String> record = record(TOPIC, 1, "PROD-001");
+            for (int tier = 1; tier <= 3; tier++) {
+                record = redelivered(record, tieredRetry.route(record, failure), tieredRetry.retryHeaders(record, failure));
+            }
+
+            tieredRetry.route(record, failure);
+
+            assertThat(mainFilter.filter(record(TOPIC, 2, "PROD-001"))).isFalse();
+            verifyNoInteractions(kafkaTemplate);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventory.common.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFramesTest {
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("should join serialized values into one JSON array")
+    void shouldJoinJsonArray() {
+        byte[] array = JsonFrames.array(List.of(
+                "{\"sku\":\"A\"}".getBytes(StandardCharsets.UTF_8),
+                "{\"sku\":\"B\"}".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(text(array)).isEqualTo("[{\"sku\":\"A\"},{\"sku\":\"B\"}]");
+        assertThat(text(JsonFrames.array(List.of()))).isEqualTo("[]");
+    }
+
+    @Test
+    @DisplayName("should wrap serialized JSON in a message with a JSON content type")
+    void shouldBuildJsonMessage() {
+        byte[] json = JsonFrames.serialize(new ObjectMapper(), Map.of("sku", "A"));
+
+        Message<byte[]> message = JsonFrames.message(json);
+
+        assertThat(text(message.getPayload())).isEqualTo("{\"sku\":\"A\"}");
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+    }
+
+    @Test
+    @DisplayName("should carry native STOMP headers alongside the JSON content type")
+    void shouldBuildJsonMessageWithNativeHeaders() {
+        Message<byte[]> message = JsonFrames.message("{}".getBytes(StandardCharsets.UTF_8), Map.of("seq", "42"));
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+        assertThat(headers.getFirstNativeHeader("seq")).isEqualTo("42");
+        assertThat(headers.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+    }
+}
@@ -0,0 +1,60 @@
+package com.inventory.common.websocket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class SessionMetricsHandlerDecoratorTest {
+
+    private final WebSocketHandler delegate = mock(WebSocketHandler.class);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private SimpleMeterRegistry meterRegistry;
+    private SessionMetricsHandlerDecorator decorator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        decorator = new SessionMetricsHandlerDecorator(delegate, meterRegistry);
+    }
+
+    private double activeSessions() {
+        return meterRegistry.get("websocket.sessions.active").gauge().value();
+    }
+
+    private double evictedSessions() {
+        return meterRegistry.counter("websocket.sessions.evicted").count();
+    }
+
+    @Test
+    @DisplayName("should track active sessions and delegate lifecycle callbacks")
+    void shouldTrackActiveSessions() throws Exception {
+        decorator.afterConnectionEstablished(session);
+        assertThat(activeSessions()).isEqualTo(1);
+
+        decorator.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        assertThat(activeSessions()).isZero();
+        assertThat(evictedSessions()).isZero();
+        verify(delegate).afterConnectionEstablished(session);
+        verify(delegate).afterConnectionClosed(session, CloseStatus.NORMAL);
+    }
+
+    @Test
+    @DisplayName("should count sessions closed for exceeding send limits as evicted")
+    void shouldCountEvictedSessions() throws Exception {
+        decorator.afterConnectionEstablished(session);
+
+        decorator.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE.withReason("Send time limit exceeded"));
+
+        assertThat(evictedSessions()).isEqualTo(1);
+        assertThat(activeSessions()).isZero();
+    }
+}
@@ -0,0 +1,50 @@
+package com.inventory.common.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockFilterIndexTest {
+
+    private static final String PREFIX = "/topic/inventory/filtered/";
+    private static final String LOW_STOCK = PREFIX + "lowStock=true";
+    private static final String ELECTRONICS = PREFIX + "skuPrefix=ELEC-";
+
+    private final StompSubscriptionRegistry registry = new StompSubscriptionRegistry();
+    private final StockFilterIndex index = new StockFilterIndex(PREFIX, registry);
+
+    @Test
+    @DisplayName("should return the filtered destinations an update matches")
+    void shouldReturnMatchingDestinations() {
+        registry.subscribe("s1", "sub-0", LOW_STOCK);
+        registry.subscribe("s2", "sub-0", ELECTRONICS);
+        registry.subscribe("s3", "sub-0", ELECTRONICS);
+
+        assertThat(index.matching("ELEC-042", 2, 5)).containsExactlyInAnyOrder(LOW_STOCK, ELECTRONICS);
+        assertThat(index.matching("FOOD-001", 2, 5)).containsExactly(LOW_STOCK);
+        assertThat(index.matchesAny("FOOD-001", 50, 5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should keep a filter until its last subscriber leaves")
+    void shouldDropFilterWithLastSubscriber() {
+        registry.subscribe("s1", "sub-0", LOW_STOCK);
+        registry.subscribe("s2", "sub-0", LOW_STOCK);
+
+        registry.disconnect("s1");
+        assertThat(index.matching("ANY", 0, 5)).containsExactly(LOW_STOCK);
+
+        registry.unsubscribe("s2", "sub-0");
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should ignore unfiltered destinations and filters that do not compile")
+    void shouldIgnoreOtherDestinations() {
+        registry.subscribe("s1", "sub-0", "/topic/inventory");
+        registry.subscribe("s1", "sub-1", PREFIX + "category=tools");
+
+        assertThat(index.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.inventory.common.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StockFilterTest {
+
+    @Test
+    @DisplayName("should parse every supported condition")
+    void shouldParseConditions() {
+        StockFilter filter = StockFilter.parse("lowStock=true,skuPrefix=ELEC-,maxQuantity=5");
+
+        assertThat(filter).isEqualTo(new StockFilter(true, "ELEC-", 5));
+    }
+
+    @Test
+    @DisplayName("should require every given condition to match")
+    void shouldMatchAllConditions() {
+        StockFilter filter = StockFilter.parse("lowStock=true,skuPrefix=ELEC-");
+
+        assertThat(filter.matches("ELEC-042", 3, 10)).isTrue();
+        assertThat(filter.matches("ELEC-042", 30, 10)).isFalse();
+        assertThat(filter.matches("FOOD-001", 3, 10)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should match quantities at or below the threshold")
+    void shouldMatchMaxQuantity() {
+        StockFilter filter = StockFilter.parse("maxQuantity=5");
+
+        assertThat(filter.matches("ANY", 5, 0)).isTrue();
+        assertThat(filter.matches("ANY", 6, 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject unknown keys and invalid values")
+    void shouldRejectInvalidSpecs() {
+        assertThatThrownBy(() -> StockFilter.parse("category=tools")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StockFilter.parse("lowStock=yes")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StockFilter.parse("maxQuantity=lots")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StockFilter.parse("skuPrefix=")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StockFilter.parse("")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package com.inventory.common.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StompReplayBufferTest {
+
+    private static final String SKU_A = "/topic/inventory/A";
+    private static final String SKU_B = "/topic/inventory/B";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StompReplayBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new StompReplayBuffer(messagingTemplate, new ObjectMapper(), meterRegistry, 3);
+    }
+
+    private static byte[] json(String value) {
+        return ("\"" + value + "\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, ?> noSnapshot(Collection<String> destinations) {
+        throw new AssertionError("snapshot not expected");
+    }
+
+    @Test
+    @DisplayName("should stamp each frame with the stream and the next sequence number")
+    @SuppressWarnings("unchecked")
+    void shouldStampFrames() {
+        assertThat(buffer.send(SKU_A, json("a1"))).isEqualTo(1);
+        assertThat(buffer.send(SKU_B, json("b1"))).isEqualTo(2);
+
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq(SKU_B), captor.capture());
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(captor.getValue());
+        assertThat(headers.getFirstNativeHeader(StompReplayBuffer.SEQ_HEADER)).isEqualTo("2");
+        assertThat(headers.getFirstNativeHeader(StompReplayBuffer.STREAM_HEADER)).isEqualTo(buffer.stream());
+    }
+
+    @Nested
+    @DisplayName("replay")
+    class Replay {
+
+        @Test
+        @DisplayName("should return only the missed frames of the subscribed destinations")
+        void shouldReplayMissedFrames() {
+            buffer.send(SKU_A, json("a1"));
+            buffer.send(SKU_B, json("b1"));
+            buffer.send(SKU_A, json("a2"));
+
+            StreamReplay replay = buffer.replay(buffer.stream(), 1L, Set.of(SKU_A), StompReplayBufferTest::noSnapshot);
+
+            assertThat(replay.snapshot()).isFalse();
+            assertThat(replay.seq()).isEqualTo(3);
+            assertThat(replay.frames()).containsExactly(new StreamReplay.Frame(3, SKU_A, "\"a2\""));
+            assertThat(meterRegistry.counter("websocket.replays", "result", "delta").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should return an empty delta when the client is up to date")
+        void shouldReturnEmptyDeltaWhenCurrent() {
+            buffer.send(SKU_A, json("a1"));
+
+            StreamReplay replay = buffer.replay(buffer.stream(), 1L, Set.of(SKU_A), StompReplayBufferTest::noSnapshot);
+
+            assertThat(replay.snapshot()).isFalse();
+            assertThat(replay.frames()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should fall back to a snapshot when the missed frames were overwritten")
+        void shouldSnapshotWhenGapOutsideBuffer() {
+            for (int i = 1; i <= 5; i++) {
+                buffer.send(SKU_A, json("a" + i));
+            }
+
+            StreamReplay replay = buffer.replay(buffer.stream(), 1L, Set.of(SKU_A),
+                    destinations -> Map.of(SKU_A, "current"));
+
+            assertThat(replay.snapshot()).isTrue();
+            assertThat(replay.seq()).isEqualTo(5);
+            assertThat(replay.frames()).containsExactly(new StreamReplay.Frame(5, SKU_A, "\"current\""));
+            assertThat(meterRegistry.counter("websocket.replays", "result", "snapshot").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should replay from the oldest retained frame")
+        void shouldReplayFromOldestRetainedFrame() {
+            for (int i = 1; i <= 5; i++) {
+                buffer.send(SKU_A, json("a" + i));
+            }
+
+            StreamReplay replay = buffer.replay(buffer.stream(), 2L, Set.of(SKU_A), StompReplayBufferTest::noSnapshot);
+
+            assertThat(replay.frames()).extracting(StreamReplay.Frame::seq).containsExactly(3L, 4L, 5L);
+        }
+
+        @Test
+        @DisplayName("should fall back to a snapshot for another stream or a missing position")
+        void shouldSnapshotForUnknownStream() {
+            buffer.send(SKU_A, json("a1"));
+
+            StreamReplay otherReplica = buffer.replay("other-stream", 1L, Set.of(SKU_A), destinations -> Map.of());
+            StreamReplay fresh = buffer.replay(null, null, Set.of(SKU_A), destinations -> Map.of());
+
+            assertThat(otherReplica.snapshot()).isTrue();
+            assertThat(otherReplica.stream()).isEqualTo(buffer.stream());
+            assertThat(fresh.snapshot()).isTrue();
+            assertThat(fresh.frames()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventory.common.websocket;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StompSubscriptionRegistryTest {
+
+    private final StompSubscriptionRegistry registry = new StompSubscriptionRegistry();
+
+    @Test
+    @DisplayName("should count subscribers per destination across sessions")
+    void shouldCountSubscribers() {
+        registry.subscribe("s1", "sub-0", "/topic/inventory/PROD-001");
+        registry.subscribe("s2", "sub-0", "/topic/inventory/PROD-001");
+
+        assertThat(registry.hasSubscribers("/topic/inventory/PROD-001")).isTrue();
+        assertThat(registry.subscriberCount("/topic/inventory/PROD-001")).isEqualTo(2);
+        assertThat(registry.hasSubscribers("/topic/inventory/PROD-002")).isFalse();
+    }
+
+    @Test
+    @DisplayName("should release a destination on unsubscribe by subscription id")
+    void shouldReleaseOnUnsubscribe() {
+        registry.subscribe("s1", "sub-0", "/topic/inventory/PROD-001");
+        registry.subscribe("s1", "sub-1", "/topic/inventory");
+
+        registry.unsubscribe("s1", "sub-0");
+
+        assertThat(registry.hasSubscribers("/topic/inventory/PROD-001")).isFalse();
+        assertThat(registry.hasSubscribers("/topic/inventory")).isTrue();
+    }
+
+    @Test
+    @DisplayName("should release every subscription of a session on disconnect")
+    void shouldReleaseOnDisconnect() {
+        registry.subscribe("s1", "sub-0", "/topic/inventory/PROD-001");
+        registry.subscribe("s1", "sub-1", "/topic/inventory");
+        registry.subscribe("s2", "sub-0", "/topic/inventory");
+
+        registry.disconnect("s1");
+
+        assertThat(registry.hasSubscribers("/topic/inventory/PROD-001")).isFalse();
+        assertThat(registry.subscriberCount("/topic/inventory")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should list the destinations a session is subscribed to")
+    void shouldListSessionDestinations() {
+        registry.subscribe("s1", "sub-0", "/topic/inventory/PROD-001");
+        registry.subscribe("s1", "sub-1", "/topic/inventory");
+        registry.subscribe("s2", "sub-0", "/topic/inventory/PROD-002");
+
+        assertThat(registry.destinationsOf("s1"))
+                .containsExactlyInAnyOrder("/topic/inventory/PROD-001", "/topic/inventory");
+        assertThat(registry.destinationsOf("missing")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should ignore unknown sessions and subscriptions")
+    void shouldIgnoreUnknown() {
+        registry.unsubscribe("missing", "sub-0");
+        registry.disconnect("missing");
+
+        assertThat(registry.hasSubscribers("/topic/inventory")).isFalse();
+    }
+}
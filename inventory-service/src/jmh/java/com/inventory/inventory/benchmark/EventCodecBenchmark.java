@@ -0,0 +1,94 @@
+package com.inventory.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.event.BaseEvent;
+import com.inventory.common.event.BinaryEventCodec;
+import com.inventory.common.event.EventCodec;
+import com.inventory.common.event.EventSchemaRegistry;
+import com.inventory.common.event.JsonEventCodec;
+import com.inventory.common.event.ProductCreatedEvent;
+import com.inventory.common.event.ProductDeletedEvent;
+import com.inventory.common.event.ProductUpdatedEvent;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.common.event.StockUpdatedEvent.StockChangeReason;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and binary {@link EventCodec}s on each event type to decide {@code events.codec}.
+ * <p>
+ * {@code encode} measures the outbox write path and {@code decode} the consumer read path. The
+ * {@link Sizes} counters report the encoded payload length per operation, so bytes on the wire (and in
+ * {@code outbox_events.payload}) can be read from the same run as {@code payloadBytes / ops}.
+ * <pre>
+ * ./gradlew :inventory-service:jmh -PjmhIncludes=EventCodecBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(1)
+public class EventCodecBenchmark {
+
+    @Param({"json", "binary"})
+    public String codecName;
+
+    @Param({"PRODUCT_CREATED", "PRODUCT_UPDATED", "PRODUCT_DELETED", "STOCK_UPDATED"})
+    public String eventType;
+
+    private EventCodec codec;
+    private BaseEvent event;
+    private String payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codec = switch (codecName) {
+            case "json" -> new JsonEventCodec(new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+            case "binary" -> new BinaryEventCodec(EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION));
+            default -> throw new IllegalArgumentException(codecName);
+        };
+        event = switch (eventType) {
+            case "PRODUCT_CREATED" -> ProductCreatedEvent.builder()
+                    .productId(421_337L).sku("ELEC-421337").name("Cordless Kettle 1.7 l").category("Kitchen")
+                    .price(new BigDecimal("49.99")).initialStock(250).build();
+            case "PRODUCT_UPDATED" -> ProductUpdatedEvent.builder()
+                    .productId(421_337L).sku("ELEC-421337").name("Cordless Kettle 1.7 l").category("Kitchen")
+                    .price(new BigDecimal("44.99")).version(7L).build();
+            case "PRODUCT_DELETED" -> ProductDeletedEvent.builder()
+                    .productId(421_337L).sku("ELEC-421337").build();
+            case "STOCK_UPDATED" -> StockUpdatedEvent.builder()
+                    .productId(421_337L).sku("ELEC-421337").previousQuantity(250).newQuantity(247)
+                    .minThreshold(20).changeAmount(-3).reason(StockChangeReason.SALE).version(1_024L).build();
+            default -> throw new IllegalArgumentException(eventType);
+        };
+        payload = codec.encode(event);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long payloadBytes;
+    }
+
+    @Benchmark
+    public String encode(Sizes sizes) {
+        String encoded = codec.encode(event);
+        sizes.payloadBytes += encoded.length();
+        return encoded;
+    }
+
+    @Benchmark
+    public BaseEvent decode() {
+        return codec.decode(payload, event.getClass());
+    }
+}
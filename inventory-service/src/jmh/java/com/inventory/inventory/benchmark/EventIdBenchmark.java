@@ -0,0 +1,142 @@
+package com.inventory.inventory.benchmark;
+
+import com.inventory.common.event.EventIdGenerator;
+import com.inventory.common.event.EventIds;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares random (UUIDv4) and time-ordered (UUIDv7) {@link EventIds event ids} to choose
+ * {@code events.id-generator}.
+ * <p>
+ * {@code generate} measures id throughput from four threads, where {@code UUID.randomUUID()} shares one
+ * {@code SecureRandom}. {@code insert} loads {@code rows} fresh ids into a model of the leaf level of the
+ * unique {@code event_id} B-tree: 8 KB Postgres pages hold about {@value #LEAF_CAPACITY} 36-character keys,
+ * a full page splits in half, and appends to the rightmost page split at the default 90% fillfactor.
+ * The {@link Pages} counters report page {@code splits} and {@code pageSwitches}, the inserts that landed
+ * on a different page than the one before, a proxy for buffer-cache misses once the index outgrows
+ * {@code shared_buffers}. The index fill factor is {@code rows / (150 * (splits + 1))}.
+ * <pre>
+ * ./gradlew :inventory-service:jmh -PjmhIncludes=EventIdBenchmark
+ * </pre>
+ * Confirm against Postgres by timing {@code INSERT INTO processed_events} with each generator.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class EventIdBenchmark {
+
+    static final int LEAF_CAPACITY = 150;
+    private static final int RIGHTMOST_FILL = LEAF_CAPACITY * 9 / 10;
+
+    @Param({"random", "uuidv7"})
+    public String generatorName;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private EventIdGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = switch (generatorName) {
+            case "random" -> EventIds.RANDOM;
+            case "uuidv7" -> EventIds.TIME_ORDERED;
+            default -> throw new IllegalArgumentException(generatorName);
+        };
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Pages {
+        public long splits;
+        public long pageSwitches;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(4)
+    public String generate() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public int insert(Pages pages) {
+        LeafIndex index = new LeafIndex();
+        for (int i = 0; i < rows; i++) {
+            index.insert(generator.nextId());
+        }
+        pages.splits += index.splits;
+        pages.pageSwitches += index.pageSwitches;
+        return index.leaves.size();
+    }
+
+    /**
+     * Sorted leaf pages keyed by their lowest key; the first page is keyed by {@code ""} so every key has a
+     * page to land on.
+     */
+    static final class LeafIndex {
+
+        final TreeMap<String, Leaf> leaves = new TreeMap<>();
+        long splits;
+        long pageSwitches;
+        private Leaf lastTouched;
+
+        LeafIndex() {
+            leaves.put("", new Leaf());
+        }
+
+        void insert(String key) {
+            Map.Entry<String, Leaf> entry = leaves.floorEntry(key);
+            Leaf leaf = entry.getValue();
+            if (leaf != lastTouched) {
+                pageSwitches++;
+                lastTouched = leaf;
+            }
+            int found = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+            int position = found >= 0 ? found : -found - 1;
+            if (leaf.size == LEAF_CAPACITY) {
+                boolean append = position == leaf.size && leaf == leaves.lastEntry().getValue();
+                int keep = append ? RIGHTMOST_FILL : LEAF_CAPACITY / 2;
+                Leaf right = leaf.split(keep);
+                leaves.put(right.keys[0], right);
+                splits++;
+                if (position > keep) {
+                    leaf = right;
+                    position -= keep;
+                }
+            }
+            leaf.insert(position, key);
+        }
+    }
+
+    static final class Leaf {
+
+        final String[] keys = new String[LEAF_CAPACITY];
+        int size;
+
+        Leaf split(int keep) {
+            Leaf right = new Leaf();
+            right.size = size - keep;
+            System.arraycopy(keys, keep, right.keys, 0, right.size);
+            Arrays.fill(keys, keep, size, null);
+            size = keep;
+            return right;
+        }
+
+        void insert(int position, String key) {
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            keys[position] = key;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.inventory.inventory.benchmark;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a Zipfian SKU access trace against a Caffeine cache to choose {@code cache.specs.stock} sizes.
+ * <p>
+ * The catalog has {@code catalogSize} SKUs; rank {@code k} is requested with probability proportional to
+ * {@code 1 / k^skew}. Each invocation performs one lookup and the {@link Counters} report hits and misses
+ * per iteration, so the hit ratio for a given {@code maximumSize} is {@code hits / (hits + misses)} in the
+ * JMH output. Multiply a chosen entry count by the weight of a typical {@code StockSnapshot} entry
+ * (about 800 bytes with {@code CacheEntryWeigher}) to get the matching {@code maximum-weight}.
+ * <pre>
+ * ./gradlew :inventory-service:jmh -PjmhIncludes=StockCacheSizingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(1)
+public class StockCacheSizingBenchmark {
+
+    private static final int TRACE_LENGTH = 1 << 22;
+
+    @Param({"2000000"})
+    public int catalogSize;
+
+    @Param({"0.8", "0.99", "1.2"})
+    public double skew;
+
+    @Param({"1000", "50000", "200000", "500000"})
+    public long maximumSize;
+
+    private long[] trace;
+    private Cache<Long, Object> cache;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trace = new ZipfianGenerator(catalogSize, skew, 42L).trace(TRACE_LENGTH);
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long hits;
+        public long misses;
+    }
+
+    @Benchmark
+    public Object lookup(Counters counters) {
+        long sku = trace[cursor];
+        cursor = (cursor + 1) & (TRACE_LENGTH - 1);
+        Object value = cache.getIfPresent(sku);
+        if (value != null) {
+            counters.hits++;
+            return value;
+        }
+        counters.misses++;
+        cache.put(sku, Boolean.TRUE);
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Samples ranks {@code 1..n} by inverse transform over the precomputed CDF of the Zipf distribution.
+     * Rank order is shuffled into SKU IDs so popular SKUs are not clustered at low IDs.
+     */
+    static final class ZipfianGenerator {
+
+        private final double[] cdf;
+        private final long[] skuForRank;
+        private final SplittableRandom random;
+
+        ZipfianGenerator(int n, double skew, long seed) {
+            this.random = new SplittableRandom(seed);
+            this.cdf = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += 1.0 / Math.pow(k, skew);
+                cdf[k - 1] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= sum;
+            }
+            this.skuForRank = new long[n];
+            for (int i = 0; i < n; i++) {
+                skuForRank[i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long tmp = skuForRank[i];
+                skuForRank[i] = skuForRank[j];
+                skuForRank[j] = tmp;
+            }
+        }
+
+        long[] trace(int length) {
+            long[] trace = new long[length];
+            for (int i = 0; i < length; i++) {
+                trace[i] = skuForRank[rank(random.nextDouble())];
+            }
+            return trace;
+        }
+
+        private int rank(double u) {
+            int low = 0;
+            int high = cdf.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cdf[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.inventory.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.inventory.common.export.ExportFormat;
+import com.inventory.common.export.ExportWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization side of {@code GET /api/v1/inventory/export}: one single-shot invocation
+ * writes {@code rows} stock rows through {@link ExportWriter} to a byte-counting sink, with the same
+ * columns and value types that {@code JdbcStreamingExporter} reads from the cursor. Rows are generated
+ * on the fly, so heap use is flat regardless of {@code rows}; run with {@code -prof gc} to confirm the
+ * per-row allocation rate, and divide {@code bytes} by the score for output bandwidth.
+ * <pre>
+ * ./gradlew :inventory-service:jmh -PjmhIncludes=StockExportBenchmark
+ * </pre>
+ * Database cursor throughput is bounded separately by {@code export.fetch-size} round trips.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class StockExportBenchmark {
+
+    private static final List<String> COLUMNS =
+            List.of("id", "productId", "sku", "quantity", "minThreshold", "createdAt", "updatedAt");
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"NDJSON", "CSV"})
+    public ExportFormat format;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private String createdAt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        createdAt = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(LocalDateTime.of(2024, 1, 15, 10, 30));
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long bytes;
+    }
+
+    @Benchmark
+    public long export(Counters counters) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (ExportWriter writer = ExportWriter.open(format, out, COLUMNS, jsonFactory)) {
+            for (int i = 1; i <= rows; i++) {
+                writer.beginRow();
+                writer.numberValue(0, i);
+                writer.numberValue(1, 100_000L + i);
+                writer.stringValue(2, "PROD-" + i);
+                writer.numberValue(3, i % 500);
+                writer.numberValue(4, 10);
+                writer.stringValue(5, createdAt);
+                writer.nullValue(6);
+                writer.endRow();
+            }
+        }
+        counters.bytes += out.count;
+        return out.count;
+    }
+
+    static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
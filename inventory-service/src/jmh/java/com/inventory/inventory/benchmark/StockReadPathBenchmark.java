@@ -0,0 +1,67 @@
+package com.inventory.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.dto.ApiResponse;
+import com.inventory.inventory.dto.StockSnapshot;
+import com.inventory.inventory.entity.Stock;
+import com.inventory.inventory.mapper.StockMapper;
+import com.inventory.inventory.mapper.StockMapperImpl;
+import com.inventory.inventory.mapper.StockSnapshotFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of serving {@code GET /api/v1/inventory/{sku}} from a cache hit.
+ * <ul>
+ *   <li>{@code entityMapAndSerialize} — the previous path: the cache held the {@link Stock} entity,
+ *       so every hit was mapped to a DTO and serialized from scratch.</li>
+ *   <li>{@code snapshotRawWrite} — the current path: the cache holds a {@link StockSnapshot}
+ *       whose JSON is copied verbatim into the response envelope.</li>
+ * </ul>
+ * Both produce the response body bytes the message converter would write.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class StockReadPathBenchmark {
+
+    private ObjectMapper objectMapper;
+    private StockMapper stockMapper;
+    private Stock cachedEntity;
+    private StockSnapshot cachedSnapshot;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        stockMapper = new StockMapperImpl();
+
+        cachedEntity = Stock.builder()
+                .id(1L)
+                .productId(42L)
+                .sku("PROD-001")
+                .quantity(150)
+                .minThreshold(10)
+                .version(7L)
+                .build();
+        cachedEntity.setCreatedAt(LocalDateTime.of(2026, 2, 15, 10, 30));
+        cachedEntity.setUpdatedAt(LocalDateTime.of(2026, 2, 15, 14, 45));
+
+        cachedSnapshot = new StockSnapshotFactory(stockMapper, objectMapper).create(cachedEntity);
+    }
+
+    @Benchmark
+    public byte[] entityMapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(stockMapper.toDTO(cachedEntity)));
+    }
+
+    @Benchmark
+    public byte[] snapshotRawWrite() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(cachedSnapshot));
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventory.inventory.cache;
+
+import com.inventory.common.cache.CacheValueLoader;
+import com.inventory.common.cache.NegativeCacheEntry;
+import com.inventory.inventory.mapper.StockSnapshotFactory;
+import com.inventory.inventory.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads {@code stock} cache entries by SKU as immutable snapshots.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockCacheLoader implements CacheValueLoader {
+
+    public static final String STOCK_CACHE = "stock";
+
+    private final StockRepository stockRepository;
+    private final StockSnapshotFactory stockSnapshotFactory;
+
+    @Override
+    public String getCacheName() {
+        return STOCK_CACHE;
+    }
+
+    @Override
+    public Object load(Object key) {
+        return stockRepository.findBySku((String) key)
+                .<Object>map(stockSnapshotFactory::create)
+                .orElse(NegativeCacheEntry.INSTANCE);
+    }
+
+    /** Loads all missing SKUs of a bulk read with one {@code sku = ANY(?)} query. */
+    @Override
+    public Map<Object, Object> loadAll(Set<?> keys) {
+        String[] skus = keys.stream().map(String.class::cast).toArray(String[]::new);
+        Map<Object, Object> values = new HashMap<>();
+        stockRepository.findAllBySkuIn(skus)
+                .forEach(stock -> values.put(stock.getSku(), stockSnapshotFactory.create(stock)));
+        keys.forEach(key -> values.putIfAbsent(key, NegativeCacheEntry.INSTANCE));
+        return values;
+    }
+}
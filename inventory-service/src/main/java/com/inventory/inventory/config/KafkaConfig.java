@@ -1,8 +1,11 @@
 package com.inventory.inventory.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.inventory.common.retry.TieredRetry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,10 +13,9 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.listener.CommonErrorHandler;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,17 +24,38 @@ import static com.inventory.common.constants.KafkaConstants.*;
 
 /**
  * Kafka configuration for the inventory service.
- * Sets up the consumer factory with JSON deserialization, dead letter topic error handling, and idempotent producer.
+ * Sets up the consumer factory with JSON deserialization, tiered retry topics in front of the dead letter topic
+ * (see {@link TieredRetry}), and idempotent producer. Every product event factory has a retry counterpart that
+ * consumes the {@code {topic}.retry-N} tiers.
+ * Product-created and product-updated events are consumed a whole poll at a time by a batch factory.
+ * The audit sink gets its own batch container factory that retries in place, dead-lettering only records
+ * that cannot be read.
  */
 @Configuration
 public class KafkaConfig {
 
+    public static final String RETRY_CONTAINER_FACTORY = "retryListenerContainerFactory";
+    public static final String PRODUCT_EVENTS_CONTAINER_FACTORY = "productEventsListenerContainerFactory";
+    public static final String PRODUCT_EVENTS_RETRY_CONTAINER_FACTORY = "productEventsRetryListenerContainerFactory";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
     @Value("${kafka.listener.concurrency:3}")
     private int listenerConcurrency;
 
+    @Value("${product-events.batch-size:500}")
+    private int productEventsBatchSize;
+
+    @Value("${product-events.max-retry-interval-ms:60000}")
+    private long productEventsMaxRetryIntervalMs;
+
+    @Value("${audit.batch-size:500}")
+    private int auditBatchSize;
+
+    @Value("${audit.max-retry-interval-ms:60000}")
+    private long auditMaxRetryIntervalMs;
+
     // Consumer config — receives pre-serialized JSON strings from the outbox
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
@@ -45,24 +68,86 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(config);
     }
 
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(TieredRetry tieredRetry) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(listenerConcurrency);
+        tieredRetry.configure(factory);
+        return factory;
+    }
+
+    @Bean(RETRY_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> retryListenerContainerFactory(
+            TieredRetry tieredRetry) {
+        return tieredRetry.retryContainerFactory(consumerFactory().getConfigurationProperties(), 1, false);
+    }
+
     /**
-     * Error handler with retry + dead letter topic.
-     * Retries 3 times with 1-second intervals, then sends to {original-topic}.DLT.
+     * Batch listener factory for product lifecycle events. A listener that throws
+     * {@link org.springframework.kafka.listener.BatchListenerFailedException} has the records before the
+     * failed one committed, and only the failed record is moved to the retry tiers; the rest of the batch is
+     * redelivered after it. Any other exception means the database is unavailable, and the batch is retried
+     * in place with exponential backoff until it is back (see {@link TieredRetry#batchErrorHandler}).
      */
-    @Bean
-    public CommonErrorHandler kafkaErrorHandler(KafkaTemplate<String, String> kafkaTemplate) {
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate);
-        return new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 3));
+    @Bean(PRODUCT_EVENTS_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> productEventsListenerContainerFactory(
+            TieredRetry tieredRetry) {
+        Map<String, Object> config = new HashMap<>(consumerFactory().getConfigurationProperties());
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, productEventsBatchSize);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
+        factory.setConcurrency(listenerConcurrency);
+        factory.setBatchListener(true);
+        tieredRetry.configure(factory);
+        factory.setCommonErrorHandler(tieredRetry.batchErrorHandler(outageBackOff()));
+        return factory;
+    }
+
+    @Bean(PRODUCT_EVENTS_RETRY_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> productEventsRetryListenerContainerFactory(
+            TieredRetry tieredRetry) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                tieredRetry.retryContainerFactory(consumerFactory().getConfigurationProperties(), 1, true);
+        factory.setCommonErrorHandler(tieredRetry.batchErrorHandler(outageBackOff()));
+        return factory;
     }
 
+    private ExponentialBackOff outageBackOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(productEventsMaxRetryIntervalMs);
+        return backOff;
+    }
+
+    /**
+     * Batch listener factory for the MongoDB audit sink. A failed batch is retried with exponential backoff
+     * until it succeeds, so events are never dropped to a dead letter topic during a MongoDB outage; the
+     * consumer stays paused and its offsets uncommitted until the store is back. A record reported as
+     * unreadable or invalid cannot succeed on a retry and is published to {@code {topic}.DLT} at once.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
-            CommonErrorHandler kafkaErrorHandler) {
+    public ConcurrentKafkaListenerContainerFactory<String, String> auditListenerContainerFactory() {
+        Map<String, Object> config = new HashMap<>(consumerFactory().getConfigurationProperties());
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, auditBatchSize);
+
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(auditMaxRetryIntervalMs);
+
         ConcurrentKafkaListenerContainerFactory<String, String> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
         factory.setConcurrency(listenerConcurrency);
-        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setBatchListener(true);
+
+        // A negative partition lets the producer partition by key, as the retry tiers do
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate(),
+                (record, exception) -> new TopicPartition(record.topic() + ".DLT", -1));
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.addNotRetryableExceptions(IllegalArgumentException.class, JsonProcessingException.class);
+        factory.setCommonErrorHandler(errorHandler);
         return factory;
     }
 
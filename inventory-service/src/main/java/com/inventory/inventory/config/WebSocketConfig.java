@@ -1,10 +1,19 @@
 package com.inventory.inventory.config;
 
+import com.inventory.common.websocket.SessionMetricsHandlerDecorator;
+import com.inventory.common.websocket.StockFilterIndex;
+import com.inventory.common.websocket.StompSubscriptionRegistry;
+import com.inventory.inventory.websocket.StockUpdateNotifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
  * WebSocket configuration for the inventory service.
@@ -12,14 +21,44 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final MeterRegistry meterRegistry;
+
+    @Value("${websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    /**
+     * Filters subscribed under {@code /topic/inventory/filtered/}, compiled once per distinct destination.
+     */
+    @Bean
+    public StockFilterIndex stockFilterIndex(StompSubscriptionRegistry subscriptionRegistry) {
+        return new StockFilterIndex(StockUpdateNotifier.FILTERED_DESTINATION_PREFIX, subscriptionRegistry);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Clients subscribe to /topic/* to receive messages
         registry.enableSimpleBroker("/topic");
         // Client messages prefixed with /app are routed to @MessageMapping methods
         registry.setApplicationDestinationPrefixes("/app");
+        // Sequence-numbered frames must reach each session in the order they were sent
+        registry.setPreservePublishOrder(true);
+    }
+
+    /**
+     * Bounds each session's outbound buffer. A client that falls behind by more than the buffer size, or
+     * blocks a send for longer than the time limit, is disconnected instead of holding broker threads.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMs)
+                .addDecoratorFactory(handler -> new SessionMetricsHandlerDecorator(handler, meterRegistry));
     }
 
     @Override
@@ -1,22 +1,35 @@
 package com.inventory.inventory.controller;
 
 import com.inventory.common.dto.ApiResponse;
+import com.inventory.common.dto.BulkLookupRequest;
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
+import com.inventory.common.dto.KeysetCursor;
+import com.inventory.common.export.ExportFormat;
+import com.inventory.common.idempotency.IdempotencyAspect;
+import com.inventory.common.idempotency.Idempotent;
+import com.inventory.common.limit.ConcurrencyLimited;
+import com.inventory.common.limit.Priority;
 import com.inventory.inventory.dto.StockResponseDTO;
+import com.inventory.inventory.dto.StockSnapshot;
 import com.inventory.inventory.dto.StockUpdateDTO;
 import com.inventory.inventory.entity.Stock;
 import com.inventory.inventory.mapper.StockMapper;
 import com.inventory.inventory.service.InventoryService;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/inventory")
@@ -32,37 +45,90 @@ public class InventoryController {
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stock record found"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No stock record for this SKU"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
-    public ResponseEntity<ApiResponse<StockResponseDTO>> getStockBySku(
+    @ConcurrencyLimited
+    public ResponseEntity<ApiResponse<StockSnapshot>> getStockBySku(
             @Parameter(description = "Stock keeping unit identifier", example = "PROD-001") @PathVariable String sku) {
-        Stock stock = inventoryService.getStockBySku(sku);
-        return ResponseEntity.ok(ApiResponse.success(stockMapper.toDTO(stock)));
+        StockSnapshot snapshot = inventoryService.getStockBySku(sku);
+        return ResponseEntity.ok(ApiResponse.success(snapshot));
+    }
+
+    @GetMapping("/bulk")
+    @Operation(summary = "Get stock levels for many SKUs", description = "Resolves up to 500 comma-separated SKUs in one call, served from the cache with all misses loaded by a single query. Unknown SKUs are listed under 'missing' instead of failing the request.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stock records found, plus unknown SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No SKUs or more than 500 SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
+    })
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<ApiResponse<BulkResult<StockSnapshot>>> getStockBySkus(
+            @Parameter(description = "Comma-separated SKUs", example = "PROD-001,PROD-002") @RequestParam List<String> skus) {
+        return ResponseEntity.ok(ApiResponse.success(inventoryService.getStockBySkus(skus)));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Get stock levels for many SKUs (request body)", description = "Same as GET /bulk with the SKUs in the request body, for lists too long for a URL.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stock records found, plus unknown SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No SKUs or more than 500 SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
+    })
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<ApiResponse<BulkResult<StockSnapshot>>> getStockBySkusFromBody(
+            @Valid @RequestBody BulkLookupRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(inventoryService.getStockBySkus(request.getSkus())));
     }
 
     @GetMapping
-    @Operation(summary = "Get all stock levels (paginated)", description = "Returns a paginated list of all stock records. Use query parameters: page, size, sort.")
+    @Operation(summary = "Get all stock levels (cursor-paginated)", description = "Returns one slice of stock records ordered by the sort key. Pass the returned nextCursor as 'after' to read the next slice. No exact total is computed; set includeTotal=true for an estimate from database statistics.")
     @ApiResponses({
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Page of stock records returned"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Slice of stock records returned"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported sort key or malformed cursor"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
-    public ResponseEntity<ApiResponse<Page<StockResponseDTO>>> getAllStock(Pageable pageable) {
-        Page<StockResponseDTO> stocks = inventoryService.getAllStock(pageable).map(stockMapper::toDTO);
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<ApiResponse<CursorSlice<StockResponseDTO>>> getAllStock(
+            @Parameter(description = "Cursor returned as nextCursor by the previous slice") @RequestParam(required = false) String after,
+            @Parameter(description = "Slice size (1-500)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort key: id or sku", example = "id") @RequestParam(defaultValue = KeysetCursor.SORT_ID) String sort,
+            @Parameter(description = "Attach an estimated total row count") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorSlice<StockResponseDTO> stocks = inventoryService.getAllStock(after, size, sort, includeTotal).map(stockMapper::toDTO);
         return ResponseEntity.ok(ApiResponse.success(stocks));
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export all stock records (streaming)", description = "Streams every stock record in id order as NDJSON (one JSON object per line) or CSV. Rows are read through a database cursor and written as they arrive, so the response is not paginated and memory use does not depend on table size.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export stream started"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported export format"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
+    })
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<StreamingResponseBody> exportStock(
+            @Parameter(description = "Output format: ndjson or csv", example = "ndjson") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = out -> inventoryService.exportStock(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("stock." + exportFormat.getFileExtension()).build().toString())
+                .body(body);
+    }
+
     @PutMapping("/{sku}/restock")
     @Operation(summary = "Restock a product", description = "Adds quantity to existing stock. Publishes a StockUpdatedEvent with reason RESTOCK. Automatically retries on concurrent modification conflicts.")
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, description = "Client-generated key; a retry with the same key and request replays the first response instead of applying the change again", example = "6f1c2a9e-8d4b-4c1e-9a57-0b6c3f2d1e84")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product restocked successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Validation error (quantity < 1)"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No stock record for this SKU"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Concurrent modification conflict (retry exhausted)"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Concurrent modification conflict (retry exhausted), or the idempotency key is still in use"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "writeApi")
+    @ConcurrencyLimited(priority = Priority.CRITICAL)
+    @Idempotent
     public ResponseEntity<ApiResponse<StockResponseDTO>> restock(
             @Parameter(description = "Stock keeping unit identifier", example = "PROD-001") @PathVariable String sku,
             @Valid @RequestBody StockUpdateDTO dto) {
@@ -72,14 +138,17 @@ public class InventoryController {
 
     @PutMapping("/{sku}/sell")
     @Operation(summary = "Deduct stock for a sale", description = "Deducts quantity from stock. Fails if insufficient stock is available. Publishes a StockUpdatedEvent with reason SALE.")
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, description = "Client-generated key; a retry with the same key and request replays the first response instead of applying the change again", example = "6f1c2a9e-8d4b-4c1e-9a57-0b6c3f2d1e84")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stock deducted successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Insufficient stock or validation error"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No stock record for this SKU"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Concurrent modification conflict (retry exhausted)"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Concurrent modification conflict (retry exhausted), or the idempotency key is still in use"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "writeApi")
+    @ConcurrencyLimited(priority = Priority.CRITICAL)
+    @Idempotent
     public ResponseEntity<ApiResponse<StockResponseDTO>> sell(
             @Parameter(description = "Stock keeping unit identifier", example = "PROD-001") @PathVariable String sku,
             @Valid @RequestBody StockUpdateDTO dto) {
@@ -89,14 +158,17 @@ public class InventoryController {
 
     @PutMapping("/{sku}/adjust")
     @Operation(summary = "Manual stock adjustment", description = "Sets stock to an exact quantity. Used for corrections after physical inventory counts. Publishes a StockUpdatedEvent with reason ADJUSTMENT.")
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, description = "Client-generated key; a retry with the same key and request replays the first response instead of applying the change again", example = "6f1c2a9e-8d4b-4c1e-9a57-0b6c3f2d1e84")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stock adjusted successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Validation error (quantity < 1)"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No stock record for this SKU"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Concurrent modification conflict (retry exhausted)"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Concurrent modification conflict (retry exhausted), or the idempotency key is still in use"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "writeApi")
+    @ConcurrencyLimited
+    @Idempotent
     public ResponseEntity<ApiResponse<StockResponseDTO>> adjust(
             @Parameter(description = "Stock keeping unit identifier", example = "PROD-001") @PathVariable String sku,
             @Valid @RequestBody StockUpdateDTO dto) {
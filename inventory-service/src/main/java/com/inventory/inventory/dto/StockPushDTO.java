@@ -0,0 +1,36 @@
+package com.inventory.inventory.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock level pushed to WebSocket subscribers. Built from the stock change event rather than the
+ * entity, so unlike {@link StockResponseDTO} it has no record ID or creation time; clients key rows by SKU.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Stock level pushed to WebSocket subscribers")
+public class StockPushDTO {
+
+    @Schema(description = "Product ID from the Product Service", example = "42")
+    private Long productId;
+
+    @Schema(description = "Stock keeping unit identifier", example = "PROD-001")
+    private String sku;
+
+    @Schema(description = "Current stock quantity", example = "150")
+    private int quantity;
+
+    @Schema(description = "Minimum stock threshold for low-stock alerts", example = "10")
+    private int minThreshold;
+
+    @Schema(description = "Timestamp of the stock change", example = "2026-02-15T14:45:00")
+    private LocalDateTime updatedAt;
+}
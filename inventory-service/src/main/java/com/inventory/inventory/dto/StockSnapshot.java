@@ -0,0 +1,101 @@
+package com.inventory.inventory.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.inventory.common.cache.Versioned;
+import com.inventory.common.cache.Weighted;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of a stock record as held in the {@code stock} cache. The JSON form of the
+ * {@link StockResponseDTO} is rendered once when the snapshot is built and written verbatim into
+ * every response that returns it, so cache hits skip both mapping and serialization.
+ */
+@Getter
+@Schema(implementation = StockResponseDTO.class)
+public final class StockSnapshot extends JsonSerializable.Base implements Versioned, Weighted {
+
+    /** Approximate heap cost of the object headers, boxed IDs, SKU and timestamps of one snapshot. */
+    private static final int FIXED_OVERHEAD_BYTES = 280;
+
+    private final Long id;
+    private final Long productId;
+    private final String sku;
+    private final int quantity;
+    private final int minThreshold;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Long version;
+
+    @Getter(AccessLevel.NONE)
+    private final SerializedString json;
+
+    private StockSnapshot(StockResponseDTO dto, Long version, String json) {
+        this.id = dto.getId();
+        this.productId = dto.getProductId();
+        this.sku = dto.getSku();
+        this.quantity = dto.getQuantity();
+        this.minThreshold = dto.getMinThreshold();
+        this.createdAt = dto.getCreatedAt();
+        this.updatedAt = dto.getUpdatedAt();
+        this.version = version;
+        this.json = new SerializedString(json);
+        // Encode eagerly so concurrent readers of a cached snapshot never race on the lazy UTF-8 buffer
+        this.json.asUnquotedUTF8();
+    }
+
+    /**
+     * Builds a snapshot from a mapped DTO and its already-serialized JSON.
+     *
+     * @param dto     the response DTO the JSON was rendered from
+     * @param version the entity's optimistic-lock version at the time of the read
+     * @param json    {@code dto} serialized with the application's ObjectMapper
+     * @return the snapshot
+     */
+    public static StockSnapshot of(StockResponseDTO dto, Long version, String json) {
+        return new StockSnapshot(dto, version, json);
+    }
+
+    /** Returns a fresh, mutable copy of the snapshot as a response DTO. */
+    public StockResponseDTO toDTO() {
+        return StockResponseDTO.builder()
+                .id(id)
+                .productId(productId)
+                .sku(sku)
+                .quantity(quantity)
+                .minThreshold(minThreshold)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    /** Size in bytes of the pre-serialized UTF-8 JSON. */
+    public int serializedSize() {
+        return json.asUnquotedUTF8().length;
+    }
+
+    /** The JSON is retained twice: as the source string and as its encoded UTF-8 bytes. */
+    @Override
+    public int estimatedBytes() {
+        return FIXED_OVERHEAD_BYTES + 2 * serializedSize();
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
@@ -17,9 +17,12 @@ import lombok.*;
 @Builder
 public class Stock extends BaseEntity {
 
+    /** Ids reserved by each {@code stock_id_seq} value; matches the sequence's {@code INCREMENT BY}. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_seq")
-    @SequenceGenerator(name = "stock_seq", sequenceName = "stock_id_seq", allocationSize = 50)
+    @SequenceGenerator(name = "stock_seq", sequenceName = "stock_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "product_id", nullable = false)
@@ -0,0 +1,36 @@
+package com.inventory.inventory.hotkey;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts optimistic-lock conflicts per SKU for {@link HotKeyDetector}. Ordered inside the Resilience4j retry
+ * ({@code LOWEST_PRECEDENCE - 4}) and outside the transaction ({@code LOWEST_PRECEDENCE}), so every failed
+ * attempt is seen, including conflicts raised at commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class HotKeyConflictRecorder {
+
+    private final HotKeyDetector detector;
+
+    @Around("@annotation(com.inventory.inventory.hotkey.HotKeyGuarded)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } catch (OptimisticLockingFailureException e) {
+            detector.recordConflict((String) joinPoint.getArgs()[0]);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.inventory.inventory.hotkey;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the SKUs that take a disproportionate share of stock writes on this instance. Writes and
+ * optimistic-lock conflicts are counted per SKU in two {@link SpaceSavingSketch}es, so memory stays at
+ * {@code hot-keys.capacity} counters each however many SKUs are written. Every {@code hot-keys.window-ms}
+ * the window closes: a SKU is hot for the next window if it had at least {@code hot-keys.write-threshold}
+ * writes or {@code hot-keys.conflict-threshold} conflicts in the one that just ended.
+ * <p>
+ * Publishes {@code hotkeys.active}. The current hot keys are served by {@link HotKeysEndpoint}.
+ */
+@Component
+@ConditionalOnProperty(name = "hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class HotKeyDetector {
+
+    public record HotKey(String sku, long writes, long conflicts) {
+    }
+
+    private final SpaceSavingSketch writes;
+    private final SpaceSavingSketch conflicts;
+
+    @Getter
+    private final long writeThreshold;
+
+    @Getter
+    private final long conflictThreshold;
+
+    private volatile Map<String, HotKey> hotKeys = Map.of();
+
+    public HotKeyDetector(MeterRegistry meterRegistry,
+                          @Value("${hot-keys.capacity:128}") int capacity,
+                          @Value("${hot-keys.write-threshold:50}") long writeThreshold,
+                          @Value("${hot-keys.conflict-threshold:5}") long conflictThreshold) {
+        this.writes = new SpaceSavingSketch(capacity);
+        this.conflicts = new SpaceSavingSketch(capacity);
+        this.writeThreshold = writeThreshold;
+        this.conflictThreshold = conflictThreshold;
+        Gauge.builder("hotkeys.active", this, detector -> detector.hotKeys.size())
+                .description("SKUs currently treated as hot")
+                .register(meterRegistry);
+    }
+
+    public void recordWrite(String sku) {
+        writes.offer(sku);
+    }
+
+    public void recordConflict(String sku) {
+        conflicts.offer(sku);
+    }
+
+    public boolean isHot(String sku) {
+        return hotKeys.containsKey(sku);
+    }
+
+    /** Hot keys of the last closed window, most written first. */
+    public List<HotKey> getHotKeys() {
+        List<HotKey> current = new ArrayList<>(hotKeys.values());
+        current.sort(Comparator.comparingLong(HotKey::writes).reversed());
+        return current;
+    }
+
+    @Scheduled(fixedRateString = "${hot-keys.window-ms:1000}")
+    public void closeWindow() {
+        Map<String, Long> writeCounts = guaranteedCounts(writes.drain(1));
+        Map<String, Long> conflictCounts = guaranteedCounts(conflicts.drain(1));
+
+        Set<String> candidates = new HashSet<>(writeCounts.keySet());
+        candidates.addAll(conflictCounts.keySet());
+        Map<String, HotKey> next = new HashMap<>();
+        for (String sku : candidates) {
+            long skuWrites = writeCounts.getOrDefault(sku, 0L);
+            long skuConflicts = conflictCounts.getOrDefault(sku, 0L);
+            if (skuWrites >= writeThreshold || skuConflicts >= conflictThreshold) {
+                next.put(sku, new HotKey(sku, skuWrites, skuConflicts));
+                if (!hotKeys.containsKey(sku)) {
+                    log.info("Hot SKU detected: sku={}, writes={}, conflicts={}", sku, skuWrites, skuConflicts);
+                }
+            }
+        }
+        hotKeys = Map.copyOf(next);
+    }
+
+    private static Map<String, Long> guaranteedCounts(List<SpaceSavingSketch.Entry> entries) {
+        Map<String, Long> counts = new HashMap<>();
+        for (SpaceSavingSketch.Entry entry : entries) {
+            counts.put(entry.key(), entry.guaranteedCount());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,96 @@
+package com.inventory.inventory.hotkey;
+
+import com.inventory.common.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues writes to hot SKUs so they stop fighting over the same row version. Each {@link HotKeyGuarded}
+ * call is counted by {@link HotKeyDetector}; while a SKU is hot, its writes pass through a fair per-SKU lane
+ * of {@code hot-keys.lane-permits} permits instead of racing into optimistic-lock retries. A write that
+ * cannot enter its lane within {@code hot-keys.max-wait} is rejected with 429 and {@code Retry-After}.
+ * Writes to other SKUs never touch a lane.
+ * <p>
+ * Runs outside the retry and the transaction, so queued writes hold no database connection. Lanes of SKUs
+ * that have cooled down are dropped once idle. Publishes {@code hotkeys.queued} and {@code hotkeys.rejected}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+public class HotKeyGate {
+
+    private final HotKeyDetector detector;
+    private final int lanePermits;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+    private final ConcurrentHashMap<String, Semaphore> lanes = new ConcurrentHashMap<>();
+    private final Counter queued;
+    private final Counter rejected;
+
+    public HotKeyGate(HotKeyDetector detector, MeterRegistry meterRegistry,
+                      @Value("${hot-keys.lane-permits:1}") int lanePermits,
+                      @Value("${hot-keys.max-wait:500ms}") Duration maxWait,
+                      @Value("${hot-keys.retry-after:1s}") Duration retryAfter) {
+        this.detector = detector;
+        this.lanePermits = lanePermits;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.queued = Counter.builder("hotkeys.queued")
+                .description("Writes routed through a hot SKU's lane")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("hotkeys.rejected")
+                .description("Writes to hot SKUs rejected after waiting for their lane")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.inventory.inventory.hotkey.HotKeyGuarded)")
+    public Object guard(ProceedingJoinPoint joinPoint) throws Throwable {
+        String sku = (String) joinPoint.getArgs()[0];
+        detector.recordWrite(sku);
+        if (!detector.isHot(sku)) {
+            return joinPoint.proceed();
+        }
+        Semaphore lane = lanes.computeIfAbsent(sku, key -> new Semaphore(lanePermits, true));
+        queued.increment();
+        if (!lane.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+            rejected.increment();
+            throw new ConcurrencyLimitExceededException(
+                    "Too many concurrent writes to SKU " + sku + ". Please retry.", retryAfterSeconds);
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            lane.release();
+        }
+    }
+
+    /**
+     * Drops idle lanes of SKUs that are no longer hot. A write that picked up a lane just before it was
+     * dropped may overlap with one on the replacement lane; optimistic locking still keeps that safe.
+     */
+    @Scheduled(fixedRateString = "${hot-keys.window-ms:1000}")
+    public void dropCooledLanes() {
+        lanes.entrySet().removeIf(entry -> !detector.isHot(entry.getKey())
+                && entry.getValue().availablePermits() == lanePermits
+                && !entry.getValue().hasQueuedThreads());
+    }
+
+    int laneCount() {
+        return lanes.size();
+    }
+}
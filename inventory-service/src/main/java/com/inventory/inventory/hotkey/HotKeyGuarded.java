@@ -0,0 +1,17 @@
+package com.inventory.inventory.hotkey;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a stock write whose first argument is the SKU. Writes are counted by {@link HotKeyDetector}, and
+ * writes to a SKU it reports as hot are queued per SKU by {@link HotKeyGate}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HotKeyGuarded {
+}
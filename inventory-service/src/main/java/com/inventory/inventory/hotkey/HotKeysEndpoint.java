@@ -0,0 +1,30 @@
+package com.inventory.inventory.hotkey;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/hotkeys}: the SKUs this instance currently treats as hot, with their write and conflict
+ * counts over the last window.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+@ConditionalOnProperty(name = "hot-keys.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+
+    public record HotKeysReport(long writeThreshold, long conflictThreshold, List<HotKeyDetector.HotKey> hotKeys) {
+    }
+
+    private final HotKeyDetector detector;
+
+    @ReadOperation
+    public HotKeysReport hotKeys() {
+        return new HotKeysReport(detector.getWriteThreshold(), detector.getConflictThreshold(), detector.getHotKeys());
+    }
+}
@@ -0,0 +1,91 @@
+package com.inventory.inventory.hotkey;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Space-saving top-K sketch: estimates the most frequent keys of a stream with a fixed number of counters.
+ * A key that is not tracked while all counters are in use takes over the smallest counter and inherits its
+ * count as the error bound, so {@code count - error} never overstates how often a key was seen, and any key
+ * seen more often than {@code total / capacity} times is guaranteed to be tracked.
+ */
+final class SpaceSavingSketch {
+
+    record Entry(String key, long count, long error) {
+
+        /** Occurrences the key is certain to have had in this window. */
+        long guaranteedCount() {
+            return count - error;
+        }
+    }
+
+    private static final class Counter {
+        long count;
+        long error;
+
+        Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void offer(String key) {
+        lock.lock();
+        try {
+            Counter counter = counters.get(key);
+            if (counter != null) {
+                counter.count++;
+            } else if (counters.size() < capacity) {
+                counters.put(key, new Counter(1, 0));
+            } else {
+                // A linear scan is cheap next to the write it is sampling; capacity is small
+                String minKey = null;
+                long min = Long.MAX_VALUE;
+                for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                    if (entry.getValue().count < min) {
+                        min = entry.getValue().count;
+                        minKey = entry.getKey();
+                    }
+                }
+                counters.remove(minKey);
+                counters.put(key, new Counter(min + 1, min));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the keys seen at least {@code minGuaranteed} times, most frequent first, and resets the sketch
+     * for the next window.
+     */
+    List<Entry> drain(long minGuaranteed) {
+        List<Entry> top = new ArrayList<>();
+        lock.lock();
+        try {
+            counters.forEach((key, counter) -> {
+                if (counter.count - counter.error >= minGuaranteed) {
+                    top.add(new Entry(key, counter.count, counter.error));
+                }
+            });
+            counters.clear();
+        } finally {
+            lock.unlock();
+        }
+        top.sort(Comparator.comparingLong(Entry::count).reversed());
+        return top;
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventory.inventory.kafka;
+
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.EventContractValidator;
+import com.inventory.common.event.EventType;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.inventory.entity.InventoryEvent;
+import com.inventory.inventory.service.EventStoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.inventory.common.constants.KafkaConstants.*;
+
+/**
+ * Builds the MongoDB audit trail from {@code inventory.stock.updated}, off the stock transaction path.
+ * <p>
+ * Runs in its own consumer group, so its offsets only advance once a batch is stored. While MongoDB is
+ * down the batch is retried with backoff and nothing is committed; when it recovers the listener catches
+ * up from the last committed offset, and redelivered events are skipped by {@link EventStoreService}.
+ * A record that cannot be decoded or fails validation is reported with {@link BatchListenerFailedException}
+ * after the records before it are stored, and the error handler publishes it to {@code {topic}.DLT}, from
+ * which it can be recovered, instead of retrying it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryAuditConsumer {
+
+    private final EventStoreService eventStoreService;
+    private final EventCodecs eventCodecs;
+
+    @KafkaListener(topics = TOPIC_STOCK_UPDATED, groupId = GROUP_INVENTORY_AUDIT,
+            containerFactory = "auditListenerContainerFactory")
+    public void handleStockUpdated(List<ConsumerRecord<String, String>> records) {
+        List<InventoryEvent> events = new ArrayList<>(records.size());
+        BatchListenerFailedException unreadable = null;
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                StockUpdatedEvent event = eventCodecs.decode(record, StockUpdatedEvent.class);
+                EventContractValidator.validate(event, EventType.STOCK_UPDATED, TOPIC_STOCK_UPDATED);
+                events.add(toDocument(event));
+            } catch (RuntimeException e) {
+                unreadable = new BatchListenerFailedException("Unreadable event on " + TOPIC_STOCK_UPDATED, e, record);
+                break;
+            }
+        }
+
+        if (!events.isEmpty()) {
+            int inserted = eventStoreService.saveAll(events);
+            log.debug("Audit batch stored: received={}, inserted={}", records.size(), inserted);
+        }
+        if (unreadable != null) {
+            throw unreadable;
+        }
+    }
+
+    private static InventoryEvent toDocument(StockUpdatedEvent event) {
+        return InventoryEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType().name())
+                .sku(event.getSku())
+                .productId(event.getProductId())
+                .previousQuantity(event.getPreviousQuantity())
+                .newQuantity(event.getNewQuantity())
+                .changeAmount(event.getChangeAmount())
+                .reason(event.getReason() != null ? event.getReason().name() : null)
+                .timestamp(event.getTimestamp())
+                .build();
+    }
+}
@@ -1,77 +1,232 @@
 package com.inventory.inventory.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.common.event.BaseEvent;
+import com.inventory.common.event.EventCodecs;
 import com.inventory.common.event.ProductCreatedEvent;
 import com.inventory.common.event.ProductDeletedEvent;
 import com.inventory.common.event.ProductUpdatedEvent;
 import com.inventory.common.event.EventContractValidator;
+import com.inventory.common.event.EventHeaders;
 import com.inventory.common.event.EventType;
 import com.inventory.inventory.service.EventInboxService;
 import com.inventory.inventory.service.InventoryService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.inventory.common.constants.KafkaConstants.*;
+import static com.inventory.inventory.config.KafkaConfig.PRODUCT_EVENTS_CONTAINER_FACTORY;
+import static com.inventory.inventory.config.KafkaConfig.PRODUCT_EVENTS_RETRY_CONTAINER_FACTORY;
+import static com.inventory.inventory.config.KafkaConfig.RETRY_CONTAINER_FACTORY;
 
 /**
  * Consumes product lifecycle events from Kafka.
- * Exceptions propagate to the DefaultErrorHandler which retries 3 times
- * then publishes to a dead letter topic ({topic}.DLT).
+ * Exceptions propagate to the DefaultErrorHandler, which moves the failed record through the retry tiers
+ * ({topic}.retry-N, consumed by the second listener of each method) and then to a dead letter topic
+ * ({topic}.DLT), without holding up the records behind it.
+ * <p>
+ * Records are validated and deduplicated from their {@link EventHeaders}; a payload is only decoded, with the
+ * {@link EventCodecs codec} named by its content type, once its event is known to be new and needs it.
+ * Records without headers are read from the payload.
+ * <p>
+ * Created and updated events are consumed a whole poll at a time: the batch is registered in the inbox with
+ * one insert and its stock is written with one multi-row insert, in a single transaction. A record that
+ * cannot be read is reported with {@link BatchListenerFailedException} after the records before it are
+ * committed, so only that record is retried or dead-lettered. If the batch write fails, the records are
+ * applied one per transaction to find the record that causes it; if the database itself is unavailable, no
+ * record is reported and the exception is rethrown, so the error handler retries the batch in place.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class InventoryEventConsumer {
 
     private final InventoryService inventoryService;
     private final EventInboxService eventInboxService;
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
+    private final TransactionTemplate transactionTemplate;
+
+    public InventoryEventConsumer(InventoryService inventoryService, EventInboxService eventInboxService,
+                                  EventCodecs eventCodecs, PlatformTransactionManager transactionManager) {
+        this.inventoryService = inventoryService;
+        this.eventInboxService = eventInboxService;
+        this.eventCodecs = eventCodecs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @KafkaListener(topics = TOPIC_PRODUCT_CREATED, groupId = GROUP_INVENTORY_SERVICE,
+            containerFactory = PRODUCT_EVENTS_CONTAINER_FACTORY)
+    @KafkaListener(topics = "#{@tieredRetry.retryTopics('" + TOPIC_PRODUCT_CREATED + "')}",
+            groupId = GROUP_INVENTORY_SERVICE, containerFactory = PRODUCT_EVENTS_RETRY_CONTAINER_FACTORY)
+    public void handleProductCreated(List<ConsumerRecord<String, String>> records) {
+        consume(records, ProductCreatedEvent.class, EventType.PRODUCT_CREATED, TOPIC_PRODUCT_CREATED, firstSeen -> {
+            if (!firstSeen.isEmpty()) {
+                inventoryService.createStocks(firstSeen.stream().map(InboundEvent::event).toList());
+            }
+        });
+    }
 
-    @KafkaListener(topics = TOPIC_PRODUCT_CREATED, groupId = GROUP_INVENTORY_SERVICE)
+    @KafkaListener(topics = TOPIC_PRODUCT_UPDATED, groupId = GROUP_INVENTORY_SERVICE,
+            containerFactory = PRODUCT_EVENTS_CONTAINER_FACTORY)
+    @KafkaListener(topics = "#{@tieredRetry.retryTopics('" + TOPIC_PRODUCT_UPDATED + "')}",
+            groupId = GROUP_INVENTORY_SERVICE, containerFactory = PRODUCT_EVENTS_RETRY_CONTAINER_FACTORY)
+    public void handleProductUpdated(List<ConsumerRecord<String, String>> records) {
+        consume(records, ProductUpdatedEvent.class, EventType.PRODUCT_UPDATED, TOPIC_PRODUCT_UPDATED,
+                firstSeen -> log.info("Product updates acknowledged: count={}", firstSeen.size()));
+    }
+
+    @KafkaListener(topics = TOPIC_PRODUCT_DELETED, groupId = GROUP_INVENTORY_SERVICE)
+    @KafkaListener(topics = "#{@tieredRetry.retryTopics('" + TOPIC_PRODUCT_DELETED + "')}",
+            groupId = GROUP_INVENTORY_SERVICE, containerFactory = RETRY_CONTAINER_FACTORY)
     @Transactional
-    public void handleProductCreated(String message) throws Exception {
-        ProductCreatedEvent event = objectMapper.readValue(message, ProductCreatedEvent.class);
-        EventContractValidator.validate(event, EventType.PRODUCT_CREATED, TOPIC_PRODUCT_CREATED);
-        log.info("Received ProductCreatedEvent: sku={}, eventId={}", event.getSku(), event.getEventId());
+    public void handleProductDeleted(ConsumerRecord<String, String> record) {
+        InboundEvent<ProductDeletedEvent> inbound =
+                inbound(record, ProductDeletedEvent.class, EventType.PRODUCT_DELETED, TOPIC_PRODUCT_DELETED);
 
-        if (!eventInboxService.registerIfFirstSeen(event.getEventId(), TOPIC_PRODUCT_CREATED)) {
-            log.warn("Duplicate event detected, skipping: eventId={}", event.getEventId());
+        if (!eventInboxService.registerIfFirstSeen(inbound.eventId(), TOPIC_PRODUCT_DELETED)) {
+            log.warn("Duplicate event detected, skipping: eventId={}", inbound.eventId());
             return;
         }
 
-        inventoryService.createStock(event.getProductId(), event.getSku(), event.getInitialStock());
+        ProductDeletedEvent event = inbound.event();
+        log.info("Received ProductDeletedEvent: sku={}, eventId={}", event.getSku(), event.getEventId());
+        inventoryService.removeStock(event.getSku());
     }
 
-    @KafkaListener(topics = TOPIC_PRODUCT_UPDATED, groupId = GROUP_INVENTORY_SERVICE)
-    @Transactional
-    public void handleProductUpdated(String message) throws Exception {
-        ProductUpdatedEvent event = objectMapper.readValue(message, ProductUpdatedEvent.class);
-        EventContractValidator.validate(event, EventType.PRODUCT_UPDATED, TOPIC_PRODUCT_UPDATED);
-        log.info("Received ProductUpdatedEvent: sku={}, eventId={}", event.getSku(), event.getEventId());
+    /**
+     * Validates the batch up to the first unreadable record, applies the readable prefix, then reports the
+     * unreadable record. Failed records are identified by record rather than index, since records held
+     * back by key ordering are filtered out before the listener is called.
+     */
+    private <E extends BaseEvent> void consume(List<ConsumerRecord<String, String>> records, Class<E> type,
+                                               EventType eventType, String topic,
+                                               Consumer<List<InboundEvent<E>>> handler) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<InboundEvent<E>> events = new ArrayList<>(records.size());
+        BatchListenerFailedException unreadable = null;
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                events.add(inbound(record, type, eventType, topic));
+            } catch (RuntimeException e) {
+                unreadable = new BatchListenerFailedException("Unreadable event on " + topic, e, record);
+                break;
+            }
+        }
+        log.info("Received {} {} events", records.size(), eventType);
 
-        if (!eventInboxService.registerIfFirstSeen(event.getEventId(), TOPIC_PRODUCT_UPDATED)) {
-            log.warn("Duplicate event detected, skipping: eventId={}", event.getEventId());
+        if (!events.isEmpty()) {
+            apply(events, topic, handler);
+        }
+        if (unreadable != null) {
+            throw unreadable;
+        }
+    }
+
+    /** Registers {@code events} in the inbox and hands the first-seen ones to {@code handler}, in one transaction. */
+    private <E extends BaseEvent> void apply(List<InboundEvent<E>> events, String topic,
+                                             Consumer<List<InboundEvent<E>>> handler) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> handler.accept(registerFirstSeen(events, topic)));
             return;
+        } catch (RuntimeException e) {
+            if (events.size() == 1) {
+                throw failure(events.get(0).record(), topic, e);
+            }
+            log.warn("Batch of {} events on {} failed, retrying one by one: {}", events.size(), topic, e.getMessage());
+        }
+        for (InboundEvent<E> event : events) {
+            List<InboundEvent<E>> single = List.of(event);
+            try {
+                transactionTemplate.executeWithoutResult(status -> handler.accept(registerFirstSeen(single, topic)));
+            } catch (RuntimeException e) {
+                throw failure(event.record(), topic, e);
+            }
         }
+    }
 
-        log.info("Product updated acknowledged: sku={}", event.getSku());
+    /**
+     * Blames {@code record} for a failed write only if the database still answers; otherwise returns the
+     * failure itself, which names no record, so the batch is retried rather than routed to the retry tiers.
+     */
+    private RuntimeException failure(ConsumerRecord<String, String> record, String topic, RuntimeException e) {
+        try {
+            eventInboxService.checkAvailable();
+        } catch (RuntimeException unavailable) {
+            log.warn("Database unavailable, retrying the batch on {}: {}", topic, unavailable.getMessage());
+            return e;
+        }
+        return new BatchListenerFailedException("Failed to process event on " + topic, e, record);
     }
 
-    @KafkaListener(topics = TOPIC_PRODUCT_DELETED, groupId = GROUP_INVENTORY_SERVICE)
-    @Transactional
-    public void handleProductDeleted(String message) throws Exception {
-        ProductDeletedEvent event = objectMapper.readValue(message, ProductDeletedEvent.class);
-        EventContractValidator.validate(event, EventType.PRODUCT_DELETED, TOPIC_PRODUCT_DELETED);
-        log.info("Received ProductDeletedEvent: sku={}, eventId={}", event.getSku(), event.getEventId());
+    private <E extends BaseEvent> List<InboundEvent<E>> registerFirstSeen(List<InboundEvent<E>> events, String topic) {
+        List<String> eventIds = events.stream().map(InboundEvent::eventId).toList();
+        Set<String> pending = new HashSet<>(eventInboxService.registerAllFirstSeen(eventIds, topic));
+        List<InboundEvent<E>> firstSeen = events.stream().filter(event -> pending.remove(event.eventId())).toList();
+        if (firstSeen.size() < events.size()) {
+            log.warn("Duplicate events skipped: topic={}, count={}", topic, events.size() - firstSeen.size());
+        }
+        return firstSeen;
+    }
 
-        if (!eventInboxService.registerIfFirstSeen(event.getEventId(), TOPIC_PRODUCT_DELETED)) {
-            log.warn("Duplicate event detected, skipping: eventId={}", event.getEventId());
-            return;
+    /**
+     * Validates a record from its {@link EventHeaders}, leaving the payload unread. Records published before
+     * the outbox wrote headers are read and validated from the payload.
+     */
+    private <E extends BaseEvent> InboundEvent<E> inbound(ConsumerRecord<String, String> record, Class<E> type,
+                                                          EventType eventType, String topic) {
+        EventHeaders headers = EventHeaders.read(record.headers());
+        if (headers != null) {
+            EventContractValidator.validate(headers, eventType, topic);
+            return new InboundEvent<>(record, headers.eventId(), type, null);
         }
+        E event = eventCodecs.decode(record, type);
+        EventContractValidator.validate(event, eventType, topic);
+        return new InboundEvent<>(record, event.getEventId(), type, event);
+    }
 
-        inventoryService.removeStock(event.getSku());
+    /**
+     * A consumed record whose payload is decoded on first use. A payload that cannot be read fails with
+     * {@link IllegalArgumentException}, which sends the record straight to the dead letter topic.
+     */
+    private final class InboundEvent<E extends BaseEvent> {
+
+        private final ConsumerRecord<String, String> record;
+        private final String eventId;
+        private final Class<E> type;
+        private E event;
+
+        private InboundEvent(ConsumerRecord<String, String> record, String eventId, Class<E> type, E event) {
+            this.record = record;
+            this.eventId = eventId;
+            this.type = type;
+            this.event = event;
+        }
+
+        ConsumerRecord<String, String> record() {
+            return record;
+        }
+
+        String eventId() {
+            return eventId;
+        }
+
+        E event() {
+            if (event == null) {
+                event = eventCodecs.decode(record, type);
+            }
+            return event;
+        }
     }
 }
@@ -0,0 +1,45 @@
+package com.inventory.inventory.kafka;
+
+import com.inventory.common.cache.CacheInvalidator;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.ProductDeletedEvent;
+import com.inventory.common.event.StockUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static com.inventory.common.cache.CacheInvalidationKafkaConfig.CACHE_INVALIDATION_CONTAINER_FACTORY;
+import static com.inventory.common.constants.KafkaConstants.TOPIC_PRODUCT_DELETED;
+import static com.inventory.common.constants.KafkaConstants.TOPIC_STOCK_UPDATED;
+
+/**
+ * Keeps the {@code stock} cache coherent across replicas. Every replica receives every stock change
+ * (see {@link com.inventory.common.cache.CacheInvalidationKafkaConfig}) and evicts its local entry
+ * unless it already holds the same or a newer version.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class StockCacheInvalidationListener {
+
+    private static final String STOCK_CACHE = "stock";
+
+    private final CacheInvalidator cacheInvalidator;
+    private final EventCodecs eventCodecs;
+
+    @KafkaListener(topics = {TOPIC_STOCK_UPDATED, TOPIC_PRODUCT_DELETED},
+            containerFactory = CACHE_INVALIDATION_CONTAINER_FACTORY)
+    public void onEvent(ConsumerRecord<String, String> record) {
+        if (TOPIC_PRODUCT_DELETED.equals(record.topic())) {
+            ProductDeletedEvent event = eventCodecs.decode(record, ProductDeletedEvent.class);
+            cacheInvalidator.evictDeleted(STOCK_CACHE, event.getSku());
+        } else {
+            StockUpdatedEvent event = eventCodecs.decode(record, StockUpdatedEvent.class);
+            cacheInvalidator.evictIfOlder(STOCK_CACHE, event.getSku(), event.getVersion());
+        }
+    }
+}
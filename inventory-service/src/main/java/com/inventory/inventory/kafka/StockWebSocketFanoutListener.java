@@ -0,0 +1,33 @@
+package com.inventory.inventory.kafka;
+
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.inventory.websocket.StockUpdateNotifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static com.inventory.common.constants.KafkaConstants.TOPIC_STOCK_UPDATED;
+import static com.inventory.common.websocket.WebSocketFanoutKafkaConfig.WEBSOCKET_FANOUT_CONTAINER_FACTORY;
+
+/**
+ * Feeds every committed stock change to this replica's WebSocket subscribers. Every replica receives every
+ * change (see {@link com.inventory.common.websocket.WebSocketFanoutKafkaConfig}), so dashboards can connect
+ * to any replica.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockWebSocketFanoutListener {
+
+    private final StockUpdateNotifier stockUpdateNotifier;
+    private final EventCodecs eventCodecs;
+
+    @KafkaListener(topics = TOPIC_STOCK_UPDATED, containerFactory = WEBSOCKET_FANOUT_CONTAINER_FACTORY)
+    public void onStockUpdated(ConsumerRecord<String, String> record) {
+        StockUpdatedEvent event = eventCodecs.decode(record, StockUpdatedEvent.class);
+        stockUpdateNotifier.notifyStockUpdate(event);
+    }
+}
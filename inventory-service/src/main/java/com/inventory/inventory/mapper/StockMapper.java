@@ -1,14 +1,22 @@
 package com.inventory.inventory.mapper;
 
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.inventory.dto.StockPushDTO;
 import com.inventory.inventory.dto.StockResponseDTO;
 import com.inventory.inventory.entity.Stock;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
- * Maps between {@link Stock} entities and {@link StockResponseDTO} data transfer objects.
+ * Maps between {@link Stock} entities and {@link StockResponseDTO} data transfer objects,
+ * and stock change events to the {@link StockPushDTO} sent to WebSocket subscribers.
  */
 @Mapper(componentModel = "spring")
 public interface StockMapper {
 
     StockResponseDTO toDTO(Stock stock);
+
+    @Mapping(target = "quantity", source = "newQuantity")
+    @Mapping(target = "updatedAt", source = "timestamp")
+    StockPushDTO toPushDTO(StockUpdatedEvent event);
 }
@@ -0,0 +1,30 @@
+package com.inventory.inventory.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.inventory.dto.StockResponseDTO;
+import com.inventory.inventory.dto.StockSnapshot;
+import com.inventory.inventory.entity.Stock;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds {@link StockSnapshot}s from {@link Stock} entities, mapping and serializing once
+ * so the result can be cached and served without further work.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockSnapshotFactory {
+
+    private final StockMapper stockMapper;
+    private final ObjectMapper objectMapper;
+
+    public StockSnapshot create(Stock stock) {
+        StockResponseDTO dto = stockMapper.toDTO(stock);
+        try {
+            return StockSnapshot.of(dto, stock.getVersion(), objectMapper.writeValueAsString(dto));
+        } catch (JsonProcessingException ex) {
+            throw new RuntimeException("Failed to serialize stock snapshot for SKU: " + stock.getSku(), ex);
+        }
+    }
+}
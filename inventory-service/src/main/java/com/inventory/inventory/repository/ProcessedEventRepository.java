@@ -2,9 +2,41 @@ package com.inventory.inventory.repository;
 
 import com.inventory.inventory.entity.ProcessedEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long> {
-}
 
+    /**
+     * Registers an event id unless it is already present. A duplicate is reported by the row count instead of
+     * a constraint violation, so it neither raises an exception nor aborts the surrounding transaction.
+     * The id comes from the column default; all inbox rows are written here, never through
+     * {@code save}, so database-assigned ids cannot collide with Hibernate's pooled id blocks.
+     *
+     * @return 1 if the event was registered, 0 if it had already been processed
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO processed_events (event_id, topic, processed_at)
+            VALUES (:eventId, :topic, CURRENT_TIMESTAMP)
+            ON CONFLICT (event_id) DO NOTHING""", nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId, @Param("topic") String topic);
+
+    /**
+     * Batch form of {@link #insertIfAbsent}: registers every id in one statement with a single array parameter.
+     *
+     * @return the ids that were registered; ids missing from the result had already been processed
+     */
+    @Query(value = """
+            INSERT INTO processed_events (event_id, topic, processed_at)
+            SELECT e.event_id, :topic, CURRENT_TIMESTAMP
+            FROM unnest(CAST(:eventIds AS varchar[])) AS e(event_id)
+            ON CONFLICT (event_id) DO NOTHING
+            RETURNING event_id""", nativeQuery = true)
+    List<String> insertAllIfAbsent(@Param("eventIds") String[] eventIds, @Param("topic") String topic);
+}
@@ -1,10 +1,12 @@
 package com.inventory.inventory.repository;
 
 import com.inventory.inventory.entity.Stock;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,10 +20,53 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
 
     Optional<Stock> findBySku(String sku);
 
+    /** Multi-SKU lookup as one statement with a single array parameter, so the plan is the same for any count. */
+    @Query(value = "SELECT * FROM stock WHERE sku = ANY(:skus)", nativeQuery = true)
+    List<Stock> findAllBySkuIn(@Param("skus") String[] skus);
+
+    /**
+     * Creates the stock rows for SKUs that have none yet, as one multi-row insert fed by parallel arrays.
+     * Existing rows are left untouched, as in a single {@code createStock}; only the inserted rows are returned.
+     * Ids are passed in (see {@link #nextIdBlocks}) and the auditor is written to {@code created_by} and
+     * {@code modified_by}, since JPA auditing does not see native inserts. The threshold and version come
+     * from the column defaults.
+     */
+    @Query(value = """
+            INSERT INTO stock (id, product_id, sku, quantity, created_at, updated_at, created_by, modified_by)
+            SELECT s.id, s.product_id, s.sku, s.quantity, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP,
+                   CAST(:auditor AS varchar), CAST(:auditor AS varchar)
+            FROM unnest(CAST(:ids AS bigint[]), CAST(:productIds AS bigint[]), CAST(:skus AS varchar[]),
+                        CAST(:quantities AS int[]))
+                 AS s(id, product_id, sku, quantity)
+            ON CONFLICT (sku) DO NOTHING
+            RETURNING *""", nativeQuery = true)
+    List<Stock> insertAllIfAbsent(@Param("ids") Long[] ids,
+                                  @Param("productIds") Long[] productIds,
+                                  @Param("skus") String[] skus,
+                                  @Param("quantities") Integer[] quantities,
+                                  @Param("auditor") String auditor);
+
+    /**
+     * Advances {@code stock_id_seq} once per block. As for the entity's pooled generator, each value is the
+     * highest of the {@link Stock#ID_ALLOCATION_SIZE} ids it reserves.
+     */
+    @Query(value = "SELECT nextval('stock_id_seq') FROM generate_series(1, :blocks)", nativeQuery = true)
+    List<Long> nextIdBlocks(@Param("blocks") int blocks);
+
     List<Stock> findByQuantityLessThanEqual(int threshold);
 
     @Query("SELECT s FROM Stock s WHERE s.quantity <= s.minThreshold")
     Page<Stock> findLowStockProducts(Pageable pageable);
 
     boolean existsBySku(String sku);
+
+    // Keyset pagination: seek on the primary key / unique SKU index, no OFFSET and no count query
+    List<Stock> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    List<Stock> findBySkuGreaterThanOrderBySkuAsc(String sku, Limit limit);
+
+    /** Planner estimate of the row count, maintained by ANALYZE/autovacuum; never runs a table scan. */
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS BIGINT) FROM pg_class WHERE oid = CAST('stock' AS regclass)",
+            nativeQuery = true)
+    long estimateRowCount();
 }
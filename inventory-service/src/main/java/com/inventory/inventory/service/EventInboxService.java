@@ -1,34 +1,121 @@
 package com.inventory.inventory.service;
 
-import com.inventory.inventory.entity.ProcessedEvent;
 import com.inventory.inventory.repository.ProcessedEventRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DataIntegrityViolationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Durable inbox for consumed Kafka events.
+ * <p>
+ * Event ids are registered with {@code INSERT ... ON CONFLICT DO NOTHING}, so a duplicate is a zero row
+ * count rather than a constraint violation that would poison the listener's transaction. Ids registered
+ * or found on this instance are remembered in a {@link RecentlySeenFilter} of {@code inbox.seen-filter-size}
+ * entries, and a redelivered event found there is skipped without a database round trip. New ids are
+ * remembered only once their transaction commits, so an event whose processing rolled back is retried.
+ * Batch listeners register a whole poll with {@link #registerAllFirstSeen}, one statement for all its ids.
+ * <p>
+ * Metrics: {@code inbox.duplicates} tagged by {@code source} ({@code memory} or {@code database}).
  */
 @Service
-@RequiredArgsConstructor
 public class EventInboxService {
 
     private final ProcessedEventRepository processedEventRepository;
+    private final RecentlySeenFilter recentlySeen;
+    private final Counter memoryDuplicates;
+    private final Counter databaseDuplicates;
+
+    public EventInboxService(ProcessedEventRepository processedEventRepository, MeterRegistry meterRegistry,
+                             @Value("${inbox.seen-filter-size:100000}") int seenFilterSize) {
+        this.processedEventRepository = processedEventRepository;
+        this.recentlySeen = new RecentlySeenFilter(seenFilterSize);
+        this.memoryDuplicates = Counter.builder("inbox.duplicates")
+                .description("Redelivered events skipped by the inbox")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        this.databaseDuplicates = Counter.builder("inbox.duplicates")
+                .description("Redelivered events skipped by the inbox")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
 
     /**
      * Returns true when this event is seen for the first time.
      * Returns false when another transaction already processed it.
      */
     public boolean registerIfFirstSeen(String eventId, String topic) {
-        try {
-            processedEventRepository.save(ProcessedEvent.builder()
-                    .eventId(eventId)
-                    .topic(topic)
-                    .build());
-            return true;
-        } catch (DataIntegrityViolationException ex) {
+        if (recentlySeen.contains(eventId)) {
+            memoryDuplicates.increment();
             return false;
         }
+        if (processedEventRepository.insertIfAbsent(eventId, topic) == 0) {
+            databaseDuplicates.increment();
+            recentlySeen.add(eventId);
+            return false;
+        }
+        rememberAfterCommit(List.of(eventId));
+        return true;
     }
-}
 
+    /**
+     * Batch form of {@link #registerIfFirstSeen}. Ids found in memory are dropped first and the rest are
+     * registered with a single insert.
+     *
+     * @return the ids seen for the first time, each once; the others were already processed
+     */
+    public Set<String> registerAllFirstSeen(Collection<String> eventIds, String topic) {
+        Set<String> unseen = new LinkedHashSet<>();
+        for (String eventId : eventIds) {
+            if (recentlySeen.contains(eventId)) {
+                memoryDuplicates.increment();
+            } else {
+                unseen.add(eventId);
+            }
+        }
+        if (unseen.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> registered = new LinkedHashSet<>(
+                processedEventRepository.insertAllIfAbsent(unseen.toArray(String[]::new), topic));
+        for (String eventId : unseen) {
+            if (!registered.contains(eventId)) {
+                databaseDuplicates.increment();
+                recentlySeen.add(eventId);
+            }
+        }
+        rememberAfterCommit(registered);
+        return registered;
+    }
+
+    /**
+     * Reads the inbox in a transaction of its own, throwing if the database cannot serve it. Tells a failed
+     * write caused by its events from one caused by the database being unavailable.
+     */
+    @Transactional(readOnly = true)
+    public void checkAvailable() {
+        processedEventRepository.existsById(0L);
+    }
+
+    private void rememberAfterCommit(Collection<String> eventIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventIds.forEach(recentlySeen::add);
+                }
+            });
+        } else {
+            eventIds.forEach(recentlySeen::add);
+        }
+    }
+}
@@ -1,31 +1,67 @@
 package com.inventory.inventory.service;
 
 import com.inventory.inventory.entity.InventoryEvent;
-import com.inventory.inventory.repository.InventoryEventRepository;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Circuit-broken wrapper for MongoDB event storage. If MongoDB is unavailable,
- * the fallback logs a warning instead of failing the stock operation.
- * Events are also captured by the transactional outbox, so no data is lost.
+ * Writes audit events to MongoDB in batches.
+ * <p>
+ * Each document's {@code _id} is its {@code eventId}, so a batch that is redelivered after a crash or a
+ * Mongo outage inserts only the events that are not stored yet: the insert is unordered, duplicate-key
+ * errors are counted as already written, and any other failure is rethrown so the caller retries the
+ * whole batch.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class EventStoreService {
 
-    private final InventoryEventRepository eventRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Inserts the given events, skipping any that are already stored.
+     *
+     * @return the number of events newly inserted
+     */
+    public int saveAll(List<InventoryEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Document> documents = new ArrayList<>(events.size());
+        for (InventoryEvent event : events) {
+            event.setId(event.getEventId());
+            Document document = new Document();
+            mongoTemplate.getConverter().write(event, document);
+            documents.add(document);
+        }
 
-    @CircuitBreaker(name = "mongoEventStore", fallbackMethod = "fallbackSaveEvent")
-    public void saveEvent(InventoryEvent event) {
-        eventRepository.save(event);
+        try {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(InventoryEvent.class))
+                    .insertMany(documents, new InsertManyOptions().ordered(false));
+            return documents.size();
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteConcernError() != null || !allDuplicateKeys(e.getWriteErrors())) {
+                throw e;
+            }
+            int duplicates = e.getWriteErrors().size();
+            log.debug("Skipped {} already-stored audit events out of {}", duplicates, documents.size());
+            return documents.size() - duplicates;
+        }
     }
 
-    private void fallbackSaveEvent(InventoryEvent event, Throwable t) {
-        log.warn("MongoDB event store unavailable, event not persisted: eventId={}, sku={}. Cause: {}",
-                event.getEventId(), event.getSku(), t.getMessage());
+    private static boolean allDuplicateKeys(List<BulkWriteError> errors) {
+        return errors.stream()
+                .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
     }
 }
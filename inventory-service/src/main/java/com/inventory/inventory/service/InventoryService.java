@@ -1,9 +1,17 @@
 package com.inventory.inventory.service;
 
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
+import com.inventory.common.event.ProductCreatedEvent;
+import com.inventory.common.export.ExportFormat;
+import com.inventory.inventory.dto.StockSnapshot;
 import com.inventory.inventory.dto.StockUpdateDTO;
 import com.inventory.inventory.entity.Stock;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Service interface for managing stock levels. Implementations publish
@@ -15,11 +23,27 @@ public interface InventoryService {
     /** Creates a stock record for a newly created product. */
     Stock createStock(Long productId, String sku, int initialQuantity);
 
-    /** Retrieves the current stock record for a SKU. */
-    Stock getStockBySku(String sku);
+    /** Creates stock records for a batch of new products in one write; SKUs that already have stock are skipped. */
+    List<Stock> createStocks(List<ProductCreatedEvent> products);
+
+    /** Retrieves an immutable, pre-serialized snapshot of the current stock record for a SKU. */
+    StockSnapshot getStockBySku(String sku);
+
+    /** Resolves many SKUs at once; unknown SKUs are listed in the result instead of throwing. */
+    BulkResult<StockSnapshot> getStockBySkus(Collection<String> skus);
+
+    /**
+     * Returns one keyset-paginated slice of stock records.
+     *
+     * @param after                 cursor from the previous slice, or {@code null} for the first
+     * @param size                  requested slice size (clamped to 1..500)
+     * @param sort                  {@code id} or {@code sku}
+     * @param includeEstimatedTotal whether to attach the planner's row-count estimate
+     */
+    CursorSlice<Stock> getAllStock(String after, int size, String sort, boolean includeEstimatedTotal);
 
-    /** Returns a paginated list of all stock records. */
-    Page<Stock> getAllStock(Pageable pageable);
+    /** Streams every stock record to {@code out} with constant memory; returns the number of rows written. */
+    long exportStock(ExportFormat format, OutputStream out) throws IOException;
 
     /** Adds quantity to existing stock (supplier delivery). */
     Stock restock(String sku, StockUpdateDTO dto);
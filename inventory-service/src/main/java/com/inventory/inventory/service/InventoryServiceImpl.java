@@ -1,40 +1,71 @@
 package com.inventory.inventory.service;
 
+import com.inventory.common.cache.CacheReader;
 import com.inventory.common.constants.KafkaConstants;
+import com.inventory.common.dto.BulkLookupRequest;
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
+import com.inventory.common.dto.KeysetCursor;
+import com.inventory.common.event.ProductCreatedEvent;
 import com.inventory.common.outbox.OutboxEventService;
+import com.inventory.inventory.dto.StockSnapshot;
 import com.inventory.inventory.dto.StockUpdateDTO;
 import com.inventory.common.event.StockUpdatedEvent;
 import com.inventory.common.event.StockUpdatedEvent.StockChangeReason;
 import com.inventory.common.exception.InsufficientStockException;
+import com.inventory.common.exception.InvalidRequestException;
 import com.inventory.common.exception.ProductNotFoundException;
-import com.inventory.inventory.entity.InventoryEvent;
+import com.inventory.common.export.ExportFormat;
+import com.inventory.common.export.JdbcStreamingExporter;
+import com.inventory.inventory.cache.StockCacheLoader;
 import com.inventory.inventory.entity.Stock;
+import com.inventory.inventory.hotkey.HotKeyGuarded;
 import com.inventory.inventory.repository.StockRepository;
-import com.inventory.inventory.websocket.StockUpdateNotifier;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.inventory.inventory.cache.StockCacheLoader.STOCK_CACHE;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryServiceImpl implements InventoryService {
 
+    static final String EXPORT_STOCK_SQL = """
+            SELECT id, product_id AS "productId", sku, quantity, min_threshold AS "minThreshold",
+                   created_at AS "createdAt", updated_at AS "updatedAt"
+            FROM stock
+            ORDER BY id
+            """;
+
     private final StockRepository stockRepository;
-    private final EventStoreService eventStoreService;
+    private final AuditorAware<String> auditorAware;
     private final OutboxEventService outboxEventService;
-    private final StockUpdateNotifier stockUpdateNotifier;
+    private final CacheReader cacheReader;
+    private final JdbcStreamingExporter jdbcStreamingExporter;
+    private final CacheManager cacheManager;
 
     /**
      * Creates a new stock record for a product. If a stock record already exists for the given SKU,
      * returns the existing record instead of creating a duplicate.
-     * Publishes an INITIAL stock event to Kafka and stores it in MongoDB.
+     * Publishes an INITIAL stock event to Kafka.
      *
      * @param productId the ID of the product from the Product Service
      * @param sku       the unique stock keeping unit identifier
@@ -43,6 +74,7 @@ public class InventoryServiceImpl implements InventoryService {
      */
     @Override
     @Transactional
+    @CacheEvict(value = "stock", key = "#sku")
     public Stock createStock(Long productId, String sku, int initialQuantity) {
         if (stockRepository.existsBySku(sku)) {
             log.warn("Stock already exists for SKU: {}", sku);
@@ -57,40 +89,153 @@ public class InventoryServiceImpl implements InventoryService {
         Stock saved = stockRepository.save(stock);
         log.info("Stock created: sku={}, quantity={}", sku, initialQuantity);
 
-        publishAndStoreEvent(saved, 0, initialQuantity, StockChangeReason.INITIAL);
+        publishEvent(saved, 0, initialQuantity, StockChangeReason.INITIAL);
         return saved;
     }
 
     /**
-     * Retrieves the current stock record for a given SKU.
+     * Creates the stock records for a batch of new products, for the batch product-created listener.
+     * All rows are written by one multi-row insert that skips SKUs which already have stock, and the
+     * INITIAL events of the inserted rows are saved to the outbox together. Products repeated in the
+     * batch are created once, from their first occurrence. Ids and audit columns are filled as they are
+     * for {@link #createStock}.
+     *
+     * @param products the product-created events to create stock for
+     * @return the stock records that were inserted; existing SKUs are not included
+     */
+    @Override
+    @Transactional
+    public List<Stock> createStocks(List<ProductCreatedEvent> products) {
+        Map<String, ProductCreatedEvent> bySku = new LinkedHashMap<>();
+        for (ProductCreatedEvent product : products) {
+            bySku.putIfAbsent(product.getSku(), product);
+        }
+        int size = bySku.size();
+        Long[] productIds = new Long[size];
+        String[] skus = new String[size];
+        Integer[] quantities = new Integer[size];
+        int i = 0;
+        for (ProductCreatedEvent product : bySku.values()) {
+            productIds[i] = product.getProductId();
+            skus[i] = product.getSku();
+            quantities[i] = product.getInitialStock();
+            i++;
+        }
+
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        List<Stock> created = stockRepository.insertAllIfAbsent(allocateIds(size), productIds, skus, quantities, auditor);
+        if (created.size() < size) {
+            log.warn("Stock already exists for {} of {} SKUs in batch", size - created.size(), size);
+        }
+        log.info("Stock batch created: count={}", created.size());
+
+        Cache cache = cacheManager.getCache(STOCK_CACHE);
+        List<StockUpdatedEvent> events = new ArrayList<>(created.size());
+        for (Stock stock : created) {
+            if (cache != null) {
+                cache.evict(stock.getSku());
+            }
+            events.add(stockEvent(stock, 0, stock.getQuantity(), StockChangeReason.INITIAL));
+        }
+        outboxEventService.saveEvents(KafkaConstants.TOPIC_STOCK_UPDATED, events, StockUpdatedEvent::getSku);
+        return created;
+    }
+
+    /**
+     * Takes {@code count} ids from {@code stock_id_seq} the way the entity's pooled generator does, using
+     * every id of a block rather than one sequence value per row. Ids of SKUs that turn out to exist are
+     * left unused, like those of a rolled-back save.
+     */
+    private Long[] allocateIds(int count) {
+        Long[] ids = new Long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + Stock.ID_ALLOCATION_SIZE - 1) / Stock.ID_ALLOCATION_SIZE;
+            for (long hi : stockRepository.nextIdBlocks(blocks)) {
+                // The sequence starts at 1, so its first value reserves only itself
+                for (long id = Math.max(1, hi - Stock.ID_ALLOCATION_SIZE + 1); id <= hi && filled < count; id++) {
+                    ids[filled++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Retrieves the current stock record for a given SKU. The cache holds an immutable snapshot
+     * with its JSON already rendered rather than the managed entity, so a cache hit is neither
+     * re-mapped nor re-serialized and cannot be mutated by callers. Misses are loaded by
+     * {@link StockCacheLoader}, one load per SKU however many requests are waiting on it, and
+     * unknown SKUs are remembered briefly so they do not reach the database on every request.
      *
      * @param sku the stock keeping unit identifier
-     * @return the stock record
+     * @return a snapshot of the stock record
      * @throws ProductNotFoundException if no stock record exists for the SKU
      */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "stock", key = "#sku")
-    public Stock getStockBySku(String sku) {
-        return stockRepository.findBySku(sku)
-                .orElseThrow(() -> new ProductNotFoundException(sku));
+    public StockSnapshot getStockBySku(String sku) {
+        return cacheReader.getOrThrow(STOCK_CACHE, sku, StockSnapshot.class, () -> new ProductNotFoundException(sku));
     }
 
     /**
-     * Retrieves all stock records with pagination support.
+     * Resolves up to {@value BulkLookupRequest#MAX_SKUS} SKUs in one call. Cached snapshots are read with a
+     * single bulk cache lookup and every miss is loaded by one {@code sku = ANY(?)} query, after which the
+     * misses are cached, unknown SKUs included as negative entries.
      *
-     * @param pageable pagination parameters (page number, size, sort)
-     * @return a page of stock records
+     * @param skus the SKUs to resolve; duplicates and blanks are ignored
+     * @return the snapshots found, in request order, and the SKUs with no stock record
+     * @throws InvalidRequestException if no SKU or more than the maximum is given
+     */
+    @Override
+    public BulkResult<StockSnapshot> getStockBySkus(Collection<String> skus) {
+        Set<String> distinct = BulkLookupRequest.distinctSkus(skus);
+        Map<String, StockSnapshot> found = cacheReader.getAll(STOCK_CACHE, distinct, StockSnapshot.class);
+        return BulkResult.of(distinct, found);
+    }
+
+    /**
+     * Retrieves one slice of stock records by keyset pagination. Each slice is an index seek past the
+     * cursor's last key with {@code LIMIT size + 1}; the extra row only tells whether another slice exists,
+     * so no {@code OFFSET} scan or {@code count(*)} is ever executed.
+     *
+     * @param after                 cursor from the previous slice, or {@code null} for the first
+     * @param size                  requested slice size (clamped to 1..500)
+     * @param sort                  {@code id} or {@code sku}
+     * @param includeEstimatedTotal whether to attach the planner's row-count estimate
+     * @return a slice of stock records
+     * @throws InvalidRequestException if the sort key or cursor is invalid
      */
     @Override
     @Transactional(readOnly = true)
-    public Page<Stock> getAllStock(Pageable pageable) {
-        return stockRepository.findAll(pageable);
+    public CursorSlice<Stock> getAllStock(String after, int size, String sort, boolean includeEstimatedTotal) {
+        KeysetCursor cursor = KeysetCursor.resolve(after, sort);
+        int limit = KeysetCursor.clampSize(size);
+        List<Stock> rows = cursor.sortedBySku()
+                ? stockRepository.findBySkuGreaterThanOrderBySkuAsc(cursor.skuValue(), Limit.of(limit + 1))
+                : stockRepository.findByIdGreaterThanOrderByIdAsc(cursor.idValue(), Limit.of(limit + 1));
+        Long estimatedTotal = includeEstimatedTotal ? stockRepository.estimateRowCount() : null;
+        return CursorSlice.fromOverfetch(rows, limit, cursor,
+                stock -> cursor.sortedBySku() ? stock.getSku() : String.valueOf(stock.getId()), estimatedTotal);
+    }
+
+    /**
+     * Streams every stock record to {@code out} in id order through a database cursor, with the same
+     * fields as {@link com.inventory.inventory.dto.StockResponseDTO}. Memory use does not grow with the
+     * table; nothing is read through JPA or the cache.
+     *
+     * @param format NDJSON or CSV
+     * @param out    the response stream
+     * @return the number of rows written
+     * @throws IOException if the client disconnects mid-export
+     */
+    @Override
+    public long exportStock(ExportFormat format, OutputStream out) throws IOException {
+        return jdbcStreamingExporter.export(EXPORT_STOCK_SQL, format, out);
     }
 
     /**
      * Adds stock quantity to an existing product. Used when new inventory arrives
-     * from a supplier. Publishes a RESTOCK event to Kafka and stores it in MongoDB.
+     * from a supplier. Publishes a RESTOCK event to Kafka.
      *
      * @param sku the stock keeping unit identifier
      * @param dto contains the quantity to add and an optional reason
@@ -101,22 +246,23 @@ public class InventoryServiceImpl implements InventoryService {
     @Transactional
     @CacheEvict(value = "stock", key = "#sku")
     @Retry(name = "stockUpdate")
+    @HotKeyGuarded
     public Stock restock(String sku, StockUpdateDTO dto) {
         Stock stock = stockRepository.findBySku(sku)
                 .orElseThrow(() -> new ProductNotFoundException(sku));
 
         int previousQuantity = stock.getQuantity();
         stock.setQuantity(previousQuantity + dto.getQuantity());
-        Stock updated = stockRepository.save(stock);
+        Stock updated = stockRepository.saveAndFlush(stock);
         log.info("Restocked: sku={}, added={}, new quantity={}", sku, dto.getQuantity(), updated.getQuantity());
 
-        publishAndStoreEvent(updated, previousQuantity, updated.getQuantity(), StockChangeReason.RESTOCK);
+        publishEvent(updated, previousQuantity, updated.getQuantity(), StockChangeReason.RESTOCK);
         return updated;
     }
 
     /**
      * Deducts stock quantity for a sale. Validates that sufficient stock is available
-     * before processing. Publishes a SALE event to Kafka and stores it in MongoDB.
+     * before processing. Publishes a SALE event to Kafka.
      *
      * @param sku the stock keeping unit identifier
      * @param dto contains the quantity to deduct and an optional reason
@@ -128,6 +274,7 @@ public class InventoryServiceImpl implements InventoryService {
     @Transactional
     @CacheEvict(value = "stock", key = "#sku")
     @Retry(name = "stockUpdate")
+    @HotKeyGuarded
     public Stock sell(String sku, StockUpdateDTO dto) {
         Stock stock = stockRepository.findBySku(sku)
                 .orElseThrow(() -> new ProductNotFoundException(sku));
@@ -138,17 +285,17 @@ public class InventoryServiceImpl implements InventoryService {
 
         int previousQuantity = stock.getQuantity();
         stock.setQuantity(previousQuantity - dto.getQuantity());
-        Stock updated = stockRepository.save(stock);
+        Stock updated = stockRepository.saveAndFlush(stock);
         log.info("Sold: sku={}, deducted={}, new quantity={}", sku, dto.getQuantity(), updated.getQuantity());
 
-        publishAndStoreEvent(updated, previousQuantity, updated.getQuantity(), StockChangeReason.SALE);
+        publishEvent(updated, previousQuantity, updated.getQuantity(), StockChangeReason.SALE);
         return updated;
     }
 
     /**
      * Sets the stock quantity to an exact value. Used for manual corrections
      * such as after a physical inventory count. Publishes an ADJUSTMENT event
-     * to Kafka and stores it in MongoDB.
+     * to Kafka.
      *
      * @param sku the stock keeping unit identifier
      * @param dto contains the new absolute quantity and an optional reason
@@ -159,22 +306,24 @@ public class InventoryServiceImpl implements InventoryService {
     @Transactional
     @CacheEvict(value = "stock", key = "#sku")
     @Retry(name = "stockUpdate")
+    @HotKeyGuarded
     public Stock adjust(String sku, StockUpdateDTO dto) {
         Stock stock = stockRepository.findBySku(sku)
                 .orElseThrow(() -> new ProductNotFoundException(sku));
 
         int previousQuantity = stock.getQuantity();
         stock.setQuantity(dto.getQuantity());
-        Stock updated = stockRepository.save(stock);
+        Stock updated = stockRepository.saveAndFlush(stock);
         log.info("Adjusted: sku={}, from={}, to={}", sku, previousQuantity, updated.getQuantity());
 
-        publishAndStoreEvent(updated, previousQuantity, updated.getQuantity(), StockChangeReason.ADJUSTMENT);
+        publishEvent(updated, previousQuantity, updated.getQuantity(), StockChangeReason.ADJUSTMENT);
         return updated;
     }
 
     /**
      * Removes the stock record for a product. Triggered when a product is deleted
-     * from the Product Service via a Kafka event.
+     * from the Product Service via a Kafka event. Publishes a {@code REMOVED} event
+     * taking the remaining quantity to zero, so reports drop the product.
      *
      * @param sku the stock keeping unit identifier
      * @throws ProductNotFoundException if no stock record exists for the SKU
@@ -187,19 +336,30 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new ProductNotFoundException(sku));
         stockRepository.delete(stock);
         log.info("Stock removed for SKU: {}", sku);
+
+        publishEvent(stock, stock.getQuantity(), 0, StockChangeReason.REMOVED);
     }
 
     /**
-     * Stores a stock change event in MongoDB for audit history and publishes it
-     * to Kafka for downstream consumers (e.g., Reporting Service, WebSocket notifications).
+     * Publishes a stock change event through the outbox to Kafka for downstream consumers
+     * (e.g., Reporting Service, the MongoDB audit sink, WebSocket fan-out on every replica).
+     * Updates are flushed before this is called so the event carries the committed row version,
+     * which other replicas use to order cache invalidations.
      *
      * @param stock       the stock record after the change
      * @param previousQty the quantity before the change
      * @param newQty      the quantity after the change
      * @param reason      the reason for the stock change
      */
-    private void publishAndStoreEvent(Stock stock, int previousQty, int newQty, StockChangeReason reason) {
-        StockUpdatedEvent event = StockUpdatedEvent.builder()
+    private void publishEvent(Stock stock, int previousQty, int newQty, StockChangeReason reason) {
+        StockUpdatedEvent event = stockEvent(stock, previousQty, newQty, reason);
+
+        // Save to outbox (same PostgreSQL transaction as stock update)
+        outboxEventService.saveEvent(KafkaConstants.TOPIC_STOCK_UPDATED, stock.getSku(), event);
+    }
+
+    private static StockUpdatedEvent stockEvent(Stock stock, int previousQty, int newQty, StockChangeReason reason) {
+        return StockUpdatedEvent.builder()
                 .productId(stock.getProductId())
                 .sku(stock.getSku())
                 .previousQuantity(previousQty)
@@ -207,26 +367,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .minThreshold(stock.getMinThreshold())
                 .changeAmount(newQty - previousQty)
                 .reason(reason)
+                .version(stock.getVersion())
                 .build();
-
-        // Store in MongoDB (event history / audit trail)
-        InventoryEvent mongoEvent = InventoryEvent.builder()
-                .eventId(event.getEventId())
-                .eventType(event.getEventType().name())
-                .sku(stock.getSku())
-                .productId(stock.getProductId())
-                .previousQuantity(previousQty)
-                .newQuantity(newQty)
-                .changeAmount(newQty - previousQty)
-                .reason(reason.name())
-                .timestamp(event.getTimestamp())
-                .build();
-        eventStoreService.saveEvent(mongoEvent);
-
-        // Save to outbox (same PostgreSQL transaction as stock update)
-        outboxEventService.saveEvent(KafkaConstants.TOPIC_STOCK_UPDATED, stock.getSku(), event);
-
-        // Push real-time update to WebSocket subscribers
-        stockUpdateNotifier.notifyStockUpdate(stock);
     }
 }
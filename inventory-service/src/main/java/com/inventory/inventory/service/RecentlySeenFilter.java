@@ -0,0 +1,97 @@
+package com.inventory.inventory.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers recently processed event ids so redelivered events can be recognised in memory.
+ * <p>
+ * An exact, size-bounded Caffeine cache of about the last {@code capacity} ids answers "definitely seen"
+ * (it evicts by recency and frequency rather than strict LRU); a Bloom filter in front of it
+ * answers "definitely not seen" for new ids without touching the cache. The Bloom filter is kept in two
+ * generations of {@code capacity} insertions each at about 1% false positives; when the current one fills,
+ * it becomes the previous one and a new one is started, so old ids age out instead of saturating it.
+ * A Bloom false positive only costs a cache lookup, never a wrong answer.
+ */
+final class RecentlySeenFilter {
+
+    private static final int HASHES = 7;
+    private static final double BITS_PER_ENTRY = 9.6;
+
+    private final int generationCapacity;
+    private final int bitCount;
+    private final Cache<String, Boolean> exact;
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    RecentlySeenFilter(int capacity) {
+        this.generationCapacity = capacity;
+        this.bitCount = Math.max(64, (int) Math.ceil(capacity * BITS_PER_ENTRY));
+        this.exact = Caffeine.newBuilder().maximumSize(capacity).build();
+        this.current = new Generation(bitCount);
+        this.previous = new Generation(bitCount);
+    }
+
+    boolean contains(String id) {
+        long hash = hash(id);
+        if (!current.mightContain(hash, bitCount) && !previous.mightContain(hash, bitCount)) {
+            return false;
+        }
+        return exact.getIfPresent(id) != null;
+    }
+
+    void add(String id) {
+        exact.put(id, Boolean.TRUE);
+        Generation generation = current;
+        generation.add(hash(id), bitCount);
+        if (generation.count.incrementAndGet() == generationCapacity) {
+            previous = generation;
+            current = new Generation(bitCount);
+        }
+    }
+
+    /** 64-bit FNV-1a; the two halves seed the double hashing of bit positions. */
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class Generation {
+        final AtomicLongArray words;
+        final AtomicInteger count = new AtomicInteger();
+
+        Generation(int bitCount) {
+            this.words = new AtomicLongArray((bitCount + 63) / 64);
+        }
+
+        void add(long hash, int bitCount) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << (bit & 63);
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+        }
+
+        boolean mightContain(long hash, int bitCount) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.inventory.inventory.websocket;
+
+import com.inventory.common.dto.BulkLookupRequest;
+import com.inventory.common.websocket.StompReplayBuffer;
+import com.inventory.common.websocket.StompSubscriptionRegistry;
+import com.inventory.common.websocket.StreamReplay;
+import com.inventory.inventory.dto.StockSnapshot;
+import com.inventory.inventory.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.inventory.inventory.websocket.StockUpdateNotifier.FILTERED_DESTINATION_PREFIX;
+import static com.inventory.inventory.websocket.StockUpdateNotifier.SKU_DESTINATION_PREFIX;
+
+/**
+ * Lets a reconnecting client resume its stock subscriptions. After resubscribing to its topics, the client
+ * subscribes to {@code /app/inventory/replay} with the {@code stream} and {@code lastSeq} headers of the last
+ * frame it received and gets a {@link StreamReplay} with the frames it missed. If those are no longer
+ * buffered, it gets the current stock of each subscribed SKU instead (up to {@link BulkLookupRequest#MAX_SKUS},
+ * through the stock cache); the broadcast and filtered topics have no snapshot and are reloaded over REST.
+ */
+@Controller
+@RequiredArgsConstructor
+public class StockReplayController {
+
+    private final StompReplayBuffer replayBuffer;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final InventoryService inventoryService;
+
+    @SubscribeMapping("/inventory/replay")
+    public StreamReplay replay(@Header(name = StompReplayBuffer.STREAM_HEADER, required = false) String stream,
+                               @Header(name = "lastSeq", required = false) Long lastSeq,
+                               @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        return replayBuffer.replay(stream, lastSeq, subscriptionRegistry.destinationsOf(sessionId), this::snapshot);
+    }
+
+    private Map<String, StockSnapshot> snapshot(Collection<String> destinations) {
+        List<String> skus = destinations.stream()
+                .filter(destination -> destination.startsWith(SKU_DESTINATION_PREFIX)
+                        && !destination.startsWith(FILTERED_DESTINATION_PREFIX))
+                .map(destination -> destination.substring(SKU_DESTINATION_PREFIX.length()))
+                .limit(BulkLookupRequest.MAX_SKUS)
+                .toList();
+        if (skus.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, StockSnapshot> current = new LinkedHashMap<>();
+        for (StockSnapshot stock : inventoryService.getStockBySkus(skus).getItems()) {
+            current.put(SKU_DESTINATION_PREFIX + stock.getSku(), stock);
+        }
+        return current;
+    }
+}
@@ -1,39 +1,191 @@
 package com.inventory.inventory.websocket;
 
-import com.inventory.inventory.dto.StockResponseDTO;
-import com.inventory.inventory.entity.Stock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.common.websocket.JsonFrames;
+import com.inventory.common.websocket.StockFilterIndex;
+import com.inventory.common.websocket.StompReplayBuffer;
+import com.inventory.common.websocket.StompSubscriptionRegistry;
+import com.inventory.inventory.dto.StockPushDTO;
 import com.inventory.inventory.mapper.StockMapper;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes stock updates to the WebSocket subscribers connected to this replica.
+ * <p>
+ * Updates arrive from {@code inventory.stock.updated} through
+ * {@link com.inventory.inventory.kafka.StockWebSocketFanoutListener}, so every replica pushes every
+ * committed change regardless of which replica made it, and rolled-back changes are never pushed.
+ * They go into a buffer that keeps only the latest state per SKU, so a hot SKU produces at most one frame
+ * per flush however often it sells. Every {@code websocket.flush-interval-ms} the buffer is drained: each
+ * SKU gets one frame on {@code /topic/inventory/{sku}}, and {@code /topic/inventory} gets a single frame
+ * holding the array of all SKUs that changed. Frames hold a {@link StockPushDTO}, which is built from the
+ * event and so has no record ID or creation time.
+ * <p>
+ * Clients can also subscribe to {@code /topic/inventory/filtered/{filter}} (see
+ * {@link com.inventory.common.websocket.StockFilter}), which gets one array per flush holding only the SKUs
+ * whose latest state matches the filter. Filters are evaluated before anything is serialized.
+ * <p>
+ * Nothing is mapped, buffered or serialized for a SKU unless someone on this node subscribes to the
+ * broadcast topic, to that SKU's topic, or to a filter it matches. Each SKU's state is serialized once per
+ * flush and the same bytes are used for its own frame and as its element of the broadcast array.
+ * <p>
+ * Frames are sent through {@link StompReplayBuffer}, so each carries a sequence number and a reconnecting
+ * client can resume through {@link StockReplayController}.
+ * <p>
+ * Metrics: {@code websocket.delivery.lag} (stock change to send, measured from the oldest conflated update),
+ * {@code websocket.frames} tagged by {@code destination} ({@code broadcast}, {@code sku} or
+ * {@code filtered}), and {@code websocket.updates.conflated}.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class StockUpdateNotifier {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    static final String BROADCAST_DESTINATION = "/topic/inventory";
+    static final String SKU_DESTINATION_PREFIX = "/topic/inventory/";
+    public static final String FILTERED_DESTINATION_PREFIX = "/topic/inventory/filtered/";
+
+    private final StompReplayBuffer replayBuffer;
     private final StockMapper stockMapper;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final StockFilterIndex filterIndex;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    private final Timer deliveryLag;
+    private final Counter broadcastFrames;
+    private final Counter skuFrames;
+    private final Counter filteredFrames;
+    private final Counter conflatedUpdates;
+
+    public StockUpdateNotifier(StompReplayBuffer replayBuffer, StockMapper stockMapper,
+                               StompSubscriptionRegistry subscriptionRegistry, StockFilterIndex filterIndex,
+                               ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.replayBuffer = replayBuffer;
+        this.stockMapper = stockMapper;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.filterIndex = filterIndex;
+        this.objectMapper = objectMapper;
+        this.deliveryLag = Timer.builder("websocket.delivery.lag")
+                .description("Time from stock change to WebSocket send")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.broadcastFrames = meterRegistry.counter("websocket.frames", "destination", "broadcast");
+        this.skuFrames = meterRegistry.counter("websocket.frames", "destination", "sku");
+        this.filteredFrames = meterRegistry.counter("websocket.frames", "destination", "filtered");
+        this.conflatedUpdates = meterRegistry.counter("websocket.updates.conflated");
+    }
 
     /**
-     * Broadcasts a stock update to all WebSocket subscribers.
-     * Sends to two destinations:
-     * - /topic/inventory       (all stock updates)
-     * - /topic/inventory/{sku} (updates for a specific product)
+     * Queues a stock change for the next flush. Does nothing if no client on this replica watches the SKU.
      *
-     * @param stock the updated stock record
+     * @param event the committed stock change
      */
-    @CircuitBreaker(name = "websocket", fallbackMethod = "fallbackNotify")
-    public void notifyStockUpdate(Stock stock) {
-        StockResponseDTO dto = stockMapper.toDTO(stock);
-        messagingTemplate.convertAndSend("/topic/inventory", dto);
-        messagingTemplate.convertAndSend("/topic/inventory/" + stock.getSku(), dto);
-        log.debug("WebSocket notification sent for SKU: {}", stock.getSku());
+    public void notifyStockUpdate(StockUpdatedEvent event) {
+        if (!subscriptionRegistry.hasSubscribers(BROADCAST_DESTINATION)
+                && !subscriptionRegistry.hasSubscribers(SKU_DESTINATION_PREFIX + event.getSku())
+                && !filterIndex.matchesAny(event.getSku(), event.getNewQuantity(), event.getMinThreshold())) {
+            return;
+        }
+        PendingUpdate update =
+                new PendingUpdate(stockMapper.toPushDTO(event), event.getVersion(), event.getTimestamp());
+        pending.merge(event.getSku(), update, (current, next) -> {
+            conflatedUpdates.increment();
+            return current.conflate(next);
+        });
     }
 
-    private void fallbackNotify(Stock stock, Throwable t) {
-        log.warn("WebSocket notification failed for SKU: {}. Cause: {}", stock.getSku(), t.getMessage());
+    /**
+     * Sends the latest buffered state of every changed SKU: one frame per watched SKU topic, one batched
+     * frame on the broadcast topic and one batched frame per matching filter. Subscriptions are checked again
+     * here, since clients may have left since the update was buffered.
+     */
+    @Scheduled(fixedDelayString = "${websocket.flush-interval-ms:100}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        boolean broadcast = subscriptionRegistry.hasSubscribers(BROADCAST_DESTINATION);
+        List<byte[]> batch = new ArrayList<>(pending.size());
+        List<PendingUpdate> drained = new ArrayList<>(pending.size());
+        Map<String, List<byte[]>> filteredBatches = new HashMap<>();
+        for (String sku : pending.keySet()) {
+            PendingUpdate update = pending.remove(sku);
+            if (update == null) {
+                continue;
+            }
+            drained.add(update);
+            String skuDestination = SKU_DESTINATION_PREFIX + sku;
+            boolean skuWatched = subscriptionRegistry.hasSubscribers(skuDestination);
+            StockPushDTO dto = update.dto();
+            List<String> filters = filterIndex.matching(sku, dto.getQuantity(), dto.getMinThreshold());
+            if (!broadcast && !skuWatched && filters.isEmpty()) {
+                continue;
+            }
+            byte[] json = JsonFrames.serialize(objectMapper, dto);
+            if (skuWatched && send(skuDestination, json)) {
+                skuFrames.increment();
+            }
+            if (broadcast) {
+                batch.add(json);
+            }
+            for (String filter : filters) {
+                filteredBatches.computeIfAbsent(filter, key -> new ArrayList<>()).add(json);
+            }
+        }
+        if (!batch.isEmpty() && send(BROADCAST_DESTINATION, JsonFrames.array(batch))) {
+            broadcastFrames.increment();
+        }
+        filteredBatches.forEach((destination, matches) -> {
+            if (send(destination, JsonFrames.array(matches))) {
+                filteredFrames.increment();
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingUpdate update : drained) {
+            if (update.changedAt() != null) {
+                deliveryLag.record(Duration.between(update.changedAt(), now));
+            }
+        }
+        log.debug("WebSocket flush sent {} stock updates", drained.size());
+    }
+
+    private boolean send(String destination, byte[] json) {
+        try {
+            replayBuffer.send(destination, json);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("WebSocket notification failed for {}. Cause: {}", destination, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Latest unsent state for one SKU. Keeps the change time of the oldest update it replaced, so lag
+     * reflects how long the first conflated change waited. Versions guard against changes to the same SKU
+     * that arrive out of order.
+     */
+    private record PendingUpdate(StockPushDTO dto, Long version, LocalDateTime changedAt) {
+
+        PendingUpdate conflate(PendingUpdate next) {
+            boolean newer = version == null || next.version == null || next.version >= version;
+            StockPushDTO latest = newer ? next.dto : dto;
+            Long latestVersion = newer ? next.version : version;
+            return new PendingUpdate(latest, latestVersion, changedAt);
+        }
     }
 }
@@ -0,0 +1 @@
+ALTER TABLE outbox_events ADD COLUMN contract_version INT NOT NULL DEFAULT 1;
@@ -0,0 +1,7 @@
+CREATE TABLE report_applied_offsets (
+    topic           VARCHAR(255) NOT NULL,
+    kafka_partition INTEGER NOT NULL,
+    applied_offset  BIGINT NOT NULL,
+    updated_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (topic, kafka_partition)
+);
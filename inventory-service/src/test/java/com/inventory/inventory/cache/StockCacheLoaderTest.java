@@ -0,0 +1,72 @@
+package com.inventory.inventory.cache;
+
+import com.inventory.common.cache.NegativeCacheEntry;
+import com.inventory.inventory.dto.StockResponseDTO;
+import com.inventory.inventory.dto.StockSnapshot;
+import com.inventory.inventory.entity.Stock;
+import com.inventory.inventory.mapper.StockSnapshotFactory;
+import com.inventory.inventory.repository.StockRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockCacheLoaderTest {
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockSnapshotFactory stockSnapshotFactory;
+
+    @InjectMocks
+    private StockCacheLoader stockCacheLoader;
+
+    @Test
+    @DisplayName("should load a snapshot for an existing SKU")
+    void shouldLoadSnapshot() {
+        Stock stock = Stock.builder().id(1L).productId(100L).sku("PROD-001").quantity(50).build();
+        StockSnapshot snapshot = StockSnapshot.of(StockResponseDTO.builder().sku("PROD-001").build(), 0L, "{}");
+        when(stockRepository.findBySku("PROD-001")).thenReturn(Optional.of(stock));
+        when(stockSnapshotFactory.create(stock)).thenReturn(snapshot);
+
+        assertThat(stockCacheLoader.load("PROD-001")).isSameAs(snapshot);
+    }
+
+    @Test
+    @DisplayName("should load a negative entry for an unknown SKU")
+    void shouldLoadNegativeEntry() {
+        when(stockRepository.findBySku("NONEXISTENT")).thenReturn(Optional.empty());
+
+        assertThat(stockCacheLoader.load("NONEXISTENT")).isSameAs(NegativeCacheEntry.INSTANCE);
+    }
+
+    @Test
+    @DisplayName("should bulk-load every SKU with one query and mark the unknown ones negative")
+    void shouldBulkLoadWithOneQuery() {
+        Stock stock = Stock.builder().id(1L).productId(100L).sku("PROD-001").quantity(50).build();
+        StockSnapshot snapshot = StockSnapshot.of(StockResponseDTO.builder().sku("PROD-001").build(), 0L, "{}");
+        when(stockRepository.findAllBySkuIn(any(String[].class))).thenReturn(List.of(stock));
+        when(stockSnapshotFactory.create(stock)).thenReturn(snapshot);
+
+        Map<Object, Object> values = stockCacheLoader.loadAll(new LinkedHashSet<>(List.of("PROD-001", "NONEXISTENT")));
+
+        assertThat(values).containsEntry("PROD-001", snapshot)
+                .containsEntry("NONEXISTENT", NegativeCacheEntry.INSTANCE);
+        verify(stockRepository, times(1)).findAllBySkuIn(any(String[].class));
+    }
+}
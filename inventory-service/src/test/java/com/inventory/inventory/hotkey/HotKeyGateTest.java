@@ -0,0 +1,157 @@
+package com.inventory.inventory.hotkey;
+
+import com.inventory.common.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotKeyGateTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotKeyDetector detector;
+    private HotKeyGate gate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        detector = new HotKeyDetector(meterRegistry, 16, 3, 2);
+        gate = new HotKeyGate(detector, meterRegistry, 1, Duration.ofMillis(50), Duration.ofSeconds(1));
+    }
+
+    private void write(String sku, int times) throws Throwable {
+        when(joinPoint.getArgs()).thenReturn(new Object[]{sku});
+        for (int i = 0; i < times; i++) {
+            gate.guard(joinPoint);
+        }
+    }
+
+    @Nested
+    @DisplayName("detection")
+    class Detection {
+
+        @Test
+        @DisplayName("should mark a SKU hot after a window over the write threshold")
+        void shouldDetectHotWrites() throws Throwable {
+            write("PROD-001", 3);
+            write("PROD-002", 1);
+
+            detector.closeWindow();
+
+            assertThat(detector.isHot("PROD-001")).isTrue();
+            assertThat(detector.isHot("PROD-002")).isFalse();
+            assertThat(detector.getHotKeys()).singleElement()
+                    .isEqualTo(new HotKeyDetector.HotKey("PROD-001", 3, 0));
+            assertThat(meterRegistry.get("hotkeys.active").gauge().value()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should mark a SKU hot after repeated optimistic-lock conflicts")
+        void shouldDetectConflicts() throws Throwable {
+            HotKeyConflictRecorder recorder = new HotKeyConflictRecorder(detector);
+            when(joinPoint.getArgs()).thenReturn(new Object[]{"PROD-001"});
+            when(joinPoint.proceed()).thenThrow(new OptimisticLockingFailureException("version changed"));
+
+            for (int i = 0; i < 2; i++) {
+                assertThatThrownBy(() -> recorder.record(joinPoint))
+                        .isInstanceOf(OptimisticLockingFailureException.class);
+            }
+            detector.closeWindow();
+
+            assertThat(detector.getHotKeys()).singleElement()
+                    .isEqualTo(new HotKeyDetector.HotKey("PROD-001", 0, 2));
+        }
+
+        @Test
+        @DisplayName("should cool a SKU down after a quiet window")
+        void shouldCoolDown() throws Throwable {
+            write("PROD-001", 3);
+            detector.closeWindow();
+
+            detector.closeWindow();
+
+            assertThat(detector.isHot("PROD-001")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("lanes")
+    class Lanes {
+
+        @Test
+        @DisplayName("should not queue writes to cold SKUs")
+        void shouldPassColdWritesThrough() throws Throwable {
+            write("PROD-001", 2);
+
+            verify(joinPoint, times(2)).proceed();
+            assertThat(gate.laneCount()).isZero();
+            assertThat(meterRegistry.counter("hotkeys.queued").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("should reject a hot-SKU write that cannot enter its lane in time")
+        void shouldRejectWhenLaneBusy() throws Throwable {
+            write("PROD-001", 3);
+            detector.closeWindow();
+
+            CountDownLatch inside = new CountDownLatch(1);
+            CountDownLatch finish = new CountDownLatch(1);
+            ProceedingJoinPoint slowWrite = mock(ProceedingJoinPoint.class);
+            when(slowWrite.getArgs()).thenReturn(new Object[]{"PROD-001"});
+            when(slowWrite.proceed()).thenAnswer(invocation -> {
+                inside.countDown();
+                finish.await(5, TimeUnit.SECONDS);
+                return null;
+            });
+            CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+                try {
+                    gate.guard(slowWrite);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> gate.guard(joinPoint))
+                    .isInstanceOf(ConcurrencyLimitExceededException.class)
+                    .hasMessageContaining("PROD-001");
+            assertThat(meterRegistry.counter("hotkeys.rejected").count()).isEqualTo(1);
+
+            finish.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        }
+
+        @Test
+        @DisplayName("should drop the lane once the SKU has cooled down")
+        void shouldDropCooledLane() throws Throwable {
+            write("PROD-001", 3);
+            detector.closeWindow();
+            write("PROD-001", 1);
+            assertThat(gate.laneCount()).isEqualTo(1);
+
+            detector.closeWindow();
+            gate.dropCooledLanes();
+
+            assertThat(gate.laneCount()).isZero();
+        }
+    }
+}
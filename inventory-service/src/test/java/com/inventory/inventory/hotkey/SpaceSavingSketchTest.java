@@ -0,0 +1,70 @@
+package com.inventory.inventory.hotkey;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    @DisplayName("should count exactly while every key fits")
+    void shouldCountExactlyWithinCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        for (int i = 0; i < 5; i++) {
+            sketch.offer("PROD-001");
+        }
+        sketch.offer("PROD-002");
+
+        List<SpaceSavingSketch.Entry> top = sketch.drain(1);
+
+        assertThat(top).extracting(SpaceSavingSketch.Entry::key).containsExactly("PROD-001", "PROD-002");
+        assertThat(top.get(0).guaranteedCount()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("should keep a heavy hitter among many cold keys")
+    void shouldKeepHeavyHitter() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(8);
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer("COLD-" + i);
+            if (i % 4 == 0) {
+                sketch.offer("HOT-001");
+            }
+        }
+
+        List<SpaceSavingSketch.Entry> top = sketch.drain(200);
+
+        assertThat(top).extracting(SpaceSavingSketch.Entry::key).containsExactly("HOT-001");
+        assertThat(top.get(0).count()).isGreaterThanOrEqualTo(250);
+    }
+
+    @Test
+    @DisplayName("should never overstate the guaranteed count of a key that took over a counter")
+    void shouldBoundErrorOfReplacedKey() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer("A");
+        sketch.offer("A");
+        sketch.offer("B");
+        sketch.offer("C");
+
+        List<SpaceSavingSketch.Entry> top = sketch.drain(0);
+
+        assertThat(top).filteredOn(entry -> entry.key().equals("C"))
+                .singleElement()
+                .satisfies(entry -> assertThat(entry.guaranteedCount()).isEqualTo(1));
+    }
+
+    @Test
+    @DisplayName("should start a fresh window after draining")
+    void shouldResetOnDrain() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+        sketch.offer("PROD-001");
+
+        sketch.drain(1);
+
+        assertThat(sketch.drain(1)).isEmpty();
+    }
+}
@@ -0,0 +1,139 @@
+package com.inventory.inventory.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.JsonEventCodec;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.common.event.StockUpdatedEvent.StockChangeReason;
+import com.inventory.inventory.entity.InventoryEvent;
+import com.inventory.inventory.service.EventStoreService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryAuditConsumerTest {
+
+    @Mock
+    private EventStoreService eventStoreService;
+
+    private ObjectMapper objectMapper;
+    private InventoryAuditConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        consumer = new InventoryAuditConsumer(eventStoreService, new EventCodecs(new JsonEventCodec(objectMapper)));
+    }
+
+    private ConsumerRecord<String, String> record(String value) {
+        return new ConsumerRecord<>("inventory.stock.updated", 0, 0L, null, value);
+    }
+
+    private ConsumerRecord<String, String> json(StockUpdatedEvent event) throws Exception {
+        return record(objectMapper.writeValueAsString(event));
+    }
+
+    private StockUpdatedEvent event(String sku, int previous, int next, StockChangeReason reason) {
+        return StockUpdatedEvent.builder()
+                .productId(1L)
+                .sku(sku)
+                .previousQuantity(previous)
+                .newQuantity(next)
+                .minThreshold(10)
+                .changeAmount(next - previous)
+                .reason(reason)
+                .version(2L)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryEvent> capturedBatch() {
+        ArgumentCaptor<List<InventoryEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventStoreService).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("should store the whole batch in one write, mapped to audit documents")
+    void shouldStoreBatch() throws Exception {
+        StockUpdatedEvent sale = event("PROD-001", 50, 45, StockChangeReason.SALE);
+        StockUpdatedEvent restock = event("PROD-002", 5, 105, StockChangeReason.RESTOCK);
+        when(eventStoreService.saveAll(anyList())).thenReturn(2);
+
+        consumer.handleStockUpdated(List.of(json(sale), json(restock)));
+
+        List<InventoryEvent> batch = capturedBatch();
+        assertThat(batch).extracting(InventoryEvent::getEventId)
+                .containsExactly(sale.getEventId(), restock.getEventId());
+        InventoryEvent first = batch.get(0);
+        assertThat(first.getEventType()).isEqualTo("STOCK_UPDATED");
+        assertThat(first.getSku()).isEqualTo("PROD-001");
+        assertThat(first.getPreviousQuantity()).isEqualTo(50);
+        assertThat(first.getNewQuantity()).isEqualTo(45);
+        assertThat(first.getChangeAmount()).isEqualTo(-5);
+        assertThat(first.getReason()).isEqualTo("SALE");
+        assertThat(first.getTimestamp()).isEqualTo(sale.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("should store the records before an unreadable one, then report it for the DLT")
+    void shouldStorePrefixAndReportUnreadableRecord() throws Exception {
+        StockUpdatedEvent sale = event("PROD-001", 50, 45, StockChangeReason.SALE);
+        ConsumerRecord<String, String> malformed = record("not-json");
+        when(eventStoreService.saveAll(anyList())).thenReturn(1);
+
+        assertThatThrownBy(() -> consumer.handleStockUpdated(
+                List.of(json(sale), malformed, json(event("PROD-002", 5, 4, StockChangeReason.SALE)))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getRecord()).isSameAs(malformed))
+                .hasRootCauseInstanceOf(JsonProcessingException.class);
+
+        assertThat(capturedBatch()).extracting(InventoryEvent::getEventId).containsExactly(sale.getEventId());
+    }
+
+    @Test
+    @DisplayName("should report a record that fails contract validation without storing anything")
+    void shouldReportInvalidRecord() throws Exception {
+        StockUpdatedEvent unsupported = StockUpdatedEvent.builder()
+                .sku("PROD-001").previousQuantity(50).newQuantity(45).contractVersion(2).build();
+
+        assertThatThrownBy(() -> consumer.handleStockUpdated(List.of(json(unsupported))))
+                .isInstanceOf(BatchListenerFailedException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+
+        verify(eventStoreService, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("should propagate store failures so the batch is retried")
+    void shouldPropagateStoreFailures() throws Exception {
+        StockUpdatedEvent sale = event("PROD-001", 50, 45, StockChangeReason.SALE);
+        when(eventStoreService.saveAll(anyList())).thenThrow(new IllegalStateException("mongo down"));
+
+        List<ConsumerRecord<String, String>> records = List.of(json(sale));
+
+        assertThatThrownBy(() -> consumer.handleStockUpdated(records))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
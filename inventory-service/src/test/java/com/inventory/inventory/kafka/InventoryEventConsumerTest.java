@@ -1,13 +1,19 @@
 package com.inventory.inventory.kafka;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.EventHeaders;
+import com.inventory.common.event.EventType;
+import com.inventory.common.event.JsonEventCodec;
 import com.inventory.common.event.ProductCreatedEvent;
 import com.inventory.common.event.ProductDeletedEvent;
 import com.inventory.inventory.service.EventInboxService;
 import com.inventory.inventory.service.InventoryService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,9 +21,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +45,9 @@ class InventoryEventConsumerTest {
     @Mock
     private EventInboxService eventInboxService;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private ObjectMapper objectMapper;
     private InventoryEventConsumer consumer;
 
@@ -38,47 +57,205 @@ class InventoryEventConsumerTest {
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        consumer = new InventoryEventConsumer(inventoryService, eventInboxService, objectMapper);
+        consumer = new InventoryEventConsumer(inventoryService, eventInboxService,
+                new EventCodecs(new JsonEventCodec(objectMapper)), transactionManager);
+    }
+
+    private static ConsumerRecord<String, String> withHeaders(ConsumerRecord<String, String> record,
+                                                               String eventId, EventType eventType) {
+        new EventHeaders(eventId, eventType, 1, LocalDateTime.now(), JsonEventCodec.CONTENT_TYPE)
+                .toKafkaHeaders().forEach(record.headers()::add);
+        return record;
     }
 
     @Nested
     @DisplayName("handleProductCreated")
     class HandleProductCreated {
 
-        private ProductCreatedEvent event;
-        private String message;
+        private static final String TOPIC = "inventory.product.created";
 
-        @BeforeEach
-        void setUp() throws Exception {
-            event = ProductCreatedEvent.builder()
-                    .productId(1L)
-                    .sku("PROD-001")
+        private ProductCreatedEvent created(long productId, String sku) {
+            return ProductCreatedEvent.builder()
+                    .productId(productId)
+                    .sku(sku)
                     .name("Test Product")
                     .category("Electronics")
                     .price(new BigDecimal("29.99"))
                     .initialStock(50)
                     .build();
-            message = objectMapper.writeValueAsString(event);
+        }
+
+        private long offset;
+
+        private ConsumerRecord<String, String> record(String value) {
+            return new ConsumerRecord<>(TOPIC, 0, offset++, null, value);
+        }
+
+        private ConsumerRecord<String, String> json(ProductCreatedEvent event) throws Exception {
+            return record(objectMapper.writeValueAsString(event));
         }
 
         @Test
-        @DisplayName("should create stock for new event")
-        void shouldCreateStock() throws Exception {
-            when(eventInboxService.registerIfFirstSeen(event.getEventId(), "inventory.product.created")).thenReturn(true);
+        @DisplayName("should create stock for the whole batch in one call")
+        void shouldCreateStockForBatch() throws Exception {
+            ProductCreatedEvent first = created(1L, "PROD-001");
+            ProductCreatedEvent second = created(2L, "PROD-002");
+            when(eventInboxService.registerAllFirstSeen(List.of(first.getEventId(), second.getEventId()), TOPIC))
+                    .thenReturn(Set.of(first.getEventId(), second.getEventId()));
 
-            consumer.handleProductCreated(message);
+            consumer.handleProductCreated(List.of(json(first), json(second)));
 
-            verify(inventoryService).createStock(1L, "PROD-001", 50);
+            verify(inventoryService).createStocks(argThat(events -> events.size() == 2
+                    && events.get(0).getSku().equals("PROD-001") && events.get(1).getSku().equals("PROD-002")));
+            verify(transactionManager).commit(any());
         }
 
         @Test
-        @DisplayName("should skip duplicate event")
+        @DisplayName("should skip duplicate events")
         void shouldSkipDuplicate() throws Exception {
-            when(eventInboxService.registerIfFirstSeen(event.getEventId(), "inventory.product.created")).thenReturn(false);
+            ProductCreatedEvent fresh = created(1L, "PROD-001");
+            ProductCreatedEvent duplicate = created(2L, "PROD-002");
+            when(eventInboxService.registerAllFirstSeen(anyList(), eq(TOPIC))).thenReturn(Set.of(fresh.getEventId()));
+
+            consumer.handleProductCreated(List.of(json(fresh), json(duplicate)));
+
+            verify(inventoryService).createStocks(argThat(events -> events.size() == 1
+                    && events.get(0).getSku().equals("PROD-001")));
+        }
+
+        @Test
+        @DisplayName("should not create stock when every event is a duplicate")
+        void shouldSkipAllDuplicates() throws Exception {
+            when(eventInboxService.registerAllFirstSeen(anyList(), eq(TOPIC))).thenReturn(Set.of());
+
+            consumer.handleProductCreated(List.of(json(created(1L, "PROD-001"))));
+
+            verify(inventoryService, never()).createStocks(anyList());
+        }
+
+        @Test
+        @DisplayName("should process the records before an unreadable one and report that record")
+        void shouldReportUnreadableRecord() throws Exception {
+            ProductCreatedEvent first = created(1L, "PROD-001");
+            when(eventInboxService.registerAllFirstSeen(List.of(first.getEventId()), TOPIC))
+                    .thenReturn(Set.of(first.getEventId()));
+            ConsumerRecord<String, String> unreadable = record("not json");
+            List<ConsumerRecord<String, String>> records = List.of(json(first), unreadable, json(created(3L, "PROD-003")));
+
+            assertThatThrownBy(() -> consumer.handleProductCreated(records))
+                    .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                            e -> assertThat(e.getRecord()).isSameAs(unreadable));
+
+            verify(inventoryService).createStocks(argThat(events -> events.size() == 1));
+            verify(transactionManager).commit(any());
+        }
+
+        @Test
+        @DisplayName("should retry a failed batch one record at a time and report the failing record")
+        void shouldIsolateFailingRecord() throws Exception {
+            ProductCreatedEvent good = created(1L, "PROD-001");
+            ProductCreatedEvent bad = created(2L, "PROD-002");
+            when(eventInboxService.registerAllFirstSeen(anyList(), eq(TOPIC)))
+                    .thenAnswer(invocation -> Set.copyOf(invocation.<List<String>>getArgument(0)));
+            when(inventoryService.createStocks(anyList())).thenAnswer(invocation -> {
+                List<ProductCreatedEvent> events = invocation.getArgument(0);
+                if (events.stream().anyMatch(event -> event.getSku().equals("PROD-002"))) {
+                    throw new DataIntegrityViolationException("value too long");
+                }
+                return List.of();
+            });
+
+            List<ConsumerRecord<String, String>> records = List.of(json(good), json(bad));
+
+            assertThatThrownBy(() -> consumer.handleProductCreated(records))
+                    .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                            e -> assertThat(e.getRecord()).isSameAs(records.get(1)));
+
+            verify(inventoryService, times(3)).createStocks(anyList());
+            verify(transactionManager, times(1)).commit(any());
+            verify(transactionManager, times(2)).rollback(any());
+        }
+
+        @Test
+        @DisplayName("should rethrow without naming a record when the database is unavailable")
+        void shouldRethrowWhenDatabaseUnavailable() throws Exception {
+            CannotCreateTransactionException outage = new CannotCreateTransactionException("connection refused");
+            when(transactionManager.getTransaction(any())).thenThrow(outage);
+            doThrow(outage).when(eventInboxService).checkAvailable();
+
+            List<ConsumerRecord<String, String>> records =
+                    List.of(json(created(1L, "PROD-001")), json(created(2L, "PROD-002")));
+
+            assertThatThrownBy(() -> consumer.handleProductCreated(records)).isSameAs(outage);
+
+            verify(transactionManager, times(2)).getTransaction(any());
+            verifyNoInteractions(inventoryService);
+        }
+
+        @Test
+        @DisplayName("should deduplicate from headers without reading duplicate payloads")
+        void shouldSkipDuplicateFromHeaders() throws Exception {
+            ProductCreatedEvent fresh = created(1L, "PROD-001");
+            when(eventInboxService.registerAllFirstSeen(List.of(fresh.getEventId(), "evt-dup"), TOPIC))
+                    .thenReturn(Set.of(fresh.getEventId()));
+
+            consumer.handleProductCreated(List.of(
+                    withHeaders(json(fresh), fresh.getEventId(), EventType.PRODUCT_CREATED),
+                    withHeaders(record("not json"), "evt-dup", EventType.PRODUCT_CREATED)));
 
-            consumer.handleProductCreated(message);
+            verify(inventoryService).createStocks(argThat(events -> events.size() == 1
+                    && events.get(0).getSku().equals("PROD-001")));
+        }
+
+        @Test
+        @DisplayName("should reject a record whose headers declare another event type, before reading it")
+        void shouldRejectWrongTypeFromHeaders() {
+            ConsumerRecord<String, String> wrongType =
+                    withHeaders(record("not json"), "evt-1", EventType.PRODUCT_DELETED);
+
+            assertThatThrownBy(() -> consumer.handleProductCreated(List.of(wrongType)))
+                    .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                            e -> assertThat(e.getRecord()).isSameAs(wrongType))
+                    .hasRootCauseInstanceOf(IllegalArgumentException.class);
 
-            verify(inventoryService, never()).createStock(anyLong(), anyString(), anyInt());
+            verifyNoInteractions(eventInboxService, inventoryService);
+        }
+
+        @Test
+        @DisplayName("should report a first-seen record whose payload cannot be read")
+        void shouldReportUnreadablePayloadBehindHeaders() {
+            when(eventInboxService.registerAllFirstSeen(List.of("evt-1"), TOPIC)).thenReturn(Set.of("evt-1"));
+            ConsumerRecord<String, String> unreadable =
+                    withHeaders(record("not json"), "evt-1", EventType.PRODUCT_CREATED);
+
+            assertThatThrownBy(() -> consumer.handleProductCreated(List.of(unreadable)))
+                    .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                            e -> assertThat(e.getRecord()).isSameAs(unreadable))
+                    .hasCauseInstanceOf(IllegalArgumentException.class)
+                    .hasRootCauseInstanceOf(JsonProcessingException.class);
+
+            verify(transactionManager).rollback(any());
+            verify(inventoryService, never()).createStocks(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("handleProductUpdated")
+    class HandleProductUpdated {
+
+        @Test
+        @DisplayName("should acknowledge updates from headers without reading their payloads")
+        void shouldNotReadPayloads() {
+            when(eventInboxService.registerAllFirstSeen(List.of("evt-1"), "inventory.product.updated"))
+                    .thenReturn(Set.of("evt-1"));
+            ConsumerRecord<String, String> record = withHeaders(
+                    new ConsumerRecord<>("inventory.product.updated", 0, 0L, null, "not json"),
+                    "evt-1", EventType.PRODUCT_UPDATED);
+
+            consumer.handleProductUpdated(List.of(record));
+
+            verify(transactionManager).commit(any());
+            verifyNoInteractions(inventoryService);
         }
     }
 
@@ -86,6 +263,8 @@ class InventoryEventConsumerTest {
     @DisplayName("handleProductDeleted")
     class HandleProductDeleted {
 
+        private static final String TOPIC = "inventory.product.deleted";
+
         @Test
         @DisplayName("should remove stock for deleted product")
         void shouldRemoveStock() throws Exception {
@@ -94,11 +273,23 @@ class InventoryEventConsumerTest {
                     .sku("PROD-001")
                     .build();
             String message = objectMapper.writeValueAsString(event);
-            when(eventInboxService.registerIfFirstSeen(event.getEventId(), "inventory.product.deleted")).thenReturn(true);
+            when(eventInboxService.registerIfFirstSeen(event.getEventId(), TOPIC)).thenReturn(true);
 
-            consumer.handleProductDeleted(message);
+            consumer.handleProductDeleted(new ConsumerRecord<>(TOPIC, 0, 0L, "PROD-001", message));
 
             verify(inventoryService).removeStock("PROD-001");
         }
+
+        @Test
+        @DisplayName("should skip a duplicate identified from headers without reading its payload")
+        void shouldSkipDuplicateFromHeaders() {
+            when(eventInboxService.registerIfFirstSeen("evt-1", TOPIC)).thenReturn(false);
+            ConsumerRecord<String, String> record = withHeaders(
+                    new ConsumerRecord<>(TOPIC, 0, 0L, "PROD-001", "not json"), "evt-1", EventType.PRODUCT_DELETED);
+
+            consumer.handleProductDeleted(record);
+
+            verifyNoInteractions(inventoryService);
+        }
     }
 }
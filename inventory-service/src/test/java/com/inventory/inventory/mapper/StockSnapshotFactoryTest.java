@@ -0,0 +1,70 @@
+package com.inventory.inventory.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.dto.ApiResponse;
+import com.inventory.inventory.dto.StockResponseDTO;
+import com.inventory.inventory.dto.StockSnapshot;
+import com.inventory.inventory.entity.Stock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockSnapshotFactoryTest {
+
+    @Mock
+    private StockMapper stockMapper;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private StockSnapshotFactory factory;
+    private Stock stock;
+    private StockResponseDTO dto;
+
+    @BeforeEach
+    void setUp() {
+        factory = new StockSnapshotFactory(stockMapper, objectMapper);
+        stock = Stock.builder().id(1L).productId(100L).sku("PROD-001").quantity(50).minThreshold(10).version(3L).build();
+        dto = StockResponseDTO.builder()
+                .id(1L).productId(100L).sku("PROD-001").quantity(50).minThreshold(10)
+                .createdAt(LocalDateTime.of(2026, 2, 15, 10, 30))
+                .updatedAt(LocalDateTime.of(2026, 2, 15, 14, 45))
+                .build();
+        when(stockMapper.toDTO(stock)).thenReturn(dto);
+    }
+
+    @Test
+    @DisplayName("should serialize snapshot to the same JSON as the DTO")
+    void shouldSerializeLikeDto() throws Exception {
+        StockSnapshot snapshot = factory.create(stock);
+
+        assertThat(objectMapper.writeValueAsString(snapshot)).isEqualTo(objectMapper.writeValueAsString(dto));
+
+        ApiResponse<Object> envelope = ApiResponse.success((Object) snapshot);
+        String fromSnapshot = objectMapper.writeValueAsString(envelope);
+        envelope.setData(dto);
+        assertThat(fromSnapshot).isEqualTo(objectMapper.writeValueAsString(envelope));
+    }
+
+    @Test
+    @DisplayName("should capture entity version and DTO fields")
+    void shouldCaptureFields() {
+        StockSnapshot snapshot = factory.create(stock);
+
+        assertThat(snapshot.getVersion()).isEqualTo(3L);
+        assertThat(snapshot.toDTO()).isEqualTo(dto);
+        assertThat(snapshot.serializedSize()).isPositive();
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventory.inventory.service;
+
+import com.inventory.inventory.repository.ProcessedEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventInboxServiceTest {
+
+    private static final String TOPIC = "inventory.product.created";
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventInboxService eventInboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventInboxService = new EventInboxService(processedEventRepository, meterRegistry, 1000);
+    }
+
+    private double duplicates(String source) {
+        return meterRegistry.counter("inbox.duplicates", "source", source).count();
+    }
+
+    @Test
+    @DisplayName("should register a new event through the database")
+    void shouldRegisterNewEvent() {
+        when(processedEventRepository.insertIfAbsent("evt-1", TOPIC)).thenReturn(1);
+
+        assertThat(eventInboxService.registerIfFirstSeen("evt-1", TOPIC)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should skip a redelivered event in memory without a database round trip")
+    void shouldSkipRecentDuplicateInMemory() {
+        when(processedEventRepository.insertIfAbsent("evt-1", TOPIC)).thenReturn(1);
+        eventInboxService.registerIfFirstSeen("evt-1", TOPIC);
+
+        assertThat(eventInboxService.registerIfFirstSeen("evt-1", TOPIC)).isFalse();
+
+        verify(processedEventRepository, times(1)).insertIfAbsent("evt-1", TOPIC);
+        assertThat(duplicates("memory")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should detect a duplicate from the row count and remember it")
+    void shouldDetectDuplicateFromRowCount() {
+        when(processedEventRepository.insertIfAbsent("evt-1", TOPIC)).thenReturn(0);
+
+        assertThat(eventInboxService.registerIfFirstSeen("evt-1", TOPIC)).isFalse();
+        assertThat(eventInboxService.registerIfFirstSeen("evt-1", TOPIC)).isFalse();
+
+        verify(processedEventRepository, times(1)).insertIfAbsent("evt-1", TOPIC);
+        assertThat(duplicates("database")).isEqualTo(1);
+        assertThat(duplicates("memory")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should register a batch with one insert and return only first-seen ids")
+    void shouldRegisterBatch() {
+        when(processedEventRepository.insertIfAbsent("evt-1", TOPIC)).thenReturn(1);
+        eventInboxService.registerIfFirstSeen("evt-1", TOPIC);
+        when(processedEventRepository.insertAllIfAbsent(new String[]{"evt-2", "evt-3"}, TOPIC))
+                .thenReturn(List.of("evt-2"));
+
+        assertThat(eventInboxService.registerAllFirstSeen(List.of("evt-1", "evt-2", "evt-3", "evt-2"), TOPIC))
+                .containsExactly("evt-2");
+
+        assertThat(duplicates("memory")).isEqualTo(1);
+        assertThat(duplicates("database")).isEqualTo(1);
+        assertThat(eventInboxService.registerAllFirstSeen(List.of("evt-2", "evt-3"), TOPIC)).isEmpty();
+        verify(processedEventRepository, times(1)).insertAllIfAbsent(any(), eq(TOPIC));
+    }
+
+    @Nested
+    @DisplayName("inside a transaction")
+    class InsideTransaction {
+
+        @BeforeEach
+        void setUp() {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+
+        @AfterEach
+        void tearDown() {
+            TransactionSynchronizationManager.clear();
+        }
+
+        @Test
+        @DisplayName("should remember the event only after the transaction commits")
+        void shouldRememberAfterCommit() {
+            when(processedEventRepository.insertIfAbsent("evt-1", TOPIC)).thenReturn(1, 0);
+            eventInboxService.registerIfFirstSeen("evt-1", TOPIC);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            assertThat(eventInboxService.registerIfFirstSeen("evt-1", TOPIC)).isFalse();
+            verify(processedEventRepository, times(1)).insertIfAbsent("evt-1", TOPIC);
+        }
+
+        @Test
+        @DisplayName("should let a rolled-back event be processed again")
+        void shouldForgetRolledBackEvent() {
+            when(processedEventRepository.insertIfAbsent("evt-1", TOPIC)).thenReturn(1);
+            eventInboxService.registerIfFirstSeen("evt-1", TOPIC);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            assertThat(eventInboxService.registerIfFirstSeen("evt-1", TOPIC)).isTrue();
+            verify(processedEventRepository, times(2)).insertIfAbsent("evt-1", TOPIC);
+        }
+    }
+}
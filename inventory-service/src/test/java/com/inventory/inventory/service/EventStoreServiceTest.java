@@ -0,0 +1,112 @@
+package com.inventory.inventory.service;
+
+import com.inventory.inventory.entity.InventoryEvent;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventStoreServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoConverter converter;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private EventStoreService eventStoreService;
+
+    @BeforeEach
+    void setUp() {
+        eventStoreService = new EventStoreService(mongoTemplate);
+    }
+
+    private void stubCollection() {
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(InventoryEvent.class)).thenReturn("inventory_events");
+        when(mongoTemplate.getCollection("inventory_events")).thenReturn(collection);
+    }
+
+    private static List<InventoryEvent> events(String... eventIds) {
+        return Arrays.stream(eventIds)
+                .map(id -> InventoryEvent.builder().eventId(id).sku("PROD-001").build())
+                .toList();
+    }
+
+    private static MongoBulkWriteException bulkFailure(int... codes) {
+        List<BulkWriteError> errors = IntStream.range(0, codes.length)
+                .mapToObj(i -> new BulkWriteError(codes[i], "error", new BsonDocument(), i))
+                .toList();
+        MongoBulkWriteException exception = mock(MongoBulkWriteException.class);
+        when(exception.getWriteErrors()).thenReturn(errors);
+        return exception;
+    }
+
+    @Test
+    @DisplayName("should key each document by eventId and insert the batch unordered")
+    @SuppressWarnings("unchecked")
+    void shouldInsertUnorderedKeyedByEventId() {
+        stubCollection();
+        List<InventoryEvent> events = events("evt-1", "evt-2");
+
+        int inserted = eventStoreService.saveAll(events);
+
+        assertThat(inserted).isEqualTo(2);
+        assertThat(events).allSatisfy(event -> assertThat(event.getId()).isEqualTo(event.getEventId()));
+        ArgumentCaptor<InsertManyOptions> options = ArgumentCaptor.forClass(InsertManyOptions.class);
+        verify(collection).insertMany(argThat((List<Document> docs) -> docs.size() == 2), options.capture());
+        assertThat(options.getValue().isOrdered()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should count duplicate-key errors as already stored")
+    void shouldIgnoreDuplicates() {
+        stubCollection();
+        MongoBulkWriteException duplicates = bulkFailure(11000);
+        doThrow(duplicates).when(collection).insertMany(anyList(), any(InsertManyOptions.class));
+
+        assertThat(eventStoreService.saveAll(events("evt-1", "evt-2", "evt-3"))).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should rethrow when any error is not a duplicate key")
+    void shouldRethrowOtherErrors() {
+        stubCollection();
+        MongoBulkWriteException failure = bulkFailure(11000, 121);
+        doThrow(failure).when(collection).insertMany(anyList(), any(InsertManyOptions.class));
+
+        assertThatThrownBy(() -> eventStoreService.saveAll(events("evt-1", "evt-2")))
+                .isSameAs(failure);
+    }
+
+    @Test
+    @DisplayName("should not touch MongoDB for an empty batch")
+    void shouldSkipEmptyBatch() {
+        assertThat(eventStoreService.saveAll(List.of())).isZero();
+        verifyNoInteractions(mongoTemplate);
+    }
+}
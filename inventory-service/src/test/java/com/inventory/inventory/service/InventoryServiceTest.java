@@ -1,22 +1,43 @@
 package com.inventory.inventory.service;
 
+import com.inventory.common.cache.CacheReader;
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
+import com.inventory.common.dto.KeysetCursor;
+import com.inventory.common.event.ProductCreatedEvent;
+import com.inventory.common.event.StockUpdatedEvent;
 import com.inventory.common.exception.InsufficientStockException;
+import com.inventory.common.exception.InvalidRequestException;
 import com.inventory.common.exception.ProductNotFoundException;
+import com.inventory.common.export.ExportFormat;
+import com.inventory.common.export.JdbcStreamingExporter;
 import com.inventory.common.outbox.OutboxEventService;
+import com.inventory.inventory.dto.StockResponseDTO;
+import com.inventory.inventory.dto.StockSnapshot;
 import com.inventory.inventory.dto.StockUpdateDTO;
 import com.inventory.inventory.entity.Stock;
 import com.inventory.inventory.repository.StockRepository;
-import com.inventory.inventory.websocket.StockUpdateNotifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.function.Supplier;
 
 import static com.inventory.common.constants.KafkaConstants.TOPIC_STOCK_UPDATED;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,13 +52,19 @@ class InventoryServiceTest {
     private StockRepository stockRepository;
 
     @Mock
-    private EventStoreService eventStoreService;
+    private AuditorAware<String> auditorAware;
 
     @Mock
     private OutboxEventService outboxEventService;
 
     @Mock
-    private StockUpdateNotifier stockUpdateNotifier;
+    private CacheReader cacheReader;
+
+    @Mock
+    private JdbcStreamingExporter jdbcStreamingExporter;
+
+    @Mock
+    private CacheManager cacheManager;
 
     @InjectMocks
     private InventoryServiceImpl inventoryService;
@@ -70,9 +97,58 @@ class InventoryServiceTest {
             assertThat(result.getSku()).isEqualTo("PROD-001");
             assertThat(result.getQuantity()).isEqualTo(50);
             verify(stockRepository).save(any(Stock.class));
-            verify(eventStoreService).saveEvent(any());
             verify(outboxEventService).saveEvent(eq(TOPIC_STOCK_UPDATED), eq("PROD-001"), any());
-            verify(stockUpdateNotifier).notifyStockUpdate(stock);
+        }
+    }
+
+    @Nested
+    @DisplayName("createStocks")
+    class CreateStocks {
+
+        private ProductCreatedEvent product(long productId, String sku, int initialStock) {
+            return ProductCreatedEvent.builder().productId(productId).sku(sku).initialStock(initialStock).build();
+        }
+
+        @Test
+        @DisplayName("should insert the batch in one statement and publish events for inserted rows only")
+        @SuppressWarnings("unchecked")
+        void shouldCreateBatchInOneInsert() {
+            Cache cache = mock(Cache.class);
+            when(cacheManager.getCache("stock")).thenReturn(cache);
+            when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("User"));
+            when(stockRepository.nextIdBlocks(1)).thenReturn(List.of(100L));
+            when(stockRepository.insertAllIfAbsent(new Long[]{51L, 52L},
+                    new Long[]{100L, 101L}, new String[]{"PROD-001", "PROD-002"}, new Integer[]{50, 5}, "User"))
+                    .thenReturn(List.of(stock));
+
+            List<Stock> created = inventoryService.createStocks(List.of(
+                    product(100L, "PROD-001", 50), product(100L, "PROD-001", 70), product(101L, "PROD-002", 5)));
+
+            assertThat(created).containsExactly(stock);
+            verify(cache).evict("PROD-001");
+            ArgumentCaptor<List<StockUpdatedEvent>> captor = ArgumentCaptor.forClass(List.class);
+            verify(outboxEventService).saveEvents(eq(TOPIC_STOCK_UPDATED), captor.capture(), any());
+            assertThat(captor.getValue()).singleElement().satisfies(event -> {
+                assertThat(event.getSku()).isEqualTo("PROD-001");
+                assertThat(event.getNewQuantity()).isEqualTo(50);
+                assertThat(event.getReason()).isEqualTo(StockUpdatedEvent.StockChangeReason.INITIAL);
+            });
+            verify(stockRepository, never()).save(any(Stock.class));
+        }
+
+        @Test
+        @DisplayName("should take ids from sequence blocks as the pooled generator does")
+        void shouldAllocateIdsFromSequenceBlocks() {
+            when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("User"));
+            when(stockRepository.nextIdBlocks(1)).thenReturn(List.of(1L), List.of(51L));
+
+            inventoryService.createStocks(List.of(
+                    product(100L, "PROD-001", 50), product(101L, "PROD-002", 5), product(102L, "PROD-003", 7)));
+
+            ArgumentCaptor<Long[]> ids = ArgumentCaptor.forClass(Long[].class);
+            verify(stockRepository).insertAllIfAbsent(ids.capture(), any(), any(), any(), eq("User"));
+            assertThat(ids.getValue()).containsExactly(1L, 2L, 3L);
+            verify(stockRepository, times(2)).nextIdBlocks(1);
         }
     }
 
@@ -81,22 +157,122 @@ class InventoryServiceTest {
     class GetStockBySku {
 
         @Test
-        @DisplayName("should return stock when found")
+        @DisplayName("should return snapshot of stock from the stock cache")
         void shouldReturnStock() {
-            when(stockRepository.findBySku("PROD-001")).thenReturn(Optional.of(stock));
+            StockSnapshot snapshot = StockSnapshot.of(
+                    StockResponseDTO.builder().id(1L).productId(100L).sku("PROD-001").quantity(50).minThreshold(10).build(),
+                    0L, "{\"sku\":\"PROD-001\"}");
+            when(cacheReader.getOrThrow(eq("stock"), eq("PROD-001"), eq(StockSnapshot.class), any())).thenReturn(snapshot);
 
-            Stock result = inventoryService.getStockBySku("PROD-001");
+            StockSnapshot result = inventoryService.getStockBySku("PROD-001");
 
             assertThat(result.getSku()).isEqualTo("PROD-001");
+            assertThat(result.getQuantity()).isEqualTo(50);
+            verifyNoInteractions(stockRepository);
         }
 
         @Test
         @DisplayName("should throw when SKU not found")
         void shouldThrowWhenNotFound() {
-            when(stockRepository.findBySku("NONEXISTENT")).thenReturn(Optional.empty());
+            when(cacheReader.getOrThrow(eq("stock"), eq("NONEXISTENT"), eq(StockSnapshot.class), any()))
+                    .thenAnswer(invocation -> {
+                        Supplier<? extends RuntimeException> notFound = invocation.getArgument(3);
+                        throw notFound.get();
+                    });
 
             assertThatThrownBy(() -> inventoryService.getStockBySku("NONEXISTENT"))
-                    .isInstanceOf(ProductNotFoundException.class);
+                    .isInstanceOf(ProductNotFoundException.class)
+                    .hasMessageContaining("NONEXISTENT");
+        }
+    }
+
+    @Nested
+    @DisplayName("getStockBySkus")
+    class GetStockBySkus {
+
+        @Test
+        @DisplayName("should resolve distinct SKUs in one cache read and list unknown SKUs as missing")
+        void shouldReportMissingSkus() {
+            StockSnapshot snapshot = StockSnapshot.of(
+                    StockResponseDTO.builder().id(1L).productId(100L).sku("PROD-001").quantity(50).build(),
+                    0L, "{\"sku\":\"PROD-001\"}");
+            when(cacheReader.getAll("stock", Set.of("PROD-001", "NONEXISTENT"), StockSnapshot.class))
+                    .thenReturn(Map.of("PROD-001", snapshot));
+
+            BulkResult<StockSnapshot> result = inventoryService.getStockBySkus(List.of("PROD-001", "NONEXISTENT", "PROD-001"));
+
+            assertThat(result.getItems()).containsExactly(snapshot);
+            assertThat(result.getMissing()).containsExactly("NONEXISTENT");
+            verifyNoInteractions(stockRepository);
+        }
+
+        @Test
+        @DisplayName("should reject more SKUs than one request may carry")
+        void shouldRejectTooManySkus() {
+            List<String> skus = IntStream.range(0, 501).mapToObj(i -> "PROD-" + i).toList();
+
+            assertThatThrownBy(() -> inventoryService.getStockBySkus(skus))
+                    .isInstanceOf(InvalidRequestException.class);
+            verifyNoInteractions(cacheReader);
+        }
+    }
+
+    @Nested
+    @DisplayName("getAllStock")
+    class GetAllStock {
+
+        @Test
+        @DisplayName("should seek past the cursor and report a next cursor when more rows exist")
+        void shouldSeekPastCursor() {
+            Stock second = Stock.builder().id(2L).productId(101L).sku("PROD-002").quantity(5).build();
+            Stock third = Stock.builder().id(3L).productId(102L).sku("PROD-003").quantity(5).build();
+            when(stockRepository.findBySkuGreaterThanOrderBySkuAsc("PROD-001", Limit.of(3)))
+                    .thenReturn(List.of(second, third, stock));
+
+            CursorSlice<Stock> result = inventoryService.getAllStock(new KeysetCursor("sku", "PROD-001").encode(), 2, "sku", false);
+
+            assertThat(result.getContent()).containsExactly(second, third);
+            assertThat(result.isHasNext()).isTrue();
+            assertThat(KeysetCursor.resolve(result.getNextCursor(), "sku").skuValue()).isEqualTo("PROD-003");
+            assertThat(result.getEstimatedTotal()).isNull();
+            verify(stockRepository, never()).estimateRowCount();
+        }
+
+        @Test
+        @DisplayName("should attach the estimated total only when requested")
+        void shouldAttachEstimatedTotal() {
+            when(stockRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(List.of(stock));
+            when(stockRepository.estimateRowCount()).thenReturn(2_000_000L);
+
+            CursorSlice<Stock> result = inventoryService.getAllStock(null, 20, "id", true);
+
+            assertThat(result.isHasNext()).isFalse();
+            assertThat(result.getEstimatedTotal()).isEqualTo(2_000_000L);
+        }
+
+        @Test
+        @DisplayName("should reject unsupported sort keys")
+        void shouldRejectUnsupportedSort() {
+            assertThatThrownBy(() -> inventoryService.getAllStock(null, 20, "quantity", false))
+                    .isInstanceOf(InvalidRequestException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("exportStock")
+    class ExportStock {
+
+        @Test
+        @DisplayName("should stream the stock table through the cursor exporter without touching JPA")
+        void shouldDelegateToExporter() throws Exception {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            when(jdbcStreamingExporter.export(InventoryServiceImpl.EXPORT_STOCK_SQL, ExportFormat.CSV, out))
+                    .thenReturn(3L);
+
+            long rows = inventoryService.exportStock(ExportFormat.CSV, out);
+
+            assertThat(rows).isEqualTo(3L);
+            verifyNoInteractions(stockRepository, cacheReader);
         }
     }
 
@@ -112,13 +288,29 @@ class InventoryServiceTest {
                     .id(1L).productId(100L).sku("PROD-001").quantity(70).build();
 
             when(stockRepository.findBySku("PROD-001")).thenReturn(Optional.of(stock));
-            when(stockRepository.save(any(Stock.class))).thenReturn(updatedStock);
+            when(stockRepository.saveAndFlush(any(Stock.class))).thenReturn(updatedStock);
 
             Stock result = inventoryService.restock("PROD-001", dto);
 
             assertThat(result.getQuantity()).isEqualTo(70);
             verify(outboxEventService).saveEvent(eq(TOPIC_STOCK_UPDATED), eq("PROD-001"), any());
-            verify(stockUpdateNotifier).notifyStockUpdate(updatedStock);
+        }
+
+        @Test
+        @DisplayName("should stamp event with the flushed row version")
+        void shouldStampEventWithVersion() {
+            StockUpdateDTO dto = StockUpdateDTO.builder().quantity(20).build();
+            Stock updatedStock = Stock.builder()
+                    .id(1L).productId(100L).sku("PROD-001").quantity(70).version(4L).build();
+
+            when(stockRepository.findBySku("PROD-001")).thenReturn(Optional.of(stock));
+            when(stockRepository.saveAndFlush(any(Stock.class))).thenReturn(updatedStock);
+
+            inventoryService.restock("PROD-001", dto);
+
+            ArgumentCaptor<StockUpdatedEvent> captor = ArgumentCaptor.forClass(StockUpdatedEvent.class);
+            verify(outboxEventService).saveEvent(eq(TOPIC_STOCK_UPDATED), eq("PROD-001"), captor.capture());
+            assertThat(captor.getValue().getVersion()).isEqualTo(4L);
         }
     }
 
@@ -134,7 +326,7 @@ class InventoryServiceTest {
                     .id(1L).productId(100L).sku("PROD-001").quantity(40).build();
 
             when(stockRepository.findBySku("PROD-001")).thenReturn(Optional.of(stock));
-            when(stockRepository.save(any(Stock.class))).thenReturn(updatedStock);
+            when(stockRepository.saveAndFlush(any(Stock.class))).thenReturn(updatedStock);
 
             Stock result = inventoryService.sell("PROD-001", dto);
 
@@ -168,7 +360,7 @@ class InventoryServiceTest {
                     .id(1L).productId(100L).sku("PROD-001").quantity(75).build();
 
             when(stockRepository.findBySku("PROD-001")).thenReturn(Optional.of(stock));
-            when(stockRepository.save(any(Stock.class))).thenReturn(updatedStock);
+            when(stockRepository.saveAndFlush(any(Stock.class))).thenReturn(updatedStock);
 
             Stock result = inventoryService.adjust("PROD-001", dto);
 
@@ -176,4 +368,35 @@ class InventoryServiceTest {
             verify(outboxEventService).saveEvent(eq(TOPIC_STOCK_UPDATED), eq("PROD-001"), any());
         }
     }
+
+    @Nested
+    @DisplayName("removeStock")
+    class RemoveStock {
+
+        @Test
+        @DisplayName("should delete the stock record and publish a REMOVED event")
+        void shouldDeleteAndPublishRemoved() {
+            when(stockRepository.findBySku("PROD-001")).thenReturn(Optional.of(stock));
+
+            inventoryService.removeStock("PROD-001");
+
+            verify(stockRepository).delete(stock);
+            ArgumentCaptor<StockUpdatedEvent> captor = ArgumentCaptor.forClass(StockUpdatedEvent.class);
+            verify(outboxEventService).saveEvent(eq(TOPIC_STOCK_UPDATED), eq("PROD-001"), captor.capture());
+            assertThat(captor.getValue().getReason()).isEqualTo(StockUpdatedEvent.StockChangeReason.REMOVED);
+            assertThat(captor.getValue().getPreviousQuantity()).isEqualTo(50);
+            assertThat(captor.getValue().getNewQuantity()).isZero();
+        }
+
+        @Test
+        @DisplayName("should throw when the SKU has no stock record")
+        void shouldThrowWhenMissing() {
+            when(stockRepository.findBySku("PROD-404")).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> inventoryService.removeStock("PROD-404"))
+                    .isInstanceOf(ProductNotFoundException.class);
+
+            verifyNoInteractions(outboxEventService);
+        }
+    }
 }
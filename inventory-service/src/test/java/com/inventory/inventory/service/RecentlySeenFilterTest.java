@@ -0,0 +1,50 @@
+package com.inventory.inventory.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentlySeenFilterTest {
+
+    @Test
+    @DisplayName("should recognise every recently added id")
+    void shouldRecogniseRecentIds() {
+        RecentlySeenFilter filter = new RecentlySeenFilter(1000);
+        String[] ids = IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        for (String id : ids) {
+            filter.add(id);
+        }
+
+        assertThat(ids).allMatch(filter::contains);
+    }
+
+    @Test
+    @DisplayName("should not report ids that were never added")
+    void shouldRejectUnknownIds() {
+        RecentlySeenFilter filter = new RecentlySeenFilter(1000);
+        IntStream.range(0, 1000).forEach(i -> filter.add(UUID.randomUUID().toString()));
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.contains(UUID.randomUUID().toString()))
+                .count();
+
+        assertThat(falsePositives).isZero();
+    }
+
+    @Test
+    @DisplayName("should keep recognising ids across a Bloom generation rollover")
+    void shouldSurviveGenerationRollover() {
+        RecentlySeenFilter filter = new RecentlySeenFilter(100);
+        String early = "evt-early";
+        filter.add(early);
+        // The 100th insertion starts a new generation; the early id is now only in the previous one
+        IntStream.range(0, 99).forEach(i -> filter.add("evt-" + i));
+
+        assertThat(filter.contains(early)).isTrue();
+    }
+}
@@ -1,47 +1,203 @@
 package com.inventory.inventory.websocket;
 
-import com.inventory.inventory.dto.StockResponseDTO;
-import com.inventory.inventory.entity.Stock;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.common.websocket.StockFilterIndex;
+import com.inventory.common.websocket.StompReplayBuffer;
+import com.inventory.common.websocket.StompSubscriptionRegistry;
+import com.inventory.inventory.dto.StockPushDTO;
 import com.inventory.inventory.mapper.StockMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class StockUpdateNotifierTest {
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private StompReplayBuffer replayBuffer;
 
     @Mock
     private StockMapper stockMapper;
 
-    @InjectMocks
+    @Mock
+    private StompSubscriptionRegistry subscriptionRegistry;
+
+    @Mock
+    private StockFilterIndex filterIndex;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private SimpleMeterRegistry meterRegistry;
     private StockUpdateNotifier stockUpdateNotifier;
 
-    @Test
-    @DisplayName("should send to both global and SKU-specific topics in one call")
-    void shouldSendToBothTopics() {
-        Stock stock = Stock.builder()
-                .id(2L)
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stockUpdateNotifier = new StockUpdateNotifier(
+                replayBuffer, stockMapper, subscriptionRegistry, filterIndex, objectMapper, meterRegistry);
+    }
+
+    private StockUpdatedEvent stock(String sku, int quantity, long version) {
+        StockUpdatedEvent event = StockUpdatedEvent.builder()
                 .productId(200L)
-                .sku("ELEC-042")
-                .quantity(0)
+                .sku(sku)
+                .newQuantity(quantity)
+                .minThreshold(5)
+                .version(version)
                 .build();
-        StockResponseDTO dto = StockResponseDTO.builder()
-                .id(2L).productId(200L).sku("ELEC-042").quantity(0).build();
-        when(stockMapper.toDTO(stock)).thenReturn(dto);
+        StockPushDTO dto = StockPushDTO.builder()
+                .productId(200L).sku(sku).quantity(quantity).minThreshold(5).updatedAt(event.getTimestamp()).build();
+        lenient().when(stockMapper.toPushDTO(event)).thenReturn(dto);
+        return event;
+    }
+
+    private void watchEverything() {
+        when(subscriptionRegistry.hasSubscribers(anyString())).thenReturn(true);
+    }
+
+    private JsonNode sentTo(String destination) throws Exception {
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(replayBuffer).send(eq(destination), captor.capture());
+        return objectMapper.readTree(captor.getValue());
+    }
+
+    private double frames(String destination) {
+        return meterRegistry.counter("websocket.frames", "destination", destination).count();
+    }
+
+    @Test
+    @DisplayName("should send one SKU frame and one batched broadcast frame per flush")
+    void shouldSendSkuAndBatchedBroadcastFrames() throws Exception {
+        watchEverything();
+        stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 0, 1));
+        stockUpdateNotifier.notifyStockUpdate(stock("ELEC-043", 7, 1));
+
+        stockUpdateNotifier.flush();
+
+        assertThat(sentTo("/topic/inventory/ELEC-042").get("quantity").asInt()).isZero();
+        assertThat(sentTo("/topic/inventory/ELEC-043").get("quantity").asInt()).isEqualTo(7);
+        JsonNode broadcast = sentTo("/topic/inventory");
+        assertThat(broadcast.isArray()).isTrue();
+        assertThat(broadcast).hasSize(2);
+        assertThat(frames("sku")).isEqualTo(2);
+        assertThat(frames("broadcast")).isEqualTo(1);
+        assertThat(meterRegistry.timer("websocket.delivery.lag").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should conflate repeated updates to the latest state of the SKU")
+    void shouldConflateToLatestState() throws Exception {
+        watchEverything();
+        stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 10, 1));
+        stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 9, 2));
+        stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 8, 3));
+
+        stockUpdateNotifier.flush();
+
+        assertThat(sentTo("/topic/inventory/ELEC-042").get("quantity").asInt()).isEqualTo(8);
+        JsonNode broadcast = sentTo("/topic/inventory");
+        assertThat(broadcast).hasSize(1);
+        assertThat(broadcast.get(0).get("quantity").asInt()).isEqualTo(8);
+        assertThat(meterRegistry.counter("websocket.updates.conflated").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should keep the higher version when commits arrive out of order")
+    void shouldKeepHigherVersion() throws Exception {
+        watchEverything();
+        stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 8, 3));
+        stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 9, 2));
+
+        stockUpdateNotifier.flush();
+
+        assertThat(sentTo("/topic/inventory/ELEC-042").get("quantity").asInt()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("should send nothing when no updates are buffered")
+    void shouldSkipEmptyFlush() {
+        stockUpdateNotifier.flush();
+
+        verifyNoInteractions(replayBuffer);
+    }
+
+    @Nested
+    @DisplayName("subscriptions")
+    class Subscriptions {
+
+        @Test
+        @DisplayName("should not map or buffer updates for SKUs nobody watches")
+        void shouldSkipUnwatchedSku() {
+            stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 0, 1));
+            stockUpdateNotifier.flush();
+
+            verify(stockMapper, never()).toPushDTO(any(StockUpdatedEvent.class));
+            verifyNoInteractions(replayBuffer);
+        }
+
+        @Test
+        @DisplayName("should send only the SKU frame when nobody watches the broadcast topic")
+        void shouldSendOnlyWatchedSkuTopic() throws Exception {
+            when(subscriptionRegistry.hasSubscribers("/topic/inventory")).thenReturn(false);
+            when(subscriptionRegistry.hasSubscribers("/topic/inventory/ELEC-042")).thenReturn(true);
+
+            stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 0, 1));
+            stockUpdateNotifier.flush();
+
+            assertThat(sentTo("/topic/inventory/ELEC-042").get("sku").asText()).isEqualTo("ELEC-042");
+            verify(replayBuffer, never()).send(eq("/topic/inventory"), any(byte[].class));
+        }
+    }
+
+    @Nested
+    @DisplayName("filtered subscriptions")
+    class FilteredSubscriptions {
+
+        private static final String LOW_STOCK = "/topic/inventory/filtered/lowStock=true";
+
+        @Test
+        @DisplayName("should batch only the matching SKUs onto the filtered topic")
+        void shouldSendMatchingSkusToFilter() throws Exception {
+            when(filterIndex.matchesAny(anyString(), anyInt(), anyInt())).thenReturn(true);
+            when(filterIndex.matching("ELEC-042", 2, 5)).thenReturn(List.of(LOW_STOCK));
+            when(filterIndex.matching("ELEC-043", 40, 5)).thenReturn(List.of());
+
+            stockUpdateNotifier.notifyStockUpdate(stock("ELEC-042", 2, 1));
+            stockUpdateNotifier.notifyStockUpdate(stock("ELEC-043", 40, 1));
+            stockUpdateNotifier.flush();
+
+            JsonNode filtered = sentTo(LOW_STOCK);
+            assertThat(filtered).hasSize(1);
+            assertThat(filtered.get(0).get("sku").asText()).isEqualTo("ELEC-042");
+            assertThat(frames("filtered")).isEqualTo(1);
+            verifyNoMoreInteractions(replayBuffer);
+        }
 
-        stockUpdateNotifier.notifyStockUpdate(stock);
+        @Test
+        @DisplayName("should not map updates that match no subscribed filter")
+        void shouldSkipUpdatesMatchingNoFilter() {
+            stockUpdateNotifier.notifyStockUpdate(stock("ELEC-043", 40, 1));
+            stockUpdateNotifier.flush();
 
-        verify(messagingTemplate).convertAndSend("/topic/inventory", dto);
-        verify(messagingTemplate).convertAndSend("/topic/inventory/ELEC-042", dto);
+            verify(filterIndex).matchesAny("ELEC-043", 40, 5);
+            verify(stockMapper, never()).toPushDTO(any(StockUpdatedEvent.class));
+            verifyNoInteractions(replayBuffer);
+        }
     }
 }
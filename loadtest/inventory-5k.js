@@ -0,0 +1,90 @@
+// Throughput and tail latency of the inventory service under 5,000 concurrent connections.
+//
+// Run once per thread mode and compare http_reqs (rate) and http_req_duration p(99) in the summaries:
+//
+//   VIRTUAL_THREADS_ENABLED=false docker compose up -d --build   # platform threads
+//   k6 run -e MODE=platform --summary-export=platform.json loadtest/inventory-5k.js
+//   VIRTUAL_THREADS_ENABLED=true docker compose up -d            # virtual threads
+//   k6 run -e MODE=virtual --summary-export=virtual.json loadtest/inventory-5k.js
+//
+// The concurrency limiter must be turned off for the run (see README, "Virtual threads"),
+// otherwise requests are shed with 429 and the test measures the limiter instead.
+// Pass -e SEED=true on the first run to create SKU_COUNT products through the product service.
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const INVENTORY_URL = __ENV.INVENTORY_URL || 'http://localhost:8082';
+const PRODUCT_URL = __ENV.PRODUCT_URL || 'http://localhost:8081';
+const SKU_COUNT = parseInt(__ENV.SKU_COUNT || '1000', 10);
+const VUS = parseInt(__ENV.VUS || '5000', 10);
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+// optimistic-lock conflicts that exhaust their retries are an expected outcome, not a failure
+http.setResponseCallback(http.expectedStatuses(200, 409));
+
+export const options = {
+    scenarios: {
+        connections: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    setupTimeout: '10m',
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    tags: { mode: __ENV.MODE || 'unknown' },
+};
+
+function sku(i) {
+    return 'LOAD-' + String(i).padStart(6, '0');
+}
+
+function randomSku() {
+    return sku(1 + Math.floor(Math.random() * SKU_COUNT));
+}
+
+export function setup() {
+    if (__ENV.SEED !== 'true') {
+        return;
+    }
+    for (let i = 1; i <= SKU_COUNT; i++) {
+        http.post(`${PRODUCT_URL}/api/v1/products`, JSON.stringify({
+            sku: sku(i),
+            name: `Load test product ${i}`,
+            category: 'LoadTest',
+            price: 9.99,
+            initialStock: 1000000,
+        }), JSON_HEADERS);
+    }
+    // stock records are created asynchronously from product events
+    sleep(10);
+}
+
+export default function () {
+    const roll = Math.random();
+    if (roll < 0.80) {
+        const res = http.get(`${INVENTORY_URL}/api/v1/inventory/${randomSku()}`,
+            { tags: { name: 'GET /inventory/{sku}' } });
+        check(res, { 'read ok': (r) => r.status === 200 });
+    } else if (roll < 0.90) {
+        const skus = Array.from({ length: 50 }, randomSku).join(',');
+        const res = http.get(`${INVENTORY_URL}/api/v1/inventory/bulk?skus=${skus}`,
+            { tags: { name: 'GET /inventory/bulk' } });
+        check(res, { 'bulk ok': (r) => r.status === 200 });
+    } else {
+        // writes go through JDBC, the outbox and the MongoDB event store: the blocking path
+        const op = roll < 0.95 ? 'sell' : 'restock';
+        const res = http.put(`${INVENTORY_URL}/api/v1/inventory/${randomSku()}/${op}`,
+            JSON.stringify({ quantity: 1, reason: 'load test' }), { ...JSON_HEADERS, tags: { name: `PUT /inventory/{sku}/${op}` } });
+        check(res, { 'write ok': (r) => r.status === 200 || r.status === 409 });
+    }
+}
@@ -0,0 +1,60 @@
+package com.inventory.product.cache;
+
+import com.inventory.common.cache.CacheValueLoader;
+import com.inventory.common.cache.NegativeCacheEntry;
+import com.inventory.product.entity.Product;
+import com.inventory.product.mapper.ProductMapper;
+import com.inventory.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Loads {@code products} cache entries. Products are cached under both their ID ({@code Long})
+ * and their SKU ({@code String}); the key type selects the lookup.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCacheLoader implements CacheValueLoader {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+
+    @Override
+    public String getCacheName() {
+        return PRODUCTS_CACHE;
+    }
+
+    @Override
+    public Object load(Object key) {
+        Optional<Product> product = key instanceof Long id
+                ? productRepository.findById(id)
+                : productRepository.findBySku((String) key);
+        return product.<Object>map(productMapper::toDTO).orElse(NegativeCacheEntry.INSTANCE);
+    }
+
+    /** Loads all missing keys of a bulk read with at most one query per key type. */
+    @Override
+    public Map<Object, Object> loadAll(Set<?> keys) {
+        List<Long> ids = keys.stream().filter(Long.class::isInstance).map(Long.class::cast).toList();
+        String[] skus = keys.stream().filter(String.class::isInstance).map(String.class::cast).toArray(String[]::new);
+        Map<Object, Object> values = new HashMap<>();
+        if (!ids.isEmpty()) {
+            productRepository.findAllById(ids)
+                    .forEach(product -> values.put(product.getId(), productMapper.toDTO(product)));
+        }
+        if (skus.length > 0) {
+            productRepository.findAllBySkuIn(skus)
+                    .forEach(product -> values.put(product.getSku(), productMapper.toDTO(product)));
+        }
+        keys.forEach(key -> values.putIfAbsent(key, NegativeCacheEntry.INSTANCE));
+        return values;
+    }
+}
@@ -1,21 +1,29 @@
 package com.inventory.product.controller;
 
 import com.inventory.common.dto.ApiResponse;
+import com.inventory.common.dto.BulkLookupRequest;
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
+import com.inventory.common.dto.KeysetCursor;
 import com.inventory.common.dto.ProductDTO;
+import com.inventory.common.idempotency.IdempotencyAspect;
+import com.inventory.common.idempotency.Idempotent;
+import com.inventory.common.limit.ConcurrencyLimited;
+import com.inventory.common.limit.Priority;
 import com.inventory.product.service.ProductService;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/products")
 @RequiredArgsConstructor
@@ -26,12 +34,16 @@ public class ProductController {
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a product and publishes a ProductCreatedEvent to Kafka. The inventory service will automatically create a stock record.")
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, description = "Client-generated key; a retry with the same key and request replays the first response instead of applying the change again", example = "6f1c2a9e-8d4b-4c1e-9a57-0b6c3f2d1e84")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Product created successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Validation error (missing required fields or invalid values)"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Idempotency key is still in use by another request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "writeApi")
+    @ConcurrencyLimited
+    @Idempotent
     public ResponseEntity<ApiResponse<ProductDTO>> createProduct(
             @Valid @RequestBody ProductDTO productDTO) {
         ProductDTO created = productService.createProduct(productDTO);
@@ -45,9 +57,9 @@ public class ProductController {
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product found"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
+    @ConcurrencyLimited
     public ResponseEntity<ApiResponse<ProductDTO>> getProductById(
             @Parameter(description = "Product ID", example = "1") @PathVariable Long id) {
         ProductDTO product = productService.getProductById(id);
@@ -59,36 +71,71 @@ public class ProductController {
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product found"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
+    @ConcurrencyLimited
     public ResponseEntity<ApiResponse<ProductDTO>> getProductBySku(
             @Parameter(description = "Stock keeping unit identifier", example = "PROD-001") @PathVariable String sku) {
         ProductDTO product = productService.getProductBySku(sku);
         return ResponseEntity.ok(ApiResponse.success(product));
     }
 
+    @GetMapping("/bulk")
+    @Operation(summary = "Get many products by SKU", description = "Resolves up to 500 comma-separated SKUs in one call, served from the cache with all misses loaded by a single query. Unknown SKUs are listed under 'missing' instead of failing the request.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products found, plus unknown SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No SKUs or more than 500 SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
+    })
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<ApiResponse<BulkResult<ProductDTO>>> getProductsBySkus(
+            @Parameter(description = "Comma-separated SKUs", example = "PROD-001,PROD-002") @RequestParam List<String> skus) {
+        return ResponseEntity.ok(ApiResponse.success(productService.getProductsBySkus(skus)));
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Get many products by SKU (request body)", description = "Same as GET /bulk with the SKUs in the request body, for lists too long for a URL.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Products found, plus unknown SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No SKUs or more than 500 SKUs"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
+    })
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<ApiResponse<BulkResult<ProductDTO>>> getProductsBySkusFromBody(
+            @Valid @RequestBody BulkLookupRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(productService.getProductsBySkus(request.getSkus())));
+    }
+
     @GetMapping
-    @Operation(summary = "Get all products (paginated)", description = "Returns a paginated list of all products. Use query parameters: page, size, sort.")
+    @Operation(summary = "Get all products (cursor-paginated)", description = "Returns one slice of products ordered by the sort key. Pass the returned nextCursor as 'after' to read the next slice. No exact total is computed; set includeTotal=true for an estimate from database statistics.")
     @ApiResponses({
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Page of products returned"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Slice of products returned"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported sort key or malformed cursor"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
-    public ResponseEntity<ApiResponse<Page<ProductDTO>>> getAllProducts(Pageable pageable) {
-        Page<ProductDTO> products = productService.getAllProducts(pageable);
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<ApiResponse<CursorSlice<ProductDTO>>> getAllProducts(
+            @Parameter(description = "Cursor returned as nextCursor by the previous slice") @RequestParam(required = false) String after,
+            @Parameter(description = "Slice size (1-500)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort key: id or sku", example = "id") @RequestParam(defaultValue = KeysetCursor.SORT_ID) String sort,
+            @Parameter(description = "Attach an estimated total row count") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        CursorSlice<ProductDTO> products = productService.getAllProducts(after, size, sort, includeTotal);
         return ResponseEntity.ok(ApiResponse.success(products));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a product", description = "Updates product fields and publishes a ProductUpdatedEvent to Kafka.")
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, description = "Client-generated key; a retry with the same key and request replays the first response instead of applying the change again", example = "6f1c2a9e-8d4b-4c1e-9a57-0b6c3f2d1e84")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product updated successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Validation error"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Idempotency key is still in use by another request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "writeApi")
+    @ConcurrencyLimited
+    @Idempotent
     public ResponseEntity<ApiResponse<ProductDTO>> updateProduct(
             @Parameter(description = "Product ID", example = "1") @PathVariable Long id,
             @Valid @RequestBody ProductDTO productDTO) {
@@ -98,12 +145,16 @@ public class ProductController {
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a product", description = "Deletes a product and publishes a ProductDeletedEvent to Kafka. The inventory service will remove the corresponding stock record.")
+    @Parameter(in = ParameterIn.HEADER, name = IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, description = "Client-generated key; a retry with the same key and request replays the first response instead of applying the change again", example = "6f1c2a9e-8d4b-4c1e-9a57-0b6c3f2d1e84")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product deleted successfully"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Product not found"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Idempotency key is still in use by another request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "writeApi")
+    @ConcurrencyLimited
+    @Idempotent
     public ResponseEntity<ApiResponse<Void>> deleteProduct(
             @Parameter(description = "Product ID", example = "1") @PathVariable Long id) {
         productService.deleteProduct(id);
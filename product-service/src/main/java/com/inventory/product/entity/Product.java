@@ -8,6 +8,7 @@ import java.math.BigDecimal;
 
 /**
  * JPA entity representing a product in the catalog, stored in the {@code product_db} database.
+ * The {@code @Version} column orders cross-replica cache invalidations and guards concurrent updates.
  */
 @Entity
 @Table(name = "products")
@@ -36,4 +37,7 @@ public class Product extends BaseEntity {
 
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
+
+    @Version
+    private Long version;
 }
@@ -0,0 +1,55 @@
+package com.inventory.product.kafka;
+
+import com.inventory.common.cache.CacheInvalidator;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.ProductCreatedEvent;
+import com.inventory.common.event.ProductDeletedEvent;
+import com.inventory.common.event.ProductUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static com.inventory.common.cache.CacheInvalidationKafkaConfig.CACHE_INVALIDATION_CONTAINER_FACTORY;
+import static com.inventory.common.constants.KafkaConstants.*;
+
+/**
+ * Keeps the {@code products} cache coherent across replicas. Products are cached under both their ID and
+ * their SKU, so every product event invalidates both keys on every replica.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidationListener {
+
+    private static final String PRODUCTS_CACHE = "products";
+
+    private final CacheInvalidator cacheInvalidator;
+    private final EventCodecs eventCodecs;
+
+    @KafkaListener(topics = {TOPIC_PRODUCT_CREATED, TOPIC_PRODUCT_UPDATED, TOPIC_PRODUCT_DELETED},
+            containerFactory = CACHE_INVALIDATION_CONTAINER_FACTORY)
+    public void onEvent(ConsumerRecord<String, String> record) {
+        switch (record.topic()) {
+            case TOPIC_PRODUCT_CREATED -> {
+                ProductCreatedEvent event = eventCodecs.decode(record, ProductCreatedEvent.class);
+                cacheInvalidator.evictIfOlder(PRODUCTS_CACHE, event.getProductId(), 0L);
+                cacheInvalidator.evictIfOlder(PRODUCTS_CACHE, event.getSku(), 0L);
+            }
+            case TOPIC_PRODUCT_UPDATED -> {
+                ProductUpdatedEvent event = eventCodecs.decode(record, ProductUpdatedEvent.class);
+                cacheInvalidator.evictIfOlder(PRODUCTS_CACHE, event.getProductId(), event.getVersion());
+                cacheInvalidator.evictIfOlder(PRODUCTS_CACHE, event.getSku(), event.getVersion());
+            }
+            case TOPIC_PRODUCT_DELETED -> {
+                ProductDeletedEvent event = eventCodecs.decode(record, ProductDeletedEvent.class);
+                cacheInvalidator.evictDeleted(PRODUCTS_CACHE, event.getProductId());
+                cacheInvalidator.evictDeleted(PRODUCTS_CACHE, event.getSku());
+            }
+            default -> log.warn("Ignoring cache invalidation from unexpected topic: {}", record.topic());
+        }
+    }
+}
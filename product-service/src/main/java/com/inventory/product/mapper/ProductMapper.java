@@ -18,6 +18,7 @@ public interface ProductMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "modifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Product toEntity(ProductDTO dto);
 
     @Mapping(target = "id", ignore = true)
@@ -26,5 +27,6 @@ public interface ProductMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "modifiedBy", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(ProductDTO dto, @MappingTarget Product product);
 }
@@ -1,9 +1,13 @@
 package com.inventory.product.repository;
 
 import com.inventory.product.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,4 +17,18 @@ import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findBySku(String sku);
+
+    /** Multi-SKU lookup as one statement with a single array parameter, so the plan is the same for any count. */
+    @Query(value = "SELECT * FROM products WHERE sku = ANY(:skus)", nativeQuery = true)
+    List<Product> findAllBySkuIn(@Param("skus") String[] skus);
+
+    // Keyset pagination: seek on the primary key / unique SKU index, no OFFSET and no count query
+    List<Product> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    List<Product> findBySkuGreaterThanOrderBySkuAsc(String sku, Limit limit);
+
+    /** Planner estimate of the row count, maintained by ANALYZE/autovacuum; never runs a table scan. */
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS BIGINT) FROM pg_class WHERE oid = CAST('products' AS regclass)",
+            nativeQuery = true)
+    long estimateRowCount();
 }
@@ -1,8 +1,10 @@
 package com.inventory.product.service;
 
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
 import com.inventory.common.dto.ProductDTO;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
 
 /**
  * Service interface for managing products. Implementations publish Kafka events
@@ -19,8 +21,18 @@ public interface ProductService {
     /** Retrieves a product by its unique SKU. */
     ProductDTO getProductBySku(String sku);
 
-    /** Returns a paginated list of all products. */
-    Page<ProductDTO> getAllProducts(Pageable pageable);
+    /** Resolves many SKUs at once; unknown SKUs are listed in the result instead of throwing. */
+    BulkResult<ProductDTO> getProductsBySkus(Collection<String> skus);
+
+    /**
+     * Returns one keyset-paginated slice of products.
+     *
+     * @param after                 cursor from the previous slice, or {@code null} for the first
+     * @param size                  requested slice size (clamped to 1..500)
+     * @param sort                  {@code id} or {@code sku}
+     * @param includeEstimatedTotal whether to attach the planner's row-count estimate
+     */
+    CursorSlice<ProductDTO> getAllProducts(String after, int size, String sort, boolean includeEstimatedTotal);
 
     /** Updates a product and publishes a {@code ProductUpdatedEvent}. */
     ProductDTO updateProduct(Long id, ProductDTO productDTO);
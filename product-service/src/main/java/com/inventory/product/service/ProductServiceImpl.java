@@ -1,24 +1,34 @@
 package com.inventory.product.service;
 
+import com.inventory.common.cache.CacheReader;
+import com.inventory.common.dto.BulkLookupRequest;
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
+import com.inventory.common.dto.KeysetCursor;
 import com.inventory.common.dto.ProductDTO;
 import com.inventory.common.event.ProductCreatedEvent;
 import com.inventory.common.event.ProductDeletedEvent;
 import com.inventory.common.event.ProductUpdatedEvent;
 import com.inventory.common.exception.ProductNotFoundException;
 import com.inventory.common.outbox.OutboxEventService;
+import com.inventory.product.cache.ProductCacheLoader;
 import com.inventory.product.entity.Product;
 import com.inventory.product.mapper.ProductMapper;
 import com.inventory.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static com.inventory.common.constants.KafkaConstants.*;
+import static com.inventory.product.cache.ProductCacheLoader.PRODUCTS_CACHE;
 
 /**
  * Implementation of {@link ProductService}.
@@ -32,9 +42,11 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final OutboxEventService outboxEventService;
+    private final CacheReader cacheReader;
 
     @Override
     @Transactional
+    @CacheEvict(value = "products", key = "#productDTO.sku")
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = productMapper.toEntity(productDTO);
         Product saved = productRepository.save(product);
@@ -53,28 +65,50 @@ public class ProductServiceImpl implements ProductService {
         return productMapper.toDTO(saved);
     }
 
+    /**
+     * Reads through the {@code products} cache. Misses are loaded once per key by {@link ProductCacheLoader}
+     * and unknown IDs are cached briefly as negative entries.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "products", key = "#id")
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
-        return productMapper.toDTO(product);
+        return cacheReader.getOrThrow(PRODUCTS_CACHE, id, ProductDTO.class, () -> new ProductNotFoundException(id));
     }
 
+    /**
+     * Reads through the {@code products} cache. Misses are loaded once per key by {@link ProductCacheLoader}
+     * and unknown SKUs are cached briefly as negative entries.
+     */
     @Override
-    @Transactional(readOnly = true)
-    @Cacheable(value = "products", key = "#sku")
     public ProductDTO getProductBySku(String sku) {
-        Product product = productRepository.findBySku(sku)
-                .orElseThrow(() -> new ProductNotFoundException(sku));
-        return productMapper.toDTO(product);
+        return cacheReader.getOrThrow(PRODUCTS_CACHE, sku, ProductDTO.class, () -> new ProductNotFoundException(sku));
+    }
+
+    /**
+     * Reads every cached SKU with one bulk cache lookup and loads all misses with a single
+     * {@code sku = ANY(?)} query, caching them (unknown SKUs as negative entries) for later reads.
+     */
+    @Override
+    public BulkResult<ProductDTO> getProductsBySkus(Collection<String> skus) {
+        Set<String> distinct = BulkLookupRequest.distinctSkus(skus);
+        Map<String, ProductDTO> found = cacheReader.getAll(PRODUCTS_CACHE, distinct, ProductDTO.class);
+        return BulkResult.of(distinct, found);
     }
 
+    /**
+     * Keyset-paginated listing: an index seek past the cursor's last key with {@code LIMIT size + 1},
+     * never an {@code OFFSET} scan or {@code count(*)}.
+     */
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductDTO> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
+    public CursorSlice<ProductDTO> getAllProducts(String after, int size, String sort, boolean includeEstimatedTotal) {
+        KeysetCursor cursor = KeysetCursor.resolve(after, sort);
+        int limit = KeysetCursor.clampSize(size);
+        List<Product> rows = cursor.sortedBySku()
+                ? productRepository.findBySkuGreaterThanOrderBySkuAsc(cursor.skuValue(), Limit.of(limit + 1))
+                : productRepository.findByIdGreaterThanOrderByIdAsc(cursor.idValue(), Limit.of(limit + 1));
+        Long estimatedTotal = includeEstimatedTotal ? productRepository.estimateRowCount() : null;
+        return CursorSlice.fromOverfetch(rows, limit, cursor,
+                        product -> cursor.sortedBySku() ? product.getSku() : String.valueOf(product.getId()), estimatedTotal)
                 .map(productMapper::toDTO);
     }
 
@@ -85,7 +119,8 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
         productMapper.updateEntity(productDTO, product);
-        Product updated = productRepository.save(product);
+        // Flush so the event carries the incremented version that orders cache invalidations
+        Product updated = productRepository.saveAndFlush(product);
         log.info("Product updated: sku={}", updated.getSku());
 
         ProductUpdatedEvent event = ProductUpdatedEvent.builder()
@@ -94,6 +129,7 @@ public class ProductServiceImpl implements ProductService {
                 .name(updated.getName())
                 .category(updated.getCategory())
                 .price(updated.getPrice())
+                .version(updated.getVersion())
                 .build();
         outboxEventService.saveEvent(TOPIC_PRODUCT_UPDATED, updated.getSku(), event);
 
@@ -0,0 +1 @@
+ALTER TABLE outbox_events ADD COLUMN content_type VARCHAR(100) NOT NULL DEFAULT 'application/json';
@@ -0,0 +1,73 @@
+package com.inventory.product.cache;
+
+import com.inventory.common.cache.NegativeCacheEntry;
+import com.inventory.common.dto.ProductDTO;
+import com.inventory.product.entity.Product;
+import com.inventory.product.mapper.ProductMapper;
+import com.inventory.product.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheLoaderTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @InjectMocks
+    private ProductCacheLoader productCacheLoader;
+
+    @Test
+    @DisplayName("should load by ID for Long keys and by SKU for String keys")
+    void shouldLoadByKeyType() {
+        Product product = Product.builder().id(1L).sku("PROD-001").build();
+        ProductDTO dto = ProductDTO.builder().id(1L).sku("PROD-001").build();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findBySku("PROD-001")).thenReturn(Optional.of(product));
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        assertThat(productCacheLoader.load(1L)).isSameAs(dto);
+        assertThat(productCacheLoader.load("PROD-001")).isSameAs(dto);
+    }
+
+    @Test
+    @DisplayName("should load a negative entry for an unknown key")
+    void shouldLoadNegativeEntry() {
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThat(productCacheLoader.load(99L)).isSameAs(NegativeCacheEntry.INSTANCE);
+    }
+
+    @Test
+    @DisplayName("should bulk-load SKU keys with one query and mark the unknown ones negative")
+    void shouldBulkLoadSkus() {
+        Product product = Product.builder().id(1L).sku("PROD-001").build();
+        ProductDTO dto = ProductDTO.builder().id(1L).sku("PROD-001").build();
+        when(productRepository.findAllBySkuIn(any(String[].class))).thenReturn(List.of(product));
+        when(productMapper.toDTO(product)).thenReturn(dto);
+
+        Map<Object, Object> values = productCacheLoader.loadAll(new LinkedHashSet<>(List.of("PROD-001", "NONEXISTENT")));
+
+        assertThat(values).containsEntry("PROD-001", dto)
+                .containsEntry("NONEXISTENT", NegativeCacheEntry.INSTANCE);
+        verify(productRepository, never()).findAllById(any());
+    }
+}
@@ -1,5 +1,9 @@
 package com.inventory.product.service;
 
+import com.inventory.common.cache.CacheReader;
+import com.inventory.common.dto.BulkResult;
+import com.inventory.common.dto.CursorSlice;
+import com.inventory.common.dto.KeysetCursor;
 import com.inventory.common.dto.ProductDTO;
 import com.inventory.common.exception.ProductNotFoundException;
 import com.inventory.common.outbox.OutboxEventService;
@@ -14,9 +18,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static com.inventory.common.constants.KafkaConstants.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,6 +45,9 @@ class ProductServiceTest {
     @Mock
     private OutboxEventService outboxEventService;
 
+    @Mock
+    private CacheReader cacheReader;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -88,21 +100,24 @@ class ProductServiceTest {
     class GetProductById {
 
         @Test
-        @DisplayName("should return product when found")
+        @DisplayName("should return product from the products cache")
         void shouldReturnProductWhenFound() {
-            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-            when(productMapper.toDTO(product)).thenReturn(productDTO);
+            when(cacheReader.getOrThrow(eq("products"), eq(1L), eq(ProductDTO.class), any())).thenReturn(productDTO);
 
             ProductDTO result = productService.getProductById(1L);
 
             assertThat(result).isEqualTo(productDTO);
-            verify(productRepository).findById(1L);
+            verifyNoInteractions(productRepository);
         }
 
         @Test
         @DisplayName("should throw ProductNotFoundException when not found")
         void shouldThrowWhenNotFound() {
-            when(productRepository.findById(99L)).thenReturn(Optional.empty());
+            when(cacheReader.getOrThrow(eq("products"), eq(99L), eq(ProductDTO.class), any()))
+                    .thenAnswer(invocation -> {
+                        Supplier<? extends RuntimeException> notFound = invocation.getArgument(3);
+                        throw notFound.get();
+                    });
 
             assertThatThrownBy(() -> productService.getProductById(99L))
                     .isInstanceOf(ProductNotFoundException.class)
@@ -110,6 +125,111 @@ class ProductServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getProductsBySkus")
+    class GetProductsBySkus {
+
+        @Test
+        @DisplayName("should resolve SKUs in one cache read and list unknown SKUs as missing")
+        void shouldReportMissingSkus() {
+            ProductDTO dto = ProductDTO.builder().id(1L).sku("PROD-001").name("Test Product").build();
+            when(cacheReader.getAll("products", Set.of("PROD-001", "NONEXISTENT"), ProductDTO.class))
+                    .thenReturn(Map.of("PROD-001", dto));
+
+            BulkResult<ProductDTO> result = productService.getProductsBySkus(List.of("PROD-001", "NONEXISTENT"));
+
+            assertThat(result.getItems()).containsExactly(dto);
+            assertThat(result.getMissing()).containsExactly("NONEXISTENT");
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("getAllProducts")
+    class GetAllProducts {
+
+        private Product second;
+        private Product third;
+
+        @BeforeEach
+        void setUp() {
+            second = Product.builder().id(2L).sku("PROD-002").name("Second").price(BigDecimal.TEN).build();
+            third = Product.builder().id(3L).sku("PROD-003").name("Third").price(BigDecimal.TEN).build();
+            when(productMapper.toDTO(any(Product.class))).thenAnswer(invocation -> {
+                Product row = invocation.getArgument(0);
+                return ProductDTO.builder().id(row.getId()).sku(row.getSku()).build();
+            });
+        }
+
+        @Test
+        @DisplayName("should read the first page by id from the start of the index")
+        void shouldReadFirstPage() {
+            when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3)))
+                    .thenReturn(List.of(product, second, third));
+
+            CursorSlice<ProductDTO> result = productService.getAllProducts(null, 2, "id", false);
+
+            assertThat(result.getContent()).extracting(ProductDTO::getId).containsExactly(1L, 2L);
+            assertThat(result.isHasNext()).isTrue();
+            assertThat(KeysetCursor.resolve(result.getNextCursor(), "id").idValue()).isEqualTo(2L);
+            verify(productRepository, never()).findBySkuGreaterThanOrderBySkuAsc(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("should seek past an id cursor")
+        void shouldSeekPastIdCursor() {
+            when(productRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(3))).thenReturn(List.of(second, third));
+
+            CursorSlice<ProductDTO> result = productService.getAllProducts(
+                    new KeysetCursor("id", "1").encode(), 2, "id", false);
+
+            assertThat(result.getContent()).extracting(ProductDTO::getId).containsExactly(2L, 3L);
+        }
+
+        @Test
+        @DisplayName("should seek past a sku cursor and report a next cursor when more rows exist")
+        void shouldSeekPastSkuCursor() {
+            Product fourth = Product.builder().id(4L).sku("PROD-004").name("Fourth").price(BigDecimal.TEN).build();
+            when(productRepository.findBySkuGreaterThanOrderBySkuAsc("PROD-001", Limit.of(3)))
+                    .thenReturn(List.of(second, third, fourth));
+
+            CursorSlice<ProductDTO> result = productService.getAllProducts(
+                    new KeysetCursor("sku", "PROD-001").encode(), 2, "sku", false);
+
+            assertThat(result.getContent()).extracting(ProductDTO::getSku).containsExactly("PROD-002", "PROD-003");
+            assertThat(result.isHasNext()).isTrue();
+            assertThat(KeysetCursor.resolve(result.getNextCursor(), "sku").skuValue()).isEqualTo("PROD-003");
+            verify(productRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("should report no next cursor on the last page")
+        void shouldEndOnLastPage() {
+            when(productRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(third));
+
+            CursorSlice<ProductDTO> result = productService.getAllProducts(
+                    new KeysetCursor("id", "2").encode(), 2, "id", false);
+
+            assertThat(result.getContent()).extracting(ProductDTO::getId).containsExactly(3L);
+            assertThat(result.isHasNext()).isFalse();
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should attach the estimated total only when requested")
+        void shouldAttachEstimatedTotalOnlyWhenRequested() {
+            when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(21))).thenReturn(List.of(product));
+            when(productRepository.estimateRowCount()).thenReturn(2_000_000L);
+
+            CursorSlice<ProductDTO> withTotal = productService.getAllProducts(null, 20, "id", true);
+            CursorSlice<ProductDTO> withoutTotal = productService.getAllProducts(null, 20, "id", false);
+
+            assertThat(withTotal.getEstimatedTotal()).isEqualTo(2_000_000L);
+            assertThat(withoutTotal.getEstimatedTotal()).isNull();
+            verify(productRepository, times(1)).estimateRowCount();
+        }
+    }
+
     @Nested
     @DisplayName("updateProduct")
     class UpdateProduct {
@@ -129,7 +249,7 @@ class ProductServiceTest {
                     .build();
 
             when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-            when(productRepository.save(product)).thenReturn(product);
+            when(productRepository.saveAndFlush(product)).thenReturn(product);
             when(productMapper.toDTO(product)).thenReturn(updatedDTO);
 
             ProductDTO result = productService.updateProduct(1L, updateDTO);
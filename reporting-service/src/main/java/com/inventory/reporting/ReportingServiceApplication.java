@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(scanBasePackages = "com.inventory")
 @EntityScan(basePackages = "com.inventory")
 @EnableJpaRepositories(basePackages = "com.inventory")
+@EnableScheduling
 public class ReportingServiceApplication {
 
     public static void main(String[] args) {
@@ -1,5 +1,6 @@
 package com.inventory.reporting.config;
 
+import com.inventory.common.retry.TieredRetry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -9,10 +10,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
-import org.springframework.kafka.listener.CommonErrorHandler;
-import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
-import org.springframework.kafka.listener.DefaultErrorHandler;
-import org.springframework.util.backoff.FixedBackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,14 +19,25 @@ import static com.inventory.common.constants.KafkaConstants.GROUP_REPORTING_SERV
 
 /**
  * Kafka consumer configuration for the reporting service.
- * Sets up JSON deserialization, dead letter topic error handling, and a producer for DLT publishing.
+ * Sets up JSON deserialization, tiered retry topics in front of the dead letter topic (see {@link TieredRetry}),
+ * and a producer for retry and DLT publishing.
+ * Stock update events are consumed a whole poll at a time by a batch factory and its retry counterpart.
  */
 @Configuration
 public class KafkaConsumerConfig {
 
+    public static final String STOCK_EVENTS_CONTAINER_FACTORY = "stockEventsListenerContainerFactory";
+    public static final String STOCK_EVENTS_RETRY_CONTAINER_FACTORY = "stockEventsRetryListenerContainerFactory";
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${report-events.batch-size:500}")
+    private int reportEventsBatchSize;
+
+    @Value("${report-events.max-retry-interval-ms:60000}")
+    private long reportEventsMaxRetryIntervalMs;
+
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -41,7 +50,7 @@ public class KafkaConsumerConfig {
     }
 
     /**
-     * Producer needed for dead letter topic publishing.
+     * Producer needed for retry and dead letter topic publishing.
      */
     @Bean
     public ProducerFactory<String, String> producerFactory() {
@@ -57,24 +66,51 @@ public class KafkaConsumerConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
-    /**
-     * Error handler with retry + dead letter topic.
-     * Retries 3 times with 1-second intervals, then sends to {original-topic}.DLT.
-     */
     @Bean
-    public CommonErrorHandler kafkaErrorHandler(KafkaTemplate<String, String> kafkaTemplate) {
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate);
-        return new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 3));
+    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(TieredRetry tieredRetry) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        tieredRetry.configure(factory);
+        return factory;
     }
 
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory(
-            CommonErrorHandler kafkaErrorHandler) {
+    /**
+     * Batch listener factory for stock update events. A listener that throws
+     * {@link org.springframework.kafka.listener.BatchListenerFailedException} has the records before the
+     * failed one committed, and only the failed record is moved to the retry tiers; the rest of the batch is
+     * redelivered after it. Any other exception means the projection database is unavailable, and the batch
+     * is retried in place with exponential backoff until it is back (see {@link TieredRetry#batchErrorHandler}).
+     */
+    @Bean(STOCK_EVENTS_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> stockEventsListenerContainerFactory(
+            TieredRetry tieredRetry) {
+        Map<String, Object> config = new HashMap<>(consumerFactory().getConfigurationProperties());
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, reportEventsBatchSize);
+
         ConcurrentKafkaListenerContainerFactory<String, String> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
         factory.setConcurrency(3);
-        factory.setCommonErrorHandler(kafkaErrorHandler);
+        factory.setBatchListener(true);
+        tieredRetry.configure(factory);
+        factory.setCommonErrorHandler(tieredRetry.batchErrorHandler(outageBackOff()));
+        return factory;
+    }
+
+    @Bean(STOCK_EVENTS_RETRY_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, String> stockEventsRetryListenerContainerFactory(
+            TieredRetry tieredRetry) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                tieredRetry.retryContainerFactory(consumerFactory().getConfigurationProperties(), 1, true);
+        factory.setCommonErrorHandler(tieredRetry.batchErrorHandler(outageBackOff()));
         return factory;
     }
+
+    private ExponentialBackOff outageBackOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(reportEventsMaxRetryIntervalMs);
+        return backOff;
+    }
 }
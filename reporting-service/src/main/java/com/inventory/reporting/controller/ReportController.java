@@ -1,11 +1,13 @@
 package com.inventory.reporting.controller;
 
 import com.inventory.common.dto.ApiResponse;
+import com.inventory.common.export.ExportFormat;
+import com.inventory.common.limit.ConcurrencyLimited;
+import com.inventory.common.limit.Priority;
 import com.inventory.reporting.dto.EventHistoryDTO;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.dto.StockLevelDTO;
 import com.inventory.reporting.service.ReportService;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -13,8 +15,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/reports")
@@ -28,21 +33,40 @@ public class ReportController {
     @Operation(summary = "Get current stock levels for all products", description = "Returns the current stock level, minimum threshold, and low-stock status for every tracked product.")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Stock levels returned"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
+    @ConcurrencyLimited(priority = Priority.LOW)
     public ResponseEntity<ApiResponse<Page<StockLevelDTO>>> getStockLevels(Pageable pageable) {
         Page<StockLevelDTO> levels = reportService.getAllStockLevels(pageable);
         return ResponseEntity.ok(ApiResponse.success(levels));
     }
 
+    @GetMapping("/stock-levels/export")
+    @Operation(summary = "Export stock levels for all products (streaming)", description = "Streams every stock level as NDJSON (one JSON object per line) or CSV. Rows are read through a database cursor and written as they arrive, so the response is not paginated and memory use does not depend on table size.")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export stream started"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported export format"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
+    })
+    @ConcurrencyLimited(priority = Priority.LOW)
+    public ResponseEntity<StreamingResponseBody> exportStockLevels(
+            @Parameter(description = "Output format: ndjson or csv", example = "ndjson") @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        StreamingResponseBody body = out -> reportService.exportStockLevels(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("stock-levels." + exportFormat.getFileExtension()).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/low-stock")
     @Operation(summary = "Get products below minimum stock threshold", description = "Returns only products where the current quantity is at or below the configured minimum threshold.")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Low-stock products returned"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
+    @ConcurrencyLimited(priority = Priority.LOW)
     public ResponseEntity<ApiResponse<Page<StockLevelDTO>>> getLowStock(Pageable pageable) {
         Page<StockLevelDTO> lowStock = reportService.getLowStockProducts(pageable);
         return ResponseEntity.ok(ApiResponse.success(lowStock));
@@ -52,9 +76,9 @@ public class ReportController {
     @Operation(summary = "Get all inventory events (paginated)", description = "Returns the complete audit trail of all stock changes from MongoDB. Use query parameters: page, size, sort.")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Page of inventory events returned"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
+    @ConcurrencyLimited(priority = Priority.LOW)
     public ResponseEntity<ApiResponse<Page<EventHistoryDTO>>> getEventHistory(Pageable pageable) {
         Page<EventHistoryDTO> history = reportService.getEventHistory(pageable);
         return ResponseEntity.ok(ApiResponse.success(history));
@@ -64,9 +88,9 @@ public class ReportController {
     @Operation(summary = "Get inventory event history for a specific product", description = "Returns the audit trail for a single product, filtered by SKU.")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Product event history returned"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
+    @ConcurrencyLimited(priority = Priority.LOW)
     public ResponseEntity<ApiResponse<Page<EventHistoryDTO>>> getEventHistoryBySku(
             @Parameter(description = "Stock keeping unit identifier", example = "PROD-001") @PathVariable String sku,
             Pageable pageable) {
@@ -78,9 +102,9 @@ public class ReportController {
     @Operation(summary = "Get inventory summary report", description = "Returns aggregated metrics: total products, total stock units, low-stock count, and out-of-stock count.")
     @ApiResponses({
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Inventory summary returned"),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Server at capacity; retry after the Retry-After delay")
     })
-    @RateLimiter(name = "readApi")
+    @ConcurrencyLimited
     public ResponseEntity<ApiResponse<InventoryReportDTO>> getSummary() {
         InventoryReportDTO summary = reportService.getInventorySummary();
         return ResponseEntity.ok(ApiResponse.success(summary));
@@ -0,0 +1,49 @@
+package com.inventory.reporting.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Offset of the last stock update applied to the summary projection from one topic partition. It is written
+ * in the same transaction as the projection, so a redelivered record at or below it is known to be applied.
+ */
+@Entity
+@Table(name = "report_applied_offsets")
+@IdClass(ReportAppliedOffset.Key.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportAppliedOffset {
+
+    @Id
+    private String topic;
+
+    @Id
+    @Column(name = "kafka_partition")
+    private int partition;
+
+    @Column(name = "applied_offset", nullable = false)
+    private long appliedOffset;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String topic;
+        private int partition;
+    }
+}
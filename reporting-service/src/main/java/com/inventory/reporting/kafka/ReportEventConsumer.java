@@ -1,24 +1,44 @@
 package com.inventory.reporting.kafka;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.common.event.EventCodecs;
 import com.inventory.common.event.EventContractValidator;
+import com.inventory.common.event.EventHeaders;
 import com.inventory.common.event.EventType;
 import com.inventory.common.event.StockUpdatedEvent;
-import com.inventory.reporting.dto.InventoryReportDTO;
-import com.inventory.reporting.dto.StockLevelDTO;
+import com.inventory.reporting.service.ConsumedStockUpdate;
 import com.inventory.reporting.service.InventorySummaryProjectionService;
-import com.inventory.reporting.websocket.ReportUpdateNotifier;
+import com.inventory.reporting.service.StockSummaryDelta;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.inventory.common.constants.KafkaConstants.*;
+import static com.inventory.reporting.config.KafkaConsumerConfig.STOCK_EVENTS_CONTAINER_FACTORY;
+import static com.inventory.reporting.config.KafkaConsumerConfig.STOCK_EVENTS_RETRY_CONTAINER_FACTORY;
 
 /**
- * Consumes stock update events from Kafka.
- * Exceptions propagate to the DefaultErrorHandler which retries 3 times
- * then publishes to a dead letter topic ({topic}.DLT).
+ * Consumes stock update events from Kafka and applies them to the summary projection. Replicas share this
+ * consumer group, so each event is applied once; WebSocket pushes are made on every replica by
+ * {@link ReportWebSocketFanoutListener}.
+ * Records are validated from their {@link EventHeaders} before the payload is decoded with the
+ * {@link EventCodecs codec} named by its content type; records published before the outbox wrote headers
+ * are validated from the payload.
+ * <p>
+ * Events are consumed a whole poll at a time and folded per SKU into a {@link StockSummaryDelta}, which is
+ * applied to the projection in one transaction together with the offsets it covers, so a redelivered poll
+ * is not applied twice. A record that cannot be read is reported with {@link BatchListenerFailedException}
+ * after the records before it are applied, so only that record is retried or dead-lettered. If the
+ * projection update fails, the records are applied one per transaction to find the record that causes it;
+ * if the database itself is unavailable, no record is reported and the exception is rethrown, so the
+ * error handler retries the poll in place with backoff.
+ * Reported records are moved by the error handler through the retry tiers ({topic}.retry-N, consumed by
+ * the second listener) and then to a dead letter topic ({topic}.DLT).
  */
 @Component
 @RequiredArgsConstructor
@@ -26,31 +46,80 @@ import static com.inventory.common.constants.KafkaConstants.*;
 public class ReportEventConsumer {
 
     private final InventorySummaryProjectionService summaryProjectionService;
-    private final ReportUpdateNotifier reportUpdateNotifier;
-    private final ObjectMapper objectMapper;
-
-    @KafkaListener(topics = TOPIC_STOCK_UPDATED, groupId = GROUP_REPORTING_SERVICE)
-    public void handleStockUpdated(String message) throws Exception {
-        StockUpdatedEvent event = objectMapper.readValue(message, StockUpdatedEvent.class);
-        EventContractValidator.validate(event, EventType.STOCK_UPDATED, TOPIC_STOCK_UPDATED);
-        log.info("Received StockUpdatedEvent: sku={}, {} -> {}, reason={}",
-                event.getSku(), event.getPreviousQuantity(),
-                event.getNewQuantity(), event.getReason());
-
-        int threshold = event.getMinThreshold() > 0 ? event.getMinThreshold() : 10;
-
-        // Push the individual stock level change
-        StockLevelDTO stockLevel = StockLevelDTO.builder()
-                .productId(event.getProductId())
-                .sku(event.getSku())
-                .quantity(event.getNewQuantity())
-                .minThreshold(threshold)
-                .lowStock(event.getNewQuantity() <= threshold)
-                .build();
-        reportUpdateNotifier.notifyStockLevelChange(stockLevel);
-
-        // Apply event delta to summary projection, then push updated summary
-        InventoryReportDTO summary = summaryProjectionService.applyStockUpdate(event);
-        reportUpdateNotifier.notifySummaryUpdate(summary);
+    private final EventCodecs eventCodecs;
+
+    @KafkaListener(topics = TOPIC_STOCK_UPDATED, groupId = GROUP_REPORTING_SERVICE,
+            containerFactory = STOCK_EVENTS_CONTAINER_FACTORY)
+    @KafkaListener(topics = "#{@tieredRetry.retryTopics('" + TOPIC_STOCK_UPDATED + "')}",
+            groupId = GROUP_REPORTING_SERVICE, containerFactory = STOCK_EVENTS_RETRY_CONTAINER_FACTORY)
+    public void handleStockUpdated(List<ConsumerRecord<String, String>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        List<ConsumerRecord<String, String>> readable = new ArrayList<>(records.size());
+        List<ConsumedStockUpdate> updates = new ArrayList<>(records.size());
+        BatchListenerFailedException unreadable = null;
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                updates.add(new ConsumedStockUpdate(record.topic(), record.partition(), record.offset(), read(record)));
+                readable.add(record);
+            } catch (RuntimeException e) {
+                unreadable = new BatchListenerFailedException("Unreadable event on " + TOPIC_STOCK_UPDATED, e, record);
+                break;
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            apply(readable, updates);
+        }
+        if (unreadable != null) {
+            throw unreadable;
+        }
+    }
+
+    /** Applies {@code updates} in one transaction, or one per transaction if that fails. */
+    private void apply(List<ConsumerRecord<String, String>> records, List<ConsumedStockUpdate> updates) {
+        try {
+            summaryProjectionService.applyStockUpdates(updates);
+            return;
+        } catch (RuntimeException e) {
+            if (updates.size() == 1) {
+                throw failure(records.get(0), e);
+            }
+            log.warn("Batch of {} stock updates failed, retrying one by one: {}", updates.size(), e.getMessage());
+        }
+        for (int i = 0; i < updates.size(); i++) {
+            try {
+                summaryProjectionService.applyStockUpdates(List.of(updates.get(i)));
+            } catch (RuntimeException e) {
+                throw failure(records.get(i), e);
+            }
+        }
+    }
+
+    /**
+     * Blames {@code record} for a failed update only if the projection is still readable; otherwise returns
+     * the failure itself, which names no record, so the poll is retried rather than dead-lettered.
+     */
+    private RuntimeException failure(ConsumerRecord<String, String> record, RuntimeException e) {
+        try {
+            summaryProjectionService.checkAvailable();
+        } catch (RuntimeException unavailable) {
+            log.warn("Summary projection unavailable, retrying the poll: {}", unavailable.getMessage());
+            return e;
+        }
+        return new BatchListenerFailedException("Failed to apply stock update on " + TOPIC_STOCK_UPDATED, e, record);
+    }
+
+    private StockUpdatedEvent read(ConsumerRecord<String, String> record) {
+        EventHeaders headers = EventHeaders.read(record.headers());
+        if (headers != null) {
+            EventContractValidator.validate(headers, EventType.STOCK_UPDATED, TOPIC_STOCK_UPDATED);
+        }
+        StockUpdatedEvent event = eventCodecs.decode(record, StockUpdatedEvent.class);
+        if (headers == null) {
+            EventContractValidator.validate(event, EventType.STOCK_UPDATED, TOPIC_STOCK_UPDATED);
+        }
+        return event;
     }
 }
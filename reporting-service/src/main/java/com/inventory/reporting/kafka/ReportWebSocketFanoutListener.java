@@ -0,0 +1,118 @@
+package com.inventory.reporting.kafka;
+
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.reporting.dto.InventoryReportDTO;
+import com.inventory.reporting.dto.StockLevelDTO;
+import com.inventory.reporting.service.InventorySummaryProjectionService;
+import com.inventory.reporting.websocket.ReportUpdateNotifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.inventory.common.constants.KafkaConstants.TOPIC_STOCK_UPDATED;
+import static com.inventory.common.websocket.WebSocketFanoutKafkaConfig.WEBSOCKET_FANOUT_BATCH_CONTAINER_FACTORY;
+
+/**
+ * Pushes report updates to this replica's WebSocket subscribers for every stock change, whichever replica
+ * applied it to the summary projection. Every replica receives every change
+ * (see {@link com.inventory.common.websocket.WebSocketFanoutKafkaConfig}).
+ * <p>
+ * Stock levels are pushed straight from the event. The summary projection is updated by exactly one
+ * replica ({@link ReportEventConsumer}), so each change only marks the summary as changed; a scheduled check
+ * then reads the projection and pushes it if it differs from the last pushed summary. It keeps checking for
+ * {@code websocket.summary-settle-ms} after the last change, so a projection commit that lands after the
+ * event still gets pushed.
+ * <p>
+ * Records arrive a poll at a time, and the summary is marked once per poll. While the newest record in a
+ * poll is more than {@code websocket.catch-up-lag-ms} old, this replica is catching up: instead of one push
+ * per event, only the latest stock level of each SKU in the poll is pushed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportWebSocketFanoutListener {
+
+    private final ReportUpdateNotifier reportUpdateNotifier;
+    private final InventorySummaryProjectionService summaryProjectionService;
+    private final EventCodecs eventCodecs;
+
+    @Value("${websocket.summary-settle-ms:2000}")
+    private long summarySettleMs;
+
+    @Value("${websocket.catch-up-lag-ms:5000}")
+    private long catchUpLagMs;
+
+    private volatile long summaryChangedUntil;
+    private InventoryReportDTO lastPushedSummary;
+
+    @KafkaListener(topics = TOPIC_STOCK_UPDATED, containerFactory = WEBSOCKET_FANOUT_BATCH_CONTAINER_FACTORY)
+    public void onStockUpdated(List<ConsumerRecord<String, String>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long newest = records.stream().mapToLong(ConsumerRecord::timestamp).max().orElse(0L);
+        boolean catchingUp = System.currentTimeMillis() - newest > catchUpLagMs;
+        Map<String, StockUpdatedEvent> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            StockUpdatedEvent event;
+            try {
+                event = eventCodecs.decode(record, StockUpdatedEvent.class);
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping unreadable stock update at {}-{}@{}: {}",
+                        record.topic(), record.partition(), record.offset(), e.getMessage());
+                continue;
+            }
+            if (catchingUp) {
+                latest.put(event.getSku(), event);
+            } else {
+                pushStockLevel(event);
+            }
+        }
+        if (catchingUp) {
+            log.debug("Catching up: pushed {} stock levels for {} events", latest.size(), records.size());
+            latest.values().forEach(this::pushStockLevel);
+        }
+
+        summaryChangedUntil = System.currentTimeMillis() + summarySettleMs;
+    }
+
+    private void pushStockLevel(StockUpdatedEvent event) {
+        if (!reportUpdateNotifier.isStockLevelWatched(event.getSku())) {
+            return;
+        }
+        int threshold = event.getMinThreshold() > 0 ? event.getMinThreshold() : 10;
+        StockLevelDTO stockLevel = StockLevelDTO.builder()
+                .productId(event.getProductId())
+                .sku(event.getSku())
+                .quantity(event.getNewQuantity())
+                .minThreshold(threshold)
+                .lowStock(event.getNewQuantity() <= threshold)
+                .build();
+        reportUpdateNotifier.notifyStockLevelChange(stockLevel);
+    }
+
+    /**
+     * Pushes the current summary if it changed since the last push and anyone on this replica watches it.
+     */
+    @Scheduled(fixedDelayString = "${websocket.summary-interval-ms:500}")
+    public synchronized void pushSummaryIfChanged() {
+        if (System.currentTimeMillis() > summaryChangedUntil || !reportUpdateNotifier.isSummaryWatched()) {
+            return;
+        }
+        InventoryReportDTO summary = summaryProjectionService.getCurrentSummary();
+        if (!Objects.equals(summary, lastPushedSummary)) {
+            reportUpdateNotifier.notifySummaryUpdate(summary);
+            lastPushedSummary = summary;
+        }
+    }
+}
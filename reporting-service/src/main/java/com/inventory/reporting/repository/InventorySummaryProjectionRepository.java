@@ -1,9 +1,23 @@
 package com.inventory.reporting.repository;
 
 import com.inventory.reporting.entity.InventorySummaryProjection;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface InventorySummaryProjectionRepository extends JpaRepository<InventorySummaryProjection, Long> {
+
+    /**
+     * Reads the projection row with {@code SELECT ... FOR UPDATE}, so concurrent delta updates and
+     * reconciliation apply one after another instead of overwriting each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM InventorySummaryProjection p WHERE p.id = :id")
+    Optional<InventorySummaryProjection> findByIdForUpdate(@Param("id") Long id);
 }
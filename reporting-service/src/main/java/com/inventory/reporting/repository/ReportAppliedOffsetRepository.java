@@ -0,0 +1,30 @@
+package com.inventory.reporting.repository;
+
+import com.inventory.reporting.entity.ReportAppliedOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportAppliedOffsetRepository extends JpaRepository<ReportAppliedOffset, ReportAppliedOffset.Key> {
+
+    List<ReportAppliedOffset> findByTopicIn(Collection<String> topics);
+
+    /**
+     * Records {@code offset} as applied for the partition, unless a higher offset already is. Written with an
+     * upsert rather than {@code save}, so the first record of a partition needs no prior read.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO report_applied_offsets (topic, kafka_partition, applied_offset, updated_at)
+            VALUES (:topic, :partition, :offset, CURRENT_TIMESTAMP)
+            ON CONFLICT (topic, kafka_partition) DO UPDATE
+            SET applied_offset = GREATEST(report_applied_offsets.applied_offset, EXCLUDED.applied_offset),
+                updated_at = EXCLUDED.updated_at""", nativeQuery = true)
+    int advance(@Param("topic") String topic, @Param("partition") int partition, @Param("offset") long offset);
+}
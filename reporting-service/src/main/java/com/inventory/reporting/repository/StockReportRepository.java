@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,6 +16,8 @@ import java.util.List;
 @Repository
 public interface StockReportRepository extends JpaRepository<StockView, Long> {
 
+    List<StockView> findBySkuIn(Collection<String> skus);
+
     @Query("SELECT s FROM StockView s WHERE s.quantity <= s.minThreshold")
     List<StockView> findLowStockProducts();
 
@@ -0,0 +1,7 @@
+package com.inventory.reporting.service;
+
+import com.inventory.common.event.StockUpdatedEvent;
+
+/** A stock update with the topic partition and offset it was consumed from. */
+public record ConsumedStockUpdate(String topic, int partition, long offset, StockUpdatedEvent event) {
+}
@@ -1,24 +1,35 @@
 package com.inventory.reporting.service;
 
-import com.inventory.common.event.StockUpdatedEvent;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.entity.InventorySummaryProjection;
+import com.inventory.reporting.entity.ReportAppliedOffset;
 import com.inventory.reporting.repository.InventorySummaryProjectionRepository;
+import com.inventory.reporting.repository.ReportAppliedOffsetRepository;
 import com.inventory.reporting.repository.StockReportRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class InventorySummaryProjectionService {
 
     private static final long SUMMARY_ID = 1L;
 
     private final InventorySummaryProjectionRepository projectionRepository;
     private final StockReportRepository stockReportRepository;
+    private final ReportAppliedOffsetRepository appliedOffsetRepository;
 
     @Transactional(readOnly = true)
     public InventoryReportDTO getCurrentSummary() {
@@ -27,35 +38,90 @@ public class InventorySummaryProjectionService {
                 .orElseGet(this::rebuildSummaryFromSourceOfTruth);
     }
 
+    /**
+     * Applies a poll of stock updates, folded per SKU, with one projection read and one write. No query runs
+     * against the {@code stock} table: {@code totalProducts} moves with the {@code INITIAL} and
+     * {@code REMOVED} events, and drift is corrected by {@link #reconcileTotalProducts()}.
+     * <p>
+     * Updates at or below the offset already applied from their partition are skipped, and the highest
+     * offset applied from each partition is stored in the same transaction as the projection, so a poll
+     * redelivered after a crash or rebalance is not counted twice. Offsets are read under the projection row
+     * lock, so a consumer that lost its partitions cannot interleave with the one that took them over.
+     */
     @Transactional
-    public InventoryReportDTO applyStockUpdate(StockUpdatedEvent event) {
-        InventorySummaryProjection projection = projectionRepository.findById(SUMMARY_ID)
+    public InventoryReportDTO applyStockUpdates(List<ConsumedStockUpdate> updates) {
+        InventorySummaryProjection projection = projectionRepository.findByIdForUpdate(SUMMARY_ID)
                 .orElseGet(this::rebuildProjectionEntity);
 
-        int threshold = event.getMinThreshold() > 0 ? event.getMinThreshold() : 10;
-        boolean wasLow = event.getPreviousQuantity() <= threshold;
-        boolean isLow = event.getNewQuantity() <= threshold;
-        boolean wasOut = event.getPreviousQuantity() == 0;
-        boolean isOut = event.getNewQuantity() == 0;
-
-        projection.setTotalProducts(stockReportRepository.count());
-        projection.setTotalStockUnits(Math.max(0, projection.getTotalStockUnits()
-                + (long) event.getNewQuantity() - event.getPreviousQuantity()));
-        projection.setLowStockProducts(adjustCounter(projection.getLowStockProducts(), wasLow, isLow));
-        projection.setOutOfStockProducts(adjustCounter(projection.getOutOfStockProducts(), wasOut, isOut));
+        Set<String> topics = updates.stream().map(ConsumedStockUpdate::topic).collect(Collectors.toSet());
+        Map<ReportAppliedOffset.Key, Long> applied = new HashMap<>();
+        for (ReportAppliedOffset offset : appliedOffsetRepository.findByTopicIn(topics)) {
+            applied.put(new ReportAppliedOffset.Key(offset.getTopic(), offset.getPartition()), offset.getAppliedOffset());
+        }
+
+        StockSummaryDelta delta = new StockSummaryDelta();
+        Map<ReportAppliedOffset.Key, Long> advanced = new LinkedHashMap<>();
+        for (ConsumedStockUpdate update : updates) {
+            ReportAppliedOffset.Key partition = new ReportAppliedOffset.Key(update.topic(), update.partition());
+            if (update.offset() > applied.getOrDefault(partition, -1L)) {
+                delta.add(update.event());
+                advanced.merge(partition, update.offset(), Math::max);
+            }
+        }
+        if (delta.events() < updates.size()) {
+            log.warn("Skipped {} StockUpdatedEvents already applied to the summary projection",
+                    updates.size() - delta.events());
+        }
+        if (delta.isEmpty()) {
+            return toDto(projection);
+        }
+
+        projection.setTotalProducts(Math.max(0, projection.getTotalProducts() + delta.products()));
+        projection.setTotalStockUnits(Math.max(0, projection.getTotalStockUnits() + delta.units()));
+        projection.setLowStockProducts(Math.max(0, projection.getLowStockProducts() + delta.lowStockTransitions()));
+        projection.setOutOfStockProducts(
+                Math.max(0, projection.getOutOfStockProducts() + delta.outOfStockTransitions()));
         projection.setUpdatedAt(LocalDateTime.now());
+        InventoryReportDTO summary = toDto(projectionRepository.save(projection));
+        advanced.forEach((partition, offset) ->
+                appliedOffsetRepository.advance(partition.getTopic(), partition.getPartition(), offset));
 
-        return toDto(projectionRepository.save(projection));
+        log.info("Applied {} StockUpdatedEvents for {} SKUs: totalStockUnits={}, lowStock={}, outOfStock={}",
+                delta.events(), delta.skus(), summary.getTotalStockUnits(),
+                summary.getLowStockProducts(), summary.getOutOfStockProducts());
+        return summary;
     }
 
-    private long adjustCounter(long current, boolean before, boolean after) {
-        if (before == after) {
-            return current;
-        }
-        if (after) {
-            return current + 1;
-        }
-        return Math.max(0, current - 1);
+    /**
+     * Reads the projection in a transaction of its own, throwing if the database cannot serve it. Tells a
+     * failed update caused by its events from one caused by the database being unavailable.
+     */
+    @Transactional(readOnly = true)
+    public void checkAvailable() {
+        projectionRepository.existsById(SUMMARY_ID);
+    }
+
+    /**
+     * Resets {@code totalProducts} to the row count of the {@code stock} table, correcting drift from
+     * events that were dead-lettered or predate the {@code REMOVED} event. Stock created or removed but
+     * not yet consumed is counted here and then applied again from its event, so that difference lasts
+     * until the next run.
+     */
+    @Scheduled(fixedDelayString = "${summary-projection.reconcile-interval-ms:300000}",
+            initialDelayString = "${summary-projection.reconcile-interval-ms:300000}")
+    @Transactional
+    public void reconcileTotalProducts() {
+        // Counted before taking the row lock, so consumers are not blocked behind the scan
+        long actual = stockReportRepository.count();
+        projectionRepository.findByIdForUpdate(SUMMARY_ID).ifPresent(projection -> {
+            if (projection.getTotalProducts() != actual) {
+                log.warn("Summary projection totalProducts drifted: projected={}, actual={}",
+                        projection.getTotalProducts(), actual);
+                projection.setTotalProducts(actual);
+                projection.setUpdatedAt(LocalDateTime.now());
+                projectionRepository.save(projection);
+            }
+        });
     }
 
     private InventoryReportDTO rebuildSummaryFromSourceOfTruth() {
@@ -1,11 +1,17 @@
 package com.inventory.reporting.service;
 
+import com.inventory.common.export.ExportFormat;
 import com.inventory.reporting.dto.EventHistoryDTO;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.dto.StockLevelDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Service interface for read-only inventory reports. Queries both PostgreSQL
  * (current stock state) and MongoDB (event audit trail).
@@ -15,6 +21,12 @@ public interface ReportService {
     /** Returns current stock levels for all tracked products. */
     Page<StockLevelDTO> getAllStockLevels(Pageable pageable);
 
+    /** Returns current stock levels for the given SKUs; unknown SKUs are left out. */
+    List<StockLevelDTO> getStockLevelsBySkus(Collection<String> skus);
+
+    /** Streams current stock levels for all tracked products to {@code out}; returns the number of rows written. */
+    long exportStockLevels(ExportFormat format, OutputStream out) throws IOException;
+
     /** Returns products where quantity is at or below minimum threshold (paginated). */
     Page<StockLevelDTO> getLowStockProducts(Pageable pageable);
 
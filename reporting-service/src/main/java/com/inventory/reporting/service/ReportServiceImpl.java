@@ -1,5 +1,7 @@
 package com.inventory.reporting.service;
 
+import com.inventory.common.export.ExportFormat;
+import com.inventory.common.export.JdbcStreamingExporter;
 import com.inventory.reporting.dto.EventHistoryDTO;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.dto.StockLevelDTO;
@@ -14,6 +16,11 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Implementation of {@link ReportService}.
  * Queries PostgreSQL for current stock state and MongoDB for event history.
@@ -23,9 +30,17 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class ReportServiceImpl implements ReportService {
 
+    static final String EXPORT_STOCK_LEVELS_SQL = """
+            SELECT product_id AS "productId", sku, quantity, min_threshold AS "minThreshold",
+                   quantity <= min_threshold AS "lowStock"
+            FROM stock
+            ORDER BY id
+            """;
+
     private final StockReportRepository stockReportRepository;
     private final EventHistoryRepository eventHistoryRepository;
     private final InventorySummaryProjectionService summaryProjectionService;
+    private final JdbcStreamingExporter jdbcStreamingExporter;
 
     @Override
     @Transactional(readOnly = true)
@@ -34,6 +49,23 @@ public class ReportServiceImpl implements ReportService {
                 .map(this::toStockLevelDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockLevelDTO> getStockLevelsBySkus(Collection<String> skus) {
+        return stockReportRepository.findBySkuIn(skus).stream()
+                .map(this::toStockLevelDTO)
+                .toList();
+    }
+
+    /**
+     * Streams every stock level through a database cursor, with the same fields as {@link StockLevelDTO}.
+     * The low-stock flag is computed in SQL so rows go straight from the result set to the response.
+     */
+    @Override
+    public long exportStockLevels(ExportFormat format, OutputStream out) throws IOException {
+        return jdbcStreamingExporter.export(EXPORT_STOCK_LEVELS_SQL, format, out);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<StockLevelDTO> getLowStockProducts(Pageable pageable) {
@@ -0,0 +1,108 @@
+package com.inventory.reporting.service;
+
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.common.event.StockUpdatedEvent.StockChangeReason;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stock updates folded per SKU into the change they make to the summary projection: net units, whether the
+ * SKU ended up entering or leaving low stock and out of stock, and whether its stock record was created
+ * ({@code INITIAL}) or removed ({@code REMOVED}). A SKU that drops to zero and is restocked within the fold
+ * contributes no transition. A SKU is only counted as low or out of stock while its record exists, so a new
+ * SKU was not low before its {@code INITIAL} event and a removed one is not low after its {@code REMOVED}
+ * event. Each SKU's events must be added in order, which holds within a poll since they share a key and
+ * therefore a partition.
+ */
+public class StockSummaryDelta {
+
+    private static final int DEFAULT_MIN_THRESHOLD = 10;
+
+    private final Map<String, SkuChange> changes = new HashMap<>();
+    private int events;
+
+    public void add(StockUpdatedEvent event) {
+        int threshold = event.getMinThreshold() > 0 ? event.getMinThreshold() : DEFAULT_MIN_THRESHOLD;
+        SkuChange change = changes.computeIfAbsent(event.getSku(), sku -> {
+            boolean existed = event.getReason() != StockChangeReason.INITIAL;
+            return new SkuChange(existed,
+                    existed && event.getPreviousQuantity() <= threshold,
+                    existed && event.getPreviousQuantity() == 0);
+        });
+        boolean exists = event.getReason() != StockChangeReason.REMOVED;
+        change.units += (long) event.getNewQuantity() - event.getPreviousQuantity();
+        change.exists = exists;
+        change.isLow = exists && event.getNewQuantity() <= threshold;
+        change.isOut = exists && event.getNewQuantity() == 0;
+        events++;
+    }
+
+    /** Net number of SKUs whose stock record was created; negative if more were removed. */
+    public long products() {
+        long products = 0;
+        for (SkuChange change : changes.values()) {
+            products += transition(change.existed, change.exists);
+        }
+        return products;
+    }
+
+    public long units() {
+        long units = 0;
+        for (SkuChange change : changes.values()) {
+            units += change.units;
+        }
+        return units;
+    }
+
+    /** Net number of SKUs that entered low stock; negative if more left it. */
+    public long lowStockTransitions() {
+        long transitions = 0;
+        for (SkuChange change : changes.values()) {
+            transitions += transition(change.wasLow, change.isLow);
+        }
+        return transitions;
+    }
+
+    /** Net number of SKUs that ran out of stock; negative if more were restocked. */
+    public long outOfStockTransitions() {
+        long transitions = 0;
+        for (SkuChange change : changes.values()) {
+            transitions += transition(change.wasOut, change.isOut);
+        }
+        return transitions;
+    }
+
+    public int skus() {
+        return changes.size();
+    }
+
+    public int events() {
+        return events;
+    }
+
+    public boolean isEmpty() {
+        return events == 0;
+    }
+
+    private static int transition(boolean before, boolean after) {
+        return before == after ? 0 : after ? 1 : -1;
+    }
+
+    private static final class SkuChange {
+
+        private final boolean existed;
+        private final boolean wasLow;
+        private final boolean wasOut;
+        private long units;
+        private boolean exists;
+        private boolean isLow;
+        private boolean isOut;
+
+        private SkuChange(boolean existed, boolean wasLow, boolean wasOut) {
+            this.existed = existed;
+            this.wasLow = wasLow;
+            this.wasOut = wasOut;
+        }
+    }
+}
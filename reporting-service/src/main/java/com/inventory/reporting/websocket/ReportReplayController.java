@@ -0,0 +1,65 @@
+package com.inventory.reporting.websocket;
+
+import com.inventory.common.dto.BulkLookupRequest;
+import com.inventory.common.websocket.StompReplayBuffer;
+import com.inventory.common.websocket.StompSubscriptionRegistry;
+import com.inventory.common.websocket.StreamReplay;
+import com.inventory.reporting.dto.StockLevelDTO;
+import com.inventory.reporting.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.inventory.reporting.websocket.ReportUpdateNotifier.STOCK_LEVEL_FILTERED_DESTINATION_PREFIX;
+import static com.inventory.reporting.websocket.ReportUpdateNotifier.STOCK_LEVEL_SKU_DESTINATION_PREFIX;
+import static com.inventory.reporting.websocket.ReportUpdateNotifier.SUMMARY_DESTINATION;
+
+/**
+ * Lets a reconnecting dashboard resume its report subscriptions. After resubscribing to its topics, the
+ * client subscribes to {@code /app/reports/replay} with the {@code stream} and {@code lastSeq} headers of the
+ * last frame it received and gets a {@link StreamReplay} with the frames it missed. If those are no longer
+ * buffered, it gets the current summary (from the projection) and the current level of each subscribed SKU
+ * (one query) instead; the broadcast and filtered stock-levels topics have no snapshot and are reloaded over
+ * REST.
+ */
+@Controller
+@RequiredArgsConstructor
+public class ReportReplayController {
+
+    private final StompReplayBuffer replayBuffer;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final ReportService reportService;
+
+    @SubscribeMapping("/reports/replay")
+    public StreamReplay replay(@Header(name = StompReplayBuffer.STREAM_HEADER, required = false) String stream,
+                               @Header(name = "lastSeq", required = false) Long lastSeq,
+                               @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        return replayBuffer.replay(stream, lastSeq, subscriptionRegistry.destinationsOf(sessionId), this::snapshot);
+    }
+
+    private Map<String, Object> snapshot(Collection<String> destinations) {
+        Map<String, Object> current = new LinkedHashMap<>();
+        if (destinations.contains(SUMMARY_DESTINATION)) {
+            current.put(SUMMARY_DESTINATION, reportService.getInventorySummary());
+        }
+        List<String> skus = destinations.stream()
+                .filter(destination -> destination.startsWith(STOCK_LEVEL_SKU_DESTINATION_PREFIX)
+                        && !destination.startsWith(STOCK_LEVEL_FILTERED_DESTINATION_PREFIX))
+                .map(destination -> destination.substring(STOCK_LEVEL_SKU_DESTINATION_PREFIX.length()))
+                .limit(BulkLookupRequest.MAX_SKUS)
+                .toList();
+        if (!skus.isEmpty()) {
+            for (StockLevelDTO stockLevel : reportService.getStockLevelsBySkus(skus)) {
+                current.put(STOCK_LEVEL_SKU_DESTINATION_PREFIX + stockLevel.getSku(), stockLevel);
+            }
+        }
+        return current;
+    }
+}
@@ -1,30 +1,82 @@
 package com.inventory.reporting.websocket;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.common.websocket.JsonFrames;
+import com.inventory.common.websocket.StockFilterIndex;
+import com.inventory.common.websocket.StompReplayBuffer;
+import com.inventory.common.websocket.StompSubscriptionRegistry;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.dto.StockLevelDTO;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+/**
+ * Pushes report updates to WebSocket subscribers. Destinations nobody on this node subscribes to are
+ * skipped, and a payload sent to several destinations is serialized once. Frames go through
+ * {@link StompReplayBuffer}, so reconnecting clients can resume through {@link ReportReplayController}.
+ * <p>
+ * Stock levels are also sent to each subscribed {@code /topic/reports/stock-levels/filtered/{filter}} whose
+ * filter they match (see {@link com.inventory.common.websocket.StockFilter}), checked before serialization.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ReportUpdateNotifier {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    public static final String STOCK_LEVELS_DESTINATION = "/topic/reports/stock-levels";
+    public static final String STOCK_LEVEL_SKU_DESTINATION_PREFIX = "/topic/reports/stock-levels/";
+    public static final String STOCK_LEVEL_FILTERED_DESTINATION_PREFIX = "/topic/reports/stock-levels/filtered/";
+    public static final String SUMMARY_DESTINATION = "/topic/reports/summary";
+
+    private final StompReplayBuffer replayBuffer;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final StockFilterIndex filterIndex;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Whether any client on this node might receive a stock level change for {@code sku}. Callers check
+     * this before building the {@link StockLevelDTO}; filters are evaluated on the built DTO.
+     */
+    public boolean isStockLevelWatched(String sku) {
+        return subscriptionRegistry.hasSubscribers(STOCK_LEVELS_DESTINATION)
+                || subscriptionRegistry.hasSubscribers(STOCK_LEVEL_SKU_DESTINATION_PREFIX + sku)
+                || !filterIndex.isEmpty();
+    }
+
+    public boolean isSummaryWatched() {
+        return subscriptionRegistry.hasSubscribers(SUMMARY_DESTINATION);
+    }
 
     /**
-     * Pushes an updated stock level to WebSocket subscribers when a stock change event
+     * Pushes an updated stock level to this replica's WebSocket subscribers when a stock change event
      * is received from Kafka.
      *
      * @param stockLevel the updated stock level data
      */
     @CircuitBreaker(name = "websocket", fallbackMethod = "fallbackNotifyStockLevel")
     public void notifyStockLevelChange(StockLevelDTO stockLevel) {
-        messagingTemplate.convertAndSend("/topic/reports/stock-levels", stockLevel);
-        messagingTemplate.convertAndSend("/topic/reports/stock-levels/" + stockLevel.getSku(), stockLevel);
+        boolean broadcast = subscriptionRegistry.hasSubscribers(STOCK_LEVELS_DESTINATION);
+        String skuDestination = STOCK_LEVEL_SKU_DESTINATION_PREFIX + stockLevel.getSku();
+        boolean skuWatched = subscriptionRegistry.hasSubscribers(skuDestination);
+        List<String> filters = filterIndex.matching(
+                stockLevel.getSku(), stockLevel.getQuantity(), stockLevel.getMinThreshold());
+        if (!broadcast && !skuWatched && filters.isEmpty()) {
+            return;
+        }
+        byte[] json = JsonFrames.serialize(objectMapper, stockLevel);
+        if (broadcast) {
+            replayBuffer.send(STOCK_LEVELS_DESTINATION, json);
+        }
+        if (skuWatched) {
+            replayBuffer.send(skuDestination, json);
+        }
+        for (String filter : filters) {
+            replayBuffer.send(filter, json);
+        }
         log.debug("Report WebSocket notification sent for SKU: {}", stockLevel.getSku());
     }
 
@@ -35,7 +87,10 @@ public class ReportUpdateNotifier {
      */
     @CircuitBreaker(name = "websocket", fallbackMethod = "fallbackNotifySummary")
     public void notifySummaryUpdate(InventoryReportDTO summary) {
-        messagingTemplate.convertAndSend("/topic/reports/summary", summary);
+        if (!subscriptionRegistry.hasSubscribers(SUMMARY_DESTINATION)) {
+            return;
+        }
+        replayBuffer.send(SUMMARY_DESTINATION, JsonFrames.serialize(objectMapper, summary));
         log.debug("Report summary WebSocket notification sent");
     }
 
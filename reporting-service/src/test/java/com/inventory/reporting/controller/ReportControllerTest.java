@@ -1,5 +1,6 @@
 package com.inventory.reporting.controller;
 
+import com.inventory.common.export.ExportFormat;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.dto.StockLevelDTO;
 import com.inventory.reporting.service.ReportService;
@@ -15,14 +16,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -72,6 +80,31 @@ class ReportControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/v1/reports/stock-levels/export")
+    class ExportStockLevels {
+
+        @Test
+        @DisplayName("should stream stock levels in the requested format as an attachment")
+        void shouldStreamCsvAttachment() throws Exception {
+            String csv = "productId,sku,quantity,minThreshold,lowStock\r\n1,PROD-001,50,10,false\r\n";
+            when(reportService.exportStockLevels(eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+                invocation.getArgument(1, OutputStream.class).write(csv.getBytes(StandardCharsets.UTF_8));
+                return 1L;
+            });
+
+            MvcResult result = mockMvc.perform(get("/api/v1/reports/stock-levels/export").param("format", "csv"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                    .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("stock-levels.csv")))
+                    .andExpect(content().string(csv));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/v1/reports/low-stock")
     class GetLowStock {
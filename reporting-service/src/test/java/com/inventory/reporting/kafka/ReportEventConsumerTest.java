@@ -1,14 +1,19 @@
 package com.inventory.reporting.kafka;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.EventHeaders;
+import com.inventory.common.event.EventType;
+import com.inventory.common.event.JsonEventCodec;
 import com.inventory.common.event.StockUpdatedEvent;
 import com.inventory.reporting.dto.InventoryReportDTO;
-import com.inventory.reporting.dto.StockLevelDTO;
+import com.inventory.reporting.service.ConsumedStockUpdate;
 import com.inventory.reporting.service.InventorySummaryProjectionService;
-import com.inventory.reporting.websocket.ReportUpdateNotifier;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,6 +21,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -28,9 +38,6 @@ class ReportEventConsumerTest {
     @Mock
     private InventorySummaryProjectionService summaryProjectionService;
 
-    @Mock
-    private ReportUpdateNotifier reportUpdateNotifier;
-
     private ObjectMapper objectMapper;
     private ReportEventConsumer consumer;
 
@@ -40,76 +47,126 @@ class ReportEventConsumerTest {
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
-        consumer = new ReportEventConsumer(summaryProjectionService, reportUpdateNotifier, objectMapper);
+        consumer = new ReportEventConsumer(summaryProjectionService, new EventCodecs(new JsonEventCodec(objectMapper)));
     }
 
-    @Test
-    @DisplayName("should deserialize StockUpdatedEvent and push stock level via WebSocket")
-    void shouldDeserializeAndPushStockLevel() throws Exception {
-        StockUpdatedEvent event = StockUpdatedEvent.builder()
+    private ConsumerRecord<String, String> record(String value) {
+        return record(0L, value);
+    }
+
+    private ConsumerRecord<String, String> record(long offset, String value) {
+        return new ConsumerRecord<>("inventory.stock.updated", 0, offset, "PROD-001", value);
+    }
+
+    private String stockUpdate(String sku, int previous, int next) throws Exception {
+        return objectMapper.writeValueAsString(StockUpdatedEvent.builder()
                 .productId(1L)
-                .sku("PROD-001")
-                .previousQuantity(100)
-                .newQuantity(85)
+                .sku(sku)
+                .previousQuantity(previous)
+                .newQuantity(next)
                 .minThreshold(10)
-                .changeAmount(-15)
+                .changeAmount(next - previous)
                 .reason(StockUpdatedEvent.StockChangeReason.SALE)
-                .build();
-        String json = objectMapper.writeValueAsString(event);
-
-        InventoryReportDTO summary = InventoryReportDTO.builder()
-                .totalProducts(10)
-                .totalStockUnits(500)
-                .lowStockProducts(2)
-                .outOfStockProducts(0)
-                .build();
-        when(summaryProjectionService.applyStockUpdate(any())).thenReturn(summary);
-
-        consumer.handleStockUpdated(json);
-
-        ArgumentCaptor<StockLevelDTO> stockCaptor = ArgumentCaptor.forClass(StockLevelDTO.class);
-        verify(reportUpdateNotifier).notifyStockLevelChange(stockCaptor.capture());
-
-        StockLevelDTO pushed = stockCaptor.getValue();
-        assertThat(pushed.getProductId()).isEqualTo(1L);
-        assertThat(pushed.getSku()).isEqualTo("PROD-001");
-        assertThat(pushed.getQuantity()).isEqualTo(85);
-        assertThat(pushed.getMinThreshold()).isEqualTo(10);
-        assertThat(pushed.isLowStock()).isFalse();
+                .build());
     }
 
-    @Test
-    @DisplayName("should mark stock as low when quantity is 10 or below")
-    void shouldMarkLowStock() throws Exception {
-        StockUpdatedEvent event = StockUpdatedEvent.builder()
-                .productId(2L)
-                .sku("PROD-002")
-                .previousQuantity(15)
-                .newQuantity(10)
-                .minThreshold(12)
-                .changeAmount(-5)
-                .reason(StockUpdatedEvent.StockChangeReason.SALE)
-                .build();
-        String json = objectMapper.writeValueAsString(event);
-
-        when(summaryProjectionService.applyStockUpdate(any())).thenReturn(InventoryReportDTO.builder().build());
+    private InventoryReportDTO summary() {
+        return InventoryReportDTO.builder().totalProducts(2).totalStockUnits(100).build();
+    }
 
-        consumer.handleStockUpdated(json);
+    @Test
+    @DisplayName("should apply a poll to the summary projection in one call, with each record's offset")
+    @SuppressWarnings("unchecked")
+    void shouldApplyPollToProjectionOnce() throws Exception {
+        when(summaryProjectionService.applyStockUpdates(any())).thenReturn(summary());
+
+        consumer.handleStockUpdated(List.of(
+                record(10L, stockUpdate("PROD-001", 12, 5)),
+                record(11L, stockUpdate("PROD-002", 3, 0)),
+                record(12L, stockUpdate("PROD-001", 5, 20))));
+
+        ArgumentCaptor<List<ConsumedStockUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(summaryProjectionService).applyStockUpdates(captor.capture());
+        assertThat(captor.getValue()).extracting(ConsumedStockUpdate::offset).containsExactly(10L, 11L, 12L);
+        assertThat(captor.getValue()).extracting(update -> update.event().getSku())
+                .containsExactly("PROD-001", "PROD-002", "PROD-001");
+        assertThat(captor.getValue().get(0).topic()).isEqualTo("inventory.stock.updated");
+    }
 
-        ArgumentCaptor<StockLevelDTO> captor = ArgumentCaptor.forClass(StockLevelDTO.class);
-        verify(reportUpdateNotifier).notifyStockLevelChange(captor.capture());
-        assertThat(captor.getValue().getMinThreshold()).isEqualTo(12);
-        assertThat(captor.getValue().isLowStock()).isTrue();
+    @Test
+    @DisplayName("should apply the records before an unreadable one, then report it")
+    @SuppressWarnings("unchecked")
+    void shouldApplyPrefixAndReportUnreadableRecord() throws Exception {
+        when(summaryProjectionService.applyStockUpdates(any())).thenReturn(summary());
+        ConsumerRecord<String, String> malformed = record("not valid json");
+
+        assertThatThrownBy(() -> consumer.handleStockUpdated(List.of(
+                record(stockUpdate("PROD-001", 100, 85)), malformed, record(stockUpdate("PROD-002", 50, 40)))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getRecord()).isSameAs(malformed));
+
+        ArgumentCaptor<List<ConsumedStockUpdate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(summaryProjectionService).applyStockUpdates(captor.capture());
+        assertThat(captor.getValue()).extracting(update -> update.event().getSku()).containsExactly("PROD-001");
     }
 
     @Test
     @DisplayName("should throw on malformed message so DLT error handler can retry")
     void shouldThrowOnMalformedMessage() {
-        assertThatThrownBy(() -> consumer.handleStockUpdated("not valid json"))
-                .isInstanceOf(Exception.class);
+        assertThatThrownBy(() -> consumer.handleStockUpdated(List.of(record("not valid json"))))
+                .isInstanceOf(BatchListenerFailedException.class)
+                .hasRootCauseInstanceOf(JsonProcessingException.class);
+
+        verify(summaryProjectionService, never()).applyStockUpdates(any());
+    }
+
+    @Test
+    @DisplayName("should apply one record per call after a failed batch and report the record that fails")
+    void shouldReportRecordThatFailsAlone() throws Exception {
+        when(summaryProjectionService.applyStockUpdates(any())).thenAnswer(invocation -> {
+            List<ConsumedStockUpdate> updates = invocation.getArgument(0);
+            if (updates.stream().anyMatch(update -> update.offset() == 1L)) {
+                throw new ArithmeticException("numeric overflow");
+            }
+            return summary();
+        });
+        ConsumerRecord<String, String> failing = record(1L, stockUpdate("PROD-002", 5, 4));
+
+        assertThatThrownBy(() -> consumer.handleStockUpdated(List.of(
+                record(0L, stockUpdate("PROD-001", 100, 85)), failing, record(2L, stockUpdate("PROD-003", 9, 8)))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getRecord()).isSameAs(failing));
+
+        verify(summaryProjectionService, times(3)).applyStockUpdates(any());
+        verify(summaryProjectionService).checkAvailable();
+    }
+
+    @Test
+    @DisplayName("should rethrow without naming a record when the projection database is unavailable")
+    void shouldRethrowWhenDatabaseUnavailable() throws Exception {
+        CannotCreateTransactionException outage = new CannotCreateTransactionException("connection refused");
+        when(summaryProjectionService.applyStockUpdates(any())).thenThrow(outage);
+        doThrow(outage).when(summaryProjectionService).checkAvailable();
 
-        verify(reportUpdateNotifier, never()).notifyStockLevelChange(any());
-        verify(reportUpdateNotifier, never()).notifySummaryUpdate(any());
+        assertThatThrownBy(() -> consumer.handleStockUpdated(List.of(
+                record(0L, stockUpdate("PROD-001", 100, 85)), record(1L, stockUpdate("PROD-002", 5, 4)))))
+                .isSameAs(outage);
+
+        verify(summaryProjectionService, times(2)).applyStockUpdates(any());
     }
 
+    @Test
+    @DisplayName("should reject an unsupported contract version from headers before reading the payload")
+    void shouldRejectUnsupportedVersionFromHeaders() {
+        ConsumerRecord<String, String> record = record("not valid json");
+        new EventHeaders("evt-1", EventType.STOCK_UPDATED, 2, LocalDateTime.now(), "application/json")
+                .toKafkaHeaders().forEach(record.headers()::add);
+
+        assertThatThrownBy(() -> consumer.handleStockUpdated(List.of(record)))
+                .isInstanceOf(BatchListenerFailedException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                .rootCause().hasMessageContaining("contractVersion");
+
+        verify(summaryProjectionService, never()).applyStockUpdates(any());
+    }
 }
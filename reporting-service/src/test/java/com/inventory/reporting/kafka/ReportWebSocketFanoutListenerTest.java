@@ -0,0 +1,205 @@
+package com.inventory.reporting.kafka;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.common.event.EventCodecs;
+import com.inventory.common.event.JsonEventCodec;
+import com.inventory.common.event.StockUpdatedEvent;
+import com.inventory.reporting.dto.InventoryReportDTO;
+import com.inventory.reporting.dto.StockLevelDTO;
+import com.inventory.reporting.service.InventorySummaryProjectionService;
+import com.inventory.reporting.websocket.ReportUpdateNotifier;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportWebSocketFanoutListenerTest {
+
+    @Mock
+    private ReportUpdateNotifier reportUpdateNotifier;
+
+    @Mock
+    private InventorySummaryProjectionService summaryProjectionService;
+
+    private ObjectMapper objectMapper;
+    private ReportWebSocketFanoutListener listener;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        listener = new ReportWebSocketFanoutListener(reportUpdateNotifier, summaryProjectionService,
+                new EventCodecs(new JsonEventCodec(objectMapper)));
+        ReflectionTestUtils.setField(listener, "summarySettleMs", 2000L);
+        ReflectionTestUtils.setField(listener, "catchUpLagMs", 5000L);
+    }
+
+    private List<ConsumerRecord<String, String>> event(String sku, int previous, int next, int minThreshold)
+            throws Exception {
+        return List.of(record(sku, previous, next, minThreshold, System.currentTimeMillis()));
+    }
+
+    private ConsumerRecord<String, String> record(String sku, int previous, int next, int minThreshold,
+                                                  long timestamp) throws Exception {
+        String payload = objectMapper.writeValueAsString(StockUpdatedEvent.builder()
+                .productId(1L)
+                .sku(sku)
+                .previousQuantity(previous)
+                .newQuantity(next)
+                .minThreshold(minThreshold)
+                .changeAmount(next - previous)
+                .reason(StockUpdatedEvent.StockChangeReason.SALE)
+                .build());
+        return new ConsumerRecord<>("inventory.stock.updated", 0, 0L, timestamp, TimestampType.CREATE_TIME,
+                -1, -1, sku, payload, new RecordHeaders(), Optional.empty());
+    }
+
+    @Nested
+    @DisplayName("stock levels")
+    class StockLevels {
+
+        @Test
+        @DisplayName("should push the stock level built from the event")
+        void shouldPushStockLevel() throws Exception {
+            when(reportUpdateNotifier.isStockLevelWatched("PROD-001")).thenReturn(true);
+
+            listener.onStockUpdated(event("PROD-001", 100, 85, 10));
+
+            ArgumentCaptor<StockLevelDTO> captor = ArgumentCaptor.forClass(StockLevelDTO.class);
+            verify(reportUpdateNotifier).notifyStockLevelChange(captor.capture());
+            StockLevelDTO pushed = captor.getValue();
+            assertThat(pushed.getProductId()).isEqualTo(1L);
+            assertThat(pushed.getSku()).isEqualTo("PROD-001");
+            assertThat(pushed.getQuantity()).isEqualTo(85);
+            assertThat(pushed.getMinThreshold()).isEqualTo(10);
+            assertThat(pushed.isLowStock()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should mark stock as low when quantity is at or below the threshold")
+        void shouldMarkLowStock() throws Exception {
+            when(reportUpdateNotifier.isStockLevelWatched("PROD-002")).thenReturn(true);
+
+            listener.onStockUpdated(event("PROD-002", 15, 10, 12));
+
+            ArgumentCaptor<StockLevelDTO> captor = ArgumentCaptor.forClass(StockLevelDTO.class);
+            verify(reportUpdateNotifier).notifyStockLevelChange(captor.capture());
+            assertThat(captor.getValue().getMinThreshold()).isEqualTo(12);
+            assertThat(captor.getValue().isLowStock()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should skip building the push when nobody watches the SKU")
+        void shouldSkipUnwatchedStockLevel() throws Exception {
+            listener.onStockUpdated(event("PROD-003", 20, 19, 5));
+
+            verify(reportUpdateNotifier, never()).notifyStockLevelChange(any());
+        }
+
+        @Test
+        @DisplayName("should push every event of a poll while caught up")
+        void shouldPushEveryEventWhenLive() throws Exception {
+            when(reportUpdateNotifier.isStockLevelWatched("PROD-001")).thenReturn(true);
+            long now = System.currentTimeMillis();
+
+            listener.onStockUpdated(List.of(
+                    record("PROD-001", 100, 90, 10, now),
+                    record("PROD-001", 90, 80, 10, now)));
+
+            verify(reportUpdateNotifier, times(2)).notifyStockLevelChange(any());
+        }
+
+        @Test
+        @DisplayName("should push only the latest level per SKU while catching up")
+        void shouldCoalesceWhileCatchingUp() throws Exception {
+            when(reportUpdateNotifier.isStockLevelWatched(any())).thenReturn(true);
+            long behind = System.currentTimeMillis() - 60_000;
+
+            listener.onStockUpdated(List.of(
+                    record("PROD-001", 100, 90, 10, behind),
+                    record("PROD-002", 50, 40, 10, behind),
+                    record("PROD-001", 90, 80, 10, behind)));
+
+            ArgumentCaptor<StockLevelDTO> captor = ArgumentCaptor.forClass(StockLevelDTO.class);
+            verify(reportUpdateNotifier, times(2)).notifyStockLevelChange(captor.capture());
+            assertThat(captor.getAllValues())
+                    .extracting(StockLevelDTO::getSku, StockLevelDTO::getQuantity)
+                    .containsExactly(tuple("PROD-001", 80), tuple("PROD-002", 40));
+        }
+
+        @Test
+        @DisplayName("should skip unreadable records and push the rest of the poll")
+        void shouldSkipUnreadableRecords() throws Exception {
+            when(reportUpdateNotifier.isStockLevelWatched("PROD-001")).thenReturn(true);
+            ConsumerRecord<String, String> unreadable = new ConsumerRecord<>("inventory.stock.updated", 0, 1L,
+                    System.currentTimeMillis(), TimestampType.CREATE_TIME, -1, -1, "PROD-009", "not json",
+                    new RecordHeaders(), Optional.empty());
+
+            listener.onStockUpdated(
+                    List.of(unreadable, record("PROD-001", 100, 85, 10, System.currentTimeMillis())));
+
+            verify(reportUpdateNotifier).notifyStockLevelChange(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("summary")
+    class Summary {
+
+        private final InventoryReportDTO summary = InventoryReportDTO.builder()
+                .totalProducts(10).totalStockUnits(500).lowStockProducts(2).outOfStockProducts(0).build();
+
+        @Test
+        @DisplayName("should not read the projection before any stock change")
+        void shouldIdleWithoutChanges() {
+            listener.pushSummaryIfChanged();
+
+            verifyNoInteractions(summaryProjectionService);
+        }
+
+        @Test
+        @DisplayName("should push the summary once after a change and skip unchanged re-reads")
+        void shouldPushChangedSummaryOnce() throws Exception {
+            when(reportUpdateNotifier.isSummaryWatched()).thenReturn(true);
+            when(summaryProjectionService.getCurrentSummary()).thenReturn(summary);
+
+            listener.onStockUpdated(event("PROD-001", 100, 85, 10));
+            listener.pushSummaryIfChanged();
+            listener.pushSummaryIfChanged();
+
+            verify(reportUpdateNotifier, times(1)).notifySummaryUpdate(summary);
+        }
+
+        @Test
+        @DisplayName("should not read the projection when nobody watches the summary")
+        void shouldSkipUnwatchedSummary() throws Exception {
+            listener.onStockUpdated(event("PROD-001", 100, 85, 10));
+            listener.pushSummaryIfChanged();
+
+            verifyNoInteractions(summaryProjectionService);
+            verify(reportUpdateNotifier, never()).notifySummaryUpdate(any());
+        }
+    }
+}
@@ -3,9 +3,12 @@ package com.inventory.reporting.service;
 import com.inventory.common.event.StockUpdatedEvent;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.entity.InventorySummaryProjection;
+import com.inventory.reporting.entity.ReportAppliedOffset;
 import com.inventory.reporting.repository.InventorySummaryProjectionRepository;
+import com.inventory.reporting.repository.ReportAppliedOffsetRepository;
 import com.inventory.reporting.repository.StockReportRepository;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -13,25 +16,56 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class InventorySummaryProjectionServiceTest {
 
+    private static final String TOPIC = "inventory.stock.updated";
+
     @Mock
     private InventorySummaryProjectionRepository projectionRepository;
 
     @Mock
     private StockReportRepository stockReportRepository;
 
+    @Mock
+    private ReportAppliedOffsetRepository appliedOffsetRepository;
+
     @InjectMocks
     private InventorySummaryProjectionService service;
 
+    private static ConsumedStockUpdate update(int partition, long offset, StockUpdatedEvent event) {
+        return new ConsumedStockUpdate(TOPIC, partition, offset, event);
+    }
+
+    private static InventorySummaryProjection projection() {
+        return InventorySummaryProjection.builder()
+                .id(1L)
+                .totalProducts(10)
+                .totalStockUnits(100)
+                .lowStockProducts(2)
+                .outOfStockProducts(1)
+                .build();
+    }
+
+    private static StockUpdatedEvent sale(String sku, int previous, int next) {
+        return StockUpdatedEvent.builder().sku(sku).previousQuantity(previous).newQuantity(next).minThreshold(10)
+                .changeAmount(next - previous).reason(StockUpdatedEvent.StockChangeReason.SALE).build();
+    }
+
     @Test
     @DisplayName("should rebuild summary from source of truth when projection does not exist")
     void shouldRebuildSummaryWhenMissing() {
@@ -53,15 +87,7 @@ class InventorySummaryProjectionServiceTest {
     @Test
     @DisplayName("should apply stock update delta to projection counters")
     void shouldApplyStockUpdateDelta() {
-        InventorySummaryProjection projection = InventorySummaryProjection.builder()
-                .id(1L)
-                .totalProducts(10)
-                .totalStockUnits(100)
-                .lowStockProducts(2)
-                .outOfStockProducts(1)
-                .build();
-        when(projectionRepository.findById(1L)).thenReturn(Optional.of(projection));
-        when(stockReportRepository.count()).thenReturn(10L);
+        when(projectionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(projection()));
         when(projectionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         StockUpdatedEvent event = StockUpdatedEvent.builder()
@@ -74,14 +100,123 @@ class InventorySummaryProjectionServiceTest {
                 .reason(StockUpdatedEvent.StockChangeReason.RESTOCK)
                 .build();
 
-        InventoryReportDTO summary = service.applyStockUpdate(event);
+        InventoryReportDTO summary = service.applyStockUpdates(List.of(update(0, 0L, event)));
 
         assertThat(summary.getTotalStockUnits()).isEqualTo(105);
         assertThat(summary.getLowStockProducts()).isEqualTo(2);
         assertThat(summary.getOutOfStockProducts()).isZero();
+        assertThat(summary.getTotalProducts()).isEqualTo(10);
 
         ArgumentCaptor<InventorySummaryProjection> captor = ArgumentCaptor.forClass(InventorySummaryProjection.class);
         verify(projectionRepository).save(captor.capture());
         assertThat(captor.getValue().getUpdatedAt()).isNotNull();
+        verifyNoInteractions(stockReportRepository);
+    }
+
+    @Test
+    @DisplayName("should move totalProducts with INITIAL and REMOVED events")
+    void shouldTrackProductsFromLifecycleEvents() {
+        when(projectionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(projection()));
+        when(projectionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        InventoryReportDTO summary = service.applyStockUpdates(List.of(
+                update(0, 0L, StockUpdatedEvent.builder().sku("NEW-1").previousQuantity(0).newQuantity(0)
+                        .minThreshold(10).reason(StockUpdatedEvent.StockChangeReason.INITIAL).build()),
+                update(0, 1L, StockUpdatedEvent.builder().sku("NEW-2").previousQuantity(0).newQuantity(40)
+                        .minThreshold(10).reason(StockUpdatedEvent.StockChangeReason.INITIAL).build()),
+                update(0, 2L, StockUpdatedEvent.builder().sku("OLD-1").previousQuantity(5).newQuantity(0)
+                        .minThreshold(10).reason(StockUpdatedEvent.StockChangeReason.REMOVED).build())));
+
+        assertThat(summary.getTotalProducts()).isEqualTo(11);
+        assertThat(summary.getTotalStockUnits()).isEqualTo(135);
+        assertThat(summary.getLowStockProducts()).isEqualTo(2);
+        assertThat(summary.getOutOfStockProducts()).isEqualTo(2);
+        verifyNoInteractions(stockReportRepository);
+    }
+
+    @Nested
+    @DisplayName("applied offsets")
+    class AppliedOffsets {
+
+        @Test
+        @DisplayName("should skip updates at or below the offset applied from their partition")
+        void shouldSkipAppliedUpdates() {
+            when(projectionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(projection()));
+            when(appliedOffsetRepository.findByTopicIn(any())).thenReturn(List.of(
+                    new ReportAppliedOffset(TOPIC, 0, 41L, LocalDateTime.now())));
+            when(projectionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            InventoryReportDTO summary = service.applyStockUpdates(List.of(
+                    update(0, 40L, sale("PROD-1", 50, 45)),
+                    update(0, 41L, sale("PROD-1", 45, 40)),
+                    update(0, 42L, sale("PROD-1", 40, 30))));
+
+            assertThat(summary.getTotalStockUnits()).isEqualTo(90);
+            verify(appliedOffsetRepository).advance(TOPIC, 0, 42L);
+        }
+
+        @Test
+        @DisplayName("should store the highest applied offset of each partition")
+        void shouldAdvanceEachPartition() {
+            when(projectionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(projection()));
+            when(projectionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            service.applyStockUpdates(List.of(
+                    update(0, 7L, sale("PROD-1", 50, 45)),
+                    update(2, 3L, sale("PROD-2", 20, 15)),
+                    update(0, 8L, sale("PROD-1", 45, 40))));
+
+            verify(appliedOffsetRepository).advance(TOPIC, 0, 8L);
+            verify(appliedOffsetRepository).advance(TOPIC, 2, 3L);
+        }
+
+        @Test
+        @DisplayName("should not write when the whole poll was already applied")
+        void shouldSkipRedeliveredPoll() {
+            when(projectionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(projection()));
+            when(appliedOffsetRepository.findByTopicIn(any())).thenReturn(List.of(
+                    new ReportAppliedOffset(TOPIC, 0, 8L, LocalDateTime.now())));
+
+            InventoryReportDTO summary = service.applyStockUpdates(List.of(
+                    update(0, 7L, sale("PROD-1", 50, 45)),
+                    update(0, 8L, sale("PROD-1", 45, 40))));
+
+            assertThat(summary.getTotalStockUnits()).isEqualTo(100);
+            verify(projectionRepository, never()).save(any());
+            verify(appliedOffsetRepository, never()).advance(anyString(), anyInt(), anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcileTotalProducts")
+    class ReconcileTotalProducts {
+
+        @Test
+        @DisplayName("should reset totalProducts to the stock row count when it drifted")
+        void shouldCorrectDrift() {
+            InventorySummaryProjection projection = InventorySummaryProjection.builder()
+                    .id(1L).totalProducts(12).totalStockUnits(100).build();
+            when(stockReportRepository.count()).thenReturn(10L);
+            when(projectionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(projection));
+
+            service.reconcileTotalProducts();
+
+            verify(projectionRepository).save(projection);
+            assertThat(projection.getTotalProducts()).isEqualTo(10);
+            assertThat(projection.getTotalStockUnits()).isEqualTo(100);
+        }
+
+        @Test
+        @DisplayName("should not write when totalProducts matches")
+        void shouldSkipWhenInSync() {
+            InventorySummaryProjection projection = InventorySummaryProjection.builder()
+                    .id(1L).totalProducts(10).build();
+            when(stockReportRepository.count()).thenReturn(10L);
+            when(projectionRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(projection));
+
+            service.reconcileTotalProducts();
+
+            verify(projectionRepository, never()).save(any());
+        }
     }
 }
@@ -1,5 +1,7 @@
 package com.inventory.reporting.service;
 
+import com.inventory.common.export.ExportFormat;
+import com.inventory.common.export.JdbcStreamingExporter;
 import com.inventory.reporting.dto.EventHistoryDTO;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.dto.StockLevelDTO;
@@ -19,6 +21,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -38,6 +41,9 @@ class ReportServiceTest {
     @Mock
     private InventorySummaryProjectionService summaryProjectionService;
 
+    @Mock
+    private JdbcStreamingExporter jdbcStreamingExporter;
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
@@ -105,6 +111,41 @@ class ReportServiceTest {
 
     }
 
+    @Nested
+    @DisplayName("getStockLevelsBySkus")
+    class GetStockLevelsBySkus {
+
+        @Test
+        @DisplayName("should return the stock levels of the requested SKUs")
+        void shouldReturnRequestedStockLevels() {
+            StockView stock = createStockView(1L, 100L, "PROD-001", 5, 10);
+            when(stockReportRepository.findBySkuIn(List.of("PROD-001", "PROD-404"))).thenReturn(List.of(stock));
+
+            List<StockLevelDTO> result = reportService.getStockLevelsBySkus(List.of("PROD-001", "PROD-404"));
+
+            assertThat(result).hasSize(1);
+            assertThat(result.getFirst().getSku()).isEqualTo("PROD-001");
+            assertThat(result.getFirst().isLowStock()).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("exportStockLevels")
+    class ExportStockLevels {
+
+        @Test
+        @DisplayName("should stream the stock table through the cursor exporter")
+        void shouldDelegateToExporter() throws Exception {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            when(jdbcStreamingExporter.export(ReportServiceImpl.EXPORT_STOCK_LEVELS_SQL, ExportFormat.NDJSON, out))
+                    .thenReturn(2L);
+
+            long rows = reportService.exportStockLevels(ExportFormat.NDJSON, out);
+
+            assertThat(rows).isEqualTo(2L);
+        }
+    }
+
     @Nested
     @DisplayName("getLowStockProducts")
     class GetLowStockProducts {
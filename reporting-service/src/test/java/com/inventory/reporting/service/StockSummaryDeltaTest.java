@@ -0,0 +1,59 @@
+package com.inventory.reporting.service;
+
+import com.inventory.common.event.StockUpdatedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockSummaryDeltaTest {
+
+    private static StockUpdatedEvent update(String sku, int previous, int next, int minThreshold) {
+        return StockUpdatedEvent.builder()
+                .productId(1L)
+                .sku(sku)
+                .previousQuantity(previous)
+                .newQuantity(next)
+                .minThreshold(minThreshold)
+                .changeAmount(next - previous)
+                .reason(StockUpdatedEvent.StockChangeReason.ADJUSTMENT)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should net a SKU's transitions across the poll")
+    void shouldNetTransitionsPerSku() {
+        StockSummaryDelta delta = new StockSummaryDelta();
+        delta.add(update("PROD-1", 20, 0, 10));
+        delta.add(update("PROD-1", 0, 5, 10));
+        delta.add(update("PROD-1", 5, 30, 10));
+
+        assertThat(delta.units()).isEqualTo(10);
+        assertThat(delta.lowStockTransitions()).isZero();
+        assertThat(delta.outOfStockTransitions()).isZero();
+        assertThat(delta.skus()).isEqualTo(1);
+        assertThat(delta.events()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should count SKUs entering and leaving low and out of stock")
+    void shouldCountTransitionsAcrossSkus() {
+        StockSummaryDelta delta = new StockSummaryDelta();
+        delta.add(update("PROD-1", 20, 8, 10));
+        delta.add(update("PROD-2", 15, 0, 10));
+        delta.add(update("PROD-3", 0, 50, 10));
+
+        assertThat(delta.units()).isEqualTo(-12 - 15 + 50);
+        assertThat(delta.lowStockTransitions()).isEqualTo(1 + 1 - 1);
+        assertThat(delta.outOfStockTransitions()).isEqualTo(1 - 1);
+    }
+
+    @Test
+    @DisplayName("should use the default threshold of 10 when the event has none")
+    void shouldDefaultThreshold() {
+        StockSummaryDelta delta = new StockSummaryDelta();
+        delta.add(update("PROD-1", 11, 10, 0));
+
+        assertThat(delta.lowStockTransitions()).isEqualTo(1);
+    }
+}
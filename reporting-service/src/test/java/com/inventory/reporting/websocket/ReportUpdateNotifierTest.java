@@ -1,29 +1,66 @@
 package com.inventory.reporting.websocket;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.common.websocket.StockFilterIndex;
+import com.inventory.common.websocket.StompReplayBuffer;
+import com.inventory.common.websocket.StompSubscriptionRegistry;
 import com.inventory.reporting.dto.InventoryReportDTO;
 import com.inventory.reporting.dto.StockLevelDTO;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
-import static org.mockito.Mockito.verify;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ReportUpdateNotifierTest {
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private StompReplayBuffer replayBuffer;
+
+    @Mock
+    private StompSubscriptionRegistry subscriptionRegistry;
+
+    @Mock
+    private StockFilterIndex filterIndex;
 
-    @InjectMocks
+    private final ObjectMapper objectMapper = new ObjectMapper();
     private ReportUpdateNotifier reportUpdateNotifier;
 
+    @BeforeEach
+    void setUp() {
+        reportUpdateNotifier = new ReportUpdateNotifier(replayBuffer, subscriptionRegistry, filterIndex, objectMapper);
+    }
+
+    private StockLevelDTO stockLevel() {
+        return StockLevelDTO.builder()
+                .productId(2L)
+                .sku("ELEC-042")
+                .quantity(8)
+                .lowStock(true)
+                .build();
+    }
+
+    private byte[] sentTo(String destination) {
+        ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+        verify(replayBuffer).send(eq(destination), captor.capture());
+        return captor.getValue();
+    }
+
     @Test
     @DisplayName("should send inventory summary to reports summary topic")
-    void shouldSendSummaryToTopic() {
+    void shouldSendSummaryToTopic() throws Exception {
+        when(subscriptionRegistry.hasSubscribers("/topic/reports/summary")).thenReturn(true);
         InventoryReportDTO summary = InventoryReportDTO.builder()
                 .totalProducts(100)
                 .totalStockUnits(5000)
@@ -33,22 +70,64 @@ class ReportUpdateNotifierTest {
 
         reportUpdateNotifier.notifySummaryUpdate(summary);
 
-        verify(messagingTemplate).convertAndSend("/topic/reports/summary", summary);
+        JsonNode sent = objectMapper.readTree(sentTo("/topic/reports/summary"));
+        assertThat(sent.get("totalProducts").asLong()).isEqualTo(100);
     }
 
     @Test
-    @DisplayName("should send stock level to both global and SKU-specific topics")
-    void shouldSendStockLevelToBothTopics() {
-        StockLevelDTO stockLevel = StockLevelDTO.builder()
-                .productId(2L)
-                .sku("ELEC-042")
-                .quantity(8)
-                .lowStock(true)
-                .build();
+    @DisplayName("should send stock level to both topics, serialized once")
+    void shouldSendStockLevelToBothTopics() throws Exception {
+        when(subscriptionRegistry.hasSubscribers(anyString())).thenReturn(true);
+
+        reportUpdateNotifier.notifyStockLevelChange(stockLevel());
+
+        byte[] broadcast = sentTo("/topic/reports/stock-levels");
+        byte[] perSku = sentTo("/topic/reports/stock-levels/ELEC-042");
+        assertThat(perSku).isSameAs(broadcast);
+        assertThat(objectMapper.readTree(perSku).get("sku").asText()).isEqualTo("ELEC-042");
+    }
+
+    @Test
+    @DisplayName("should send only to the SKU topic when nobody watches the broadcast topic")
+    void shouldSendOnlyToWatchedTopic() {
+        when(subscriptionRegistry.hasSubscribers("/topic/reports/stock-levels")).thenReturn(false);
+        when(subscriptionRegistry.hasSubscribers("/topic/reports/stock-levels/ELEC-042")).thenReturn(true);
+
+        reportUpdateNotifier.notifyStockLevelChange(stockLevel());
+
+        sentTo("/topic/reports/stock-levels/ELEC-042");
+        verifyNoMoreInteractions(replayBuffer);
+    }
+
+    @Test
+    @DisplayName("should do nothing when nobody is subscribed")
+    void shouldSkipWhenUnwatched() {
+        when(filterIndex.isEmpty()).thenReturn(true);
+
+        reportUpdateNotifier.notifyStockLevelChange(stockLevel());
+        reportUpdateNotifier.notifySummaryUpdate(InventoryReportDTO.builder().build());
+
+        assertThat(reportUpdateNotifier.isStockLevelWatched("ELEC-042")).isFalse();
+        verifyNoInteractions(replayBuffer);
+    }
+
+    @Test
+    @DisplayName("should send the stock level to every matching filtered topic")
+    void shouldSendToMatchingFilters() throws Exception {
+        String lowStock = "/topic/reports/stock-levels/filtered/lowStock=true";
+        when(filterIndex.matching("ELEC-042", 8, 0)).thenReturn(List.of(lowStock));
+
+        reportUpdateNotifier.notifyStockLevelChange(stockLevel());
 
-        reportUpdateNotifier.notifyStockLevelChange(stockLevel);
+        assertThat(objectMapper.readTree(sentTo(lowStock)).get("sku").asText()).isEqualTo("ELEC-042");
+        verifyNoMoreInteractions(replayBuffer);
+    }
+
+    @Test
+    @DisplayName("should treat any subscribed filter as a possible watcher")
+    void shouldReportWatchedWhileFiltersExist() {
+        when(filterIndex.isEmpty()).thenReturn(false);
 
-        verify(messagingTemplate).convertAndSend("/topic/reports/stock-levels", stockLevel);
-        verify(messagingTemplate).convertAndSend("/topic/reports/stock-levels/ELEC-042", stockLevel);
+        assertThat(reportUpdateNotifier.isStockLevelWatched("ELEC-042")).isTrue();
     }
 }